@@ -0,0 +1,106 @@
+package de.textmode.ipdsbox.io;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link SingleByteCodec} with the {@link Charset} for decoding and encoding the short
+ * EBCDIC and ASCII fields of IPDS (setup names, resource names, group IDs and so on).
+ *
+ * <p>Run the benchmark with
+ * <code>gradle jmh -Pjmh.includes=SingleByteCodecBenchmark -Pjmh.profilers=gc</code> to compare
+ * the allocated bytes per operation as well (<code>gc.alloc.rate.norm</code>).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingleByteCodecBenchmark {
+
+    @Param({"ibm-500", "ibm-850"})
+    public String charsetName;
+
+    @Param({"8", "64"})
+    public int length;
+
+    private Charset charset;
+    private SingleByteCodec codec;
+    private String text;
+    private byte[] encoded;
+    private final StringBuilder reused = new StringBuilder();
+
+    /**
+     * Builds the field to decode and encode.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        this.charset = Charset.forName(this.charsetName);
+        this.codec = SingleByteCodec.forCharset(this.charset);
+
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < this.length) {
+            sb.append("SETUP NAME 0123456789 ");
+        }
+
+        this.text = sb.substring(0, this.length);
+        this.encoded = this.text.getBytes(this.charset);
+    }
+
+    /**
+     * Decodes the field with the {@link Charset}.
+     */
+    @Benchmark
+    public String decodeCharset() {
+        return new String(this.encoded, 0, this.encoded.length, this.charset);
+    }
+
+    /**
+     * Decodes the field with the {@link SingleByteCodec} to a new {@link String}.
+     */
+    @Benchmark
+    public String decodeTable() {
+        return this.codec.decode(this.encoded, 0, this.encoded.length);
+    }
+
+    /**
+     * Decodes the field with the {@link SingleByteCodec} into a reused {@link StringBuilder}.
+     */
+    @Benchmark
+    public StringBuilder decodeTableIntoStringBuilder() {
+        this.reused.setLength(0);
+        this.codec.decode(this.encoded, 0, this.encoded.length, this.reused);
+        return this.reused;
+    }
+
+    /**
+     * Encodes the field with the {@link Charset}.
+     */
+    @Benchmark
+    public byte[] encodeCharset() {
+        return this.text.getBytes(this.charset);
+    }
+
+    /**
+     * Encodes the field with the {@link SingleByteCodec} into a reused byte array.
+     */
+    @Benchmark
+    public byte[] encodeTable() {
+        this.codec.encode(this.text, 0, this.text.length(), this.encoded, 0);
+        return this.encoded;
+    }
+}
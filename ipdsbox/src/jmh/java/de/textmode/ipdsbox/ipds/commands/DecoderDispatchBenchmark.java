@@ -0,0 +1,127 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeReply;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the dispatch by the {@link de.textmode.ipdsbox.core.DecoderTable} of the {@link IpdsCommandFactory}
+ * with the <code>switch</code> on the {@link IpdsCommandId} the {@link IpdsCommandFactory} used before.
+ *
+ * <p>Both benchmarks decode all commands of the data set without keeping the original encoded data, so the
+ * difference is the cost of the dispatch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecoderDispatchBenchmark {
+
+    private static final DecoderContext CONTEXT = DecoderContext.getDefault();
+
+    private static final String[] COMMANDS = {
+        "0005D60300",
+        "0007D603401234",
+        "0005D69700",
+        "0005D6E480",
+        "000BD68F00040000010200",
+        "000DD608000000060100AB01F4",
+        "000FD66D0000000064000000C80000",
+        "0005D61180",
+    };
+
+    private byte[][] commands;
+
+    /**
+     * Builds the data set.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        this.commands = new byte[COMMANDS.length][];
+        for (int ix = 0; ix < COMMANDS.length; ++ix) {
+            this.commands[ix] = HexFormat.of().parseHex(COMMANDS[ix]);
+        }
+    }
+
+    /**
+     * Decodes all commands with the {@link de.textmode.ipdsbox.core.DecoderTable}.
+     */
+    @Benchmark
+    public void decoderTable(final Blackhole bh) throws IOException, InvalidIpdsCommandException {
+        for (final byte[] command : this.commands) {
+            final IpdsInputStream ipds = new IpdsByteArrayInputStream(command);
+            ipds.skip(2);
+            bh.consume(CONTEXT.getCommands().decode(ipds, ipds.readUnsignedInteger16(), CONTEXT));
+        }
+    }
+
+    /**
+     * Decodes all commands with a <code>switch</code> on the {@link IpdsCommandId}.
+     */
+    @Benchmark
+    public void switchStatement(final Blackhole bh) throws IOException, InvalidIpdsCommandException {
+        for (final byte[] command : this.commands) {
+            final IpdsInputStream ipds = new IpdsByteArrayInputStream(command);
+            ipds.skip(2);
+            bh.consume(decodeWithSwitch(ipds, ipds.readUnsignedInteger16()));
+        }
+    }
+
+    private static IpdsCommand decodeWithSwitch(
+            final IpdsInputStream ipds,
+            final int commandIdValue) throws IOException, InvalidIpdsCommandException {
+
+        final IpdsCommandId commandId = IpdsCommandId.getIfKnown(commandIdValue);
+
+        if (commandId == null) {
+            return new UnknownIpdsCommand(ipds, commandIdValue);
+        }
+
+        return switch (commandId) {
+            case ACK -> new AcknowledgeReply(ipds, CONTEXT);
+            case AR -> new ActivateResourceCommand(ipds, CONTEXT);
+            case BP -> new BeginPageCommand(ipds);
+            case DF -> new DeactivateFontCommand(ipds);
+            case DUA -> new DefineUserAreaCommand(ipds);
+            case END -> new EndCommand(ipds);
+            case EP -> new EndPageCommand(ipds);
+            case ICMR -> new InvokeCmrCommand(ipds);
+            case ISP -> new IncludeSavedPageCommand(ipds, CONTEXT);
+            case LCC -> new LoadCopyControlCommand(ipds);
+            case LFE -> new LoadFontEquivalenceCommand(ipds);
+            case LPD -> new LogicalPageDescriptorCommand(ipds, CONTEXT);
+            case LPP -> new LogicalPagePositionCommand(ipds);
+            case MID -> new ManageIpdsDialogCommand(ipds);
+            case NOP -> new NoOperationCommand(ipds);
+            case PFC -> new PresentationFidelityControlCommand(ipds, CONTEXT);
+            case SHS -> new SetHomeStateCommand(ipds);
+            case SPE -> new SetPresentationEnvironmentCommand(ipds, CONTEXT);
+            case STM -> new SenseTypeAndModelCommand(ipds);
+            case WT -> new WriteTextCommand(ipds);
+            case XOA -> new ExecuteOrderAnyStateCommand(ipds, CONTEXT);
+            case XOH -> new ExecuteOrderHomeStateCommand(ipds, CONTEXT);
+
+            default -> new UnknownIpdsCommand(ipds, commandIdValue);
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the single-pass encoding of {@link IpdsCommand#writeTo(IpdsByteArrayOutputStream)} with the
+ * former two-pass encoding, which wrote the data of the command to a temporary stream, copied it out of
+ * the temporary stream and copied it again to the destination.
+ *
+ * <p>The auxiliary counter shows the number of bytes copied per command. The allocated bytes per command
+ * are shown by the GC profiler, i. e. run the benchmark with
+ * <code>gradle jmh -Pjmh.includes=IpdsCommandEncodingBenchmark -Pjmh.profilers=gc</code> and compare
+ * <code>gc.alloc.rate.norm</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IpdsCommandEncodingBenchmark {
+
+    @Param({"WT_SMALL", "WT_32K", "LPD"})
+    public String command;
+
+    private IpdsCommand ipdsCommand;
+
+    /**
+     * Auxiliary counters that show the bytes copied per encoded command.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Copies {
+
+        /**
+         * Number of bytes copied.
+         */
+        public long copiedBytes;
+    }
+
+    /**
+     * Builds the {@link IpdsCommand} to encode.
+     */
+    @Setup(Level.Trial)
+    public void buildCommand() throws Exception {
+        switch (this.command) {
+        case "WT_SMALL":
+            this.ipdsCommand = new WriteTextCommand(new byte[200]);
+            break;
+
+        case "WT_32K":
+            this.ipdsCommand = new WriteTextCommand(new byte[32 * 1024]);
+            break;
+
+        default:
+            final LogicalPageDescriptorCommand lpd = new LogicalPageDescriptorCommand();
+            lpd.getTriplets().add(TripletFactory.create(HexFormat.of().parseHex("060100AB01F4")));
+            lpd.getTriplets().add(TripletFactory.create(HexFormat.of().parseHex("0A9A0000000009600960")));
+            this.ipdsCommand = lpd;
+            break;
+        }
+    }
+
+    /**
+     * Encodes the {@link IpdsCommand} in one pass.
+     */
+    @Benchmark
+    public byte[] singlePass(final Copies copies) throws IOException, InvalidIpdsCommandException {
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        this.ipdsCommand.writeTo(out);
+
+        copies.copiedBytes += out.getSize();
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes the {@link IpdsCommand} like it has been done before the encoded length was known in advance.
+     */
+    @Benchmark
+    public byte[] twoPass(final Copies copies) throws IOException, InvalidIpdsCommandException {
+        final IpdsByteArrayOutputStream dataStream = new IpdsByteArrayOutputStream();
+        this.ipdsCommand.writeDataTo(dataStream);
+        final byte[] data = dataStream.toByteArray();
+
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        out.writeUnsignedInteger16(5 + data.length);
+        out.writeUnsignedInteger16(this.ipdsCommand.getCommandCodeId());
+        out.writeUnsignedByte(this.ipdsCommand.getCommandFlags().getFlags());
+        out.writeBytes(data);
+
+        // The data is written to the temporary stream, copied out of it and copied to the destination...
+        copies.copiedBytes += out.getSize() + data.length * 2L;
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,146 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.ipds.triplets.TripletId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the lookup tables of {@link IpdsCommandId#getIfKnown(int)} and {@link TripletId#getIfKnown(int)} with
+ * a {@link HashMap} (the former implementation, which boxes the code for every lookup) and measures the full
+ * dispatch of {@link IpdsCommandFactory#create(byte[])} with and without the {@link HashMap} lookup.
+ *
+ * <p>Every benchmark processes all codes (known and unknown ones) or all commands of the data set, so
+ * the results are per data set and not per lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryLookupBenchmark {
+
+    private static final String[] COMMANDS = {
+        "0005D60300",
+        "0007D603401234",
+        "0005D69700",
+        "0005D6E480",
+        "000BD68F00040000010200",
+        "000DD608000000060100AB01F4",
+        "000FD66D0000000064000000C80000",
+        "0005D61180",
+    };
+
+    private final Map<Integer, IpdsCommandId> commandIdMap = new HashMap<>();
+    private final Map<Integer, TripletId> tripletIdMap = new HashMap<>();
+
+    private int[] commandIds;
+    private int[] tripletIds;
+    private byte[][] commands;
+
+    /**
+     * Builds the data set and the {@link HashMap}s.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        for (final IpdsCommandId id : IpdsCommandId.values()) {
+            this.commandIdMap.put(id.getValue(), id);
+        }
+
+        for (final TripletId id : TripletId.values()) {
+            this.tripletIdMap.put(id.getId(), id);
+        }
+
+        this.commandIds = new int[256];
+        this.tripletIds = new int[256];
+        for (int ix = 0; ix < 256; ++ix) {
+            this.commandIds[ix] = 0xD600 | ix;
+            this.tripletIds[ix] = ix;
+        }
+
+        this.commands = new byte[COMMANDS.length][];
+        for (int ix = 0; ix < COMMANDS.length; ++ix) {
+            this.commands[ix] = HexFormat.of().parseHex(COMMANDS[ix]);
+        }
+    }
+
+    /**
+     * Looks up all command codes with the lookup table.
+     */
+    @Benchmark
+    public void commandIdTable(final Blackhole bh) {
+        for (final int id : this.commandIds) {
+            bh.consume(IpdsCommandId.getIfKnown(id));
+        }
+    }
+
+    /**
+     * Looks up all command codes with the {@link HashMap}.
+     */
+    @Benchmark
+    public void commandIdHashMap(final Blackhole bh) {
+        for (final int id : this.commandIds) {
+            bh.consume(this.commandIdMap.get(id));
+        }
+    }
+
+    /**
+     * Looks up all triplet ids with the lookup table.
+     */
+    @Benchmark
+    public void tripletIdTable(final Blackhole bh) {
+        for (final int id : this.tripletIds) {
+            bh.consume(TripletId.getIfKnown(id));
+        }
+    }
+
+    /**
+     * Looks up all triplet ids with the {@link HashMap}.
+     */
+    @Benchmark
+    public void tripletIdHashMap(final Blackhole bh) {
+        for (final int id : this.tripletIds) {
+            bh.consume(this.tripletIdMap.get(id));
+        }
+    }
+
+    /**
+     * Decodes all commands with the {@link IpdsCommandFactory}.
+     */
+    @Benchmark
+    public void factoryDispatch(final Blackhole bh) throws IOException, InvalidIpdsCommandException {
+        for (final byte[] command : this.commands) {
+            bh.consume(IpdsCommandFactory.create(command));
+        }
+    }
+
+    /**
+     * Decodes all commands with the {@link IpdsCommandFactory} and performs the {@link HashMap} lookup the
+     * {@link IpdsCommandFactory} performed before additionally, so the difference to
+     * {@link #factoryDispatch(Blackhole)} is the cost of the {@link HashMap} lookup within the full dispatch.
+     */
+    @Benchmark
+    public void factoryDispatchWithHashMap(final Blackhole bh) throws IOException, InvalidIpdsCommandException {
+        for (final byte[] command : this.commands) {
+            bh.consume(this.commandIdMap.get(((command[2] & 0xFF) << 8) | (command[3] & 0xFF)));
+            bh.consume(IpdsCommandFactory.create(command));
+        }
+    }
+}
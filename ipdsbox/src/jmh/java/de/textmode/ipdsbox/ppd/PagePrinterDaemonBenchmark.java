@@ -0,0 +1,190 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.textmode.ipdsbox.core.ExecutionMode;
+import de.textmode.ipdsbox.core.LoggerInterface;
+import de.textmode.ipdsbox.ppd.PagePrinterDaemon.DaemonState;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link ExecutionMode}s of the {@link PagePrinterDaemon}. Every invocation establishes the
+ * given number of concurrent sessions, sends some requests on every session and waits until all requests
+ * have been handled. The time of an invocation shows the throughput, the auxiliary counters show the
+ * number of live threads and the used heap while all sessions are established.
+ *
+ * <p>The {@link ExecutionMode#VIRTUAL_THREADS} runs fail if the JVM does not support virtual threads
+ * (Java 21 or later is required), i. e. run the benchmark with
+ * <code>gradle jmh -Pjmh.includes=PagePrinterDaemonBenchmark</code> on a Java 21 toolchain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xss512k"})
+public class PagePrinterDaemonBenchmark {
+
+    private static final int REQUESTS_PER_SESSION = 20;
+
+    private static final byte[] REQUEST = new byte[] {
+        0x00, 0x00, 0x00, 0x10, 0x00, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x02,
+    };
+
+    @Param({"PLATFORM_THREADS", "VIRTUAL_THREADS"})
+    public ExecutionMode mode;
+
+    @Param({"100", "1000", "4000"})
+    public int sessions;
+
+    private final AtomicLong handledRequests = new AtomicLong();
+
+    private ServerSocket serverSocket;
+    private PagePrinterDaemon daemon;
+    private byte[] sessionData;
+
+    /**
+     * Auxiliary counters that show the footprint while all sessions are established.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        /**
+         * Number of live threads.
+         */
+        public long liveThreads;
+
+        /**
+         * Used heap in kilobytes.
+         */
+        public long usedHeapKilobytes;
+    }
+
+    /**
+     * Starts the {@link PagePrinterDaemon}.
+     */
+    @Setup(Level.Trial)
+    public void startDaemon() throws Exception {
+        this.serverSocket = new ServerSocket(0, this.sessions, InetAddress.getLoopbackAddress());
+
+        this.daemon = new PagePrinterDaemonFactory()
+            .serverSocket(this.serverSocket)
+            .logger(new SilentLogger())
+            .pagePrinterRequestHandler(request -> this.handledRequests.incrementAndGet())
+            .executionMode(this.mode)
+            .create();
+
+        this.daemon.startup();
+        this.waitForState(DaemonState.ACCEPTING);
+
+        this.sessionData = new byte[REQUEST.length * REQUESTS_PER_SESSION];
+        for (int ix = 0; ix < REQUESTS_PER_SESSION; ++ix) {
+            System.arraycopy(REQUEST, 0, this.sessionData, ix * REQUEST.length, REQUEST.length);
+        }
+    }
+
+    /**
+     * Shuts down the {@link PagePrinterDaemon}.
+     */
+    @TearDown(Level.Trial)
+    public void stopDaemon() throws Exception {
+        this.daemon.shutdown();
+        this.waitForState(DaemonState.SHUTDOWN_DONE);
+    }
+
+    /**
+     * Establishes all sessions, sends the requests and waits until all requests have been handled.
+     */
+    @Benchmark
+    public void concurrentSessions(final Footprint footprint) throws Exception {
+        final long expected = this.handledRequests.get() + (long) this.sessions * REQUESTS_PER_SESSION;
+        final List<Socket> sockets = new ArrayList<>(this.sessions);
+
+        try {
+            for (int ix = 0; ix < this.sessions; ++ix) {
+                final Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.serverSocket.getLocalPort());
+                sockets.add(socket);
+                socket.getOutputStream().write(this.sessionData);
+            }
+
+            while (this.handledRequests.get() < expected) {
+                Thread.onSpinWait();
+            }
+
+            footprint.liveThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+            footprint.usedHeapKilobytes =
+                    ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024;
+        } finally {
+            for (final Socket socket : sockets) {
+                socket.close();
+            }
+        }
+
+        this.waitForState(DaemonState.ACCEPTING);
+    }
+
+    private void waitForState(final DaemonState state) throws InterruptedException {
+        while (this.daemon.getDaemonState() != state) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * A {@link LoggerInterface} that discards all messages.
+     */
+    private static final class SilentLogger implements LoggerInterface {
+
+        @Override
+        public void debug(final Object message) {
+        }
+
+        @Override
+        public void debug(final Object message, final Throwable t) {
+        }
+
+        @Override
+        public void info(final Object message) {
+        }
+
+        @Override
+        public void info(final Object message, final Throwable t) {
+        }
+
+        @Override
+        public void warn(final Object message) {
+        }
+
+        @Override
+        public void warn(final Object message, final Throwable t) {
+        }
+
+        @Override
+        public void error(final Object message) {
+        }
+
+        @Override
+        public void error(final Object message, final Throwable t) {
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package de.textmode.ipdsbox.core;
+
+import java.io.IOException;
+
+import de.textmode.ipdsbox.io.IpdsInputStream;
+
+/**
+ * A {@link Decoder} decodes an IPDS structure (an IPDS command, a triplet, a self-defining field, an XOA or
+ * XOH order or the data of an Acknowledge Reply) from an {@link IpdsInputStream}. {@link Decoder}s are
+ * registered for a code in a {@link DecoderRegistry}. The {@link DecoderContext} is passed through, so the
+ * IPDS structures contained in the decoded IPDS structure are decoded with the same {@link DecoderTable}s.
+ *
+ * @param <T> the type of the decoded IPDS structure
+ */
+@FunctionalInterface
+public interface Decoder<T> {
+
+    /**
+     * Decodes the IPDS structure. The {@link IpdsInputStream} is positioned behind the code (i. e. behind
+     * the command code of an IPDS command or the ID of a triplet).
+     *
+     * @param ipds the {@link IpdsInputStream} to read from
+     * @param code the code of the IPDS structure
+     * @param context the {@link DecoderContext} for the contained IPDS structures
+     */
+    T decode(
+            final IpdsInputStream ipds,
+            final int code,
+            final DecoderContext context) throws IOException, InvalidIpdsCommandException;
+}
@@ -0,0 +1,205 @@
+package de.textmode.ipdsbox.core;
+
+import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeData;
+import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeDataFactory;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningFieldFactory;
+import de.textmode.ipdsbox.ipds.triplets.Triplet;
+import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
+import de.textmode.ipdsbox.ipds.xoaorders.XoaOrder;
+import de.textmode.ipdsbox.ipds.xoaorders.XoaOrderFactory;
+import de.textmode.ipdsbox.ipds.xohorders.XohOrder;
+import de.textmode.ipdsbox.ipds.xohorders.XohOrderFactory;
+
+/**
+ * The {@link DecoderContext} holds the {@link DecoderTable}s of all IPDS structures (IPDS commands, triplets,
+ * self-defining fields, XOA and XOH orders and the data of Acknowledge Replies). It is passed to every
+ * {@link Decoder}, so an IPDS structure decodes the IPDS structures it contains (i. e. the triplets of an IPDS
+ * command) with the {@link DecoderTable}s of the same {@link DecoderContext}.
+ *
+ * <p>The {@link DecoderContext} returned by {@link #getDefault()} holds the {@link DecoderTable}s of all IPDS
+ * structures supported by ipdsbox. Own {@link Decoder}s (i. e. for vendor-specific triplets) are used by
+ * deriving a {@link DecoderContext} and passing it to the factories:
+ * <pre>
+ * final DecoderContext context = DecoderContext.getDefault().withTriplets(
+ *     TripletFactory.getDefaultDecoders().toRegistry()
+ *         .register(0xF1, (ipds, code, ctx) -&gt; new VendorTriplet(ipds))
+ *         .freeze());
+ *
+ * final IpdsCommand command = IpdsCommandFactory.create(ipds, context);
+ * </pre>
+ *
+ * <p>A {@link DecoderContext} is immutable and thread safe.
+ */
+public final class DecoderContext {
+
+    private static final DecoderContext DEFAULT = new DecoderContext(
+            IpdsCommandFactory.getDefaultDecoders(),
+            TripletFactory.getDefaultDecoders(),
+            SelfDefiningFieldFactory.getDefaultDecoders(),
+            XoaOrderFactory.getDefaultDecoders(),
+            XohOrderFactory.getDefaultDecoders(),
+            AcknowledgeDataFactory.getDefaultDecoders());
+
+    private final DecoderTable<IpdsCommand> commands;
+    private final DecoderTable<Triplet> triplets;
+    private final DecoderTable<SelfDefiningField> selfDefiningFields;
+    private final DecoderTable<XoaOrder> xoaOrders;
+    private final DecoderTable<XohOrder> xohOrders;
+    private final DecoderTable<AcknowledgeData> acknowledgeData;
+
+    private DecoderContext(
+            final DecoderTable<IpdsCommand> commands,
+            final DecoderTable<Triplet> triplets,
+            final DecoderTable<SelfDefiningField> selfDefiningFields,
+            final DecoderTable<XoaOrder> xoaOrders,
+            final DecoderTable<XohOrder> xohOrders,
+            final DecoderTable<AcknowledgeData> acknowledgeData) {
+
+        this.commands = commands;
+        this.triplets = triplets;
+        this.selfDefiningFields = selfDefiningFields;
+        this.xoaOrders = xoaOrders;
+        this.xohOrders = xohOrders;
+        this.acknowledgeData = acknowledgeData;
+    }
+
+    /**
+     * Returns the {@link DecoderContext} with the {@link DecoderTable}s of all IPDS structures supported
+     * by ipdsbox.
+     */
+    public static DecoderContext getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the {@link DecoderTable} of the {@link IpdsCommand}s.
+     */
+    public DecoderTable<IpdsCommand> getCommands() {
+        return this.commands;
+    }
+
+    /**
+     * Returns a {@link DecoderContext} that decodes the {@link IpdsCommand}s with the given {@link DecoderTable}.
+     */
+    public DecoderContext withCommands(final DecoderTable<IpdsCommand> decoderTable) {
+        return new DecoderContext(
+                checkNotNull(decoderTable),
+                this.triplets,
+                this.selfDefiningFields,
+                this.xoaOrders,
+                this.xohOrders,
+                this.acknowledgeData);
+    }
+
+    /**
+     * Returns the {@link DecoderTable} of the {@link Triplet}s.
+     */
+    public DecoderTable<Triplet> getTriplets() {
+        return this.triplets;
+    }
+
+    /**
+     * Returns a {@link DecoderContext} that decodes the {@link Triplet}s with the given {@link DecoderTable}.
+     */
+    public DecoderContext withTriplets(final DecoderTable<Triplet> decoderTable) {
+        return new DecoderContext(
+                this.commands,
+                checkNotNull(decoderTable),
+                this.selfDefiningFields,
+                this.xoaOrders,
+                this.xohOrders,
+                this.acknowledgeData);
+    }
+
+    /**
+     * Returns the {@link DecoderTable} of the {@link SelfDefiningField}s.
+     */
+    public DecoderTable<SelfDefiningField> getSelfDefiningFields() {
+        return this.selfDefiningFields;
+    }
+
+    /**
+     * Returns a {@link DecoderContext} that decodes the {@link SelfDefiningField}s with the given
+     * {@link DecoderTable}.
+     */
+    public DecoderContext withSelfDefiningFields(final DecoderTable<SelfDefiningField> decoderTable) {
+        return new DecoderContext(
+                this.commands,
+                this.triplets,
+                checkNotNull(decoderTable),
+                this.xoaOrders,
+                this.xohOrders,
+                this.acknowledgeData);
+    }
+
+    /**
+     * Returns the {@link DecoderTable} of the {@link XoaOrder}s.
+     */
+    public DecoderTable<XoaOrder> getXoaOrders() {
+        return this.xoaOrders;
+    }
+
+    /**
+     * Returns a {@link DecoderContext} that decodes the {@link XoaOrder}s with the given {@link DecoderTable}.
+     */
+    public DecoderContext withXoaOrders(final DecoderTable<XoaOrder> decoderTable) {
+        return new DecoderContext(
+                this.commands,
+                this.triplets,
+                this.selfDefiningFields,
+                checkNotNull(decoderTable),
+                this.xohOrders,
+                this.acknowledgeData);
+    }
+
+    /**
+     * Returns the {@link DecoderTable} of the {@link XohOrder}s.
+     */
+    public DecoderTable<XohOrder> getXohOrders() {
+        return this.xohOrders;
+    }
+
+    /**
+     * Returns a {@link DecoderContext} that decodes the {@link XohOrder}s with the given {@link DecoderTable}.
+     */
+    public DecoderContext withXohOrders(final DecoderTable<XohOrder> decoderTable) {
+        return new DecoderContext(
+                this.commands,
+                this.triplets,
+                this.selfDefiningFields,
+                this.xoaOrders,
+                checkNotNull(decoderTable),
+                this.acknowledgeData);
+    }
+
+    /**
+     * Returns the {@link DecoderTable} of the {@link AcknowledgeData} (keyed by the acknowledge type).
+     */
+    public DecoderTable<AcknowledgeData> getAcknowledgeData() {
+        return this.acknowledgeData;
+    }
+
+    /**
+     * Returns a {@link DecoderContext} that decodes the {@link AcknowledgeData} with the given
+     * {@link DecoderTable}.
+     */
+    public DecoderContext withAcknowledgeData(final DecoderTable<AcknowledgeData> decoderTable) {
+        return new DecoderContext(
+                this.commands,
+                this.triplets,
+                this.selfDefiningFields,
+                this.xoaOrders,
+                this.xohOrders,
+                checkNotNull(decoderTable));
+    }
+
+    private static <T> DecoderTable<T> checkNotNull(final DecoderTable<T> decoderTable) {
+        if (decoderTable == null) {
+            throw new IllegalArgumentException("The decoder table must not be null");
+        }
+        return decoderTable;
+    }
+}
@@ -0,0 +1,119 @@
+package de.textmode.ipdsbox.core;
+
+import java.util.Arrays;
+
+/**
+ * The {@link DecoderRegistry} maps the codes of IPDS structures (i. e. the command codes of IPDS commands or the
+ * IDs of triplets) to the {@link Decoder}s that decode them. A {@link DecoderRegistry} is used for configuration
+ * only: once all {@link Decoder}s are registered, {@link #freeze()} creates the immutable {@link DecoderTable}
+ * that is used for decoding.
+ *
+ * <p>All codes of a {@link DecoderRegistry} have to be distinguishable by one byte of the code (see
+ * {@link #DecoderRegistry(int, Decoder)}), so the {@link DecoderTable} can dispatch with a single array access.
+ *
+ * @param <T> the type of the decoded IPDS structures
+ */
+public final class DecoderRegistry<T> {
+
+    private static final int TABLE_SIZE = 256;
+
+    private final int shift;
+    private final Decoder<T> fallback;
+    private final Decoder<T>[] decoders;
+    private final int[] codes;
+
+    /**
+     * Constructs an empty {@link DecoderRegistry}.
+     *
+     * @param shift the codes are shifted right by this number of bits, the lowest byte of the shifted code is
+     *  the index within the {@link DecoderTable} (i. e. 0 for IPDS commands and triplets, 8 for XOA and XOH orders
+     *  whose second byte is always zero).
+     * @param fallback the {@link Decoder} for all codes no {@link Decoder} is registered for (usually the
+     *  <code>Unknown*</code> IPDS structure).
+     */
+    public DecoderRegistry(final int shift, final Decoder<T> fallback) {
+        this(shift, fallback, newDecoderArray(), new int[TABLE_SIZE]);
+    }
+
+    /**
+     * Constructs a {@link DecoderRegistry} with the given entries (which are copied).
+     */
+    DecoderRegistry(final int shift, final Decoder<T> fallback, final Decoder<T>[] decoders, final int[] codes) {
+        if (shift < 0 || shift > 24) {
+            throw new IllegalArgumentException("Invalid shift " + shift);
+        }
+        if (fallback == null) {
+            throw new IllegalArgumentException("The fallback decoder must not be null");
+        }
+
+        this.shift = shift;
+        this.fallback = fallback;
+        this.decoders = Arrays.copyOf(decoders, TABLE_SIZE);
+        this.codes = Arrays.copyOf(codes, TABLE_SIZE);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Decoder<T>[] newDecoderArray() {
+        return new Decoder[TABLE_SIZE];
+    }
+
+    /**
+     * Registers the {@link Decoder} for the given code. An already registered {@link Decoder} for the
+     * same code is replaced.
+     *
+     * @return this {@link DecoderRegistry}
+     *
+     * @throws IllegalArgumentException if the code is negative or if a {@link Decoder} for a different code
+     *  with the same index (see {@link #DecoderRegistry(int, Decoder)}) is registered.
+     */
+    public DecoderRegistry<T> register(final int code, final Decoder<T> decoder) {
+        if (code < 0) {
+            throw new IllegalArgumentException("Invalid code " + Integer.toHexString(code));
+        }
+        if (decoder == null) {
+            throw new IllegalArgumentException("The decoder must not be null");
+        }
+
+        final int index = (code >>> this.shift) & 0xFF;
+        if (this.decoders[index] != null && this.codes[index] != code) {
+            throw new IllegalArgumentException("The code " + Integer.toHexString(code)
+                    + " collides with the registered code " + Integer.toHexString(this.codes[index]));
+        }
+
+        this.decoders[index] = decoder;
+        this.codes[index] = code;
+        return this;
+    }
+
+    /**
+     * Removes the {@link Decoder} for the given code, so the IPDS structure is decoded by the fallback
+     * {@link Decoder}.
+     *
+     * @return this {@link DecoderRegistry}
+     */
+    public DecoderRegistry<T> unregister(final int code) {
+        final int index = (code >>> this.shift) & 0xFF;
+        if (this.decoders[index] != null && this.codes[index] == code) {
+            this.decoders[index] = null;
+            this.codes[index] = 0;
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns <code>true</code> if a {@link Decoder} is registered for the given code.
+     */
+    public boolean isRegistered(final int code) {
+        final int index = (code >>> this.shift) & 0xFF;
+        return this.decoders[index] != null && this.codes[index] == code;
+    }
+
+    /**
+     * Creates the immutable {@link DecoderTable} with all {@link Decoder}s that are registered now. The
+     * {@link DecoderRegistry} may be changed afterwards without affecting the {@link DecoderTable}.
+     */
+    public DecoderTable<T> freeze() {
+        return new DecoderTable<>(this.shift, this.fallback, this.decoders, this.codes);
+    }
+}
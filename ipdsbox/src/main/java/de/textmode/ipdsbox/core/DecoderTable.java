@@ -0,0 +1,79 @@
+package de.textmode.ipdsbox.core;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import de.textmode.ipdsbox.io.IpdsInputStream;
+
+/**
+ * The immutable dispatch table of a {@link DecoderRegistry} (see {@link DecoderRegistry#freeze()}).
+ *
+ * <p>The {@link Decoder} for a code is found by a single array access (and a comparison of the code), so
+ * dispatching costs no more than a <code>switch</code> on the code. A {@link DecoderTable} is thread safe.
+ *
+ * @param <T> the type of the decoded IPDS structures
+ */
+public final class DecoderTable<T> {
+
+    private final int shift;
+    private final Decoder<T> fallback;
+    private final Decoder<T>[] decoders;
+    private final int[] codes;
+
+    /**
+     * Constructs the {@link DecoderTable}. The given arrays are copied.
+     */
+    DecoderTable(final int shift, final Decoder<T> fallback, final Decoder<T>[] decoders, final int[] codes) {
+        this.shift = shift;
+        this.fallback = fallback;
+        this.decoders = Arrays.copyOf(decoders, decoders.length);
+        this.codes = Arrays.copyOf(codes, codes.length);
+    }
+
+    /**
+     * Decodes the IPDS structure with the given code by the registered {@link Decoder} (or by the fallback
+     * {@link Decoder} if no {@link Decoder} is registered for the code). The given {@link DecoderContext} is
+     * passed to the {@link Decoder}.
+     */
+    public T decode(
+            final IpdsInputStream ipds,
+            final int code,
+            final DecoderContext context) throws IOException, InvalidIpdsCommandException {
+
+        final int index = (code >>> this.shift) & 0xFF;
+        final Decoder<T> decoder = this.decoders[index];
+
+        if (decoder != null && this.codes[index] == code) {
+            return decoder.decode(ipds, code, context);
+        }
+
+        return this.fallback.decode(ipds, code, context);
+    }
+
+    /**
+     * Returns the {@link Decoder} that decodes the IPDS structure with the given code (the registered
+     * {@link Decoder} or the fallback {@link Decoder} if no {@link Decoder} is registered for the code).
+     */
+    public Decoder<T> getDecoder(final int code) {
+        final int index = (code >>> this.shift) & 0xFF;
+        final Decoder<T> decoder = this.decoders[index];
+
+        return decoder != null && this.codes[index] == code ? decoder : this.fallback;
+    }
+
+    /**
+     * Returns <code>true</code> if a {@link Decoder} is registered for the given code.
+     */
+    public boolean isRegistered(final int code) {
+        final int index = (code >>> this.shift) & 0xFF;
+        return this.decoders[index] != null && this.codes[index] == code;
+    }
+
+    /**
+     * Returns a new {@link DecoderRegistry} with all {@link Decoder}s of this {@link DecoderTable}, so some
+     * {@link Decoder}s can be replaced or added (i. e. for decoding vendor-specific triplets).
+     */
+    public DecoderRegistry<T> toRegistry() {
+        return new DecoderRegistry<>(this.shift, this.fallback, this.decoders, this.codes);
+    }
+}
@@ -0,0 +1,82 @@
+package de.textmode.ipdsbox.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link ExecutionMode} determines on which kind of threads sessions (connections) are executed.
+ *
+ * <p>Virtual threads are available with Java 21 or later only. Because ipdsbox is built for Java 17,
+ * the virtual thread executor is looked up at runtime. Use {@link #isSupported()} to check if the
+ * {@link ExecutionMode} can be used with the running JVM.
+ */
+public enum ExecutionMode {
+
+    /**
+     * Every session runs on its own platform (operating system) thread.
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * Every session runs on its own virtual thread. Requires Java 21 or later.
+     */
+    VIRTUAL_THREADS;
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookupVirtualThreadExecutorFactory();
+
+    /**
+     * Looks up the method <code>Executors.newVirtualThreadPerTaskExecutor()</code>.
+     *
+     * @return the method or <code>null</code> if the running JVM does not support virtual threads.
+     */
+    private static Method lookupVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the {@link ExecutionMode} can be used with the running JVM.
+     */
+    public boolean isSupported() {
+        return this == PLATFORM_THREADS || NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an {@link ExecutorService} that executes every submitted task on a new thread
+     * of the kind determined by the {@link ExecutionMode}.
+     *
+     * @param threadNamePrefix prefix for the names of the created platform threads. Virtual threads are unnamed.
+     *
+     * @return a new {@link ExecutorService}.
+     *
+     * @throws IpdsConfigurationException if the {@link ExecutionMode} is not supported by the running JVM.
+     */
+    public ExecutorService createExecutorService(final String threadNamePrefix) throws IpdsConfigurationException {
+        if (this == PLATFORM_THREADS) {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            final ThreadFactory threadFactory =
+                    r -> new Thread(r, threadNamePrefix + threadNumber.incrementAndGet());
+
+            return Executors.newCachedThreadPool(threadFactory);
+        }
+
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new IpdsConfigurationException(
+                    "Virtual threads require Java 21 or later (running on Java "
+                    + Runtime.version().feature() + ")");
+        }
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (final IllegalAccessException | InvocationTargetException e) {
+            throw new IpdsConfigurationException("Could not create a virtual thread executor: " + e.getMessage());
+        }
+    }
+}
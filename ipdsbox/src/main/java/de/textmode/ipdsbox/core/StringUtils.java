@@ -29,10 +29,21 @@ public final class StringUtils {
             return EMPTY;
         }
 
-        final StringBuilder sb = new StringBuilder();
-        for (final byte b : bytes) {
-            sb.append(HEXES.charAt((b & 0xF0) >> 4));
-            sb.append(HEXES.charAt(b & 0x0F));
+        return toHexString(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Builds a Hex-String from a part of a byte array.
+     */
+    public static String toHexString(final byte[] bytes, final int offset, final int length) {
+        if (bytes == null) {
+            return EMPTY;
+        }
+
+        final StringBuilder sb = new StringBuilder(length * 2);
+        for (int ix = offset; ix < offset + length; ++ix) {
+            sb.append(HEXES.charAt((bytes[ix] & 0xF0) >> 4));
+            sb.append(HEXES.charAt(bytes[ix] & 0x0F));
         }
         return sb.toString();
     }
@@ -1,58 +1,279 @@
 package de.textmode.ipdsbox.io;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import de.textmode.ipdsbox.core.StringUtils;
 
 /**
  * The {@link IpdsByteArrayOutputStream} provides methods for writing native data types and
  * data types specific for IPDS.
+ *
+ * <p>The written bytes are stored in a growable buffer that is retained by {@link #reset()}, so an
+ * {@link IpdsByteArrayOutputStream} can be reused (for example by one thread or one session) without
+ * allocating a new buffer for every IPDS command. The written bytes can be handed off without copying
+ * them (see {@link #toByteBuffer()}, {@link #writeTo(ByteBuffer)} and {@link #writeTo(OutputStream)}).
+ * The {@link IpdsByteArrayOutputStream} is not thread safe.
  */
 public final class IpdsByteArrayOutputStream {
 
-    private static final Charset EBCDIC = Charset.forName("ibm-500");
-    private static final Charset ASCII = Charset.forName("ibm-850");
+    /**
+     * Default initial capacity of the buffer.
+     */
+    public static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+    private static final SingleByteCodec EBCDIC = SingleByteCodec.IBM500;
+    private static final SingleByteCodec ASCII = SingleByteCodec.IBM850;
     private static final Charset UTF16BE = StandardCharsets.UTF_16BE;
 
-    private final ByteArrayOutputStream baos;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final boolean isLengthCounter;
+    private byte[] buffer;
+    private int count;
 
     /**
-     * Constructs an {@link IpdsByteArrayInputStream}.
+     * Constructs an {@link IpdsByteArrayOutputStream} with the default initial capacity.
      */
     public IpdsByteArrayOutputStream() {
-        this.baos = new ByteArrayOutputStream();
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an {@link IpdsByteArrayOutputStream} that can hold the given number of bytes without
+     * growing the buffer. This should be used if the length of the data to be written is known in
+     * advance (see for example {@link de.textmode.ipdsbox.ipds.commands.IpdsCommand#getEncodedLength()}).
+     *
+     * @param expectedLength the expected number of bytes to be written
+     */
+    public IpdsByteArrayOutputStream(final int expectedLength) {
+        if (expectedLength < 0) {
+            throw new IllegalArgumentException("Invalid expected length " + expectedLength);
+        }
+
+        this.isLengthCounter = false;
+        this.buffer = new byte[expectedLength];
+    }
+
+    private IpdsByteArrayOutputStream(final boolean isLengthCounter) {
+        this.isLengthCounter = isLengthCounter;
+        this.buffer = null;
+    }
+
+    /**
+     * Constructs an {@link IpdsByteArrayOutputStream} that does not store the written bytes but only
+     * counts them, so {@link #getSize()} returns the number of written bytes. This is used to determine
+     * the encoded length of IPDS structures that can not compute their length directly.
+     */
+    public static IpdsByteArrayOutputStream createLengthCounter() {
+        return new IpdsByteArrayOutputStream(true);
+    }
+
+    /**
+     * Returns <code>true</code> if this {@link IpdsByteArrayOutputStream} is a length counter (see
+     * {@link #createLengthCounter()}).
+     */
+    public boolean isLengthCounter() {
+        return this.isLengthCounter;
     }
 
     /**
      * Returns the current size (written bytes).
      */
     public int getSize() {
-        return this.baos.size();
+        return this.count;
+    }
+
+    /**
+     * Returns the current capacity of the buffer.
+     */
+    public int getCapacity() {
+        return this.buffer == null ? 0 : this.buffer.length;
+    }
+
+    /**
+     * Discards all written bytes, so the {@link IpdsByteArrayOutputStream} can be reused. The buffer
+     * is retained, so a reused {@link IpdsByteArrayOutputStream} usually does not have to grow again.
+     */
+    public void reset() {
+        this.count = 0;
+    }
+
+    /**
+     * Discards all bytes written behind the given size, so the {@link IpdsByteArrayOutputStream} contains
+     * exactly <code>size</code> bytes. This is used to roll back a partially written structure.
+     *
+     * @param size the number of written bytes to be kept
+     */
+    public void reset(final int size) {
+        if (size < 0 || size > this.count) {
+            throw new IndexOutOfBoundsException("Invalid size " + size + " for " + this.count + " written bytes");
+        }
+
+        this.count = size;
     }
 
     /**
-     * Returns the underlying byte array.
+     * Makes sure that the given number of bytes can be written without growing the buffer again.
+     *
+     * @param additionalLength the number of bytes that will be written
+     */
+    public void ensureCapacity(final int additionalLength) {
+        if (this.isLengthCounter) {
+            return;
+        }
+
+        final long required = (long) this.count + additionalLength;
+        if (required <= this.buffer.length) {
+            return;
+        }
+
+        if (required > MAX_CAPACITY) {
+            throw new OutOfMemoryError("The IpdsByteArrayOutputStream can not grow to " + required + " bytes");
+        }
+
+        final int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(required, this.buffer.length * 2L));
+        this.buffer = Arrays.copyOf(this.buffer, newCapacity);
+    }
+
+    /**
+     * Returns a copy of the written bytes.
      */
     public byte[] toByteArray() {
-        return this.baos.toByteArray();
+        this.checkNotLengthCounter();
+        return Arrays.copyOf(this.buffer, this.count);
+    }
+
+    /**
+     * Returns a copy of <code>length</code> written bytes, starting at the given offset.
+     */
+    public byte[] toByteArray(final int offset, final int length) {
+        this.checkNotLengthCounter();
+
+        if (offset < 0 || length < 0 || offset + length > this.count) {
+            throw new IndexOutOfBoundsException(
+                    "Invalid range " + offset + "+" + length + " for " + this.count + " written bytes");
+        }
+
+        return Arrays.copyOfRange(this.buffer, offset, offset + length);
+    }
+
+    /**
+     * Returns a read-only {@link ByteBuffer} view of the written bytes. The bytes are not copied, so the
+     * view is only valid until the {@link IpdsByteArrayOutputStream} is written to or reset.
+     */
+    public ByteBuffer toByteBuffer() {
+        this.checkNotLengthCounter();
+        return ByteBuffer.wrap(this.buffer, 0, this.count).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes the written bytes to the given {@link ByteBuffer} (for example a send buffer of a
+     * socket channel), starting at its current position.
+     *
+     * @throws BufferOverflowException if the remaining space of the {@link ByteBuffer} is too small.
+     */
+    public void writeTo(final ByteBuffer target) {
+        this.checkNotLengthCounter();
+        target.put(this.buffer, 0, this.count);
+    }
+
+    /**
+     * Writes the written bytes to the given {@link OutputStream}.
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        this.checkNotLengthCounter();
+        out.write(this.buffer, 0, this.count);
+    }
+
+    private void checkNotLengthCounter() {
+        if (this.isLengthCounter) {
+            throw new IllegalStateException("A length counter does not store the written bytes");
+        }
+    }
+
+    /**
+     * Reserves the given number of bytes and returns the offset of the first reserved byte in the buffer.
+     */
+    private int reserve(final int length) {
+        final int offset = this.count;
+
+        this.ensureCapacity(length);
+        this.count += length;
+
+        return offset;
+    }
+
+    private void write(final byte[] toWrite) {
+        final int offset = this.reserve(toWrite.length);
+        if (!this.isLengthCounter) {
+            System.arraycopy(toWrite, 0, this.buffer, offset, toWrite.length);
+        }
+    }
+
+    private void write(final int value, final int length) {
+        final int offset = this.reserve(length);
+        if (!this.isLengthCounter) {
+            for (int ix = 0; ix < length; ++ix) {
+                this.buffer[offset + ix] = (byte) (value >>> ((length - 1 - ix) * 8));
+            }
+        }
+    }
+
+    /**
+     * Encodes the given String with the given {@link SingleByteCodec} directly into the buffer. The String
+     * is filled up with spaces if needed or cutted off.
+     */
+    private void write(final SingleByteCodec codec, final String toWrite, final int len) {
+        if (len < 0) {
+            throw new IllegalArgumentException("Invalid length " + len);
+        }
+
+        final int offset = this.reserve(len);
+        if (!this.isLengthCounter) {
+            final int chars = Math.min(toWrite.length(), len);
+            codec.encode(toWrite, 0, chars, this.buffer, offset);
+            Arrays.fill(this.buffer, offset + chars, offset + len, codec.encode(' '));
+        }
     }
 
     /**
      * Writes some bytes.
      */
     public void writeBytes(final byte[] toWrite) throws IOException {
-        this.baos.write(toWrite);
+        this.write(toWrite);
+    }
+
+    /**
+     * Writes <code>length</code> bytes of the given {@link IpdsInputStream}, starting <code>offset</code> bytes
+     * behind its current offset. The bytes are copied directly from the underlying data of the
+     * {@link IpdsInputStream} and its current offset is not changed.
+     *
+     * @throws IOException if the {@link IpdsInputStream} does not contain the requested bytes.
+     */
+    public void writeBytes(final IpdsInputStream src, final int offset, final int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > src.bytesAvailable()) {
+            throw new IOException("Tried to copy " + length + " bytes at offset " + offset
+                    + " but there are only " + src.bytesAvailable() + " bytes available.");
+        }
+
+        final int target = this.reserve(length);
+        if (!this.isLengthCounter) {
+            src.getBytes(src.tell() + offset, this.buffer, target, length);
+        }
     }
 
     /**
      * Writes an EBCDIC-International encoded String.
      */
     public void writeEbcdicString(final String toWrite) throws IOException {
-        this.baos.write(EBCDIC.encode(CharBuffer.wrap(toWrite)).array());
+        this.write(EBCDIC, toWrite, toWrite.length());
     }
 
     /**
@@ -60,20 +281,14 @@ public final class IpdsByteArrayOutputStream {
      * up with spaces if needed or cutted off).
      */
     public void writeEbcdicString(final String toWrite, final int len) throws IOException {
-        if (toWrite.length() == len) {
-            this.baos.write(EBCDIC.encode(CharBuffer.wrap(toWrite)).array());
-        } else if (toWrite.length() >= len) {
-            this.baos.write(EBCDIC.encode(CharBuffer.wrap(toWrite.substring(0, len))).array());
-        } else {
-            this.baos.write(EBCDIC.encode(CharBuffer.wrap(StringUtils.padRight(toWrite, len))).array());
-        }
+        this.write(EBCDIC, toWrite, len);
     }
 
     /**
      * Writes an ASCII encoded single byte character String.
      */
     public void writeAsciiString(final String toWrite) throws IOException {
-        this.baos.write(ASCII.encode(CharBuffer.wrap(toWrite)).array());
+        this.write(ASCII, toWrite, toWrite.length());
     }
 
     /**
@@ -81,20 +296,14 @@ public final class IpdsByteArrayOutputStream {
      * up with spaces if needed or cutted off).
      */
     public void writeAsciiString(final String toWrite, final int len) throws IOException {
-        if (toWrite.length() == len) {
-            this.baos.write(ASCII.encode(CharBuffer.wrap(toWrite)).array());
-        } else if (toWrite.length() >= len) {
-            this.baos.write(ASCII.encode(CharBuffer.wrap(toWrite.substring(0, len))).array());
-        } else {
-            this.baos.write(ASCII.encode(CharBuffer.wrap(StringUtils.padRight(toWrite, len))).array());
-        }
+        this.write(ASCII, toWrite, len);
     }
 
     /**
      * Writes an UTF-16BE encoded character String.
      */
     public void writeUtf16beString(final String toWrite) throws IOException {
-        this.baos.write(UTF16BE.encode(CharBuffer.wrap(toWrite)).array());
+        this.write(UTF16BE.encode(CharBuffer.wrap(toWrite)).array());
     }
 
     /**
@@ -103,11 +312,11 @@ public final class IpdsByteArrayOutputStream {
      */
     public void writeUtf16beString(final String toWrite, final int len) throws IOException {
         if (toWrite.length() == len) {
-            this.baos.write(UTF16BE.encode(CharBuffer.wrap(toWrite)).array());
+            this.write(UTF16BE.encode(CharBuffer.wrap(toWrite)).array());
         } else if (toWrite.length() >= len) {
-            this.baos.write(UTF16BE.encode(CharBuffer.wrap(toWrite.substring(0, len))).array());
+            this.write(UTF16BE.encode(CharBuffer.wrap(toWrite.substring(0, len))).array());
         } else {
-            this.baos.write(UTF16BE.encode(CharBuffer.wrap(StringUtils.padRight(toWrite, len))).array());
+            this.write(UTF16BE.encode(CharBuffer.wrap(StringUtils.padRight(toWrite, len))).array());
         }
     }
 
@@ -115,67 +324,72 @@ public final class IpdsByteArrayOutputStream {
      * Writes one byte. The byte is treated as an unsigned value.
      */
     public void writeUnsignedByte(final int toWrite) throws IOException {
-        this.baos.write(toWrite & 0xFF);
+        this.write(toWrite, 1);
     }
 
     /**
      * Writes one input byte. The byte is treated as a signed value.
      */
     public void writeByte(final int toWrite) throws IOException {
-        this.baos.write(toWrite);
+        this.write(toWrite, 1);
     }
 
     /**
      * Writes a 16 Bit value. The value is treated as an unsigned value.
      */
     public void writeUnsignedInteger16(final int toWrite) throws IOException {
-        this.baos.write((toWrite >>> 8) & 0xFF);
-        this.baos.write(toWrite & 0xFF);
+        this.write(toWrite, 2);
     }
 
     /**
      * Writes a 16 Bit value. The value is treated as a signed value.
      */
     public void writeInteger16(final int toWrite) throws IOException {
-        this.baos.write((toWrite >>> 8) & 0xFF);
-        this.baos.write(toWrite & 0xFF);
+        this.write(toWrite, 2);
     }
 
     /**
      * Writes a 24 Bit value. The value is treated as an unsigned value.
      */
     public void writeUnsignedInteger24(final int toWrite) throws IOException {
-        this.baos.write((toWrite >>> 16) & 0xFF);
-        this.baos.write((toWrite >>> 8) & 0xFF);
-        this.baos.write(toWrite & 0xFF);
+        this.write(toWrite, 3);
     }
 
     /**
      * Writes a 24 Bit value. The value is treated as a signed value.
      */
     public void writeInteger24(final int toWrite) throws IOException {
-        this.baos.write((toWrite >>> 16) & 0xFF);
-        this.baos.write((toWrite >>> 8) & 0xFF);
-        this.baos.write(toWrite & 0xFF);
+        this.write(toWrite, 3);
     }
 
     /**
      * Writes a 32 Bit value. The value is treated as an unsigned value.
      */
     public void writeUnsignedInteger32(final long toWrite) throws IOException {
-        this.baos.write((int) (toWrite >>> 24) & 0xFF);
-        this.baos.write((int) (toWrite >>> 16) & 0xFF);
-        this.baos.write((int) (toWrite >>> 8) & 0xFF);
-        this.baos.write((int) toWrite & 0xFF);
+        this.write((int) toWrite, 4);
     }
 
     /**
      * Writes a 32 Bit value. The value is treated as a signed value.
      */
     public void writeInteger32(final int toWrite) throws IOException {
-        this.baos.write((toWrite >>> 24) & 0xFF);
-        this.baos.write((toWrite >>> 16) & 0xFF);
-        this.baos.write((toWrite >>> 8) & 0xFF);
-        this.baos.write(toWrite & 0xFF);
+        this.write(toWrite, 4);
+    }
+
+    /**
+     * Overwrites four already written bytes at the given offset with a 32 Bit value. This is used to fill in
+     * a length field after the data it describes has been written.
+     */
+    public void overwriteInteger32(final int offset, final int toWrite) {
+        if (offset < 0 || offset + 4 > this.count) {
+            throw new IndexOutOfBoundsException(
+                    "Invalid range " + offset + "+4 for " + this.count + " written bytes");
+        }
+
+        if (!this.isLengthCounter) {
+            for (int ix = 0; ix < 4; ++ix) {
+                this.buffer[offset + ix] = (byte) (toWrite >>> ((3 - ix) * 8));
+            }
+        }
     }
 }
@@ -0,0 +1,145 @@
+package de.textmode.ipdsbox.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * The {@link IpdsByteBufferInputStream} reads IPDS data from a {@link ByteBuffer}. The {@link ByteBuffer}
+ * may be a heap buffer, a direct buffer or a (read-only) memory mapped file, so IPDS data can be parsed
+ * without copying it to an on-heap byte array first.
+ *
+ * <p>All reads are absolute reads, so the position, limit and byte order of the given {@link ByteBuffer}
+ * are never modified. Views created by this stream are {@link IpdsByteBufferInputStream}s that share
+ * the {@link ByteBuffer}.
+ */
+public final class IpdsByteBufferInputStream extends IpdsInputStream {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs an {@link IpdsByteBufferInputStream} that reads all bytes between the current position
+     * and the limit of the given {@link ByteBuffer}.
+     *
+     * @param buffer the underlying {@link ByteBuffer}
+     */
+    public IpdsByteBufferInputStream(final ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Constructs an {@link IpdsByteBufferInputStream}.
+     *
+     * @param buffer the underlying {@link ByteBuffer}
+     * @param startOffset the (absolute) offset within the {@link ByteBuffer} of the first byte to be read
+     * @param length the number of bytes that can be read
+     */
+    public IpdsByteBufferInputStream(final ByteBuffer buffer, final int startOffset, final int length) {
+        super(startOffset, length);
+
+        if (startOffset < 0 || length < 0 || startOffset + length > buffer.limit()) {
+            throw new IndexOutOfBoundsException(
+                    "Offset " + startOffset + " and length " + length
+                    + " exceed the limit " + buffer.limit() + " of the buffer");
+        }
+
+        this.buffer = buffer.order() == ByteOrder.BIG_ENDIAN
+                ? buffer
+                : buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Maps a region of a file into memory (read-only) and returns an {@link IpdsByteBufferInputStream}
+     * that reads from the mapped region.
+     *
+     * @param channel the {@link FileChannel} of the file to be mapped
+     * @param position the position within the file at which the mapped region starts
+     * @param size the size of the region to be mapped
+     *
+     * @return an {@link IpdsByteBufferInputStream} for the mapped region.
+     *
+     * @throws IOException if the region could not be mapped.
+     */
+    public static IpdsByteBufferInputStream map(
+            final FileChannel channel,
+            final long position,
+            final int size) throws IOException {
+
+        return new IpdsByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, position, size));
+    }
+
+    @Override
+    int getUnsignedByte(final int index) {
+        return this.buffer.get(index) & 0xFF;
+    }
+
+    @Override
+    int getUnsignedInteger16(final int index) {
+        return this.buffer.getShort(index) & 0xFFFF;
+    }
+
+    @Override
+    int getUnsignedInteger24(final int index) {
+        return ((this.buffer.get(index) & 0xFF) << 16) | (this.buffer.getShort(index + 1) & 0xFFFF);
+    }
+
+    @Override
+    int getInteger32(final int index) {
+        return this.buffer.getInt(index);
+    }
+
+    @Override
+    void getBytes(final int index, final byte[] dst, final int dstOffset, final int length) {
+        this.buffer.get(index, dst, dstOffset, length);
+    }
+
+    @Override
+    String getString(final SingleByteCodec codec, final int index, final int length) {
+        if (this.buffer.hasArray()) {
+            return codec.decode(this.buffer.array(), this.buffer.arrayOffset() + index, length);
+        }
+
+        final StringBuilder sb = new StringBuilder(length);
+        this.getString(codec, index, length, sb);
+        return sb.toString();
+    }
+
+    @Override
+    void getString(final SingleByteCodec codec, final int index, final int length, final StringBuilder target) {
+        if (this.buffer.hasArray()) {
+            codec.decode(this.buffer.array(), this.buffer.arrayOffset() + index, length, target);
+            return;
+        }
+
+        target.ensureCapacity(target.length() + length);
+        for (int ix = 0; ix < length; ++ix) {
+            target.append(codec.decode(this.buffer.get(index + ix)));
+        }
+    }
+
+    @Override
+    IpdsByteBufferInputStream createView(final int index, final int length) {
+        return new IpdsByteBufferInputStream(this.buffer, index, length);
+    }
+
+    @Override
+    public IpdsByteBufferInputStream readIpdsCommandViewIfExists() throws IOException {
+        return (IpdsByteBufferInputStream) super.readIpdsCommandViewIfExists();
+    }
+
+    @Override
+    public IpdsByteBufferInputStream readTripletViewIfExists() throws IOException {
+        return (IpdsByteBufferInputStream) super.readTripletViewIfExists();
+    }
+
+    @Override
+    public IpdsByteBufferInputStream readSelfDefiningFieldViewIfExists() throws IOException {
+        return (IpdsByteBufferInputStream) super.readSelfDefiningFieldViewIfExists();
+    }
+
+    @Override
+    public IpdsByteBufferInputStream readView(final int length) throws IOException {
+        return (IpdsByteBufferInputStream) super.readView(length);
+    }
+}
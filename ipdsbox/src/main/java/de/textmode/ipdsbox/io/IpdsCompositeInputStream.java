@@ -0,0 +1,239 @@
+package de.textmode.ipdsbox.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The {@link IpdsCompositeInputStream} reads IPDS data from a chain of other {@link IpdsInputStream}s (segments)
+ * as if they were one contiguous stream, without concatenating them. This is used for IPDS data that is split
+ * into fragments, like an Acknowledge Reply that is continued by further Acknowledge Replies.
+ *
+ * <p>Segments can be appended by {@link #append(IpdsInputStream)} while the {@link IpdsCompositeInputStream} is
+ * read, so data can be parsed as soon as it is available. Values that span the boundary of two segments are
+ * read correctly. Views created by this stream are {@link IpdsCompositeInputStream}s that share the segments.
+ */
+public final class IpdsCompositeInputStream extends IpdsInputStream {
+
+    private final Segments segments;
+
+    // The segment of the last access, most reads hit the same segment again.
+    private int lastSegment;
+
+    /**
+     * Constructs an empty {@link IpdsCompositeInputStream}. Use {@link #append(IpdsInputStream)} to add segments.
+     */
+    public IpdsCompositeInputStream() {
+        this(new Segments(), 0, 0);
+    }
+
+    private IpdsCompositeInputStream(final Segments segments, final int startOffset, final int length) {
+        super(startOffset, length);
+        this.segments = segments;
+    }
+
+    /**
+     * Appends the bytes that are left to read from the given {@link IpdsInputStream} as a new segment. The bytes
+     * are not copied, so the underlying data of the given {@link IpdsInputStream} must not be modified (or
+     * reused) as long as this {@link IpdsCompositeInputStream} is used. The given {@link IpdsInputStream} is
+     * advanced to its end.
+     *
+     * @throws IllegalStateException if this {@link IpdsCompositeInputStream} is a view that does not end at the
+     *  end of the last segment.
+     */
+    public void append(final IpdsInputStream ipds) throws IOException {
+        if (this.tell() + this.bytesAvailable() != this.segments.length) {
+            throw new IllegalStateException("Segments can only be appended at the end of the IpdsCompositeInputStream");
+        }
+
+        final int length = ipds.bytesAvailable();
+        if (length == 0) {
+            return;
+        }
+
+        final int sourceOffset = ipds.tell();
+        this.segments.add(ipds.readView(length), sourceOffset, length);
+        this.extend(length);
+    }
+
+    /**
+     * Returns the number of segments.
+     */
+    public int getSegmentCount() {
+        return this.segments.count;
+    }
+
+    /**
+     * Returns the index of the segment that contains the byte at the given (absolute) offset.
+     */
+    private int findSegment(final int index) {
+        final Segments s = this.segments;
+        final int last = this.lastSegment;
+
+        if (index >= s.starts[last] && index < s.starts[last] + s.lengths[last]) {
+            return last;
+        }
+
+        int found = Arrays.binarySearch(s.starts, 0, s.count, index);
+        if (found < 0) {
+            found = -found - 2;
+        }
+
+        this.lastSegment = found;
+        return found;
+    }
+
+    /**
+     * Returns the (absolute) offset within the segment for the given (absolute) offset.
+     */
+    private int toSourceIndex(final int segment, final int index) {
+        return this.segments.sourceOffsets[segment] + index - this.segments.starts[segment];
+    }
+
+    /**
+     * Returns <code>true</code> if the given amount of bytes at the given (absolute) offset is contained
+     * in the given segment.
+     */
+    private boolean isWithinSegment(final int segment, final int index, final int length) {
+        return index + length <= this.segments.starts[segment] + this.segments.lengths[segment];
+    }
+
+    @Override
+    int getUnsignedByte(final int index) {
+        final int segment = this.findSegment(index);
+        return this.segments.sources[segment].getUnsignedByte(this.toSourceIndex(segment, index));
+    }
+
+    @Override
+    int getUnsignedInteger16(final int index) {
+        final int segment = this.findSegment(index);
+        if (this.isWithinSegment(segment, index, 2)) {
+            return this.segments.sources[segment].getUnsignedInteger16(this.toSourceIndex(segment, index));
+        }
+
+        return (this.getUnsignedByte(index) << 8) | this.getUnsignedByte(index + 1);
+    }
+
+    @Override
+    int getUnsignedInteger24(final int index) {
+        final int segment = this.findSegment(index);
+        if (this.isWithinSegment(segment, index, 3)) {
+            return this.segments.sources[segment].getUnsignedInteger24(this.toSourceIndex(segment, index));
+        }
+
+        return (this.getUnsignedByte(index) << 16) | this.getUnsignedInteger16(index + 1);
+    }
+
+    @Override
+    int getInteger32(final int index) {
+        final int segment = this.findSegment(index);
+        if (this.isWithinSegment(segment, index, 4)) {
+            return this.segments.sources[segment].getInteger32(this.toSourceIndex(segment, index));
+        }
+
+        return (this.getUnsignedInteger16(index) << 16) | this.getUnsignedInteger16(index + 2);
+    }
+
+    @Override
+    void getBytes(final int index, final byte[] dst, final int dstOffset, final int length) {
+        int done = 0;
+        while (done < length) {
+            final int segment = this.findSegment(index + done);
+            final int count = Math.min(
+                    length - done,
+                    this.segments.starts[segment] + this.segments.lengths[segment] - index - done);
+
+            this.segments.sources[segment].getBytes(
+                    this.toSourceIndex(segment, index + done), dst, dstOffset + done, count);
+
+            done += count;
+        }
+    }
+
+    @Override
+    String getString(final SingleByteCodec codec, final int index, final int length) {
+        final int segment = this.findSegment(index);
+        if (this.isWithinSegment(segment, index, length)) {
+            return this.segments.sources[segment].getString(codec, this.toSourceIndex(segment, index), length);
+        }
+
+        final StringBuilder sb = new StringBuilder(length);
+        this.getString(codec, index, length, sb);
+        return sb.toString();
+    }
+
+    @Override
+    void getString(final SingleByteCodec codec, final int index, final int length, final StringBuilder target) {
+        int done = 0;
+        while (done < length) {
+            final int segment = this.findSegment(index + done);
+            final int count = Math.min(
+                    length - done,
+                    this.segments.starts[segment] + this.segments.lengths[segment] - index - done);
+
+            this.segments.sources[segment].getString(
+                    codec, this.toSourceIndex(segment, index + done), count, target);
+
+            done += count;
+        }
+    }
+
+    @Override
+    IpdsCompositeInputStream createView(final int index, final int length) {
+        return new IpdsCompositeInputStream(this.segments, index, length);
+    }
+
+    @Override
+    public IpdsCompositeInputStream readIpdsCommandViewIfExists() throws IOException {
+        return (IpdsCompositeInputStream) super.readIpdsCommandViewIfExists();
+    }
+
+    @Override
+    public IpdsCompositeInputStream readTripletViewIfExists() throws IOException {
+        return (IpdsCompositeInputStream) super.readTripletViewIfExists();
+    }
+
+    @Override
+    public IpdsCompositeInputStream readSelfDefiningFieldViewIfExists() throws IOException {
+        return (IpdsCompositeInputStream) super.readSelfDefiningFieldViewIfExists();
+    }
+
+    @Override
+    public IpdsCompositeInputStream readView(final int length) throws IOException {
+        return (IpdsCompositeInputStream) super.readView(length);
+    }
+
+    /**
+     * The segments of an {@link IpdsCompositeInputStream}, shared by all its views. The (absolute) offset of
+     * the {@link IpdsCompositeInputStream} is the offset within the concatenated segments.
+     */
+    private static final class Segments {
+
+        private IpdsInputStream[] sources = new IpdsInputStream[4];
+        private int[] sourceOffsets = new int[4];
+        private int[] starts = new int[4];
+        private int[] lengths = new int[4];
+        private int count;
+        private int length;
+
+        /**
+         * Adds a segment.
+         */
+        void add(final IpdsInputStream source, final int sourceOffset, final int segmentLength) {
+            if (this.count == this.sources.length) {
+                final int capacity = this.count * 2;
+                this.sources = Arrays.copyOf(this.sources, capacity);
+                this.sourceOffsets = Arrays.copyOf(this.sourceOffsets, capacity);
+                this.starts = Arrays.copyOf(this.starts, capacity);
+                this.lengths = Arrays.copyOf(this.lengths, capacity);
+            }
+
+            this.sources[this.count] = source;
+            this.sourceOffsets[this.count] = sourceOffset;
+            this.starts[this.count] = this.length;
+            this.lengths[this.count] = segmentLength;
+
+            ++this.count;
+            this.length += segmentLength;
+        }
+    }
+}
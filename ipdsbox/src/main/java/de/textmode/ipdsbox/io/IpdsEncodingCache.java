@@ -0,0 +1,190 @@
+package de.textmode.ipdsbox.io;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link IpdsEncodingCache} keeps the encoded form of an IPDS structure (an IPDS command, a triplet or an
+ * XOA/XOH order), so an unmodified structure is written as-is instead of being encoded again.
+ *
+ * <p>The encoded form of a decoded structure is its original encoded form (a view of the decoded data, see
+ * {@link #setOriginal(IpdsInputStream)}). It is discarded by {@link #modified()}, the next
+ * {@link #writeTo(IpdsByteArrayOutputStream, Encoder)} encodes the structure again and caches the result. The
+ * encoded form of a structure that has been built by the application is never cached.
+ *
+ * <p>Modifications are tracked explicitly, the encoded form is never verified by encoding the structure again:
+ * <ul>
+ * <li>Every method that modifies the structure calls {@link #modified()}.</li>
+ * <li>A {@link List} handed out by the structure is wrapped by {@link #track(List)}, so adding, removing or
+ *  replacing an element calls {@link #modified()}.</li>
+ * <li>A contained structure (i. e. a triplet of an IPDS command) is modified by its own methods. Before the
+ *  encoded form of the containing structure is used, the contained structures are checked by
+ *  {@link #isUnmodifiedSince(IpdsEncodingCache)}.</li>
+ * <li>A mutable part whose modifications can not be tracked (i. e. a byte array) is handed out after calling
+ *  {@link #exposed()}, so the structure is encoded by every {@link #writeTo(IpdsByteArrayOutputStream, Encoder)}
+ *  from then on.</li>
+ * </ul>
+ * So an IPDS structure that has only been inspected is still written exactly as it has been received (including
+ * its reserved bytes) by copying its original encoded form.
+ */
+public final class IpdsEncodingCache {
+
+    // Every modification gets a new stamp, so a containing structure can determine if a contained structure
+    // has been modified after the encoded form of the containing structure has been cached.
+    private static final AtomicLong STAMPS = new AtomicLong();
+
+    /**
+     * Encodes the IPDS structure.
+     *
+     * @param <E> an additional checked {@link Exception} the {@link Encoder} may throw.
+     */
+    @FunctionalInterface
+    public interface Encoder<E extends Exception> {
+
+        /**
+         * Encodes the IPDS structure and writes it to the given {@link IpdsByteArrayOutputStream}.
+         */
+        void encodeTo(IpdsByteArrayOutputStream out) throws IOException, E;
+    }
+
+    // The original encoded form (a view of the decoded data) or the cached encoded form (null if unknown
+    // or modified). The view is never read, so it always starts at the first byte.
+    private IpdsInputStream encoded;
+    private boolean isCacheable;
+    private boolean isExposed;
+
+    // The stamp of the last modification and the stamp at the time the encoded form has been cached.
+    private long modifiedStamp;
+    private long encodedStamp;
+
+    /**
+     * Sets the original encoded form of a decoded IPDS structure. The given view is kept (the bytes are not
+     * copied), so its underlying data must not be modified as long as the IPDS structure is used.
+     */
+    public void setOriginal(final IpdsInputStream original) {
+        this.encoded = original;
+        this.encodedStamp = STAMPS.get();
+        this.isCacheable = true;
+        this.isExposed = false;
+    }
+
+    /**
+     * Returns <code>true</code> if the encoded form is known, so it can be written as-is. Note that the contained
+     * IPDS structures have to be checked by the caller (see {@link #isUnmodifiedSince(IpdsEncodingCache)}).
+     */
+    public boolean isValid() {
+        return this.encoded != null;
+    }
+
+    /**
+     * Returns the length of the encoded form. Must only be called if {@link #isValid()} returns <code>true</code>.
+     */
+    public int getLength() {
+        return this.encoded.bytesAvailable();
+    }
+
+    /**
+     * Discards the encoded form. Must be called by every method that modifies the IPDS structure.
+     */
+    public void modified() {
+        this.encoded = null;
+        this.modifiedStamp = STAMPS.incrementAndGet();
+    }
+
+    /**
+     * Discards the encoded form for good. Must be called by every method that returns a mutable part of the IPDS
+     * structure whose modifications can not be tracked (i. e. a byte array), because the caller may modify it
+     * at any time.
+     */
+    public void exposed() {
+        this.modified();
+        this.isExposed = true;
+    }
+
+    /**
+     * Returns <code>true</code> if the IPDS structure of this {@link IpdsEncodingCache} has not been modified since
+     * the encoded form of the given {@link IpdsEncodingCache} (the one of the containing IPDS structure) has been
+     * cached.
+     */
+    public boolean isUnmodifiedSince(final IpdsEncodingCache container) {
+        return !this.isExposed && this.modifiedStamp <= container.encodedStamp;
+    }
+
+    /**
+     * Returns a view of the given {@link List} that calls {@link #modified()} whenever an element is added,
+     * removed or replaced. The view is handed out instead of the {@link List} itself.
+     */
+    public <T> List<T> track(final List<T> list) {
+        return new TrackingList<>(list, this);
+    }
+
+    /**
+     * Writes the IPDS structure to the given {@link IpdsByteArrayOutputStream}. The encoded form is copied as-is if
+     * it is valid, otherwise the IPDS structure is encoded by the given {@link Encoder} (and cached if the IPDS
+     * structure has been decoded).
+     */
+    public <E extends Exception> void writeTo(
+            final IpdsByteArrayOutputStream out,
+            final Encoder<E> encoder) throws IOException, E {
+
+        if (this.isValid()) {
+            out.writeBytes(this.encoded, 0, this.encoded.bytesAvailable());
+            return;
+        }
+
+        final long stamp = STAMPS.get();
+        final int start = out.getSize();
+        encoder.encodeTo(out);
+
+        if (this.isCacheable && !this.isExposed && !out.isLengthCounter()) {
+            this.encoded = new IpdsByteArrayInputStream(out.toByteArray(start, out.getSize() - start));
+            this.encodedStamp = stamp;
+        }
+    }
+
+    /**
+     * A {@link List} that discards the encoded form of its {@link IpdsEncodingCache} on every modification.
+     */
+    private static final class TrackingList<T> extends AbstractList<T> {
+
+        private final List<T> list;
+        private final IpdsEncodingCache cache;
+
+        TrackingList(final List<T> list, final IpdsEncodingCache cache) {
+            this.list = list;
+            this.cache = cache;
+        }
+
+        @Override
+        public T get(final int index) {
+            return this.list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return this.list.size();
+        }
+
+        @Override
+        public T set(final int index, final T element) {
+            this.cache.modified();
+            return this.list.set(index, element);
+        }
+
+        @Override
+        public void add(final int index, final T element) {
+            this.cache.modified();
+            this.list.add(index, element);
+            ++this.modCount;
+        }
+
+        @Override
+        public T remove(final int index) {
+            this.cache.modified();
+            ++this.modCount;
+            return this.list.remove(index);
+        }
+    }
+}
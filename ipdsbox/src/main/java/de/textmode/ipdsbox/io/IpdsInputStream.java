@@ -0,0 +1,533 @@
+package de.textmode.ipdsbox.io;
+
+import java.io.IOException;
+
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningField;
+import de.textmode.ipdsbox.ipds.triplets.Triplet;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * The {@link IpdsInputStream} is the superclass of all sources IPDS data can be read from. Like the
+ * {@link IpdsByteArrayInputStream} it is not really an DataInputStream, but it follows the concept of the
+ * DataInputStream. It provides methods for reading native data types and data types specific for IPDS.
+ *
+ * <p>The {@link IpdsInputStream} manages the current offset and the number of bytes left to read. The concrete
+ * implementations ({@link IpdsByteArrayInputStream} for on-heap byte arrays, {@link IpdsByteBufferInputStream}
+ * for heap, direct and memory mapped {@link java.nio.ByteBuffer}s, {@link IpdsCompositeInputStream} for a chain of
+ * other {@link IpdsInputStream}s) only provide access to the bytes at a given (absolute) offset of the underlying
+ * data.
+ */
+public abstract class IpdsInputStream {
+
+    static final SingleByteCodec EBCDIC = SingleByteCodec.IBM500;
+    static final SingleByteCodec ASCII = SingleByteCodec.IBM850;
+
+    private int offset;
+    private int bytesLeft;
+
+    /**
+     * Constructs an {@link IpdsInputStream}.
+     *
+     * @param startOffset the (absolute) offset of the first byte to be read
+     * @param length the number of bytes that can be read
+     */
+    IpdsInputStream(final int startOffset, final int length) {
+        this.offset = startOffset;
+        this.bytesLeft = length;
+    }
+
+    /**
+     * Returns the unsigned 8-bit value at the given (absolute) offset.
+     */
+    abstract int getUnsignedByte(int index);
+
+    /**
+     * Returns the unsigned 16-bit value (big endian format) at the given (absolute) offset.
+     */
+    abstract int getUnsignedInteger16(int index);
+
+    /**
+     * Returns the unsigned 24-bit value (big endian format) at the given (absolute) offset.
+     */
+    abstract int getUnsignedInteger24(int index);
+
+    /**
+     * Returns the signed 32-bit value (big endian format) at the given (absolute) offset.
+     */
+    abstract int getInteger32(int index);
+
+    /**
+     * Copies bytes, starting at the given (absolute) offset, to the given byte array.
+     */
+    abstract void getBytes(int index, byte[] dst, int dstOffset, int length);
+
+    /**
+     * Decodes bytes, starting at the given (absolute) offset, using the given {@link SingleByteCodec}.
+     */
+    abstract String getString(SingleByteCodec codec, int index, int length);
+
+    /**
+     * Decodes bytes, starting at the given (absolute) offset, using the given {@link SingleByteCodec} and
+     * appends the chars to the given {@link StringBuilder}.
+     */
+    abstract void getString(SingleByteCodec codec, int index, int length, StringBuilder target);
+
+    /**
+     * Creates a view of the underlying data that starts at the given (absolute) offset
+     * and contains the given amount of bytes.
+     */
+    abstract IpdsInputStream createView(int index, int length);
+
+    /**
+     * Checks if enough bytes are available to read. If not an {@link IOException} is thrown.
+     *
+     * @param length the required amount of bytes
+     *
+     * @throws IOException if there are less then <code>length</code> bytes left to read.
+     */
+    private void checkForAvailableBytes(final int length) throws IOException {
+        if (length > this.bytesLeft) {
+            throw new IOException(
+                    "Tried to parse " + length
+                    + " bytes at offset " + this.offset
+                    + " but there are only " + this.bytesLeft
+                    + " bytes left to parse.");
+        }
+    }
+
+    /**
+     * Advances the current offset.
+     */
+    private void advance(final int count) {
+        this.offset += count;
+        this.bytesLeft -= count;
+    }
+
+    /**
+     * Makes the given number of bytes, that have been appended to the underlying data, available to read.
+     */
+    final void extend(final int count) {
+        this.bytesLeft += count;
+    }
+
+    /**
+     * Returns the number of bytes available to read.
+     *
+     * @return the number of bytes available to read.
+     */
+    public final int bytesAvailable() {
+        return this.bytesLeft;
+    }
+
+    /**
+     * Returns the current offset within the {@link IpdsInputStream}.
+     *
+     * @return the current offset within the {@link IpdsInputStream}.
+     */
+    public final int tell() {
+        return this.offset;
+    }
+
+    /**
+     * Skips count bytes of input from this input stream.
+     * @param count the number of bytes to be skipped.
+     * @throws IOException if there was an error in skipping (usually tried to skip more bytes than available)
+     */
+    public final void skip(final int count) throws IOException {
+        this.checkForAvailableBytes(count);
+        this.advance(count);
+    }
+
+    /**
+     * Rewind count bytes of input from this input stream.
+     *
+     * @param count the number of bytes to be walk back.
+     *
+     * @throws IOException if there was an error in rewinding (usually tried to rewinding more bytes than available)
+     */
+    public final void rewind(final int count) throws IOException {
+
+        if (this.offset - count < 0) {
+            throw new IOException("Tried to rewind " + count + " bytes at offset " + this.offset);
+        }
+
+        this.advance(-count);
+    }
+
+    /**
+     * Reads a complete {@link IpdsCommand} from the underlying data.
+     *
+     * @return A byte array containg the raw data of the {@link IpdsCommand} or <code>null</code> if there is
+     * no further {@link IpdsCommand} available.
+     *
+     * @throws IOException if the {@link IpdsCommand} to be read is broken.
+     */
+    @SuppressFBWarnings("PZLA_PREFER_ZERO_LENGTH_ARRAYS")
+    public final byte[] readIpdsCommandIfExists() throws IOException {
+        final IpdsInputStream view = this.readIpdsCommandViewIfExists();
+        return view == null ? null : view.readRemainingBytes();
+    }
+
+    /**
+     * Reads a complete {@link IpdsCommand} from the underlying data without copying it. The
+     * returned {@link IpdsInputStream} shares the underlying data with this stream and starts
+     * at the length field of the {@link IpdsCommand}.
+     *
+     * @return A view of the {@link IpdsCommand} or <code>null</code> if there is
+     * no further {@link IpdsCommand} available.
+     *
+     * @throws IOException if the {@link IpdsCommand} to be read is broken.
+     */
+    public IpdsInputStream readIpdsCommandViewIfExists() throws IOException {
+        if (this.bytesLeft == 0) {
+            return null;
+        }
+
+        this.checkForAvailableBytes(2);
+
+        return this.readStructureView(this.getUnsignedInteger16(this.offset), 2, "An IPDS command");
+    }
+
+    /**
+     * Reads a complete {@link Triplet} from the underlying data.
+     *
+     * @return A byte array containg the raw data of the {@link Triplet} or <code>null</code> if there is
+     * no further {@link Triplet} available.
+     *
+     * @throws IOException if the {@link Triplet} to be read is broken.
+     */
+    @SuppressFBWarnings("PZLA_PREFER_ZERO_LENGTH_ARRAYS")
+    public final byte[] readTripletIfExists() throws IOException {
+        final IpdsInputStream view = this.readTripletViewIfExists();
+        return view == null ? null : view.readRemainingBytes();
+    }
+
+    /**
+     * Reads a complete {@link Triplet} from the underlying data without copying it. The
+     * returned {@link IpdsInputStream} shares the underlying data with this stream and starts
+     * at the length byte of the {@link Triplet}.
+     *
+     * @return A view of the {@link Triplet} or <code>null</code> if there is
+     * no further {@link Triplet} available.
+     *
+     * @throws IOException if the {@link Triplet} to be read is broken.
+     */
+    public IpdsInputStream readTripletViewIfExists() throws IOException {
+        if (this.bytesLeft == 0) {
+            return null;
+        }
+
+        return this.readStructureView(this.getUnsignedByte(this.offset), 1, "A triplet");
+    }
+
+    /**
+     * Reads a complete {@link SelfDefiningField} from the underlying data.
+     *
+     * @return A byte array containg the raw data of the {@link SelfDefiningField} or <code>null</code> if there is
+     *  no further {@link SelfDefiningField} available.
+     *
+     * @throws IOException if the {@link SelfDefiningField} to be read is broken.
+     */
+    @SuppressFBWarnings("PZLA_PREFER_ZERO_LENGTH_ARRAYS")
+    public final byte[] readSelfDefiningFieldIfExists() throws IOException {
+        final IpdsInputStream view = this.readSelfDefiningFieldViewIfExists();
+        return view == null ? null : view.readRemainingBytes();
+    }
+
+    /**
+     * Reads a complete {@link SelfDefiningField} from the underlying data without copying it. The
+     * returned {@link IpdsInputStream} shares the underlying data with this stream and starts
+     * at the length field of the {@link SelfDefiningField}.
+     *
+     * @return A view of the {@link SelfDefiningField} or <code>null</code> if there is
+     * no further {@link SelfDefiningField} available.
+     *
+     * @throws IOException if the {@link SelfDefiningField} to be read is broken.
+     */
+    public IpdsInputStream readSelfDefiningFieldViewIfExists() throws IOException {
+        if (this.bytesLeft == 0) {
+            return null;
+        }
+
+        this.checkForAvailableBytes(2);
+
+        return this.readStructureView(this.getUnsignedInteger16(this.offset), 2, "A self-defining field");
+    }
+
+    /**
+     * Returns a view of the structure (IPDS command, triplet, self-defining field) that starts at the
+     * current offset and advances the current offset behind the structure.
+     *
+     * @param length the length of the structure, including the length field itself
+     * @param lengthFieldSize the size of the length field of the structure
+     * @param structure name of the structure, used for the message of the exception
+     *
+     * @throws IOException if the length of the structure is invalid.
+     */
+    private IpdsInputStream readStructureView(
+            final int length,
+            final int lengthFieldSize,
+            final String structure) throws IOException {
+
+        if (length < lengthFieldSize) {
+            throw new IOException(String.format(
+                "%1$s to be read at offset %2$d has an invalid length of %3$d bytes",
+                structure, this.offset, length));
+        }
+
+        if (length > this.bytesLeft) {
+            throw new IOException(String.format(
+                "%1$s to be read seems to be %2$d bytes long but the IPDS data stream ends after %3$d bytes",
+                structure, length, this.bytesLeft));
+        }
+
+        return this.readView(length);
+    }
+
+    /**
+     * Returns a view of the next bytes without copying them. The returned {@link IpdsInputStream}
+     * shares the underlying data with this stream, so changes of the underlying data are visible in both.
+     *
+     * @param length how many bytes should be contained in the view
+     *
+     * @return an {@link IpdsInputStream} that contains exactly the requested amount of bytes.
+     *
+     * @throws IOException if there are not enough bytes left to read.
+     */
+    public IpdsInputStream readView(final int length) throws IOException {
+        this.checkForAvailableBytes(length);
+
+        final IpdsInputStream view = this.createView(this.offset, length);
+        this.advance(length);
+
+        return view;
+    }
+
+    /**
+     * Reads and returns some bytes.
+     *
+     * @param length how many bytes should be read and returned
+     *
+     * @return the requested amount of bytes read.
+     *
+     * @throws IOException if there are not enough bytes left to read.
+     */
+    public final byte[] readBytes(final int length) throws IOException {
+        this.checkForAvailableBytes(length);
+
+        final byte[] result = new byte[length];
+        this.getBytes(this.offset, result, 0, length);
+        this.advance(length);
+
+        return result;
+    }
+
+    /**
+     * Reads and returns some bytes, staring at the given offset.
+     *
+     * @param off     the offset where reading should start
+     * @param length  how many bytes should be read and returned
+     *
+     * @return the requested amount of bytes read.
+     *
+     * @throws IOException if there are not enough bytes left to read.
+     */
+    public final byte[] readBytes(final int off, final int length) throws IOException {
+        this.advance(off - this.offset);
+
+        return this.readBytes(length);
+    }
+
+    /**
+     * Reads and returns all remaining bytes.
+     *
+     * @return the remaining bytes. If no more bytes are available an empty byte array will be returned.
+     */
+    public final byte[] readRemainingBytes() {
+
+        final byte[] result = new byte[this.bytesLeft];
+        this.getBytes(this.offset, result, 0, this.bytesLeft);
+        this.advance(this.bytesLeft);
+
+        return result;
+    }
+
+    /**
+     * Reads and returns some bytes and treads the bytes as an EBCDIC-International encoded String.
+     *
+     * @param length length of the string
+     *
+     * @return the String decoded from the read bytes.
+     *
+     * @throws IOException if there are not enough bytes left to read.
+     */
+    public final String readEbcdicString(final int length) throws IOException {
+        this.checkForAvailableBytes(length);
+
+        final String result = this.getString(EBCDIC, this.offset, length);
+        this.advance(length);
+
+        return result;
+    }
+
+    /**
+     * Reads some bytes, treads the bytes as an EBCDIC-International encoded String and appends the
+     * String to the given {@link StringBuilder}. Nothing is allocated if the capacity of the
+     * {@link StringBuilder} is sufficient, so a {@link StringBuilder} can be reused for many fields.
+     *
+     * @param length length of the string
+     * @param target the {@link StringBuilder} the decoded chars are appended to
+     *
+     * @throws IOException if there are not enough bytes left to read.
+     */
+    public final void readEbcdicString(final int length, final StringBuilder target) throws IOException {
+        this.checkForAvailableBytes(length);
+
+        this.getString(EBCDIC, this.offset, length, target);
+        this.advance(length);
+    }
+
+    /**
+     * Reads and returns some bytes and treads the bytes as an ASCII encoded single byte character String.
+     *
+     * @param length length of the string
+     *
+     * @return the String decoded from the read bytes.
+     *
+     * @throws IOException if there are not enough bytes left to read.
+     */
+    public final String readAsciiString(final int length) throws IOException {
+        this.checkForAvailableBytes(length);
+
+        final String result = this.getString(ASCII, this.offset, length);
+        this.advance(length);
+
+        return result;
+    }
+
+    /**
+     * Reads some bytes, treads the bytes as an ASCII encoded single byte character String and appends the
+     * String to the given {@link StringBuilder}. Nothing is allocated if the capacity of the
+     * {@link StringBuilder} is sufficient, so a {@link StringBuilder} can be reused for many fields.
+     *
+     * @param length length of the string
+     * @param target the {@link StringBuilder} the decoded chars are appended to
+     *
+     * @throws IOException if there are not enough bytes left to read.
+     */
+    public final void readAsciiString(final int length, final StringBuilder target) throws IOException {
+        this.checkForAvailableBytes(length);
+
+        this.getString(ASCII, this.offset, length, target);
+        this.advance(length);
+    }
+
+    /**
+     * Reads and returns one input byte. The byte is treated as an unsigned value.
+     *
+     * @return the unsigned 8-bit value read.
+     *
+     * @throws IOException if there are not enough bytes left to parse.
+     */
+    public final int readUnsignedByte() throws IOException {
+        this.checkForAvailableBytes(1);
+
+        final int result = this.getUnsignedByte(this.offset);
+        this.advance(1);
+
+        return result;
+    }
+
+    /**
+     * Reads and returns one input byte. The byte is treated as a signed value.
+     *
+     * @return the signed 8-bit value read.
+     *
+     * @throws IOException if there are not enough bytes left to parse.
+     */
+    public final int readByte() throws IOException {
+        return (byte) this.readUnsignedByte();
+    }
+
+    /**
+     * Reads two input bytes and returns a integer value. The value is treated as an unsigned value.
+     *
+     * @return the unsigned 16-bit value read.
+     *
+     * @throws IOException if there are not enough bytes left to parse.
+     */
+    public final int readUnsignedInteger16() throws IOException {
+        this.checkForAvailableBytes(2);
+
+        final int result = this.getUnsignedInteger16(this.offset);
+        this.advance(2);
+
+        return result;
+    }
+
+    /**
+     * Reads two input bytes and returns a integer value. The value is treated as a signed value.
+     *
+     * @return the signed 16-bit value read.
+     *
+     * @throws IOException if there are not enough bytes left to parse.
+     */
+    public final int readInteger16() throws IOException {
+        return (short) this.readUnsignedInteger16();
+    }
+
+    /**
+     * Reads three input bytes and returns a integer value. The value is treated as an unsigned value.
+     *
+     * @return the unsigned 24-bit value read.
+     *
+     * @throws IOException if there are not enough bytes left to parse.
+     */
+    public final int readUnsignedInteger24() throws IOException {
+        this.checkForAvailableBytes(3);
+
+        final int result = this.getUnsignedInteger24(this.offset);
+        this.advance(3);
+
+        return result;
+    }
+
+    /**
+     * Reads three input bytes and returns a integer value. The value is treated as a signed value.
+     *
+     * @return the signed 24-bit value read.
+     *
+     * @throws IOException if there are not enough bytes left to parse.
+     */
+    public final int readInteger24() throws IOException {
+        return (this.readUnsignedInteger24() << 8) >> 8;
+    }
+
+    /**
+     * Reads four input bytes and returns a long value. The value is treated as an unsigned value.
+     *
+     * @return the unsigned 32-bit value read.
+     *
+     * @throws IOException if there are not enough bytes left to parse.
+     */
+    public final long readUnsignedInteger32() throws IOException {
+        return this.readInteger32() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Reads four input bytes and returns a integer value. The value is treated as a signed value.
+     *
+     * @return the signed 32-bit value read.
+     *
+     * @throws IOException if there are not enough bytes left to parse.
+     */
+    public final int readInteger32() throws IOException {
+        this.checkForAvailableBytes(4);
+
+        final int result = this.getInteger32(this.offset);
+        this.advance(4);
+
+        return result;
+    }
+}
@@ -0,0 +1,206 @@
+package de.textmode.ipdsbox.io;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A table driven codec for single byte character sets (like the EBCDIC code page IBM-500 or the ASCII
+ * code page IBM-850 used by IPDS).
+ *
+ * <p>Decoding and encoding with a {@link Charset} creates a decoder or encoder and temporary buffers for every
+ * String. The {@link SingleByteCodec} precomputes a decode table (256 chars) and an encode table (the
+ * mapped chars) once, so every byte is decoded and every char is encoded with a simple table lookup.
+ * Bytes are decoded to U+FFFD and chars are encoded to the replacement byte of the
+ * {@link Charset} if they are not mapped, just like the {@link Charset} does. Note that every char is
+ * encoded to exactly one byte (a surrogate pair is encoded to two replacement bytes).
+ *
+ * <p>The {@link SingleByteCodec} is immutable and thread safe.
+ */
+public final class SingleByteCodec {
+
+    private static final ConcurrentMap<String, SingleByteCodec> CODECS = new ConcurrentHashMap<>();
+
+    /**
+     * Codec for the EBCDIC code page IBM-500 (EBCDIC-International).
+     */
+    public static final SingleByteCodec IBM500 = forCharset(Charset.forName("ibm-500"));
+
+    /**
+     * Codec for the ASCII code page IBM-850.
+     */
+    public static final SingleByteCodec IBM850 = forCharset(Charset.forName("ibm-850"));
+
+    private static final char UNMAPPED_CHAR = (char) 0xFFFD;
+    private static final short UNMAPPED_BYTE = -1;
+
+    private final Charset charset;
+    private final char[] decodeTable = new char[256];
+    private final short[][] encodePages = new short[256][];
+    private final byte replacement;
+
+    private SingleByteCodec(final Charset charset) {
+        final CharsetEncoder encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+
+        if (encoder.maxBytesPerChar() != 1.0f) {
+            throw new IllegalArgumentException("The charset " + charset.name() + " is not a single byte charset");
+        }
+
+        this.charset = charset;
+        this.replacement = encoder.replacement()[0];
+
+        final byte[] single = new byte[1];
+        for (int ix = 0; ix < 256; ++ix) {
+            single[0] = (byte) ix;
+            final String decoded = new String(single, charset);
+            this.decodeTable[ix] = decoded.length() == 1 ? decoded.charAt(0) : UNMAPPED_CHAR;
+        }
+
+        // The encode table is built by encoding every char, because a charset may map more chars to
+        // a byte than the decode table contains (i. e. "best fit" mappings).
+        final char[] chars = new char[1];
+        final CharBuffer in = CharBuffer.wrap(chars);
+        final ByteBuffer out = ByteBuffer.allocate(4);
+
+        for (int ch = 0; ch <= 0xFFFF; ++ch) {
+            if (Character.isSurrogate((char) ch)) {
+                continue;
+            }
+
+            chars[0] = (char) ch;
+            in.clear();
+            out.clear();
+            encoder.reset();
+
+            if (encoder.encode(in, out, true).isUnderflow() && encoder.flush(out).isUnderflow()
+                    && out.position() == 1) {
+
+                this.put((char) ch, out.get(0));
+            }
+        }
+    }
+
+    private void put(final char ch, final byte value) {
+        final int page = ch >>> 8;
+        if (this.encodePages[page] == null) {
+            this.encodePages[page] = new short[256];
+            Arrays.fill(this.encodePages[page], UNMAPPED_BYTE);
+        }
+
+        this.encodePages[page][ch & 0xFF] = (short) (value & 0xFF);
+    }
+
+    /**
+     * Returns the encoded byte (0..255) of the given char or {@link #UNMAPPED_BYTE}.
+     */
+    private int lookup(final char ch) {
+        final short[] page = this.encodePages[ch >>> 8];
+        return page == null ? UNMAPPED_BYTE : page[ch & 0xFF];
+    }
+
+    /**
+     * Returns the {@link SingleByteCodec} for the given {@link Charset}. The tables are built once per
+     * {@link Charset}.
+     *
+     * @throws IllegalArgumentException if the given {@link Charset} is not a single byte charset.
+     */
+    public static SingleByteCodec forCharset(final Charset charset) {
+        return CODECS.computeIfAbsent(charset.name(), name -> new SingleByteCodec(charset));
+    }
+
+    /**
+     * Returns the {@link Charset} of this {@link SingleByteCodec}.
+     */
+    public Charset getCharset() {
+        return this.charset;
+    }
+
+    /**
+     * Returns <code>true</code> if the given char can be encoded (i. e. is not encoded to the replacement byte).
+     */
+    public boolean canEncode(final char ch) {
+        return this.lookup(ch) != UNMAPPED_BYTE;
+    }
+
+    /**
+     * Decodes one byte.
+     */
+    public char decode(final int value) {
+        return this.decodeTable[value & 0xFF];
+    }
+
+    /**
+     * Decodes the given bytes to a {@link String}.
+     */
+    public String decode(final byte[] src, final int offset, final int length) {
+        final char[] chars = new char[length];
+        this.decode(src, offset, length, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Decodes the given bytes into the given char array.
+     *
+     * @return the number of decoded chars (equals <code>length</code>).
+     */
+    public int decode(final byte[] src, final int offset, final int length, final char[] dst, final int dstOffset) {
+        for (int ix = 0; ix < length; ++ix) {
+            dst[dstOffset + ix] = this.decodeTable[src[offset + ix] & 0xFF];
+        }
+        return length;
+    }
+
+    /**
+     * Decodes the given bytes and appends the chars to the given {@link StringBuilder}. No object is
+     * allocated if the capacity of the {@link StringBuilder} is sufficient.
+     */
+    public void decode(final byte[] src, final int offset, final int length, final StringBuilder dst) {
+        dst.ensureCapacity(dst.length() + length);
+        for (int ix = 0; ix < length; ++ix) {
+            dst.append(this.decodeTable[src[offset + ix] & 0xFF]);
+        }
+    }
+
+    /**
+     * Encodes one char.
+     */
+    public byte encode(final char ch) {
+        final int value = this.lookup(ch);
+        return value == UNMAPPED_BYTE ? this.replacement : (byte) value;
+    }
+
+    /**
+     * Encodes the given chars to a new byte array.
+     */
+    public byte[] encode(final CharSequence src) {
+        final byte[] result = new byte[src.length()];
+        this.encode(src, 0, src.length(), result, 0);
+        return result;
+    }
+
+    /**
+     * Encodes the chars <code>src[start..end)</code> into the given byte array.
+     *
+     * @return the number of encoded bytes (equals <code>end - start</code>).
+     */
+    public int encode(final CharSequence src, final int start, final int end, final byte[] dst, final int dstOffset) {
+        for (int ix = start; ix < end; ++ix) {
+            dst[dstOffset + ix - start] = this.encode(src.charAt(ix));
+        }
+        return end - start;
+    }
+
+    @Override
+    public String toString() {
+        return "SingleByteCodec{"
+                + "charset=" + this.charset.name()
+                + '}';
+    }
+}
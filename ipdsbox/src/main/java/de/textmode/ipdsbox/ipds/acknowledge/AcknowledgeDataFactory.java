@@ -2,13 +2,39 @@ package de.textmode.ipdsbox.ipds.acknowledge;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.Decoder;
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.DecoderRegistry;
+import de.textmode.ipdsbox.core.DecoderTable;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * A factory for all supported {@link AcknowledgeData}.
+ *
+ * <p>The {@link AcknowledgeData} is decoded by the {@link Decoder}s of a {@link DecoderTable}, keyed by the
+ * acknowledge type. The {@link DecoderTable} of all {@link AcknowledgeData} supported by ipdsbox is returned by
+ * {@link #getDefaultDecoders()}. Own {@link Decoder}s can be added with {@link DecoderTable#toRegistry()} and
+ * used by a {@link DecoderContext} (see {@link #create(int, IpdsInputStream, DecoderContext)}), which is passed
+ * to the self-defining fields of the {@link AcknowledgeData} as well.
  */
 public final class AcknowledgeDataFactory {
 
+    private static final DecoderTable<AcknowledgeData> DEFAULT_DECODERS =
+        new DecoderRegistry<AcknowledgeData>(0, (ipds, ackType, context) -> new RawAcknowledgeData(ipds))
+            .register(0x00, (ipds, ackType, context) -> new NoAcknowledgeData())
+            .register(0x40, (ipds, ackType, context) -> new NoAcknowledgeData())
+
+            .register(0x80, (ipds, ackType, context) -> new SenseDataAcknowledgeData(ipds))
+            .register(0xC0, (ipds, ackType, context) -> new SenseDataAcknowledgeData(ipds))
+
+            .register(0x01, (ipds, ackType, context) -> new SenseTypeAndModelAcknowledgeData(ipds))
+            .register(0x41, (ipds, ackType, context) -> new SenseTypeAndModelAcknowledgeData(ipds))
+
+            .register(0x06, (ipds, ackType, context) -> new ObtainPrinterCharacteristicsAcknowledgeData(ipds, context))
+            .register(0x46, (ipds, ackType, context) -> new ObtainPrinterCharacteristicsAcknowledgeData(ipds, context))
+            .freeze();
+
     /**
      * Private constructor to make checkstyle happy.
      */
@@ -16,24 +42,32 @@ public final class AcknowledgeDataFactory {
     }
 
     /**
-     * Creates a {@link AcknowledgeData} from the given {@link IpdsByteArrayInputStream}.
+     * Returns the {@link DecoderTable} of all {@link AcknowledgeData} supported by ipdsbox.
      */
-    public static AcknowledgeData create(final int ackType, final IpdsByteArrayInputStream ipds) throws IOException {
-
-        return switch (ackType) {
-            case 0x00 -> new NoAcknowledgeData();
-            case 0x40 -> new NoAcknowledgeData();
-
-            case 0x80 -> new SenseDataAcknowledgeData(ipds);
-            case 0xC0 -> new SenseDataAcknowledgeData(ipds);
+    public static DecoderTable<AcknowledgeData> getDefaultDecoders() {
+        return DEFAULT_DECODERS;
+    }
 
-            case 0x01 -> new SenseTypeAndModelAcknowledgeData(ipds);
-            case 0x41 -> new SenseTypeAndModelAcknowledgeData(ipds);
+    /**
+     * Creates a {@link AcknowledgeData} from the given {@link IpdsInputStream}.
+     */
+    public static AcknowledgeData create(final int ackType, final IpdsInputStream ipds) throws IOException {
+        return create(ackType, ipds, DecoderContext.getDefault());
+    }
 
-            case 0x06 -> new ObtainPrinterCharacteristicsAcknowledgeData(ipds);
-            case 0x46 -> new ObtainPrinterCharacteristicsAcknowledgeData(ipds);
+    /**
+     * Creates a {@link AcknowledgeData} from the given {@link IpdsInputStream} with the {@link Decoder}s of the
+     * given {@link DecoderContext}.
+     */
+    public static AcknowledgeData create(
+            final int ackType,
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException {
 
-            default -> new RawAcknowledgeData(ipds);
-        };
+        try {
+            return context.getAcknowledgeData().decode(ipds, ackType, context);
+        } catch (final InvalidIpdsCommandException e) {
+            throw new IOException(e.getMessage(), e);
+        }
     }
 }
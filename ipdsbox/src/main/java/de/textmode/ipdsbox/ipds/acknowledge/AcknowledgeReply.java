@@ -2,9 +2,11 @@ package de.textmode.ipdsbox.ipds.acknowledge;
 
 import java.io.IOException;
 
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.DecoderTable;
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
 import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
 
@@ -53,7 +55,18 @@ public final class AcknowledgeReply extends IpdsCommand {
     /**
      * Constructs the {@link AcknowledgeReply}.
      */
-    public AcknowledgeReply(final IpdsByteArrayInputStream ipds) throws InvalidIpdsCommandException, IOException {
+    public AcknowledgeReply(final IpdsInputStream ipds) throws InvalidIpdsCommandException, IOException {
+        this(ipds, DecoderContext.getDefault());
+    }
+
+    /**
+     * Constructs the {@link AcknowledgeReply}. The acknowledge data is decoded with the {@link DecoderTable}s of
+     * the given {@link DecoderContext}.
+     */
+    public AcknowledgeReply(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws InvalidIpdsCommandException, IOException {
+
         super(ipds, IpdsCommandId.ACK);
 
         this.acktype = ipds.readUnsignedByte();
@@ -77,14 +90,14 @@ public final class AcknowledgeReply extends IpdsCommand {
             this.stackedCopyCounter = ipds.readUnsignedInteger16();
         }
 
-        this.acknowledgeData = AcknowledgeDataFactory.create(this.acktype, ipds);
+        this.acknowledgeData = AcknowledgeDataFactory.create(this.acktype, ipds, context);
     }
 
     /**
      * Skips ("over-reads") the counters of the Acknowledge Reply command.
      */
     public static void skipCounters(
-            final IpdsByteArrayInputStream ipds) throws IOException, InvalidIpdsCommandException {
+            final IpdsInputStream ipds) throws IOException, InvalidIpdsCommandException {
 
         final int acktype = ipds.readUnsignedByte();
 
@@ -165,6 +178,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the acknowledge type.
      */
     public void setAcknowledgeType(final int pageId) {
+        this.modified();
         this.acktype = pageId;
     }
 
@@ -179,6 +193,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the stacked page counter.
      */
     public void setStackedPageCounter(final int stackedPageCounter) {
+        this.modified();
         this.stackedPageCounter = stackedPageCounter;
     }
 
@@ -193,6 +208,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the stacked copy counter.
      */
     public void setStackedCopyCounter(final int stackedCopyCounter) {
+        this.modified();
         this.stackedCopyCounter = stackedCopyCounter;
     }
 
@@ -207,6 +223,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the received page counter.
      */
     public void setReceivedPageCounter(final int receivedPageCounter) {
+        this.modified();
         this.receivedPageCounter = receivedPageCounter;
     }
 
@@ -221,6 +238,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the Committed page counter.
      */
     public void setCommittedPageCounter(final int committedPageCounter) {
+        this.modified();
         this.committedPageCounter = committedPageCounter;
     }
 
@@ -235,6 +253,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the Committed copy counter.
      */
     public void setCommittedCopyCounter(final int committedCopyCounter) {
+        this.modified();
         this.committedCopyCounter = committedCopyCounter;
     }
 
@@ -249,6 +268,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the operator viewing page counter.
      */
     public void setOperatorViewingPageCounter(final int operatorViewingPageCounter) {
+        this.modified();
         this.operatorViewingPageCounter = operatorViewingPageCounter;
     }
 
@@ -263,6 +283,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the operator viewing copy counter.
      */
     public void setOperatorViewingCopyCounter(final int operatorViewingCopyCounter) {
+        this.modified();
         this.operatorViewingCopyCounter = operatorViewingCopyCounter;
     }
 
@@ -277,6 +298,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the jam recovery page counter.
      */
     public void setJamRecoveryPageCounter(final int jamRecoveryPageCounter) {
+        this.modified();
         this.jamRecoveryPageCounter = jamRecoveryPageCounter;
     }
 
@@ -291,6 +313,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the jam recovery copy counter.
      */
     public void setJamRecoveryCopyCounter(final int jamRecoveryCopyCounter) {
+        this.modified();
         this.jamRecoveryCopyCounter = jamRecoveryCopyCounter;
     }
 
@@ -298,6 +321,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Returns the special data area of the Ack.
      */
     public AcknowledgeData getAcknowledgeData() {
+        this.exposed();
         return this.acknowledgeData;
     }
 
@@ -305,6 +329,7 @@ public final class AcknowledgeReply extends IpdsCommand {
      * Sets the special data area of the Ack.
      */
     public void setAcknowledgeData(final AcknowledgeData acknowledgeData) {
+        this.modified();
         this.acknowledgeData = acknowledgeData;
     }
 
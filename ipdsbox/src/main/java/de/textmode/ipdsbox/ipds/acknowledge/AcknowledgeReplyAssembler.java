@@ -0,0 +1,284 @@
+package de.textmode.ipdsbox.ipds.acknowledge;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsCompositeInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFlags;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningFieldFactory;
+import de.textmode.ipdsbox.ppd.PagePrinterRequest;
+
+/**
+ * Reassembles an {@link AcknowledgeReply} that the printer has split into a chain of Acknowledge Replies (all but
+ * the last one have the "Acknowledge Continuation Requested" flag set), like the reply of a large XOH Obtain
+ * Printer Characteristics or XOA Request Resource List.
+ *
+ * <p>The fragments are not concatenated. The acknowledge data of every fragment (the data behind the flags,
+ * the optional correlation ID, the acknowledge type and the counters) is appended as a view to an
+ * {@link IpdsCompositeInputStream}, so the fragments must not be modified (or reused) as long as the
+ * {@link AcknowledgeReplyAssembler} or the decoded {@link AcknowledgeReply} (whose triplets keep views of the
+ * fragments) is used. The flags, correlation ID, acknowledge type and counters are taken
+ * from the first fragment.
+ *
+ * <p>The {@link SelfDefiningField}s of an Obtain Printer Characteristics reply (acknowledge type 0x06 or 0x46)
+ * are decoded as soon as they are complete, so they can be used (see {@link #getSelfDefiningFields()}) before
+ * the last fragment has arrived. A {@link SelfDefiningField} that spans two fragments is decoded when the second
+ * fragment has been added. This is only done if the {@link DecoderContext} decodes the acknowledge type with
+ * the default {@link de.textmode.ipdsbox.core.Decoder} (see {@link AcknowledgeDataFactory#getDefaultDecoders()}).
+ * Otherwise (i. e. if a {@link LazyObtainPrinterCharacteristicsAcknowledgeData} has been registered) the
+ * reassembled acknowledge data is decoded by the {@link de.textmode.ipdsbox.core.Decoder} of the
+ * {@link DecoderContext} when the {@link AcknowledgeReply} is requested.
+ *
+ * <p>A typical use is:
+ * <pre>
+ * final AcknowledgeReplyAssembler assembler = new AcknowledgeReplyAssembler();
+ * while (!assembler.add(request)) {
+ *     // Request the next fragment and read it...
+ * }
+ * final AcknowledgeReply reply = assembler.getAcknowledgeReply();
+ * </pre>
+ */
+public final class AcknowledgeReplyAssembler {
+
+    private final List<SelfDefiningField> selfDefiningFields = new ArrayList<>();
+    private final DecoderContext context;
+
+    private IpdsInputStream header;
+    private IpdsCompositeInputStream data;
+    private int acknowledgeType;
+    private boolean hasSelfDefiningFields;
+    private int fragmentCount;
+    private boolean isComplete;
+    private AcknowledgeReply acknowledgeReply;
+
+    /**
+     * Constructs an empty {@link AcknowledgeReplyAssembler}.
+     */
+    public AcknowledgeReplyAssembler() {
+        this(DecoderContext.getDefault());
+    }
+
+    /**
+     * Constructs an empty {@link AcknowledgeReplyAssembler} that decodes with the
+     * {@link de.textmode.ipdsbox.core.DecoderTable}s of the given {@link DecoderContext}.
+     */
+    public AcknowledgeReplyAssembler(final DecoderContext context) {
+        this.context = context;
+        this.reset();
+    }
+
+    /**
+     * Adds the Acknowledge Reply carried by the given {@link PagePrinterRequest}.
+     *
+     * @return <code>true</code> if the Acknowledge Reply is the last fragment.
+     *
+     * @throws IOException if the {@link PagePrinterRequest} does not carry IPDS commands or the Acknowledge Reply
+     *  is broken.
+     * @throws InvalidIpdsCommandException if the {@link PagePrinterRequest} does not carry an Acknowledge Reply or
+     *  the last fragment has already been added.
+     */
+    public boolean add(final PagePrinterRequest request) throws IOException, InvalidIpdsCommandException {
+        if (request.getRequest() != 0x0E) {
+            throw new IOException("Can not handle request type " + Integer.toHexString(request.getRequest()));
+        }
+
+        // Skip the 8 bytes that precede the IPDS commands within the PagePrinterRequest...
+        final byte[] requestData = request.getData();
+        return this.add(new IpdsByteArrayInputStream(requestData, 8, requestData.length - request.getDataLength()));
+    }
+
+    /**
+     * Adds the Acknowledge Reply read from the given {@link IpdsInputStream}. The {@link IpdsInputStream} has to
+     * start at the length field of the Acknowledge Reply and has to end at the end of the Acknowledge Reply.
+     *
+     * @return <code>true</code> if the Acknowledge Reply is the last fragment.
+     *
+     * @throws IOException if the Acknowledge Reply is broken.
+     * @throws InvalidIpdsCommandException if the IPDS command is not an Acknowledge Reply or the last fragment
+     *  has already been added.
+     */
+    public boolean add(final IpdsInputStream ipds) throws IOException, InvalidIpdsCommandException {
+        if (this.isComplete) {
+            throw new InvalidIpdsCommandException("The last fragment of the Acknowledge Reply has already been added");
+        }
+
+        final int availableLength = ipds.bytesAvailable();
+        final int commandLength = ipds.readUnsignedInteger16();
+
+        if (commandLength != availableLength) {
+            throw new InvalidIpdsCommandException(String.format(
+                    "An Acknowledge Reply to be read seems to be %1$d bytes long but "
+                    + "the IPDS data stream ends after %2$d bytes.",
+                    commandLength,
+                    availableLength));
+        }
+
+        if (ipds.readUnsignedInteger16() != IpdsCommandId.ACK.getValue()) {
+            throw new InvalidIpdsCommandException("Only `Acknowledge Replies` may be combined");
+        }
+
+        final int headerStart = ipds.tell();
+        final IpdsCommandFlags flags = new IpdsCommandFlags((byte) ipds.readUnsignedByte());
+
+        // Skip the correlation ID if present...
+        if (flags.hasCorrelationID()) {
+            ipds.skip(2);
+        }
+
+        if (this.fragmentCount == 0) {
+            this.acknowledgeType = ipds.readUnsignedByte();
+            this.hasSelfDefiningFields = this.isDecodedIncrementally(this.acknowledgeType);
+            ipds.rewind(1);
+            AcknowledgeReply.skipCounters(ipds);
+
+            final int headerLength = ipds.tell() - headerStart;
+            ipds.rewind(headerLength);
+            this.header = ipds.readView(headerLength);
+        } else {
+            AcknowledgeReply.skipCounters(ipds);
+        }
+
+        this.data.append(ipds);
+        ++this.fragmentCount;
+        this.isComplete = !flags.isAcknowledgmentContinuationRequested();
+
+        if (this.hasSelfDefiningFields) {
+            this.decodeSelfDefiningFields();
+        }
+
+        return this.isComplete;
+    }
+
+    /**
+     * Decodes all complete {@link SelfDefiningField}s that are available.
+     */
+    private void decodeSelfDefiningFields() throws IOException {
+        while (this.data.bytesAvailable() >= 2) {
+            final int length = this.data.readUnsignedInteger16();
+            this.data.rewind(2);
+
+            // The self-defining field is continued in the next fragment...
+            if (length > this.data.bytesAvailable()) {
+                break;
+            }
+
+            this.selfDefiningFields.add(
+                    SelfDefiningFieldFactory.create(this.data.readSelfDefiningFieldViewIfExists(), this.context));
+        }
+
+        if (this.isComplete && this.data.bytesAvailable() > 0) {
+            throw new IOException("The Acknowledge Reply ends within a self-defining field");
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the acknowledge data consists of {@link SelfDefiningField}s (the reply to an
+     * Obtain Printer Characteristics) and the {@link DecoderContext} decodes it with the default
+     * {@link de.textmode.ipdsbox.core.Decoder}, so the {@link SelfDefiningField}s can be decoded incrementally.
+     */
+    private boolean isDecodedIncrementally(final int ackType) {
+        return (ackType == 0x06 || ackType == 0x46)
+                && this.context.getAcknowledgeData().getDecoder(ackType)
+                    == AcknowledgeDataFactory.getDefaultDecoders().getDecoder(ackType);
+    }
+
+    /**
+     * Returns <code>true</code> if the last fragment has been added.
+     */
+    public boolean isComplete() {
+        return this.isComplete;
+    }
+
+    /**
+     * Returns the number of fragments that have been added.
+     */
+    public int getFragmentCount() {
+        return this.fragmentCount;
+    }
+
+    /**
+     * Returns the acknowledge type of the first fragment.
+     *
+     * @throws IllegalStateException if no fragment has been added.
+     */
+    public int getAcknowledgeType() {
+        if (this.fragmentCount == 0) {
+            throw new IllegalStateException("No Acknowledge Reply has been added");
+        }
+
+        return this.acknowledgeType;
+    }
+
+    /**
+     * Returns the {@link SelfDefiningField}s of an Obtain Printer Characteristics reply that have been decoded
+     * so far. The returned {@link List} is empty for all other acknowledge types and if the {@link DecoderContext}
+     * has an own {@link de.textmode.ipdsbox.core.Decoder} for the acknowledge type.
+     */
+    public List<SelfDefiningField> getSelfDefiningFields() {
+        return Collections.unmodifiableList(this.selfDefiningFields);
+    }
+
+    /**
+     * Returns the reassembled {@link AcknowledgeReply}. The "Acknowledge Continuation Requested" flag of the
+     * {@link AcknowledgeReply} is not set.
+     *
+     * @throws IllegalStateException if the last fragment has not been added yet.
+     */
+    public AcknowledgeReply getAcknowledgeReply() throws IOException, InvalidIpdsCommandException {
+        if (!this.isComplete) {
+            throw new IllegalStateException("The last fragment of the Acknowledge Reply has not been added yet");
+        }
+
+        if (this.acknowledgeReply != null) {
+            return this.acknowledgeReply;
+        }
+
+        final IpdsCompositeInputStream ipds = new IpdsCompositeInputStream();
+        ipds.append(this.header);
+
+        if (this.hasSelfDefiningFields) {
+            // The self-defining fields have already been decoded...
+            this.acknowledgeReply = new AcknowledgeReply(ipds, this.context);
+            this.acknowledgeReply.setAcknowledgeData(
+                    new ObtainPrinterCharacteristicsAcknowledgeData(new ArrayList<>(this.selfDefiningFields)));
+        } else {
+            ipds.append(this.data);
+            this.acknowledgeReply = new AcknowledgeReply(ipds, this.context);
+        }
+
+        this.acknowledgeReply.getCommandFlags().isAcknowledgmentContinuationRequested(false);
+        return this.acknowledgeReply;
+    }
+
+    /**
+     * Resets the {@link AcknowledgeReplyAssembler}, so it can be used for the next chain of Acknowledge Replies.
+     */
+    public void reset() {
+        this.selfDefiningFields.clear();
+        this.header = null;
+        this.data = new IpdsCompositeInputStream();
+        this.acknowledgeType = 0;
+        this.hasSelfDefiningFields = false;
+        this.fragmentCount = 0;
+        this.isComplete = false;
+        this.acknowledgeReply = null;
+    }
+
+    @Override
+    public String toString() {
+        return "AcknowledgeReplyAssembler{"
+                + "acknowledgeType=0x" + Integer.toHexString(this.acknowledgeType)
+                + ", fragmentCount=" + this.fragmentCount
+                + ", isComplete=" + this.isComplete
+                + ", selfDefiningFields=" + this.selfDefiningFields.size()
+                + '}';
+    }
+}
@@ -0,0 +1,204 @@
+package de.textmode.ipdsbox.ipds.acknowledge;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.textmode.ipdsbox.core.ByteUtils;
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningFieldFactory;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningFieldId;
+
+/**
+ * A lazily decoded variant of the {@link ObtainPrinterCharacteristicsAcknowledgeData}. The constructor only scans
+ * the self-defining fields once and builds an index of their offsets, a {@link SelfDefiningField} is decoded on
+ * first access (and cached). This pays off because most sessions only need a few of the self-defining fields,
+ * but some of them (like the Symbol-Set Support) are rather large. The first {@link SelfDefiningField} with a
+ * given {@link SelfDefiningFieldId} is returned by {@link #get(SelfDefiningFieldId)} in constant time.
+ *
+ * <p>The {@link AcknowledgeDataFactory} creates an {@link ObtainPrinterCharacteristicsAcknowledgeData} by
+ * default. To get a {@link LazyObtainPrinterCharacteristicsAcknowledgeData} instead decode with
+ * <pre>
+ * final DecoderContext context = DecoderContext.getDefault().withAcknowledgeData(
+ *     AcknowledgeDataFactory.getDefaultDecoders().toRegistry()
+ *         .register(0x06, (ipds, ackType, ctx) -&gt; new LazyObtainPrinterCharacteristicsAcknowledgeData(ipds, ctx))
+ *         .register(0x46, (ipds, ackType, ctx) -&gt; new LazyObtainPrinterCharacteristicsAcknowledgeData(ipds, ctx))
+ *         .freeze());
+ * </pre>
+ */
+public final class LazyObtainPrinterCharacteristicsAcknowledgeData implements AcknowledgeData {
+
+    private static final int NOT_PRESENT = -1;
+
+    private final byte[] data;
+    private final int[] offsets;
+    private final SelfDefiningField[] selfDefiningFields;
+    private final DecoderContext context;
+
+    // Index of the first self-defining field for every SelfDefiningFieldId (by ordinal).
+    private final int[] firstIndex;
+
+    /**
+     * Constructs the {@link LazyObtainPrinterCharacteristicsAcknowledgeData} from the remaining bytes of the
+     * given {@link IpdsInputStream}. The bytes are copied, so the underlying data of the {@link IpdsInputStream}
+     * may be reused afterwards.
+     *
+     * @throws IOException if the length of a self-defining field is invalid.
+     */
+    public LazyObtainPrinterCharacteristicsAcknowledgeData(final IpdsInputStream ipds) throws IOException {
+        this(ipds, DecoderContext.getDefault());
+    }
+
+    /**
+     * Constructs the {@link LazyObtainPrinterCharacteristicsAcknowledgeData} from the remaining bytes of the
+     * given {@link IpdsInputStream}. The self-defining fields are decoded with the
+     * {@link de.textmode.ipdsbox.core.DecoderTable}s of the given {@link DecoderContext}.
+     *
+     * @throws IOException if the length of a self-defining field is invalid.
+     */
+    public LazyObtainPrinterCharacteristicsAcknowledgeData(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException {
+
+        this.data = ipds.readRemainingBytes();
+        this.context = context;
+        this.firstIndex = new int[SelfDefiningFieldId.values().length];
+        Arrays.fill(this.firstIndex, NOT_PRESENT);
+
+        final IpdsInputStream scanner = new IpdsByteArrayInputStream(this.data);
+        int[] found = new int[16];
+        int count = 0;
+
+        while (scanner.bytesAvailable() > 0) {
+            final int offset = scanner.tell();
+            if (scanner.readSelfDefiningFieldViewIfExists().bytesAvailable() < 4) {
+                throw new IOException("The self-defining field at offset " + offset + " does not contain an ID");
+            }
+
+            final SelfDefiningFieldId id =
+                    SelfDefiningFieldId.getIfKnown(ByteUtils.toUnsignedInteger16(this.data, offset + 2));
+
+            if (id != null && this.firstIndex[id.ordinal()] == NOT_PRESENT) {
+                this.firstIndex[id.ordinal()] = count;
+            }
+
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+
+            found[count++] = offset;
+        }
+
+        this.offsets = Arrays.copyOf(found, count);
+        this.selfDefiningFields = new SelfDefiningField[count];
+    }
+
+    /**
+     * Returns the number of self-defining fields.
+     */
+    public int getSelfDefiningFieldCount() {
+        return this.offsets.length;
+    }
+
+    /**
+     * Returns <code>true</code> if there is a self-defining field with the given {@link SelfDefiningFieldId}.
+     */
+    public boolean contains(final SelfDefiningFieldId id) {
+        return this.firstIndex[id.ordinal()] != NOT_PRESENT;
+    }
+
+    /**
+     * Returns the first {@link SelfDefiningField} with the given {@link SelfDefiningFieldId} or <code>null</code>
+     * if there is no such {@link SelfDefiningField}. The {@link SelfDefiningField} is decoded on first access.
+     */
+    public SelfDefiningField get(final SelfDefiningFieldId id) throws IOException {
+        final int index = this.firstIndex[id.ordinal()];
+        return index == NOT_PRESENT ? null : this.get(index);
+    }
+
+    /**
+     * Returns the {@link SelfDefiningField} with the given index. The {@link SelfDefiningField} is decoded on
+     * first access.
+     */
+    public SelfDefiningField get(final int index) throws IOException {
+        SelfDefiningField selfDefiningField = this.selfDefiningFields[index];
+
+        if (selfDefiningField == null) {
+            final int offset = this.offsets[index];
+            final int length = ByteUtils.toUnsignedInteger16(this.data, offset);
+
+            selfDefiningField = SelfDefiningFieldFactory.create(
+                    new IpdsByteArrayInputStream(this.data, offset, this.data.length - offset - length),
+                    this.context);
+
+            this.selfDefiningFields[index] = selfDefiningField;
+        }
+
+        return selfDefiningField;
+    }
+
+    /**
+     * Returns all {@link SelfDefiningField}s with the given {@link SelfDefiningFieldId} (some self-defining fields
+     * may be reported more than once).
+     */
+    public List<SelfDefiningField> getAll(final SelfDefiningFieldId id) throws IOException {
+        final List<SelfDefiningField> result = new ArrayList<>();
+
+        for (int ix = this.firstIndex[id.ordinal()]; ix != NOT_PRESENT && ix < this.offsets.length; ++ix) {
+            if (ByteUtils.toUnsignedInteger16(this.data, this.offsets[ix] + 2) == id.getId()) {
+                result.add(this.get(ix));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a {@link List} of all {@link SelfDefiningField}s, so all self-defining fields are decoded.
+     */
+    public List<SelfDefiningField> getSelfDefiningFields() throws IOException {
+        final List<SelfDefiningField> result = new ArrayList<>(this.offsets.length);
+
+        for (int ix = 0; ix < this.offsets.length; ++ix) {
+            result.add(this.get(ix));
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the self-defining fields. A self-defining field that has not been decoded is written as-is.
+     */
+    @Override
+    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+        for (int ix = 0; ix < this.offsets.length; ++ix) {
+            if (this.selfDefiningFields[ix] != null) {
+                this.selfDefiningFields[ix].writeTo(out);
+            } else {
+                final int offset = this.offsets[ix];
+                out.writeBytes(
+                        new IpdsByteArrayInputStream(this.data, offset),
+                        0,
+                        ByteUtils.toUnsignedInteger16(this.data, offset));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        int decoded = 0;
+        for (final SelfDefiningField selfDefiningField : this.selfDefiningFields) {
+            decoded += selfDefiningField != null ? 1 : 0;
+        }
+
+        return "LazyObtainPrinterCharacteristicsAcknowledgeData{"
+                + "selfDefiningFields=" + this.offsets.length
+                + ", decoded=" + decoded
+                + '}';
+    }
+}
@@ -4,8 +4,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.sdf.SelfDefiningField;
 import de.textmode.ipdsbox.ipds.sdf.SelfDefiningFieldFactory;
 
@@ -13,15 +14,20 @@ public final class ObtainPrinterCharacteristicsAcknowledgeData implements Acknow
 
     private List<SelfDefiningField> selfDefiningFields = new ArrayList<>();
 
-    ObtainPrinterCharacteristicsAcknowledgeData(final IpdsByteArrayInputStream ipds) throws IOException {
-        while (ipds.bytesAvailable() > 0) {
-            final int length = ipds.readUnsignedInteger16();
-            ipds.rewind(2);
+    ObtainPrinterCharacteristicsAcknowledgeData(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException {
 
-            this.selfDefiningFields.add(SelfDefiningFieldFactory.create(ipds.readBytes(length)));
+        IpdsInputStream selfDefiningField;
+        while ((selfDefiningField = ipds.readSelfDefiningFieldViewIfExists()) != null) {
+            this.selfDefiningFields.add(SelfDefiningFieldFactory.create(selfDefiningField, context));
         }
     }
 
+    ObtainPrinterCharacteristicsAcknowledgeData(final List<SelfDefiningField> selfDefiningFields) {
+        this.selfDefiningFields = selfDefiningFields;
+    }
+
     @Override
     public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
         for (final SelfDefiningField selfDefiningField : this.selfDefiningFields) {
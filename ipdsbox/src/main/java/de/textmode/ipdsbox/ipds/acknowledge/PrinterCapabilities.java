@@ -0,0 +1,481 @@
+package de.textmode.ipdsbox.ipds.acknowledge;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import de.textmode.ipdsbox.ipds.acknowledge.SenseTypeAndModelAcknowledgeData.CommandSetVector;
+import de.textmode.ipdsbox.ipds.sdf.PrintableAreaSelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.PrinterSpeedSelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningFieldId;
+import de.textmode.ipdsbox.ipds.sdf.StoragePoolsSelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.StoragePoolsSelfDefiningField.StoragePoolEntry;
+import de.textmode.ipdsbox.ipds.sdf.SupportedDeviceResolutionsSelfDefiningField;
+
+/**
+ * The {@link PrinterCapabilities} combine the replies to the Sense Type and Model command (the command-set
+ * vectors) and to the Obtain Printer Characteristics order (printable areas, device resolutions, printer speed
+ * and storage pools) into an immutable object that is built once per session.
+ *
+ * <p>The capability checks are meant for the page generation, so they run in constant time and do not create
+ * any objects: the property pairs of every command set are kept in a {@link BitSet} (the command sets are found
+ * by a small hash table), the printable areas are kept in primitive arrays that are indexed by the media source
+ * ID.
+ */
+public final class PrinterCapabilities {
+
+    private static final int NOT_PRESENT = -1;
+    private static final int MEDIA_SOURCE_IDS = 256;
+
+    private final int type;
+    private final int model;
+
+    // Open addressing hash table of the command sets, keyed by the (subset or) command set ID.
+    private final int[] commandSetIds;
+    private final int[] commandSetLevels;
+    private final BitSet[] propertyPairs;
+    private final int commandSetShift;
+    private final int commandSetCount;
+
+    // The printable areas, indexed by the index of the media source ID.
+    private final int[] mediaSourceIndex;
+    private final int[] mediaSourceIds;
+    private final int[] unitBases;
+    private final int[] unitsPerUnitBase;
+    private final int[] mediumPresentationSpaceWidths;
+    private final int[] mediumPresentationSpaceLengths;
+    private final int[] printableAreaXOffsets;
+    private final int[] printableAreaYOffsets;
+    private final int[] printableAreaXExtents;
+    private final int[] printableAreaYExtents;
+    private final int[] inputMediaSourceCharacteristicFlags;
+
+    private final int[] ripXResolutions;
+    private final int[] ripYResolutions;
+    private final int[] printHeadXResolutions;
+    private final int[] printHeadYResolutions;
+
+    private final int[] storagePoolIds;
+    private final long[] storagePoolEmptySizes;
+
+    private final long pagesPerMinute;
+    private final long feetPerMinute;
+
+    private PrinterCapabilities(
+            final SenseTypeAndModelAcknowledgeData stm,
+            final List<SelfDefiningField> selfDefiningFields) {
+
+        final List<CommandSetVector> vectors = stm == null
+                ? Collections.<CommandSetVector>emptyList()
+                : stm.getCommandSetVectors();
+
+        this.type = stm == null ? 0 : stm.getType();
+        this.model = stm == null ? 0 : stm.getModel();
+
+        // The hash table is at most half full...
+        int bits = 3;
+        while ((1 << bits) < vectors.size() * 2) {
+            ++bits;
+        }
+
+        this.commandSetShift = 32 - bits;
+        this.commandSetIds = new int[1 << bits];
+        this.commandSetLevels = new int[1 << bits];
+        this.propertyPairs = new BitSet[1 << bits];
+        Arrays.fill(this.commandSetIds, NOT_PRESENT);
+
+        int count = 0;
+        for (final CommandSetVector vector : vectors) {
+            final int slot = this.findCommandSet(vector.getSubsetIdOrCommandSetId());
+
+            if (this.commandSetIds[slot] == NOT_PRESENT) {
+                this.commandSetIds[slot] = vector.getSubsetIdOrCommandSetId();
+                this.commandSetLevels[slot] = vector.getLevelOrSubsetId();
+                this.propertyPairs[slot] = new BitSet();
+                ++count;
+            }
+
+            for (final Integer propertyPair : vector.getPropertyPairs()) {
+                this.propertyPairs[slot].set(propertyPair);
+            }
+        }
+
+        this.commandSetCount = count;
+
+        final List<PrintableAreaSelfDefiningField> areas = new ArrayList<>();
+        final List<SupportedDeviceResolutionsSelfDefiningField> resolutions = new ArrayList<>();
+        final List<StoragePoolEntry> pools = new ArrayList<>();
+        PrinterSpeedSelfDefiningField speed = null;
+
+        for (final SelfDefiningField selfDefiningField : selfDefiningFields) {
+            if (selfDefiningField instanceof PrintableAreaSelfDefiningField) {
+                areas.add((PrintableAreaSelfDefiningField) selfDefiningField);
+            } else if (selfDefiningField instanceof SupportedDeviceResolutionsSelfDefiningField) {
+                resolutions.add((SupportedDeviceResolutionsSelfDefiningField) selfDefiningField);
+            } else if (selfDefiningField instanceof StoragePoolsSelfDefiningField) {
+                pools.addAll(((StoragePoolsSelfDefiningField) selfDefiningField).getStoragePoolEntries());
+            } else if (selfDefiningField instanceof PrinterSpeedSelfDefiningField && speed == null) {
+                speed = (PrinterSpeedSelfDefiningField) selfDefiningField;
+            }
+        }
+
+        this.mediaSourceIndex = new int[MEDIA_SOURCE_IDS];
+        Arrays.fill(this.mediaSourceIndex, NOT_PRESENT);
+
+        // A media source that is reported more than once is taken from the first printable area...
+        final List<PrintableAreaSelfDefiningField> uniqueAreas = new ArrayList<>();
+        for (final PrintableAreaSelfDefiningField area : areas) {
+            final int id = area.getMediaSourceId();
+            if (id >= 0 && id < MEDIA_SOURCE_IDS && this.mediaSourceIndex[id] == NOT_PRESENT) {
+                this.mediaSourceIndex[id] = uniqueAreas.size();
+                uniqueAreas.add(area);
+            }
+        }
+
+        final int areaCount = uniqueAreas.size();
+        this.mediaSourceIds = new int[areaCount];
+        this.unitBases = new int[areaCount];
+        this.unitsPerUnitBase = new int[areaCount];
+        this.mediumPresentationSpaceWidths = new int[areaCount];
+        this.mediumPresentationSpaceLengths = new int[areaCount];
+        this.printableAreaXOffsets = new int[areaCount];
+        this.printableAreaYOffsets = new int[areaCount];
+        this.printableAreaXExtents = new int[areaCount];
+        this.printableAreaYExtents = new int[areaCount];
+        this.inputMediaSourceCharacteristicFlags = new int[areaCount];
+
+        for (int ix = 0; ix < areaCount; ++ix) {
+            final PrintableAreaSelfDefiningField area = uniqueAreas.get(ix);
+            this.mediaSourceIds[ix] = area.getMediaSourceId();
+            this.unitBases[ix] = area.getUnitBase();
+            this.unitsPerUnitBase[ix] = area.getUpub();
+            this.mediumPresentationSpaceWidths[ix] = area.getActualMediumPresentationSpaceWidth();
+            this.mediumPresentationSpaceLengths[ix] = area.getActualMediumPresentationSpaceLength();
+            this.printableAreaXOffsets[ix] = area.getXmPPAOffset();
+            this.printableAreaYOffsets[ix] = area.getYmPPAOffset();
+            this.printableAreaXExtents[ix] = area.getXmPPAExtent();
+            this.printableAreaYExtents[ix] = area.getYmPPAExtent();
+            this.inputMediaSourceCharacteristicFlags[ix] = area.getInputMediaSourceCharacteristicFlags();
+        }
+
+        this.ripXResolutions = new int[resolutions.size()];
+        this.ripYResolutions = new int[resolutions.size()];
+        this.printHeadXResolutions = new int[resolutions.size()];
+        this.printHeadYResolutions = new int[resolutions.size()];
+
+        for (int ix = 0; ix < resolutions.size(); ++ix) {
+            final SupportedDeviceResolutionsSelfDefiningField resolution = resolutions.get(ix);
+            this.ripXResolutions[ix] = resolution.getRipXpels();
+            this.ripYResolutions[ix] = resolution.getRipYpels();
+            this.printHeadXResolutions[ix] = resolution.getPrintHeadXpels();
+            this.printHeadYResolutions[ix] = resolution.getPrintHeadYpels();
+        }
+
+        this.storagePoolIds = new int[pools.size()];
+        this.storagePoolEmptySizes = new long[pools.size()];
+
+        for (int ix = 0; ix < pools.size(); ++ix) {
+            this.storagePoolIds[ix] = pools.get(ix).getStoragePoolId();
+            this.storagePoolEmptySizes[ix] = pools.get(ix).getEmptySize();
+        }
+
+        this.pagesPerMinute = speed == null ? 0 : speed.getPpm();
+        this.feetPerMinute = speed == null ? 0 : speed.getFpm();
+    }
+
+    /**
+     * Creates the {@link PrinterCapabilities} from the replies to the Sense Type and Model command and the Obtain
+     * Printer Characteristics order. Both replies may be <code>null</code>.
+     */
+    public static PrinterCapabilities create(
+            final SenseTypeAndModelAcknowledgeData stm,
+            final ObtainPrinterCharacteristicsAcknowledgeData opc) {
+
+        return new PrinterCapabilities(
+                stm,
+                opc == null ? Collections.<SelfDefiningField>emptyList() : opc.getSelfDefiningField());
+    }
+
+    /**
+     * Creates the {@link PrinterCapabilities} from the replies to the Sense Type and Model command and the Obtain
+     * Printer Characteristics order. Both replies may be <code>null</code>. Only the self-defining fields that
+     * are needed by the {@link PrinterCapabilities} are decoded.
+     */
+    public static PrinterCapabilities createLazy(
+            final SenseTypeAndModelAcknowledgeData stm,
+            final LazyObtainPrinterCharacteristicsAcknowledgeData opc) throws IOException {
+
+        final List<SelfDefiningField> selfDefiningFields = new ArrayList<>();
+
+        if (opc != null) {
+            selfDefiningFields.addAll(opc.getAll(SelfDefiningFieldId.PrintableArea));
+            selfDefiningFields.addAll(opc.getAll(SelfDefiningFieldId.SupportedDeviceResolutions));
+            selfDefiningFields.addAll(opc.getAll(SelfDefiningFieldId.StoragePools));
+            selfDefiningFields.addAll(opc.getAll(SelfDefiningFieldId.PrinterSpeed));
+        }
+
+        return new PrinterCapabilities(stm, selfDefiningFields);
+    }
+
+    /**
+     * Returns the slot of the command set with the given ID in the hash table or the empty slot where the
+     * command set would have to be inserted.
+     */
+    private int findCommandSet(final int commandSetId) {
+        final int mask = this.commandSetIds.length - 1;
+        int slot = (commandSetId * 0x9E3779B9) >>> this.commandSetShift;
+
+        while (this.commandSetIds[slot] != commandSetId && this.commandSetIds[slot] != NOT_PRESENT) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Returns the index of the printable area of the given media source.
+     *
+     * @throws IllegalArgumentException if the printer did not report the media source.
+     */
+    private int indexOfMediaSource(final int mediaSourceId) {
+        final int index = this.isMediaSourceAvailable(mediaSourceId)
+                ? this.mediaSourceIndex[mediaSourceId]
+                : NOT_PRESENT;
+
+        if (index == NOT_PRESENT) {
+            throw new IllegalArgumentException("The printer did not report the media source " + mediaSourceId);
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns device type of the printer (see {@link SenseTypeAndModelAcknowledgeData#getType()}).
+     */
+    public int getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the model number of the printer (see {@link SenseTypeAndModelAcknowledgeData#getModel()}).
+     */
+    public int getModel() {
+        return this.model;
+    }
+
+    /**
+     * Returns the number of command sets reported by the printer.
+     */
+    public int getCommandSetCount() {
+        return this.commandSetCount;
+    }
+
+    /**
+     * Returns <code>true</code> if the printer supports the command set with the given ID (for data command sets
+     * the subset ID, i. e. 0xD7E3 for the Text Command Set).
+     */
+    public boolean supportsCommandSet(final int commandSetId) {
+        return this.commandSetIds[this.findCommandSet(commandSetId)] != NOT_PRESENT;
+    }
+
+    /**
+     * Returns the level ID (for data command sets) or the subset ID (for other command sets) of the command set
+     * with the given ID or -1 if the printer does not support the command set.
+     */
+    public int getCommandSetLevel(final int commandSetId) {
+        final int slot = this.findCommandSet(commandSetId);
+        return this.commandSetIds[slot] != NOT_PRESENT ? this.commandSetLevels[slot] : NOT_PRESENT;
+    }
+
+    /**
+     * Returns <code>true</code> if the printer reported the given property pair for the command set with
+     * the given ID.
+     */
+    public boolean supportsPropertyPair(final int commandSetId, final int propertyPair) {
+        final int slot = this.findCommandSet(commandSetId);
+        return this.commandSetIds[slot] != NOT_PRESENT
+                && propertyPair >= 0
+                && this.propertyPairs[slot].get(propertyPair);
+    }
+
+    /**
+     * Returns the IDs of all media sources the printer reported a printable area for.
+     */
+    public int[] getMediaSourceIds() {
+        return this.mediaSourceIds.clone();
+    }
+
+    /**
+     * Returns <code>true</code> if the printer reported a printable area for the given media source.
+     */
+    public boolean isMediaSourceAvailable(final int mediaSourceId) {
+        return mediaSourceId >= 0
+                && mediaSourceId < MEDIA_SOURCE_IDS
+                && this.mediaSourceIndex[mediaSourceId] != NOT_PRESENT;
+    }
+
+    /**
+     * Returns the unit base of the printable area of the given media source.
+     */
+    public int getUnitBase(final int mediaSourceId) {
+        return this.unitBases[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the units per unit base of the printable area of the given media source.
+     */
+    public int getUnitsPerUnitBase(final int mediaSourceId) {
+        return this.unitsPerUnitBase[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the width of the medium presentation space of the given media source.
+     */
+    public int getMediumPresentationSpaceWidth(final int mediaSourceId) {
+        return this.mediumPresentationSpaceWidths[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the length of the medium presentation space of the given media source.
+     */
+    public int getMediumPresentationSpaceLength(final int mediaSourceId) {
+        return this.mediumPresentationSpaceLengths[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the X offset of the physical printable area of the given media source.
+     */
+    public int getPrintableAreaXOffset(final int mediaSourceId) {
+        return this.printableAreaXOffsets[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the Y offset of the physical printable area of the given media source.
+     */
+    public int getPrintableAreaYOffset(final int mediaSourceId) {
+        return this.printableAreaYOffsets[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the X extent of the physical printable area of the given media source.
+     */
+    public int getPrintableAreaXExtent(final int mediaSourceId) {
+        return this.printableAreaXExtents[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the Y extent of the physical printable area of the given media source.
+     */
+    public int getPrintableAreaYExtent(final int mediaSourceId) {
+        return this.printableAreaYExtents[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the input media source characteristic flags of the given media source.
+     */
+    public int getInputMediaSourceCharacteristicFlags(final int mediaSourceId) {
+        return this.inputMediaSourceCharacteristicFlags[this.indexOfMediaSource(mediaSourceId)];
+    }
+
+    /**
+     * Returns the number of supported device resolutions.
+     */
+    public int getDeviceResolutionCount() {
+        return this.ripXResolutions.length;
+    }
+
+    /**
+     * Returns the X resolution of the RIP of the device resolution with the given index.
+     */
+    public int getRipXResolution(final int index) {
+        return this.ripXResolutions[index];
+    }
+
+    /**
+     * Returns the Y resolution of the RIP of the device resolution with the given index.
+     */
+    public int getRipYResolution(final int index) {
+        return this.ripYResolutions[index];
+    }
+
+    /**
+     * Returns the X resolution of the print head of the device resolution with the given index.
+     */
+    public int getPrintHeadXResolution(final int index) {
+        return this.printHeadXResolutions[index];
+    }
+
+    /**
+     * Returns the Y resolution of the print head of the device resolution with the given index.
+     */
+    public int getPrintHeadYResolution(final int index) {
+        return this.printHeadYResolutions[index];
+    }
+
+    /**
+     * Returns <code>true</code> if the printer reported the given RIP resolution (in pels per 10 inches). Printers
+     * report only a few device resolutions, so they are simply compared one after another.
+     */
+    public boolean supportsRipResolution(final int xResolution, final int yResolution) {
+        for (int ix = 0; ix < this.ripXResolutions.length; ++ix) {
+            if (this.ripXResolutions[ix] == xResolution && this.ripYResolutions[ix] == yResolution) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the number of storage pools.
+     */
+    public int getStoragePoolCount() {
+        return this.storagePoolIds.length;
+    }
+
+    /**
+     * Returns the ID of the storage pool with the given index.
+     */
+    public int getStoragePoolId(final int index) {
+        return this.storagePoolIds[index];
+    }
+
+    /**
+     * Returns the size of the empty storage pool with the given index.
+     */
+    public long getStoragePoolEmptySize(final int index) {
+        return this.storagePoolEmptySizes[index];
+    }
+
+    /**
+     * Returns the printer speed in pages per minute or 0 if the printer did not report its speed.
+     */
+    public long getPagesPerMinute() {
+        return this.pagesPerMinute;
+    }
+
+    /**
+     * Returns the printer speed in feet per minute or 0 if the printer did not report its speed.
+     */
+    public long getFeetPerMinute() {
+        return this.feetPerMinute;
+    }
+
+    @Override
+    public String toString() {
+        return "PrinterCapabilities{"
+                + "type=0x" + Integer.toHexString(this.type)
+                + ", model=0x" + Integer.toHexString(this.model)
+                + ", commandSets=" + this.commandSetCount
+                + ", mediaSourceIds=" + Arrays.toString(this.mediaSourceIds)
+                + ", deviceResolutions=" + this.ripXResolutions.length
+                + ", storagePools=" + this.storagePoolIds.length
+                + ", pagesPerMinute=" + this.pagesPerMinute
+                + ", feetPerMinute=" + this.feetPerMinute
+                + '}';
+    }
+}
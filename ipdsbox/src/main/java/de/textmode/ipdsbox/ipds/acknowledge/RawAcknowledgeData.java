@@ -3,14 +3,14 @@ package de.textmode.ipdsbox.ipds.acknowledge;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class RawAcknowledgeData implements AcknowledgeData {
 
     private byte[] rawAcknowledgeData;
 
-    RawAcknowledgeData(final IpdsByteArrayInputStream ipds) {
+    RawAcknowledgeData(final IpdsInputStream ipds) {
         this.rawAcknowledgeData = ipds.readRemainingBytes();
     }
 
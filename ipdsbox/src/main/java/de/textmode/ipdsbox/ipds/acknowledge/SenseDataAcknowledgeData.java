@@ -3,8 +3,8 @@ package de.textmode.ipdsbox.ipds.acknowledge;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class SenseDataAcknowledgeData implements AcknowledgeData {
 
@@ -43,7 +43,7 @@ public final class SenseDataAcknowledgeData implements AcknowledgeData {
         this.exceptionId = exceptionId;
     }
 
-    SenseDataAcknowledgeData(final IpdsByteArrayInputStream ipds) throws IOException {
+    SenseDataAcknowledgeData(final IpdsInputStream ipds) throws IOException {
 
         if (ipds.bytesAvailable() == 3) {
             this.exceptionId = ipds.readUnsignedInteger24();
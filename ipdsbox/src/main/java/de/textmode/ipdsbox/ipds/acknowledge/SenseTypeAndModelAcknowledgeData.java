@@ -6,8 +6,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class SenseTypeAndModelAcknowledgeData implements AcknowledgeData {
 
@@ -15,7 +15,7 @@ public final class SenseTypeAndModelAcknowledgeData implements AcknowledgeData {
     private int model;
     private List<CommandSetVector> commandSetVectors = new ArrayList<>();
 
-    SenseTypeAndModelAcknowledgeData(final IpdsByteArrayInputStream ipds) throws IOException {
+    SenseTypeAndModelAcknowledgeData(final IpdsInputStream ipds) throws IOException {
         ipds.skip(1); // Skip the fix 0xFF
 
         this.type = ipds.readUnsignedInteger16();
@@ -25,9 +25,7 @@ public final class SenseTypeAndModelAcknowledgeData implements AcknowledgeData {
 
         while (ipds.bytesAvailable() > 0) {
             final int length = ipds.readUnsignedInteger16() - 2;
-            final byte[] vecorBytes = ipds.readBytes(length);
-
-            this.commandSetVectors.add(new CommandSetVector(new IpdsByteArrayInputStream(vecorBytes)));
+            this.commandSetVectors.add(new CommandSetVector(ipds.readView(length)));
         }
     }
 
@@ -104,10 +102,10 @@ public final class SenseTypeAndModelAcknowledgeData implements AcknowledgeData {
         private Set<Integer> propertyPairs = new LinkedHashSet<>();
 
         /**
-         * Contructs the {@link CommandSetVector} from the given {@link IpdsByteArrayInputStream}.
-         * Note that the length has alreay been consumed from the {@link IpdsByteArrayInputStream}.
+         * Contructs the {@link CommandSetVector} from the given {@link IpdsInputStream}.
+         * Note that the length has alreay been consumed from the {@link IpdsInputStream}.
          */
-        CommandSetVector(final IpdsByteArrayInputStream ipds) throws IOException {
+        CommandSetVector(final IpdsInputStream ipds) throws IOException {
 
             this.subsetIdOrCommandSetId = ipds.readUnsignedInteger16();
             this.levelOrSubsetId = ipds.readUnsignedInteger16();
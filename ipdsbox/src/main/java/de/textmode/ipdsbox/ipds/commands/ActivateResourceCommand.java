@@ -5,9 +5,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.textmode.ipdsbox.core.ByteUtils;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
 
@@ -29,7 +30,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
     /**
      * Constructs the {@link ActivateResourceCommand}.
      */
-    ActivateResourceCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    ActivateResourceCommand(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(ipds, IpdsCommandId.AR);
 
         while (ipds.bytesAvailable() > 0) {
@@ -38,18 +39,25 @@ public final class ActivateResourceCommand extends IpdsCommand {
             if (length == 2) {
                 this.entries.add(new NullEntry());
             } else {
-                final byte[] entry = ipds.readBytes(length - 2);
-
-                switch (entry[4] & 0xFF) {
-                    case 0x00 -> this.entries.add(new ResetEntry(new IpdsByteArrayInputStream(entry)));
-                    case 0x03 -> this.entries.add(new GridPartsFormatEntry(new IpdsByteArrayInputStream(entry)));
-                    case 0x04 -> this.entries.add(new RemotePrintManagerMvsFormatEntry(new IpdsByteArrayInputStream(entry)));
-                    case 0x05 -> this.entries.add(new ExtendedRemotePrintManagerMvsFormatEntry(new IpdsByteArrayInputStream(entry)));
-                    case 0x06 -> this.entries.add(new MvsHostUnalterableRemoteFontEnvironmentFormatEntry(new IpdsByteArrayInputStream(entry)));
-                    case 0x07 -> this.entries.add(new CodedFontFormatEntry(new IpdsByteArrayInputStream(entry)));
-                    case 0x09 -> this.entries.add(new ObjectOidFormatEntry(new IpdsByteArrayInputStream(entry)));
-                    case 0x0A -> this.entries.add(new DataObjectFontFormatEntry(new IpdsByteArrayInputStream(entry)));
-                    default -> this.entries.add(new UnknownFormatEntry(new IpdsByteArrayInputStream(entry)));
+                final IpdsInputStream entry = ipds.readView(length - 2);
+
+                // Peek the resource ID format (fifth byte of the entry) and rewind so the
+                // entry can be read completely by the concrete entry class...
+                entry.skip(4);
+                final int resourceIdFormat = entry.readUnsignedByte();
+                entry.rewind(5);
+
+                switch (resourceIdFormat) {
+                    case 0x00 -> this.entries.add(new ResetEntry(entry, context));
+                    case 0x03 -> this.entries.add(new GridPartsFormatEntry(entry, context));
+                    case 0x04 -> this.entries.add(new RemotePrintManagerMvsFormatEntry(entry, context));
+                    case 0x05 -> this.entries.add(new ExtendedRemotePrintManagerMvsFormatEntry(entry, context));
+                    case 0x06 -> this.entries.add(
+                            new MvsHostUnalterableRemoteFontEnvironmentFormatEntry(entry, context));
+                    case 0x07 -> this.entries.add(new CodedFontFormatEntry(entry, context));
+                    case 0x09 -> this.entries.add(new ObjectOidFormatEntry(entry, context));
+                    case 0x0A -> this.entries.add(new DataObjectFontFormatEntry(entry, context));
+                    default -> this.entries.add(new UnknownFormatEntry(entry));
                 }
             }
         }
@@ -59,6 +67,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
      * Returns the entries of the AR command.
      */
     public List<ActivateResourceEntry> getEntries() {
+        this.exposed();
         return this.entries;
     }
 
@@ -69,6 +78,15 @@ public final class ActivateResourceCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() throws IOException {
+        int length = 0;
+        for (final ActivateResourceEntry entry : this.entries) {
+            length += entry.getEncodedLength();
+        }
+        return length;
+    }
+
     @Override
     public String toString() {
         return "ActivateResourceCommand{"
@@ -84,6 +102,15 @@ public final class ActivateResourceCommand extends IpdsCommand {
          * Writes the {@link ActivateResourceEntry} to the given {@link IpdsByteArrayOutputStream}.
          */
         public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException;
+
+        /**
+         * Returns the number of bytes written by {@link #writeTo(IpdsByteArrayOutputStream)}.
+         */
+        default int getEncodedLength() throws IOException {
+            final IpdsByteArrayOutputStream counter = IpdsByteArrayOutputStream.createLengthCounter();
+            this.writeTo(counter);
+            return counter.getSize();
+        }
     }
 
     /**
@@ -92,7 +119,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
     public static final class UnknownFormatEntry implements ActivateResourceEntry {
         private final byte[] rawData;
 
-        UnknownFormatEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        UnknownFormatEntry(final IpdsInputStream ipds) throws IOException {
             final IpdsByteArrayOutputStream os = new IpdsByteArrayOutputStream();
             os.writeUnsignedInteger16(ipds.bytesAvailable() + 2);
             os.writeBytes(ipds.readRemainingBytes());
@@ -106,6 +133,11 @@ public final class ActivateResourceCommand extends IpdsCommand {
             ipds.writeBytes(this.rawData);
         }
 
+        @Override
+        public int getEncodedLength() {
+            return this.rawData.length;
+        }
+
         @Override
         public String toString() {
             return "UnknownFormatEntry{"
@@ -124,6 +156,11 @@ public final class ActivateResourceCommand extends IpdsCommand {
             ipds.writeUnsignedInteger16(2);
         }
 
+        @Override
+        public int getEncodedLength() {
+            return 2;
+        }
+
         @Override
         public String toString() {
             return "NullEntry{}";
@@ -153,7 +190,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
         /**
          * Read the fixed part of the Acrtivate Resource entry.
          */
-        NonNullEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        NonNullEntry(final IpdsInputStream ipds) throws IOException {
 
             this.resourceType = ipds.readUnsignedByte();
             this.haid = ipds.readUnsignedInteger16();
@@ -166,12 +203,12 @@ public final class ActivateResourceCommand extends IpdsCommand {
         }
 
         /**
-         * Reads the triplets from the given {@link IpdsByteArrayInputStream}.
+         * Reads the triplets from the given {@link IpdsInputStream}.
          */
-        protected void readTriplets(final IpdsByteArrayInputStream ipds) throws IOException {
-            byte[] buffer;
-            while ((buffer = ipds.readTripletIfExists()) != null) {
-                this.resourceIdTriplets.add(TripletFactory.create(buffer));
+        protected void readTriplets(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
+            IpdsInputStream triplet;
+            while ((triplet = ipds.readTripletViewIfExists()) != null) {
+                this.resourceIdTriplets.add(TripletFactory.create(triplet, context));
             }
         }
 
@@ -180,14 +217,8 @@ public final class ActivateResourceCommand extends IpdsCommand {
          * followed by triplets if present.
          */
         protected void writeTo(final IpdsByteArrayOutputStream ipds, final byte[] resourceIdData) throws IOException {
-            final IpdsByteArrayOutputStream triplatData = new IpdsByteArrayOutputStream();
-            for (final Triplet triplet : this.resourceIdTriplets) {
-                triplet.writeTo(triplatData);
-            }
-
-            final byte[] rawTripletData = triplatData.toByteArray();
-
-            ipds.writeUnsignedInteger16(0x0C + rawTripletData.length + resourceIdData.length);
+            ipds.writeUnsignedInteger16(
+                    0x0C + Triplet.getEncodedLength(this.resourceIdTriplets) + resourceIdData.length);
 
             ipds.writeUnsignedByte(this.resourceType);
             ipds.writeUnsignedInteger16(this.haid);
@@ -198,7 +229,9 @@ public final class ActivateResourceCommand extends IpdsCommand {
             ipds.writeUnsignedByte(this.resourceClassFlags);
 
             ipds.writeBytes(resourceIdData);
-            ipds.writeBytes(rawTripletData);
+            for (final Triplet triplet : this.resourceIdTriplets) {
+                triplet.writeTo(ipds);
+            }
         }
 
         /**
@@ -319,15 +352,15 @@ public final class ActivateResourceCommand extends IpdsCommand {
     public final class ResetEntry extends NonNullEntry {
 
         /**
-         * Creates a {@link ResetEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a {@link ResetEntry} from the given {@link IpdsInputStream}.
          */
-        ResetEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        ResetEntry(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
             super(ipds);
 
             // The specification is not 100% clear about the fact if triplets may be present on
             // a "reset entry"... They make no sense, but the spec is not 100% clear about that..
             if (ipds.bytesAvailable() > 0) {
-                super.readTriplets(ipds);
+                super.readTriplets(ipds, context);
             }
         }
 
@@ -351,9 +384,9 @@ public final class ActivateResourceCommand extends IpdsCommand {
     public final class GridPartsFormatEntry extends NonNullEntry {
 
         /**
-         * Creates a {@link GridPartsFormatEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a {@link GridPartsFormatEntry} from the given {@link IpdsInputStream}.
          */
-        GridPartsFormatEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        GridPartsFormatEntry(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
             super(ipds);
 
             // TODO: Parse GRID-parts...
@@ -361,7 +394,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
             // The specification is not 100% clear about the fact if triplets may be present on
             // a "reset entry"... They make no sense, but the spec is not 100% clear about that..
             if (ipds.bytesAvailable() > 0) {
-                super.readTriplets(ipds);
+                super.readTriplets(ipds, context);
             }
         }
 
@@ -385,9 +418,9 @@ public final class ActivateResourceCommand extends IpdsCommand {
     public final class RemotePrintManagerMvsFormatEntry extends NonNullEntry {
 
         /**
-         * Creates a {@link RemotePrintManagerMvsFormatEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a {@link RemotePrintManagerMvsFormatEntry} from the given {@link IpdsInputStream}.
          */
-        RemotePrintManagerMvsFormatEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        RemotePrintManagerMvsFormatEntry(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
             super(ipds);
 
             // TODO: Parse RemotePrintManagerMvsFormatEntry...
@@ -395,7 +428,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
             // The specification is not 100% clear about the fact if triplets may be present on
             // a "reset entry"... They make no sense, but the spec is not 100% clear about that..
             if (ipds.bytesAvailable() > 0) {
-                super.readTriplets(ipds);
+                super.readTriplets(ipds, context);
             }
         }
 
@@ -419,9 +452,12 @@ public final class ActivateResourceCommand extends IpdsCommand {
     public final class ExtendedRemotePrintManagerMvsFormatEntry extends NonNullEntry {
 
         /**
-         * Creates a {@link ExtendedRemotePrintManagerMvsFormatEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a {@link ExtendedRemotePrintManagerMvsFormatEntry} from the given {@link IpdsInputStream}.
          */
-        ExtendedRemotePrintManagerMvsFormatEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        ExtendedRemotePrintManagerMvsFormatEntry(
+                final IpdsInputStream ipds,
+                final DecoderContext context) throws IOException {
+
             super(ipds);
 
             // TODO: Parse ExtendedRemotePrintManagerMvsFormatEntry...
@@ -429,7 +465,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
             // The specification is not 100% clear about the fact if triplets may be present on
             // a "reset entry"... They make no sense, but the spec is not 100% clear about that..
             if (ipds.bytesAvailable() > 0) {
-                super.readTriplets(ipds);
+                super.readTriplets(ipds, context);
             }
         }
 
@@ -502,9 +538,12 @@ public final class ActivateResourceCommand extends IpdsCommand {
         }
 
         /**
-         * Creates a {@link MvsHostUnalterableRemoteFontEnvironmentFormatEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a {@link MvsHostUnalterableRemoteFontEnvironmentFormatEntry} from the given {@link IpdsInputStream}.
          */
-        MvsHostUnalterableRemoteFontEnvironmentFormatEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        MvsHostUnalterableRemoteFontEnvironmentFormatEntry(
+                final IpdsInputStream ipds,
+                final DecoderContext context) throws IOException {
+
             super(ipds);
 
             this.codePageCrc = ipds.readUnsignedInteger16();
@@ -528,7 +567,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
             this.characterSetFontWidth = ipds.readUnsignedInteger16();
 
             if (ipds.bytesAvailable() > 0) {
-                super.readTriplets(ipds);
+                super.readTriplets(ipds, context);
             }
         }
 
@@ -614,9 +653,9 @@ public final class ActivateResourceCommand extends IpdsCommand {
     public final class CodedFontFormatEntry extends NonNullEntry {
 
         /**
-         * Creates a {@link CodedFontFormatEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a {@link CodedFontFormatEntry} from the given {@link IpdsInputStream}.
          */
-        CodedFontFormatEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        CodedFontFormatEntry(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
             super(ipds);
 
             // TODO: Parse CodedFontFormatEntry...
@@ -624,7 +663,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
             // The specification is not 100% clear about the fact if triplets may be present on
             // a "reset entry"... They make no sense, but the spec is not 100% clear about that..
             if (ipds.bytesAvailable() > 0) {
-                super.readTriplets(ipds);
+                super.readTriplets(ipds, context);
             }
         }
 
@@ -648,9 +687,9 @@ public final class ActivateResourceCommand extends IpdsCommand {
     public final class ObjectOidFormatEntry extends NonNullEntry {
 
         /**
-         * Creates a {@link ObjectOidFormatEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a {@link ObjectOidFormatEntry} from the given {@link IpdsInputStream}.
          */
-        ObjectOidFormatEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        ObjectOidFormatEntry(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
             super(ipds);
 
             // TODO: Parse ObjectOidFormatEntry...
@@ -658,7 +697,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
             // The specification is not 100% clear about the fact if triplets may be present on
             // a "reset entry"... They make no sense, but the spec is not 100% clear about that..
             if (ipds.bytesAvailable() > 0) {
-                super.readTriplets(ipds);
+                super.readTriplets(ipds, context);
             }
         }
 
@@ -682,9 +721,9 @@ public final class ActivateResourceCommand extends IpdsCommand {
     public final class DataObjectFontFormatEntry extends NonNullEntry {
 
         /**
-         * Creates a {@link DataObjectFontFormatEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a {@link DataObjectFontFormatEntry} from the given {@link IpdsInputStream}.
          */
-        DataObjectFontFormatEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        DataObjectFontFormatEntry(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
             super(ipds);
 
             // TODO: Parse DataObjectFontFormatEntry...
@@ -692,7 +731,7 @@ public final class ActivateResourceCommand extends IpdsCommand {
             // The specification is not 100% clear about the fact if triplets may be present on
             // a "reset entry"... They make no sense, but the spec is not 100% clear about that..
             if (ipds.bytesAvailable() > 0) {
-                super.readTriplets(ipds);
+                super.readTriplets(ipds, context);
             }
         }
 
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Begin Page (BP) command is valid only in home state and causes the printer to enter page state. This
@@ -30,9 +30,9 @@ public final class BeginPageCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link BeginPageCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link BeginPageCommand} from the given {@link IpdsInputStream}.
      */
-    BeginPageCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    BeginPageCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.BP);
 
         this.pageId = ipds.readUnsignedInteger32();
@@ -49,6 +49,7 @@ public final class BeginPageCommand extends IpdsCommand {
      * Sets the page ID.
      */
     public void setPageId(final long pageId) {
+        this.modified();
         this.pageId = pageId;
     }
 
@@ -57,6 +58,11 @@ public final class BeginPageCommand extends IpdsCommand {
         ipds.writeUnsignedInteger32(this.pageId);
     }
 
+    @Override
+    protected int getDataLength() {
+        return 4;
+    }
+
     @Override
     public String toString() {
         return "BeginPageCommand{"
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Activate Resource (AR) command, previously known as Load Resource Equivalence (LRE), requests the
@@ -24,9 +24,9 @@ public final class DeactivateFontCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link DeactivateFontCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link DeactivateFontCommand} from the given {@link IpdsInputStream}.
      */
-    DeactivateFontCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    DeactivateFontCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.DF);
 
         this.deactivationType = ipds.readUnsignedByte();
@@ -44,6 +44,11 @@ public final class DeactivateFontCommand extends IpdsCommand {
         ipds.writeUnsignedInteger16(this.fontInlineSequence);
     }
 
+    @Override
+    protected int getDataLength() {
+        return 6;
+    }
+
     /**
      * Returns the deactivation type.
      */
@@ -55,6 +60,7 @@ public final class DeactivateFontCommand extends IpdsCommand {
      * Sets the deactivation type.
      */
     public void setDeactivationType(final int resourceType) {
+        this.modified();
         this.deactivationType = resourceType;
     }
 
@@ -69,6 +75,7 @@ public final class DeactivateFontCommand extends IpdsCommand {
      * Sets the HAID.
      */
     public void setHaid(final int haid) {
+        this.modified();
         this.haid = haid;
     }
 
@@ -83,6 +90,7 @@ public final class DeactivateFontCommand extends IpdsCommand {
      * Sets the Section ID.
      */
     public void setSectionID(final int sectionID) {
+        this.modified();
         this.sectionID = sectionID;
     }
 
@@ -97,6 +105,7 @@ public final class DeactivateFontCommand extends IpdsCommand {
      * Sets the FIS.
      */
     public void setFontInlineSequence(final int fontInlineSequence) {
+        this.modified();
         this.fontInlineSequence = fontInlineSequence;
     }
 
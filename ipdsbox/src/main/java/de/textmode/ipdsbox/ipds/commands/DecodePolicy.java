@@ -0,0 +1,135 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+import de.textmode.ipdsbox.io.IpdsInputStream;
+
+/**
+ * The {@link DecodePolicy} determines which IPDS commands are decoded by
+ * {@link IpdsCommandFactory#create(IpdsInputStream, DecodePolicy)}.
+ *
+ * <p>A selected IPDS command is decoded to the concrete {@link IpdsCommand} (including all its XOA/XOH orders and
+ * triplets). All other IPDS commands are returned as a {@link LazyIpdsCommand}: only the header is decoded and the
+ * data is kept as-is (it is decoded on demand by {@link LazyIpdsCommand#getDecoded()}), so the XOA/XOH orders and
+ * triplets of these IPDS commands are not decoded either. For example, an accounting tap that only needs the
+ * Begin Page, End Page, Execute Order Home State and Acknowledge Reply commands uses
+ * <pre>
+ * DecodePolicy.commands(IpdsCommandId.BP, IpdsCommandId.EP, IpdsCommandId.XOH, IpdsCommandId.ACK)
+ * </pre>
+ *
+ * <p>The selection by command code is a table lookup. Additionally a {@link Predicate} can be given that gets
+ * the {@link LazyIpdsCommand} of every IPDS command selected by its command code (see
+ * {@link #and(Predicate)}), so the selection may also depend on the flags, the correlation ID or the raw data
+ * (see {@link LazyIpdsCommand#getRawData()}) of the IPDS command.
+ */
+public final class DecodePolicy {
+
+    private static final int COMMAND_CODE_PREFIX = 0xD600;
+
+    /**
+     * Every IPDS command is decoded (this is what {@link IpdsCommandFactory#create(IpdsInputStream)} does).
+     */
+    public static final DecodePolicy ALL = new DecodePolicy(null, null);
+
+    /**
+     * No IPDS command is decoded, every IPDS command is returned as a {@link LazyIpdsCommand}.
+     */
+    public static final DecodePolicy NONE = new DecodePolicy(new boolean[256], null);
+
+    private final boolean[] selectedCommands;
+    private final Predicate<LazyIpdsCommand> predicate;
+
+    private DecodePolicy(final boolean[] selectedCommands, final Predicate<LazyIpdsCommand> predicate) {
+        this.selectedCommands = selectedCommands;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Returns a {@link DecodePolicy} that decodes the given IPDS commands only.
+     */
+    public static DecodePolicy commands(final IpdsCommandId... commandIds) {
+        return commands(Arrays.asList(commandIds));
+    }
+
+    /**
+     * Returns a {@link DecodePolicy} that decodes the given IPDS commands only.
+     */
+    public static DecodePolicy commands(final Collection<IpdsCommandId> commandIds) {
+        final boolean[] selected = new boolean[256];
+        for (final IpdsCommandId commandId : commandIds) {
+            selected[commandId.getValue() & 0xFF] = true;
+        }
+
+        return new DecodePolicy(selected, null);
+    }
+
+    /**
+     * Returns a {@link DecodePolicy} that decodes all IPDS commands the given {@link Predicate} returns
+     * <code>true</code> for.
+     */
+    public static DecodePolicy matching(final Predicate<LazyIpdsCommand> predicate) {
+        return ALL.and(predicate);
+    }
+
+    /**
+     * Returns a {@link DecodePolicy} that decodes the IPDS commands that are selected by this {@link DecodePolicy}
+     * and that the given {@link Predicate} returns <code>true</code> for.
+     */
+    public DecodePolicy and(final Predicate<LazyIpdsCommand> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The predicate must not be null");
+        }
+
+        return new DecodePolicy(this.selectedCommands, this.predicate == null ? other : this.predicate.and(other));
+    }
+
+    /**
+     * Returns <code>true</code> if the {@link DecodePolicy} has a {@link Predicate} that needs the header of
+     * the IPDS command.
+     */
+    boolean hasPredicate() {
+        return this.predicate != null;
+    }
+
+    /**
+     * Returns <code>true</code> if the IPDS command with the given command code may be decoded. If the
+     * {@link DecodePolicy} has a {@link Predicate}, the {@link Predicate} has to be checked as well.
+     */
+    boolean isSelected(final int commandCode) {
+        if (this.selectedCommands == null) {
+            return true;
+        }
+
+        return (commandCode & ~0xFF) == COMMAND_CODE_PREFIX && this.selectedCommands[commandCode & 0xFF];
+    }
+
+    /**
+     * Returns <code>true</code> if the given {@link LazyIpdsCommand} shall be decoded. The command code of the
+     * {@link LazyIpdsCommand} must have been checked by {@link #isSelected(int)} before.
+     */
+    boolean isSelected(final LazyIpdsCommand command) {
+        return this.predicate == null || this.predicate.test(command);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        if (this.selectedCommands == null) {
+            sb.append("all");
+        } else {
+            for (int ix = 0; ix < this.selectedCommands.length; ++ix) {
+                if (this.selectedCommands[ix]) {
+                    sb.append(sb.length() == 0 ? "" : ", ").append(String.format("%04X", COMMAND_CODE_PREFIX | ix));
+                }
+            }
+        }
+
+        return "DecodePolicy{"
+                + "commands=[" + sb + ']'
+                + ", predicate=" + (this.predicate != null)
+                + '}';
+    }
+}
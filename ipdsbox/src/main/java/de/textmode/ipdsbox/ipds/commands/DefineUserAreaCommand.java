@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class DefineUserAreaCommand extends IpdsCommand {
 
@@ -32,9 +32,9 @@ public final class DefineUserAreaCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link DefineUserAreaCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link DefineUserAreaCommand} from the given {@link IpdsInputStream}.
      */
-    DefineUserAreaCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    DefineUserAreaCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.DUA);
 
         this.reset = ipds.readUnsignedByte();
@@ -57,6 +57,11 @@ public final class DefineUserAreaCommand extends IpdsCommand {
         ipds.writeUnsignedInteger24(this.ymExtent);
     }
 
+    @Override
+    protected int getDataLength() {
+        return 16;
+    }
+
     /**
      * Returns the Unit base.
      */
@@ -68,6 +73,7 @@ public final class DefineUserAreaCommand extends IpdsCommand {
      * Sets the Unit base.
      */
     public void setUnitBase(final int unitBase) {
+        this.modified();
         this.unitBase = unitBase;
     }
 
@@ -82,6 +88,7 @@ public final class DefineUserAreaCommand extends IpdsCommand {
      * Sets the upub.
      */
     public void setUpub(final int upub) {
+        this.modified();
         this.upub = upub;
     }
 
@@ -96,6 +103,7 @@ public final class DefineUserAreaCommand extends IpdsCommand {
      * Sets the Xm Offset.
      */
     public void setXmOffset(final int xmOffset) {
+        this.modified();
         this.xmOffset = xmOffset;
     }
 
@@ -110,6 +118,7 @@ public final class DefineUserAreaCommand extends IpdsCommand {
      * Sets the Ym Offset.
      */
     public void setYmOffset(final int ymOffset) {
+        this.modified();
         this.ymOffset = ymOffset;
     }
 
@@ -124,6 +133,7 @@ public final class DefineUserAreaCommand extends IpdsCommand {
      * Sets the Xm extent.
      */
     public void setXmExtent(final int xmExtent) {
+        this.modified();
         this.xmExtent = xmExtent;
     }
 
@@ -138,6 +148,7 @@ public final class DefineUserAreaCommand extends IpdsCommand {
      * Sets the Ym extent.
      */
     public void setYmExtent(final int ymExtent) {
+        this.modified();
         this.ymExtent = ymExtent;
     }
 
@@ -4,8 +4,8 @@ import java.io.IOException;
 
 import de.textmode.ipdsbox.core.ByteUtils;
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The End (END) command is the ending control for a series of Write Image, Write Image 2, Write Graphics,
@@ -36,9 +36,9 @@ public final class EndCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link EndCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link EndCommand} from the given {@link IpdsInputStream}.
      */
-    EndCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    EndCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.END);
 
         this.dataBytes = ipds.readRemainingBytes();
@@ -48,6 +48,7 @@ public final class EndCommand extends IpdsCommand {
      * Returns the data bytes of the IPDS Command.
      */
     public byte[] getDataBytes() {
+        this.exposed();
         return this.dataBytes;
     }
 
@@ -55,6 +56,7 @@ public final class EndCommand extends IpdsCommand {
      * Sets the data bytes of the IPDS Command.
      */
     public void setDataBytes(final byte[] dataBytes) {
+        this.modified();
         this.dataBytes = dataBytes;
     }
 
@@ -65,6 +67,11 @@ public final class EndCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() {
+        return this.dataBytes == null ? 0 : this.dataBytes.length;
+    }
+
     @Override
     public String toString() {
         return "EndCommand{"
@@ -4,8 +4,8 @@ import java.io.IOException;
 
 import de.textmode.ipdsbox.core.ByteUtils;
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The End Page (EP) command causes the printer to return to home state from page state, page segment state,
@@ -34,9 +34,9 @@ public final class EndPageCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link EndPageCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link EndPageCommand} from the given {@link IpdsInputStream}.
      */
-    EndPageCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    EndPageCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.EP);
 
         this.dataBytes = ipds.readRemainingBytes();
@@ -46,6 +46,7 @@ public final class EndPageCommand extends IpdsCommand {
      * Returns the data bytes of the IPDS Command.
      */
     public byte[] getDataBytes() {
+        this.exposed();
         return this.dataBytes;
     }
 
@@ -53,6 +54,7 @@ public final class EndPageCommand extends IpdsCommand {
      * Sets the data bytes of the IPDS Command.
      */
     public void setDataBytes(final byte[] dataBytes) {
+        this.modified();
         this.dataBytes = dataBytes;
     }
 
@@ -63,6 +65,11 @@ public final class EndPageCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() {
+        return this.dataBytes == null ? 0 : this.dataBytes.length;
+    }
+
     @Override
     public String toString() {
         return "EndPageCommand{"
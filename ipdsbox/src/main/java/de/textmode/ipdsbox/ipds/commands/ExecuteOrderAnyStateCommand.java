@@ -2,8 +2,10 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.xoaorders.XoaOrder;
 import de.textmode.ipdsbox.ipds.xoaorders.XoaOrderFactory;
 
@@ -24,12 +26,12 @@ public final class ExecuteOrderAnyStateCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link ExecuteOrderAnyStateCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link ExecuteOrderAnyStateCommand} from the given {@link IpdsInputStream}.
      */
-    ExecuteOrderAnyStateCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    ExecuteOrderAnyStateCommand(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(ipds, IpdsCommandId.XOA);
 
-        this.order = XoaOrderFactory.create(ipds);
+        this.order = XoaOrderFactory.create(ipds, context);
     }
 
     /**
@@ -40,11 +42,21 @@ public final class ExecuteOrderAnyStateCommand extends IpdsCommand {
         return this.order;
     }
 
+    @Override
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return this.order.isUnmodifiedSince(container);
+    }
+
     @Override
     protected void writeDataTo(final IpdsByteArrayOutputStream ipds) throws IOException {
         this.order.writeTo(ipds);
     }
 
+    @Override
+    protected int getDataLength() throws IOException {
+        return this.order.getEncodedLength();
+    }
+
     @Override
     public String toString() {
         return "ExecuteOrderAnyStateCommand{"
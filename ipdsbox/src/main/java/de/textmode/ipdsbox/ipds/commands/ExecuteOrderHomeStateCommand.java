@@ -2,9 +2,11 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.xohorders.XohOrder;
 import de.textmode.ipdsbox.ipds.xohorders.XohOrderFactory;
 
@@ -25,13 +27,13 @@ public final class ExecuteOrderHomeStateCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link ExecuteOrderHomeStateCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link ExecuteOrderHomeStateCommand} from the given {@link IpdsInputStream}.
      */
-    ExecuteOrderHomeStateCommand(final IpdsByteArrayInputStream ipds)
+    ExecuteOrderHomeStateCommand(final IpdsInputStream ipds, final DecoderContext context)
         throws InvalidIpdsCommandException, IOException {
         super(ipds, IpdsCommandId.XOH);
 
-        this.order = XohOrderFactory.create(ipds);
+        this.order = XohOrderFactory.create(ipds, context);
     }
 
     /**
@@ -42,11 +44,21 @@ public final class ExecuteOrderHomeStateCommand extends IpdsCommand {
         return this.order;
     }
 
+    @Override
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return this.order.isUnmodifiedSince(container);
+    }
+
     @Override
     protected void writeDataTo(final IpdsByteArrayOutputStream ipds) throws IOException {
         this.order.writeTo(ipds);
     }
 
+    @Override
+    protected int getDataLength() throws IOException {
+        return this.order.getEncodedLength();
+    }
+
     @Override
     public String toString() {
         return "ExecuteOrderHomeStateCommand{"
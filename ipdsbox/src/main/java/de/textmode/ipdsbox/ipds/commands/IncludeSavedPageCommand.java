@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
 
@@ -37,16 +39,17 @@ public final class IncludeSavedPageCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link IncludeSavedPageCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link IncludeSavedPageCommand} from the given {@link IpdsInputStream}.
      */
-    IncludeSavedPageCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    IncludeSavedPageCommand(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(ipds, IpdsCommandId.ISP);
 
         this.pageSequenceNumber = ipds.readUnsignedInteger32();
+        this.triplets = new ArrayList<>();
 
-        byte[] buffer;
-        while ((buffer = ipds.readTripletIfExists()) != null) {
-            this.triplets.add(TripletFactory.create(buffer));
+        IpdsInputStream triplet;
+        while ((triplet = ipds.readTripletViewIfExists()) != null) {
+            this.triplets.add(TripletFactory.create(triplet, context));
         }
     }
 
@@ -61,6 +64,7 @@ public final class IncludeSavedPageCommand extends IpdsCommand {
      * Sets the page sequence number.
      */
     public void setPageSequenceNumber(final int pageSequenceNumber) {
+        this.modified();
         this.pageSequenceNumber = pageSequenceNumber;
     }
 
@@ -68,16 +72,22 @@ public final class IncludeSavedPageCommand extends IpdsCommand {
      * Returns the Triplets of this IPDS command.
      */
     public List<Triplet> getTriplets() {
-        return this.triplets;
+        return this.tracked(this.triplets);
     }
 
     /**
      * Sets the Triplets of this IPDS command.
      */
     public void setTriplets(final List<Triplet> triplets) {
+        this.modified();
         this.triplets = triplets;
     }
 
+    @Override
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return Triplet.isUnmodifiedSince(this.triplets, container);
+    }
+
     @Override
     protected void writeDataTo(final IpdsByteArrayOutputStream ipds) throws IOException {
         ipds.writeUnsignedInteger32(this.pageSequenceNumber);
@@ -87,6 +97,11 @@ public final class IncludeSavedPageCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() throws IOException {
+        return 4 + Triplet.getEncodedLength(this.triplets);
+    }
+
     @Override
     public String toString() {
         return "IncludeSavedPageCommand{"
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Apply Finishing Operations (AFO) command is valid only in home state and directs the printer to apply
@@ -26,9 +26,9 @@ public final class InvokeCmrCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link InvokeCmrCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link InvokeCmrCommand} from the given {@link IpdsInputStream}.
      */
-    InvokeCmrCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    InvokeCmrCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.ICMR);
 
         this.invocationFlags = ipds.readUnsignedByte();
@@ -49,6 +49,11 @@ public final class InvokeCmrCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() {
+        return 5 + this.hostAssignedIds.size() * 2;
+    }
+
     /**
      * Returns the invocation flags.
      */
@@ -60,6 +65,7 @@ public final class InvokeCmrCommand extends IpdsCommand {
      * Sets the invocation flags.
      */
     public void setInvocationFlags(final int invocationFlags) {
+        this.modified();
         this.invocationFlags = invocationFlags;
     }
 
@@ -67,13 +73,14 @@ public final class InvokeCmrCommand extends IpdsCommand {
      * Returns the HAIDs of this IPDS command.
      */
     public List<Integer> getHostAssignedIds() {
-        return this.hostAssignedIds;
+        return this.tracked(this.hostAssignedIds);
     }
 
     /**
      * Sets the HAIDs of this IPDS command.
      */
     public void setHostAssignedIds(final List<Integer> hostAssignedIds) {
+        this.modified();
         this.hostAssignedIds = hostAssignedIds;
     }
 
@@ -1,10 +1,12 @@
 package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
+import java.util.List;
 
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * An IPDS command sent to the printer. This is the abstract super class of all
@@ -16,6 +18,10 @@ public abstract class IpdsCommand {
     private final IpdsCommandFlags commandFlags;
     private int correlationId;
 
+    // The encoded data of the IPDS command (without the length, the command code, the flags and the
+    // correlation ID).
+    private final IpdsEncodingCache encodedData = new IpdsEncodingCache();
+
     /**
      * Constructor for building up new IPDS commands.
      */
@@ -27,10 +33,10 @@ public abstract class IpdsCommand {
 
     /**
      * Constructor for known IPDS commands. The Constructor assumes that the total lengths of the IPDS command
-     * as well as the IPDS command ID have already been read from the {@link IpdsByteArrayInputStream}.
+     * as well as the IPDS command ID have already been read from the {@link IpdsInputStream}.
      */
     protected IpdsCommand(
-            final IpdsByteArrayInputStream ipds,
+            final IpdsInputStream ipds,
             final IpdsCommandId commandId) throws IOException {
 
         this(ipds, commandId.getValue());
@@ -38,9 +44,9 @@ public abstract class IpdsCommand {
 
     /**
      * Constructor for unknown IPDS commands. The Constructor assumes that the total lengths of the IPDS command
-     * as well as the IPDS command ID have already been read from the {@link IpdsByteArrayInputStream}.
+     * as well as the IPDS command ID have already been read from the {@link IpdsInputStream}.
      */
-    protected IpdsCommand(final IpdsByteArrayInputStream ipds, final int commandCode) throws IOException {
+    protected IpdsCommand(final IpdsInputStream ipds, final int commandCode) throws IOException {
         this.commandCode = commandCode;
         this.commandFlags = new IpdsCommandFlags((byte) ipds.readUnsignedByte());
 
@@ -48,28 +54,28 @@ public abstract class IpdsCommand {
                 ? ipds.readUnsignedInteger16()
                 : 0;
 
-        // From here, the concrete IpdsCommand implementations can use the IpdsByteArrayInputStream
+        // From here, the concrete IpdsCommand implementations can use the IpdsInputStream
         // to read the specific data of the IpdsCommand. Reading will start at the "data" position
         // of the IPDS command.
     }
 
     /**
-     * Writes this {@link IpdsCommandId} to the given {@link IpdsByteArrayOutputStream}.
+     * Writes this {@link IpdsCommandId} to the given {@link IpdsByteArrayOutputStream}. The length, the command
+     * code, the flags, the optional correlation ID and the data are written directly to the given
+     * {@link IpdsByteArrayOutputStream} in one pass (the length is determined by {@link #getDataLength()}).
+     *
+     * <p>If the encoded data of the IPDS command is known (i. e. the IPDS command has been decoded and has not
+     * been modified since or it has already been encoded), the encoded data is copied as-is.
      */
     public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException, InvalidIpdsCommandException {
-        final IpdsByteArrayOutputStream dataStream = new IpdsByteArrayOutputStream();
-        this.writeDataTo(dataStream);
-
-        final byte[] data = dataStream.toByteArray();
+        final int dataLength = this.getEncodedDataLength();
 
         // Length = 2 Bytes    \
         // Command = 2 Bytes    --> 5 bytes
         // Flags = 1 Byte      /
         // Correlation ID = 2 Bytes (OPTIONAL FIELD!)
         // Data = 0-n Bytes
-        final int len = 5 + data.length + (this.commandFlags.hasCorrelationID() ? 2 : 0);
-
-        ipds.writeUnsignedInteger16(len);
+        ipds.writeUnsignedInteger16(this.getHeaderLength() + dataLength);
         ipds.writeUnsignedInteger16(this.commandCode);
         ipds.writeUnsignedByte(this.commandFlags.getFlags());
 
@@ -77,7 +83,119 @@ public abstract class IpdsCommand {
             ipds.writeUnsignedInteger16(this.correlationId);
         }
 
-        ipds.writeBytes(data);
+        final int start = ipds.getSize();
+        this.writeEncodedDataTo(ipds);
+
+        if (ipds.getSize() - start != dataLength) {
+            throw new InvalidIpdsCommandException("The IPDS command " + this.getClass().getSimpleName()
+                    + " announced " + dataLength + " data bytes but wrote " + (ipds.getSize() - start) + " bytes");
+        }
+    }
+
+    /**
+     * Writes the data of the IPDS command to the given {@link IpdsByteArrayOutputStream}. Copies the encoded
+     * data if it is known, otherwise the data is encoded by {@link #writeDataTo(IpdsByteArrayOutputStream)} (and
+     * cached if the IPDS command has been decoded).
+     */
+    final void writeEncodedDataTo(final IpdsByteArrayOutputStream ipds)
+            throws IOException, InvalidIpdsCommandException {
+
+        this.checkEncodedData();
+        this.encodedData.writeTo(ipds, this::writeDataTo);
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #writeEncodedDataTo(IpdsByteArrayOutputStream)}.
+     */
+    final int getEncodedDataLength() throws IOException, InvalidIpdsCommandException {
+        return this.checkEncodedData() ? this.encodedData.getLength() : this.getDataLength();
+    }
+
+    /**
+     * Discards the encoded data if an IPDS structure contained in the IPDS command has been modified since the
+     * encoded data has been cached. Returns <code>true</code> if the encoded data is valid.
+     */
+    private boolean checkEncodedData() {
+        if (this.encodedData.isValid() && !this.isContentUnmodifiedSince(this.encodedData)) {
+            this.encodedData.modified();
+        }
+        return this.encodedData.isValid();
+    }
+
+    /**
+     * Returns the length of the encoded IPDS command (including the length field, the command code, the flags
+     * and the optional correlation ID).
+     */
+    public final int getEncodedLength() throws IOException, InvalidIpdsCommandException {
+        return this.getHeaderLength() + this.getEncodedDataLength();
+    }
+
+    private int getHeaderLength() {
+        return this.commandFlags.hasCorrelationID() ? 7 : 5;
+    }
+
+    /**
+     * Returns <code>true</code> if the encoded data of the IPDS command is known, so
+     * {@link #writeTo(IpdsByteArrayOutputStream)} copies it instead of encoding the data.
+     */
+    public final boolean isEncodingCached() {
+        return this.checkEncodedData();
+    }
+
+    /**
+     * Sets the original encoded data of a decoded IPDS command. The given view is kept (the bytes are not copied),
+     * so its underlying data must not be modified as long as the IPDS command is used.
+     */
+    final void setOriginalData(final IpdsInputStream original) {
+        this.encodedData.setOriginal(original);
+    }
+
+    /**
+     * Discards the encoded data of the IPDS command. Must be called by every method that modifies the data of
+     * the IPDS command (the flags and the correlation ID are not part of the data).
+     */
+    protected final void modified() {
+        this.encodedData.modified();
+    }
+
+    /**
+     * Discards the encoded data of the IPDS command for good, so the data is encoded by every
+     * {@link #writeTo(IpdsByteArrayOutputStream)}. Must be called by every method that returns a mutable part of
+     * the data whose modifications can not be tracked (i. e. a byte array), because the caller may modify it at
+     * any time.
+     */
+    protected final void exposed() {
+        this.encodedData.exposed();
+    }
+
+    /**
+     * Returns a view of the given {@link List} that discards the encoded data of the IPDS command whenever an
+     * element is added, removed or replaced. Must be used by every method that returns a {@link List} of the data.
+     */
+    protected final <T> List<T> tracked(final List<T> list) {
+        return this.encodedData.track(list);
+    }
+
+    /**
+     * Returns <code>true</code> if no IPDS structure contained in the data of the IPDS command (i. e. a triplet or
+     * an order) has been modified since the given encoded data has been cached. Must be overridden by every IPDS
+     * command that returns contained IPDS structures.
+     */
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return true;
+    }
+
+    /**
+     * Returns the length of the binary data that is specific for the IPDS command (i. e. the number of bytes
+     * written by {@link #writeDataTo(IpdsByteArrayOutputStream)}).
+     *
+     * <p>The default implementation writes the data to a length counter. Subclasses should override this
+     * method and compute the length directly.
+     */
+    protected int getDataLength() throws IOException, InvalidIpdsCommandException {
+        final IpdsByteArrayOutputStream counter = IpdsByteArrayOutputStream.createLengthCounter();
+        this.writeDataTo(counter);
+        return counter.getSize();
     }
 
     /**
@@ -0,0 +1,17 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+/**
+ * This is the handler interface for IPDS commands that could not be decoded by
+ * {@link IpdsCommandFactory#createAll(de.textmode.ipdsbox.ppd.PagePrinterRequest, java.util.List,
+ * IpdsCommandErrorHandler)} or by a {@link de.textmode.ipdsbox.ppd.PagePrinterRequestDecoder}.
+ */
+@FunctionalInterface
+public interface IpdsCommandErrorHandler {
+
+    /**
+     * Handles the error that occurred while decoding the IPDS command at the given offset. The
+     * {@link Exception} is either an {@link java.io.IOException} or an
+     * {@link de.textmode.ipdsbox.core.InvalidIpdsCommandException}.
+     */
+    void handle(final int offset, final Exception exception);
+}
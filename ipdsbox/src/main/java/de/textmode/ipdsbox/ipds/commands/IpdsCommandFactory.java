@@ -3,27 +3,122 @@ package de.textmode.ipdsbox.ipds.commands;
 import java.io.IOException;
 import java.util.List;
 
+import de.textmode.ipdsbox.core.Decoder;
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.DecoderRegistry;
+import de.textmode.ipdsbox.core.DecoderTable;
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
 import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
-import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeReply;
+import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeReplyAssembler;
 import de.textmode.ipdsbox.ppd.PagePrinterRequest;
 
 /**
  * A factory for all supported {@link IpdsCommand}s.
+ *
+ * <p>The {@link IpdsCommand}s are decoded by the {@link Decoder}s of a {@link DecoderTable}. The {@link DecoderTable}
+ * of all {@link IpdsCommand}s supported by ipdsbox is returned by {@link #getDefaultDecoders()}. Own {@link Decoder}s
+ * (i. e. specialized decoders for hot IPDS commands) can be added with {@link DecoderTable#toRegistry()} and used
+ * by a {@link DecoderContext} (see {@link #create(IpdsInputStream, DecoderContext)}). The {@link DecoderContext}
+ * is passed to the decoded {@link IpdsCommand}, so its triplets, orders and self-defining fields are decoded with
+ * the {@link DecoderTable}s of the same {@link DecoderContext}. All methods that do not get a
+ * {@link DecoderContext} use {@link DecoderContext#getDefault()}.
  */
 public final class IpdsCommandFactory {
 
+    // TODO: Implement "toString()" in all IpdsCommands...
+    private static final DecoderTable<IpdsCommand> DEFAULT_DECODERS =
+        new DecoderRegistry<IpdsCommand>(0, (ipds, code, context) -> new UnknownIpdsCommand(ipds, code))
+            .register(IpdsCommandId.ACK.getValue(), (ipds, code, context) -> new AcknowledgeReply(ipds, context))
+            //.register(IpdsCommandId.AFO.getValue(),
+            //        (ipds, code, context) -> new ApplyFinishingOperationsCommand(ipds, context))
+            .register(IpdsCommandId.AR.getValue(), (ipds, code, context) -> new ActivateResourceCommand(ipds, context))
+            //.register(IpdsCommandId.BO.getValue(), (ipds, code, context) -> new BeginOverlayCommand(ipds))
+            .register(IpdsCommandId.BP.getValue(), (ipds, code, context) -> new BeginPageCommand(ipds))
+            //.register(IpdsCommandId.BPS.getValue(), (ipds, code, context) -> new BeginPageSegmentCommand(ipds))
+            //.register(IpdsCommandId.DDOFC.getValue(),
+            //        (ipds, code, context) -> new DeactivateDataObjectFontComponentCommand(ipds))
+            //.register(IpdsCommandId.DDOR.getValue(),
+            //        (ipds, code, context) -> new DeactivateDataObjectResourceCommand(ipds))
+            .register(IpdsCommandId.DF.getValue(), (ipds, code, context) -> new DeactivateFontCommand(ipds))
+            //.register(IpdsCommandId.DO.getValue(), (ipds, code, context) -> new DeactivateOverlayCommand(ipds))
+            //.register(IpdsCommandId.DORE.getValue(),
+            //        (ipds, code, context) -> new DataObjectResourceEquivalenceCommand(ipds))
+            //.register(IpdsCommandId.DPS.getValue(), (ipds, code, context) -> new DeactivatePageSegmentCommand(ipds))
+            .register(IpdsCommandId.DUA.getValue(), (ipds, code, context) -> new DefineUserAreaCommand(ipds))
+            .register(IpdsCommandId.END.getValue(), (ipds, code, context) -> new EndCommand(ipds))
+            .register(IpdsCommandId.EP.getValue(), (ipds, code, context) -> new EndPageCommand(ipds))
+            .register(IpdsCommandId.ICMR.getValue(), (ipds, code, context) -> new InvokeCmrCommand(ipds))
+            //.register(IpdsCommandId.IDO.getValue(), (ipds, code, context) -> new IncludeDataObjectCommand(ipds))
+            //.register(IpdsCommandId.IO.getValue(), (ipds, code, context) -> new IncludeOverlayCommand(ipds))
+            //.register(IpdsCommandId.IPS.getValue(), (ipds, code, context) -> new IncludePageSegmentCommand(ipds))
+            .register(IpdsCommandId.ISP.getValue(), (ipds, code, context) -> new IncludeSavedPageCommand(ipds, context))
+            .register(IpdsCommandId.LCC.getValue(), (ipds, code, context) -> new LoadCopyControlCommand(ipds))
+            //.register(IpdsCommandId.LCP.getValue(), (ipds, code, context) -> new LoadCodePageCommand(ipds))
+            //.register(IpdsCommandId.LCPC.getValue(), (ipds, code, context) -> new LoadCodePageControlCommand(ipds))
+            //.register(IpdsCommandId.LE.getValue(), (ipds, code, context) -> new LoadEquivalenceCommand(ipds))
+            //.register(IpdsCommandId.LF.getValue(), (ipds, code, context) -> new LoadFontCommand(ipds))
+            //.register(IpdsCommandId.LFC.getValue(), (ipds, code, context) -> new LoadFontControlCommand(ipds))
+            //.register(IpdsCommandId.LFCSC.getValue(),
+            //        (ipds, code, context) -> new LoadFontCharacterSetControlCommand(ipds))
+            .register(IpdsCommandId.LFE.getValue(), (ipds, code, context) -> new LoadFontEquivalenceCommand(ipds))
+            //.register(IpdsCommandId.LFI.getValue(), (ipds, code, context) -> new LoadFontIndexCommand(ipds))
+            .register(IpdsCommandId.LPD.getValue(),
+                    (ipds, code, context) -> new LogicalPageDescriptorCommand(ipds, context))
+            .register(IpdsCommandId.LPP.getValue(), (ipds, code, context) -> new LogicalPagePositionCommand(ipds))
+            //.register(IpdsCommandId.LSS.getValue(), (ipds, code, context) -> new LoadSymbolSetCommand(ipds))
+            .register(IpdsCommandId.MID.getValue(), (ipds, code, context) -> new ManageIpdsDialogCommand(ipds))
+            .register(IpdsCommandId.NOP.getValue(), (ipds, code, context) -> new NoOperationCommand(ipds))
+            .register(IpdsCommandId.PFC.getValue(),
+                    (ipds, code, context) -> new PresentationFidelityControlCommand(ipds, context))
+            //.register(IpdsCommandId.RPO.getValue(),
+            //        (ipds, code, context) -> new RasterizePresentationObjectCommand(ipds))
+            //.register(IpdsCommandId.RRR.getValue(), (ipds, code, context) -> new RemoveResidentResourceCommand(ipds))
+            //.register(IpdsCommandId.RRRL.getValue(),
+            //        (ipds, code, context) -> new RequestResidentResourceListCommand(ipds))
+            .register(IpdsCommandId.SHS.getValue(), (ipds, code, context) -> new SetHomeStateCommand(ipds))
+            .register(IpdsCommandId.SPE.getValue(),
+                    (ipds, code, context) -> new SetPresentationEnvironmentCommand(ipds, context))
+            .register(IpdsCommandId.STM.getValue(), (ipds, code, context) -> new SenseTypeAndModelCommand(ipds))
+            //.register(IpdsCommandId.WBC.getValue(), (ipds, code, context) -> new WriteBarCodeCommand(ipds))
+            //.register(IpdsCommandId.WBCC.getValue(), (ipds, code, context) -> new WriteBarCodeControlCommand(ipds))
+            //.register(IpdsCommandId.WG.getValue(), (ipds, code, context) -> new WriteGraphicsCommand(ipds))
+            //.register(IpdsCommandId.WGC.getValue(), (ipds, code, context) -> new WriteGraphicsControlCommand(ipds))
+            //.register(IpdsCommandId.WI.getValue(), (ipds, code, context) -> new WriteImageCommand(ipds))
+            //.register(IpdsCommandId.WI2.getValue(), (ipds, code, context) -> new WriteImage2Command(ipds))
+            //.register(IpdsCommandId.WIC.getValue(), (ipds, code, context) -> new WriteImageControlCommand(ipds))
+            //.register(IpdsCommandId.WIC2.getValue(), (ipds, code, context) -> new WriteImageControl2Command(ipds))
+            //.register(IpdsCommandId.WOC.getValue(), (ipds, code, context) -> new WriteObjectContainerCommand(ipds))
+            //.register(IpdsCommandId.WOCC.getValue(),
+            //        (ipds, code, context) -> new WriteObjectContainerControlCommand(ipds))
+            .register(IpdsCommandId.WT.getValue(), (ipds, code, context) -> new WriteTextCommand(ipds))
+            //.register(IpdsCommandId.WTC.getValue(), (ipds, code, context) -> new WriteTextControlCommand(ipds))
+            .register(IpdsCommandId.XOA.getValue(),
+                    (ipds, code, context) -> new ExecuteOrderAnyStateCommand(ipds, context))
+            .register(IpdsCommandId.XOH.getValue(),
+                    (ipds, code, context) -> new ExecuteOrderHomeStateCommand(ipds, context))
+            .freeze();
+
+    private static final int PPD_HEADER_LENGTH = 8;
+
     private IpdsCommandFactory() {
     }
 
+    /**
+     * Returns the {@link DecoderTable} of all {@link IpdsCommand}s supported by ipdsbox.
+     */
+    public static DecoderTable<IpdsCommand> getDefaultDecoders() {
+        return DEFAULT_DECODERS;
+    }
+
     /**
      * Creates a {@link IpdsCommand} from the given {@link PagePrinterRequest}.
      */
     public static IpdsCommand create(final PagePrinterRequest request) throws IOException, InvalidIpdsCommandException {
 
         if (request.getRequest() == 0x0E) {
-            return create(new IpdsByteArrayInputStream(request.getData(), 8));
+            return create(dataOf(request));
         }
 
         throw new IOException("Can not handle request type " + Integer.toHexString(request.getRequest()));
@@ -33,75 +128,277 @@ public final class IpdsCommandFactory {
      * Creates a {@link IpdsCommand} from the given List of {@link PagePrinterRequest}s. This method allows combining
      * multiple "Acknowledge Reply" commands to be combined to one Acknowledge Reply. The caller is responsible to
      * provide {@link PagePrinterRequest}s that "fit together" (i. e. that all {@link PagePrinterRequest}s have the
-     * same correlation ID (if present).
+     * same correlation ID (if present). The Acknowledge Replies are reassembled by an
+     * {@link AcknowledgeReplyAssembler} without concatenating them.
      */
     public static IpdsCommand create(
             final List<PagePrinterRequest> requests) throws IOException, InvalidIpdsCommandException {
 
-        final IpdsByteArrayOutputStream ipdsOutputStream = new IpdsByteArrayOutputStream();
+        final AcknowledgeReplyAssembler assembler = new AcknowledgeReplyAssembler();
 
         for (final PagePrinterRequest request : requests) {
-            if (request.getRequest() != 0x0E) {
-                throw new IOException("Can not handle request type " + Integer.toHexString(request.getRequest()));
-            }
+            assembler.add(request);
+        }
 
-            final IpdsByteArrayInputStream ipds = new IpdsByteArrayInputStream(request.getData(), 8);
-            ipds.skip(2); // Skip the 2 byte length field...
+        if (!assembler.isComplete()) {
+            throw new InvalidIpdsCommandException("The last Acknowledge Reply requests a continuation");
+        }
 
-            final IpdsCommandId commandId = IpdsCommandId.getIfKnown(ipds.readUnsignedInteger16());
+        return assembler.getAcknowledgeReply();
+    }
 
-            if (commandId != IpdsCommandId.ACK) {
-                throw new InvalidIpdsCommandException("Only `Acknowledge Replies` may be combined");
-            }
+    /**
+     * Creates a {@link IpdsCommand} from the given byte array.
+     */
+    public static IpdsCommand create(final byte[] data) throws IOException, InvalidIpdsCommandException {
+        return create(new IpdsByteArrayInputStream(data));
+    }
 
-            // TODO test cases..
-            //   different commands (one no ACK)
-            //   with and without correlation IDs
+    /**
+     * Creates a {@link IpdsCommand} from the given {@link IpdsInputStream}.
+     */
+    public static IpdsCommand create(
+            final IpdsInputStream ipds) throws IOException, InvalidIpdsCommandException {
 
-            if (ipdsOutputStream.getSize() == 0) {
-                ipdsOutputStream.writeUnsignedInteger16(0x0000); // Dummy length...
-                ipdsOutputStream.writeUnsignedInteger16(commandId.getValue());
-            } else {
-                // Read the Flag byte...
-                final IpdsCommandFlags flags = new IpdsCommandFlags((byte) ipds.readUnsignedByte());
+        return create(ipds, DecoderContext.getDefault());
+    }
 
-                // Skip the correlation ID if present...
-                if (flags.hasCorrelationID()) {
-                    ipds.skip(2);
-                }
+    /**
+     * Creates a {@link IpdsCommand} from the given {@link IpdsInputStream} with the {@link Decoder}s of the
+     * given {@link DecoderContext}.
+     */
+    public static IpdsCommand create(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException, InvalidIpdsCommandException {
 
-                AcknowledgeReply.skipCounters(ipds);
-            }
+        return decode(ipds, readHeader(ipds), context);
+    }
+
+    /**
+     * Creates a {@link IpdsCommand} from the given byte array. IPDS commands that are not selected by the
+     * given {@link DecodePolicy} are returned as a {@link LazyIpdsCommand}, which keeps a view of the given byte
+     * array, so the byte array must not be modified afterwards.
+     */
+    public static IpdsCommand create(
+            final byte[] data,
+            final DecodePolicy policy) throws IOException, InvalidIpdsCommandException {
+
+        return create(new IpdsByteArrayInputStream(data), policy);
+    }
+
+    /**
+     * Creates a {@link IpdsCommand} from the given {@link IpdsInputStream}. The IPDS command is decoded if it
+     * is selected by the given {@link DecodePolicy}, otherwise a {@link LazyIpdsCommand} is returned that
+     * keeps a view of the underlying data of the {@link IpdsInputStream} (see
+     * {@link #createLazy(IpdsInputStream)}).
+     */
+    public static IpdsCommand create(
+            final IpdsInputStream ipds,
+            final DecodePolicy policy) throws IOException, InvalidIpdsCommandException {
+
+        return create(ipds, policy, DecoderContext.getDefault());
+    }
 
-            ipdsOutputStream.writeBytes(ipds.readRemainingBytes());
+    /**
+     * Creates a {@link IpdsCommand} from the given {@link IpdsInputStream} like
+     * {@link #create(IpdsInputStream, DecodePolicy)}, but with the {@link Decoder}s of the given
+     * {@link DecoderContext} (which is kept by a returned {@link LazyIpdsCommand}).
+     */
+    public static IpdsCommand create(
+            final IpdsInputStream ipds,
+            final DecodePolicy policy,
+            final DecoderContext context) throws IOException, InvalidIpdsCommandException {
+
+        final int commandIdValue = readHeader(ipds);
+
+        if (policy.isSelected(commandIdValue) && !policy.hasPredicate()) {
+            return decode(ipds, commandIdValue, context);
         }
 
-        final byte[] ipdsData = ipdsOutputStream.toByteArray();
-        final int len = ipdsData.length;
+        final LazyIpdsCommand command =
+                new LazyIpdsCommand(ipds.readView(ipds.bytesAvailable()), commandIdValue, context);
+        if (policy.isSelected(commandIdValue) && policy.isSelected(command)) {
+            return command.getDecoded();
+        }
 
-        ipdsData[0] = (byte) ((len >>> 8) & 0xFF);
-        ipdsData[1] = (byte) (len & 0xFF);
+        return command;
+    }
 
-        final IpdsCommand ipdsCommand = create(ipdsData);
-        ipdsCommand.getCommandFlags().isAcknowledgmentContinuationRequested(false);
+    /**
+     * Creates a {@link LazyIpdsCommand} from the given byte array. The {@link LazyIpdsCommand} keeps a view of
+     * the given byte array, so the byte array must not be modified afterwards.
+     */
+    public static LazyIpdsCommand createLazy(final byte[] data) throws IOException, InvalidIpdsCommandException {
+        return createLazy(new IpdsByteArrayInputStream(data));
+    }
 
-        return ipdsCommand;
+    /**
+     * Creates a {@link LazyIpdsCommand} from the given {@link IpdsInputStream}. Only the header of the
+     * IPDS command (command code, flags and the optional correlation ID) is decoded. The {@link LazyIpdsCommand}
+     * keeps a view of the underlying data of the {@link IpdsInputStream}, so the underlying data must not be
+     * modified (or reused) as long as the {@link LazyIpdsCommand} is used.
+     */
+    public static LazyIpdsCommand createLazy(
+            final IpdsInputStream ipds) throws IOException, InvalidIpdsCommandException {
+
+        final int commandIdValue = readHeader(ipds);
+        return new LazyIpdsCommand(ipds.readView(ipds.bytesAvailable()), commandIdValue, DecoderContext.getDefault());
     }
 
     /**
-     * Creates a {@link IpdsCommand} from the given byte array.
+     * Creates all {@link IpdsCommand}s carried by the given {@link PagePrinterRequest} in one pass and adds them to
+     * the given {@link List}. The {@link List} is cleared first, so the same {@link List} can be reused for every
+     * {@link PagePrinterRequest}. See {@link #createAll(IpdsInputStream, List, IpdsCommandErrorHandler)}.
+     *
+     * @return the number of IPDS commands that could not be decoded.
+     *
+     * @throws IOException if the {@link PagePrinterRequest} does not carry IPDS commands or the 8 byte header
+     *  that precedes the IPDS commands is invalid.
      */
-    public static IpdsCommand create(final byte[] data) throws IOException, InvalidIpdsCommandException {
-        return create(new IpdsByteArrayInputStream(data));
+    public static int createAll(
+            final PagePrinterRequest request,
+            final List<IpdsCommand> commands,
+            final IpdsCommandErrorHandler errorHandler) throws IOException {
+
+        return createAll(request, commands, errorHandler, DecoderContext.getDefault());
     }
 
     /**
-     * Creates a {@link IpdsCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Creates all {@link IpdsCommand}s carried by the given {@link PagePrinterRequest} like
+     * {@link #createAll(PagePrinterRequest, List, IpdsCommandErrorHandler)}, but with the {@link Decoder}s of the
+     * given {@link DecoderContext}.
      */
-    public static IpdsCommand create(
-            final IpdsByteArrayInputStream ipds) throws IOException, InvalidIpdsCommandException {
+    public static int createAll(
+            final PagePrinterRequest request,
+            final List<IpdsCommand> commands,
+            final IpdsCommandErrorHandler errorHandler,
+            final DecoderContext context) throws IOException {
+
+        if (request.getRequest() != 0x0E) {
+            throw new IOException("Can not handle request type " + Integer.toHexString(request.getRequest()));
+        }
+
+        final byte[] data = request.getData();
+        return createAll(
+                new IpdsByteArrayInputStream(data, 0, data.length - request.getDataLength()),
+                commands,
+                errorHandler,
+                context);
+    }
+
+    /**
+     * Creates all {@link IpdsCommand}s from the given {@link IpdsInputStream} in one pass and adds them to the given
+     * {@link List}. The {@link IpdsInputStream} has to start at the 8 byte header that precedes the IPDS commands
+     * of a {@link PagePrinterRequest} (four flag bytes and the length of all following IPDS commands). The header
+     * is checked once and the IPDS commands are copied once (so the underlying data of the {@link IpdsInputStream}
+     * may be reused afterwards, i. e. a pooled {@link PagePrinterRequest} may be released). All IPDS commands are
+     * decoded from views of this copy (see {@link IpdsInputStream#readIpdsCommandViewIfExists()}), which they keep
+     * as their original encoded data.
+     *
+     * <p>The {@link List} is cleared first, so the same {@link List} can be reused for every
+     * {@link PagePrinterRequest}. An IPDS command that could not be decoded is passed to the given
+     * {@link IpdsCommandErrorHandler} (may be <code>null</code>) with its offset within the underlying data and is
+     * not added to the {@link List}, the following IPDS commands are decoded nevertheless. Only if the length field
+     * of an IPDS command is broken, the following IPDS commands can not be located and decoding stops.
+     *
+     * @return the number of IPDS commands that could not be decoded.
+     *
+     * @throws IOException if the 8 byte header that precedes the IPDS commands is invalid.
+     */
+    public static int createAll(
+            final IpdsInputStream ipds,
+            final List<IpdsCommand> commands,
+            final IpdsCommandErrorHandler errorHandler) throws IOException {
+
+        return createAll(ipds, commands, errorHandler, DecoderContext.getDefault());
+    }
+
+    /**
+     * Creates all {@link IpdsCommand}s from the given {@link IpdsInputStream} like
+     * {@link #createAll(IpdsInputStream, List, IpdsCommandErrorHandler)}, but with the {@link Decoder}s of the
+     * given {@link DecoderContext}.
+     */
+    public static int createAll(
+            final IpdsInputStream ipds,
+            final List<IpdsCommand> commands,
+            final IpdsCommandErrorHandler errorHandler,
+            final DecoderContext context) throws IOException {
+
+        commands.clear();
+
+        if (ipds.bytesAvailable() < PPD_HEADER_LENGTH) {
+            throw new IOException(
+                    "The first 8 bytes are missing, only " + ipds.bytesAvailable() + " bytes available");
+        }
+
+        // We don't know what the first 4 bytes are meaning.... skip them... The next 4 bytes contain
+        // the complete length of all following IPDS commands.
+        ipds.skip(4);
+        final long completeLength = ipds.readUnsignedInteger32();
+
+        if (ipds.bytesAvailable() != completeLength) {
+            throw new IOException(
+                    "Expecting " + completeLength + " bytes but " + ipds.bytesAvailable() + " bytes available");
+        }
+
+        // Copy the IPDS commands once, every IPDS command keeps a view of this copy. The offsets
+        // passed to the IpdsCommandErrorHandler are offsets within the underlying data...
+        final int base = ipds.tell();
+        final IpdsInputStream payload = new IpdsByteArrayInputStream(ipds.readRemainingBytes());
+        int errors = 0;
+
+        while (payload.bytesAvailable() > 0) {
+            final int offset = base + payload.tell();
+            final IpdsInputStream command;
+
+            try {
+                command = payload.readIpdsCommandViewIfExists();
+            } catch (final IOException e) {
+                // The length field is broken, so the following IPDS commands can not be located...
+                handleError(errorHandler, offset, e);
+                return errors + 1;
+            }
+
+            try {
+                commands.add(decodeView(command, readHeader(command), context));
+            } catch (final IOException | InvalidIpdsCommandException e) {
+                handleError(errorHandler, offset, e);
+                ++errors;
+            }
+        }
 
-        // The implementation requires that the IpdsByteArrayInputStream contains exactly as many
+        return errors;
+    }
+
+    /**
+     * Passes the error to the given {@link IpdsCommandErrorHandler} (if there is one).
+     */
+    private static void handleError(
+            final IpdsCommandErrorHandler errorHandler,
+            final int offset,
+            final Exception exception) {
+
+        if (errorHandler != null) {
+            errorHandler.handle(offset, exception);
+        }
+    }
+
+    /**
+     * Returns the IPDS commands of the given {@link PagePrinterRequest} (i. e. the data without the 8 byte
+     * header that precedes the IPDS commands). Respects that the buffer of a pooled request may be larger
+     * than the data of the request.
+     */
+    private static IpdsInputStream dataOf(final PagePrinterRequest request) {
+        final byte[] data = request.getData();
+        return new IpdsByteArrayInputStream(data, 8, data.length - request.getDataLength());
+    }
+
+    /**
+     * Reads the length field and the command code of an IPDS command and returns the command code.
+     */
+    private static int readHeader(final IpdsInputStream ipds) throws IOException, InvalidIpdsCommandException {
+
+        // The implementation requires that the IpdsInputStream contains exactly as many
         // bytes as specified in the length field.
         final int availableLength = ipds.bytesAvailable();
         final int commandLength = ipds.readUnsignedInteger16();
@@ -114,73 +411,46 @@ public final class IpdsCommandFactory {
                 availableLength));
         }
 
-        final int commandIdValue = ipds.readUnsignedInteger16();
-        final IpdsCommandId commandId = IpdsCommandId.getIfKnown(commandIdValue);
+        return ipds.readUnsignedInteger16();
+    }
 
-        if (commandId == null) {
-            return new UnknownIpdsCommand(ipds, commandIdValue);
-        }
+    /**
+     * Creates a {@link IpdsCommand} from the given {@link IpdsInputStream} with the {@link Decoder}s of the given
+     * {@link DecoderContext}. The {@link IpdsInputStream} has to start at the flags of the IPDS command.
+     *
+     * <p>The IPDS command is copied once, the decoded {@link IpdsCommand} and all its triplets and orders keep
+     * views of this copy as their original encoded form. So the caller may reuse the underlying data of the
+     * {@link IpdsInputStream} (i. e. release a pooled {@link PagePrinterRequest}).
+     */
+    private static IpdsCommand decode(
+            final IpdsInputStream ipds,
+            final int commandIdValue,
+            final DecoderContext context) throws IOException, InvalidIpdsCommandException {
+
+        return decodeView(new IpdsByteArrayInputStream(ipds.readRemainingBytes()), commandIdValue, context);
+    }
+
+    /**
+     * Creates a {@link IpdsCommand} from the given {@link IpdsInputStream} without copying it. The decoded
+     * {@link IpdsCommand} and all its triplets and orders keep views of the underlying data of the
+     * {@link IpdsInputStream}, so the underlying data must not be modified as long as the {@link IpdsCommand}
+     * is used. The {@link IpdsInputStream} has to start at the flags of the IPDS command (used by
+     * {@link LazyIpdsCommand#getDecoded()}, which already keeps a view).
+     */
+    static IpdsCommand decodeView(
+            final IpdsInputStream ipds,
+            final int commandIdValue,
+            final DecoderContext context) throws IOException, InvalidIpdsCommandException {
+
+        final int availableLength = ipds.bytesAvailable();
+        final IpdsCommand command = context.getCommands().decode(ipds, commandIdValue, context);
+
+        // Keep the original encoded data (the bytes behind the flags and the optional
+        // correlation ID), so an unmodified IPDS command is written as-is.
+        final int headerLength = command.getCommandFlags().hasCorrelationID() ? 3 : 1;
+        ipds.rewind(availableLength - ipds.bytesAvailable() - headerLength);
+        command.setOriginalData(ipds.readView(availableLength - headerLength));
 
-        // TODO: Implement "toString()" in all IpdsCommands...
-
-        return switch (commandId) {
-            case ACK -> new AcknowledgeReply(ipds);
-            //case AFO -> new ApplyFinishingOperationsCommand(ipds);
-            case AR -> new ActivateResourceCommand(ipds);
-            //case BO -> new BeginOverlayCommand(ipds);
-            case BP -> new BeginPageCommand(ipds);
-            //case BPS -> new BeginPageSegmentCommand(ipds);
-            //case DDOFC -> new DeactivateDataObjectFontComponentCommand(ipds);
-            //case DDOR -> new DeactivateDataObjectResourceCommand(ipds);
-            case DF -> new DeactivateFontCommand(ipds);
-            //case DO -> new DeactivateOverlayCommand(ipds);
-            //case DORE -> new DataObjectResourceEquivalenceCommand(ipds);
-            //case DPS -> new DeactivatePageSegmentCommand(ipds);
-            case DUA -> new DefineUserAreaCommand(ipds);
-            case END -> new EndCommand(ipds);
-            case EP -> new EndPageCommand(ipds);
-            case ICMR -> new InvokeCmrCommand(ipds);
-            //case IDO -> new IncludeDataObjectCommand(ipds);
-            //case IO -> new IncludeOverlayCommand(ipds);
-            //case IPS -> new IncludePageSegmentCommand(ipds);
-            case ISP -> new IncludeSavedPageCommand(ipds);
-            case LCC -> new LoadCopyControlCommand(ipds);
-            //case LCP -> new LoadCodePageCommand(ipds);
-            //case LCPC -> new LoadCodePageControlCommand(ipds);
-            //case LE -> new LoadEquivalenceCommand(ipds);
-            //case LF -> new LoadFontCommand(ipds);
-            //case LFC -> new LoadFontControlCommand(ipds);
-            //case LFCSC -> new LoadFontCharacterSetControlCommand(ipds);
-            case LFE -> new LoadFontEquivalenceCommand(ipds);
-            //case LFI -> new LoadFontIndexCommand(ipds);
-            case LPD -> new LogicalPageDescriptorCommand(ipds);
-            case LPP -> new LogicalPagePositionCommand(ipds);
-            //case LSS -> new LoadSymbolSetCommand(ipds);
-            case MID -> new ManageIpdsDialogCommand(ipds);
-            case NOP -> new NoOperationCommand(ipds);
-            case PFC -> new PresentationFidelityControlCommand(ipds);
-            //case RPO -> new RasterizePresentationObjectCommand(ipds);
-            //case RRR -> new RemoveResidentResourceCommand(ipds);
-            //case RRRL -> new RequestResidentResourceListCommand(ipds);
-            case SHS -> new SetHomeStateCommand(ipds);
-            case SPE -> new SetPresentationEnvironmentCommand(ipds);
-            case STM -> new SenseTypeAndModelCommand(ipds);
-            //case WBC -> new WriteBarCodeCommand(ipds);
-            //case WBCC -> new WriteBarCodeControlCommand(ipds);
-            //case WG -> new WriteGraphicsCommand(ipds);
-            //case WGC -> new WriteGraphicsControlCommand(ipds);
-            //case WI -> new WriteImageCommand(ipds);
-            //case WI2 -> new WriteImage2Command(ipds);
-            //case WIC -> new WriteImageControlCommand(ipds);
-            //case WIC2 -> new WriteImageControl2Command(ipds);
-            //case WOC -> new WriteObjectContainerCommand(ipds);
-            //case WOCC -> new WriteObjectContainerControlCommand(ipds);
-            case WT -> new WriteTextCommand(ipds);
-            //case WTC -> new WriteTextControlCommand(ipds);
-            case XOA -> new ExecuteOrderAnyStateCommand(ipds);
-            case XOH -> new ExecuteOrderHomeStateCommand(ipds);
-
-            default -> new UnknownIpdsCommand(ipds, commandIdValue);
-        };
+        return command;
     }
 }
@@ -1,8 +1,5 @@
 package de.textmode.ipdsbox.ipds.commands;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Enumeration of all known IPDS command id's.
  */
@@ -282,11 +279,17 @@ public enum IpdsCommandId {
      */
     LSS(0xD61E, "Load Symbol Set");
 
-    private static final Map<Integer, IpdsCommandId> REVERSE_MAP = new HashMap<>();
+    // All IPDS command codes are in the range X'D600' - X'D6FF', so the low byte of the command code
+    // is used as an index into the lookup table.
+    private static final int COMMAND_CODE_PREFIX = 0xD600;
+    private static final IpdsCommandId[] LOOKUP_TABLE = new IpdsCommandId[256];
 
     static {
         for (final IpdsCommandId code : values()) {
-            REVERSE_MAP.put(code.getValue(), code);
+            if ((code.getValue() & ~0xFF) != COMMAND_CODE_PREFIX || LOOKUP_TABLE[code.getValue() & 0xFF] != null) {
+                throw new IllegalStateException("Invalid or duplicate IPDS command code " + code);
+            }
+            LOOKUP_TABLE[code.getValue() & 0xFF] = code;
         }
     }
 
@@ -306,7 +309,7 @@ public enum IpdsCommandId {
      * @return the enum value for the given integer or <code>null</code> if the IPDS command code is unknown.
      */
     public static IpdsCommandId getIfKnown(final int value) {
-        return REVERSE_MAP.get(value);
+        return (value & ~0xFF) == COMMAND_CODE_PREFIX ? LOOKUP_TABLE[value & 0xFF] : null;
     }
 
     /**
@@ -0,0 +1,219 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.io.IOException;
+
+import de.textmode.ipdsbox.core.BitUtils;
+import de.textmode.ipdsbox.core.ByteUtils;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.ipds.xohorders.XohOrderCode;
+import de.textmode.ipdsbox.ppd.PagePrinterRequest;
+
+/**
+ * Patches fields of encoded IPDS commands in place, i. e. without decoding and encoding the IPDS commands.
+ *
+ * <p>All methods expect a byte array and the offset of the length field of an encoded IPDS command within the
+ * byte array (i. e. the offset of an IPDS command within the data of a {@link PagePrinterRequest}). The fields
+ * are located at fixed offsets within the IPDS command and are overwritten in the given byte array, so the
+ * length of the IPDS command does not change. Only adding a correlation ID changes the length of the IPDS
+ * command (see {@link #patchCorrelationId(byte[], int, int)}).
+ *
+ * <p>This allows a proxy to rewrite some fields (i. e. the number of copies or the media source) of the IPDS
+ * commands it forwards without decoding and encoding every IPDS command.
+ */
+public final class IpdsCommandPatcher {
+
+    // Length = 2 bytes, Command = 2 bytes, Flags = 1 byte, Correlation ID = 2 bytes (optional)
+    private static final int FLAGS_OFFSET = 4;
+    private static final int CORRELATION_ID_OFFSET = 5;
+    private static final int MIN_COMMAND_LENGTH = 5;
+
+    private static final int ARQ_BIT = 0;
+    private static final int CORRELATION_ID_BIT = 1;
+
+    /**
+     * Private constructor to make checkstyle happy.
+     */
+    private IpdsCommandPatcher() {
+    }
+
+    /**
+     * Returns the length of the IPDS command at the given offset (including the length field).
+     *
+     * @throws InvalidIpdsCommandException if the length of the IPDS command is invalid or the IPDS command
+     *  exceeds the byte array.
+     */
+    public static int getCommandLength(final byte[] data, final int offset) throws InvalidIpdsCommandException {
+        if (offset < 0 || offset + 2 > data.length) {
+            throw new InvalidIpdsCommandException("No IPDS command at offset " + offset);
+        }
+
+        final int length = ByteUtils.toUnsignedInteger16(data, offset);
+        if (length < MIN_COMMAND_LENGTH || offset + length > data.length) {
+            throw new InvalidIpdsCommandException(
+                    "The IPDS command at offset " + offset + " has an invalid length of " + length + " bytes");
+        }
+
+        return length;
+    }
+
+    /**
+     * Returns the command code of the IPDS command at the given offset.
+     */
+    public static int getCommandCode(final byte[] data, final int offset) throws InvalidIpdsCommandException {
+        getCommandLength(data, offset);
+        return ByteUtils.toUnsignedInteger16(data, offset + 2);
+    }
+
+    /**
+     * Sets or unsets the ARQ (Acknowledgment Required) flag of the IPDS command at the given offset.
+     */
+    public static void setAcknowledgmentRequired(
+            final byte[] data,
+            final int offset,
+            final boolean required) throws InvalidIpdsCommandException {
+
+        getCommandLength(data, offset);
+
+        data[offset + FLAGS_OFFSET] = required
+                ? BitUtils.setBit(ARQ_BIT, data[offset + FLAGS_OFFSET])
+                : BitUtils.unsetBit(ARQ_BIT, data[offset + FLAGS_OFFSET]);
+    }
+
+    /**
+     * Overwrites the correlation ID of the IPDS command at the given offset.
+     *
+     * @return <code>false</code> if the IPDS command does not carry a correlation ID, so nothing has been
+     *  patched. Use {@link #patchCorrelationId(byte[], int, int)} to add a correlation ID.
+     */
+    public static boolean setCorrelationId(
+            final byte[] data,
+            final int offset,
+            final int correlationId) throws InvalidIpdsCommandException {
+
+        final int length = getCommandLength(data, offset);
+
+        if (!BitUtils.isBitSet(CORRELATION_ID_BIT, data[offset + FLAGS_OFFSET])) {
+            return false;
+        }
+
+        if (length < MIN_COMMAND_LENGTH + 2) {
+            throw new InvalidIpdsCommandException(
+                    "The IPDS command at offset " + offset + " is too short for a correlation ID");
+        }
+
+        data[offset + CORRELATION_ID_OFFSET] = (byte) (correlationId >>> 8);
+        data[offset + CORRELATION_ID_OFFSET + 1] = (byte) correlationId;
+        return true;
+    }
+
+    /**
+     * Sets the correlation ID of the IPDS command at the given offset. If the IPDS command carries a correlation
+     * ID, it is overwritten in place and the given byte array is returned. Otherwise the IPDS command grows by
+     * two bytes, so it is encoded again into a new byte array (only the header of the IPDS command is decoded,
+     * the data is copied as-is, see {@link LazyIpdsCommand}).
+     *
+     * @return the given byte array if the correlation ID has been overwritten in place, otherwise a new byte
+     *  array that contains the patched IPDS command (and nothing else).
+     */
+    public static byte[] patchCorrelationId(
+            final byte[] data,
+            final int offset,
+            final int correlationId) throws IOException, InvalidIpdsCommandException {
+
+        if (setCorrelationId(data, offset, correlationId)) {
+            return data;
+        }
+
+        final int length = getCommandLength(data, offset);
+        final LazyIpdsCommand command = IpdsCommandFactory.createLazy(
+                new IpdsByteArrayInputStream(data, offset, data.length - offset - length));
+
+        command.getCommandFlags().hasCorrelationID(true);
+        command.setCorrelationId(correlationId);
+
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream(length + 2);
+        command.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Overwrites the number of copies of all copy subgroups of the Load Copy Control command at the given offset.
+     *
+     * @return the number of patched copy subgroups or 0 if the IPDS command is not a Load Copy Control command.
+     *
+     * @throws InvalidIpdsCommandException if a copy subgroup of the Load Copy Control command is invalid.
+     */
+    public static int setCopies(
+            final byte[] data,
+            final int offset,
+            final int copies) throws InvalidIpdsCommandException {
+
+        if (copies < 1 || copies > 255) {
+            throw new IllegalArgumentException("The number of copies must be between 1 and 255 but is " + copies);
+        }
+
+        if (getCommandCode(data, offset) != IpdsCommandId.LCC.getValue()) {
+            return 0;
+        }
+
+        final int end = offset + getCommandLength(data, offset);
+        int position = offset + getDataOffset(data, offset);
+        int count = 0;
+
+        // Every copy subgroup starts with its length (including the length byte) and the number of copies...
+        while (position < end) {
+            final int subgroupLength = ByteUtils.toUnsignedByte(data, position);
+            if (subgroupLength < 2 || position + subgroupLength > end) {
+                throw new InvalidIpdsCommandException("The LCC command at offset " + offset
+                        + " contains a copy subgroup with an invalid length of " + subgroupLength + " bytes");
+            }
+
+            data[position + 1] = (byte) copies;
+            position += subgroupLength;
+            ++count;
+        }
+
+        return count;
+    }
+
+    /**
+     * Overwrites the media source ID of the Execute Order Home State command at the given offset if it
+     * carries a Select Input Media Source order.
+     *
+     * @return <code>false</code> if the IPDS command does not carry a Select Input Media Source order.
+     */
+    public static boolean setInputMediaSource(
+            final byte[] data,
+            final int offset,
+            final int sourceId) throws InvalidIpdsCommandException {
+
+        if (sourceId < 0 || sourceId > 255) {
+            throw new IllegalArgumentException("Invalid media source ID " + sourceId);
+        }
+
+        if (getCommandCode(data, offset) != IpdsCommandId.XOH.getValue()) {
+            return false;
+        }
+
+        // Order code = 2 bytes, media source ID = 1 byte
+        final int position = offset + getDataOffset(data, offset);
+        if (position + 3 > offset + getCommandLength(data, offset)
+                || ByteUtils.toUnsignedInteger16(data, position) != XohOrderCode.SelectInputMediaSource.getValue()) {
+            return false;
+        }
+
+        data[position + 2] = (byte) sourceId;
+        return true;
+    }
+
+    /**
+     * Returns the offset of the data of the IPDS command at the given offset, relative to the IPDS command.
+     */
+    private static int getDataOffset(final byte[] data, final int offset) {
+        return BitUtils.isBitSet(CORRELATION_ID_BIT, data[offset + FLAGS_OFFSET])
+                ? CORRELATION_ID_OFFSET + 2
+                : CORRELATION_ID_OFFSET;
+    }
+}
@@ -0,0 +1,275 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.io.IOException;
+
+import de.textmode.ipdsbox.core.BitUtils;
+import de.textmode.ipdsbox.core.ByteUtils;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.ppd.PagePrinterRequest;
+
+/**
+ * A reusable cursor over the encoded IPDS commands within a byte array (i. e. the data of a
+ * {@link PagePrinterRequest}).
+ *
+ * <p>The {@link IpdsCommandView} reads the header fields of the IPDS command it points to (length, command code,
+ * flags, correlation ID and the type of an Acknowledge Reply) directly from the byte array, so neither an
+ * {@link IpdsCommand} nor {@link IpdsCommandFlags} are created. This is meant for routing, counting and filtering
+ * IPDS commands. Use {@link #toCommand()} to decode the IPDS command the {@link IpdsCommandView} points to.
+ *
+ * <p>A typical use is:
+ * <pre>
+ * final IpdsCommandView view = new IpdsCommandView();
+ * view.wrap(request);
+ * while (view.next()) {
+ *     if (view.getCommandCode() == IpdsCommandId.ACK.getValue()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>The {@link IpdsCommandView} does not copy the byte array, so the byte array must not be modified (or reused)
+ * as long as the {@link IpdsCommandView} is used. An {@link IpdsCommandView} is not thread safe.
+ */
+public final class IpdsCommandView {
+
+    // Length = 2 bytes, Command = 2 bytes, Flags = 1 byte, Correlation ID = 2 bytes (optional)
+    private static final int FLAGS_OFFSET = 4;
+    private static final int CORRELATION_ID_OFFSET = 5;
+    private static final int MIN_COMMAND_LENGTH = 5;
+
+    private static final int PPD_HEADER_LENGTH = 8;
+
+    private byte[] buffer;
+    private int end;
+    private int offset;
+    private int length;
+
+    /**
+     * Constructs an {@link IpdsCommandView} that does not point to any IPDS command. Use one of the
+     * <code>wrap</code> methods before using the {@link IpdsCommandView}.
+     */
+    public IpdsCommandView() {
+        this.buffer = new byte[0];
+    }
+
+    /**
+     * Lets the {@link IpdsCommandView} iterate over the IPDS commands carried by the given {@link PagePrinterRequest}
+     * (the data behind the 8 byte header of the {@link PagePrinterRequest}). Call {@link #next()} to move to the
+     * first IPDS command.
+     *
+     * @throws IOException if the {@link PagePrinterRequest} does not carry IPDS data.
+     */
+    public void wrap(final PagePrinterRequest request) throws IOException {
+        if (request.getRequest() != 0x0E) {
+            throw new IOException("Can not handle request type " + Integer.toHexString(request.getRequest()));
+        }
+
+        this.wrap(request.getData(), PPD_HEADER_LENGTH, request.getDataLength() - PPD_HEADER_LENGTH);
+    }
+
+    /**
+     * Lets the {@link IpdsCommandView} iterate over the IPDS commands in the given part of the byte array. Call
+     * {@link #next()} to move to the first IPDS command.
+     */
+    public void wrap(final byte[] data, final int start, final int count) {
+        if (start < 0 || count < 0 || start + count > data.length) {
+            throw new IllegalArgumentException(
+                    "Invalid range " + start + "/" + count + " for a byte array of " + data.length + " bytes");
+        }
+
+        this.buffer = data;
+        this.end = start + count;
+        this.offset = start;
+        this.length = 0;
+    }
+
+    /**
+     * Moves the {@link IpdsCommandView} to the next IPDS command.
+     *
+     * @return <code>false</code> if there are no more IPDS commands.
+     *
+     * @throws InvalidIpdsCommandException if the length of the next IPDS command is invalid or the next
+     *  IPDS command exceeds the wrapped part of the byte array.
+     */
+    public boolean next() throws InvalidIpdsCommandException {
+        final int next = this.offset + this.length;
+        if (next >= this.end) {
+            this.offset = this.end;
+            this.length = 0;
+            return false;
+        }
+
+        if (next + 2 > this.end) {
+            throw new InvalidIpdsCommandException("Incomplete IPDS command at offset " + next);
+        }
+
+        final int len = ByteUtils.toUnsignedInteger16(this.buffer, next);
+        if (len < MIN_COMMAND_LENGTH || next + len > this.end) {
+            throw new InvalidIpdsCommandException(
+                    "The IPDS command at offset " + next + " has an invalid length of " + len + " bytes");
+        }
+
+        if (len < MIN_COMMAND_LENGTH + 2 && BitUtils.isBitSet(1, this.buffer[next + FLAGS_OFFSET])) {
+            throw new InvalidIpdsCommandException(
+                    "The IPDS command at offset " + next + " is too short for a correlation ID");
+        }
+
+        this.offset = next;
+        this.length = len;
+        return true;
+    }
+
+    /**
+     * Returns the offset of the IPDS command within the byte array.
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Returns the length of the IPDS command (including the length field).
+     */
+    public int getLength() {
+        this.ensurePositioned();
+        return this.length;
+    }
+
+    /**
+     * Returns the command code of the IPDS command (i. e. 0xD6E4).
+     */
+    public int getCommandCode() {
+        this.ensurePositioned();
+        return ByteUtils.toUnsignedInteger16(this.buffer, this.offset + 2);
+    }
+
+    /**
+     * Returns the {@link IpdsCommandId} of the IPDS command or <code>null</code> if the command code is unknown.
+     */
+    public IpdsCommandId getCommandId() {
+        return IpdsCommandId.getIfKnown(this.getCommandCode());
+    }
+
+    /**
+     * Returns the flag byte of the IPDS command (see {@link IpdsCommandFlags}).
+     */
+    public byte getFlags() {
+        this.ensurePositioned();
+        return this.buffer[this.offset + FLAGS_OFFSET];
+    }
+
+    /**
+     * Returns <code>true</code> if the ARQ (Acknowledgment Required) flag is set.
+     */
+    public boolean isAcknowledgmentRequired() {
+        return BitUtils.isBitSet(0, this.getFlags());
+    }
+
+    /**
+     * Returns <code>true</code> if the IPDS command contains a two byte correlation ID.
+     */
+    public boolean hasCorrelationId() {
+        return BitUtils.isBitSet(1, this.getFlags());
+    }
+
+    /**
+     * Returns <code>true</code> if the "Acknowledge Continuation Requested" flag is set.
+     */
+    public boolean isAcknowledgmentContinuationRequested() {
+        return BitUtils.isBitSet(2, this.getFlags());
+    }
+
+    /**
+     * Returns <code>true</code> if the "Long Acknowledge Reply Accepted" flag is set.
+     */
+    public boolean isLongAcknowledgeReplyAccepted() {
+        return BitUtils.isBitSet(3, this.getFlags());
+    }
+
+    /**
+     * Returns the correlation ID of the IPDS command or 0 if the IPDS command does not contain a
+     * correlation ID (like {@link IpdsCommand#getCorrelationId()}).
+     */
+    public int getCorrelationId() {
+        return this.hasCorrelationId()
+                ? ByteUtils.toUnsignedInteger16(this.buffer, this.offset + CORRELATION_ID_OFFSET)
+                : 0;
+    }
+
+    /**
+     * Returns the offset of the data of the IPDS command (behind the flags and the optional correlation ID)
+     * within the byte array.
+     */
+    public int getDataOffset() {
+        return this.hasCorrelationId()
+                ? this.offset + CORRELATION_ID_OFFSET + 2
+                : this.offset + CORRELATION_ID_OFFSET;
+    }
+
+    /**
+     * Returns the length of the data of the IPDS command.
+     */
+    public int getDataLength() {
+        return this.offset + this.length - this.getDataOffset();
+    }
+
+    /**
+     * Returns <code>true</code> if the IPDS command is an Acknowledge Reply.
+     */
+    public boolean isAcknowledgeReply() {
+        return this.getCommandCode() == IpdsCommandId.ACK.getValue();
+    }
+
+    /**
+     * Returns the type of the Acknowledge Reply (see
+     * {@link de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeReply#getAcknowledgeType()}).
+     *
+     * @throws IllegalStateException if the IPDS command is not an Acknowledge Reply.
+     * @throws InvalidIpdsCommandException if the Acknowledge Reply does not contain the type.
+     */
+    public int getAcknowledgeType() throws InvalidIpdsCommandException {
+        if (!this.isAcknowledgeReply()) {
+            throw new IllegalStateException("The IPDS command is not an Acknowledge Reply");
+        }
+
+        if (this.getDataLength() < 1) {
+            throw new InvalidIpdsCommandException(
+                    "The Acknowledge Reply at offset " + this.offset + " does not contain the acknowledge type");
+        }
+
+        return ByteUtils.toUnsignedByte(this.buffer, this.getDataOffset());
+    }
+
+    /**
+     * Decodes the IPDS command the {@link IpdsCommandView} points to.
+     */
+    public IpdsCommand toCommand() throws IOException, InvalidIpdsCommandException {
+        this.ensurePositioned();
+        return IpdsCommandFactory.create(
+                new IpdsByteArrayInputStream(this.buffer, this.offset, this.buffer.length - this.offset - this.length));
+    }
+
+    /**
+     * Ensures that the {@link IpdsCommandView} points to an IPDS command.
+     */
+    private void ensurePositioned() {
+        if (this.length == 0) {
+            throw new IllegalStateException("The IpdsCommandView does not point to an IPDS command");
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (this.length == 0) {
+            return "IpdsCommandView{}";
+        }
+
+        return "IpdsCommandView{"
+                + "offset=" + this.offset
+                + ", length=" + this.length
+                + ", commandCode=" + Integer.toHexString(this.getCommandCode())
+                + ", flags=" + Integer.toHexString(this.getFlags() & 0xFF)
+                + ", correlationId=" + this.getCorrelationId()
+                + '}';
+    }
+}
@@ -0,0 +1,133 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.io.IOException;
+
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+
+/**
+ * An {@link IpdsCommand} whose data is decoded on first access.
+ *
+ * <p>The {@link LazyIpdsCommand} is created by {@link IpdsCommandFactory#createLazy(IpdsInputStream)}. Only the
+ * header of the IPDS command (command code, flags and the optional correlation ID) is decoded, the data is kept
+ * as a view of the raw bytes. So IPDS commands that are only forwarded (i. e. by a proxy) or that are only
+ * checked for the command code and the flags are not decoded at all. The concrete {@link IpdsCommand}
+ * (i. e. a {@link WriteTextCommand} with all its data) is decoded by {@link #getDecoded()}.
+ *
+ * <p>The flags and the correlation ID belong to the {@link LazyIpdsCommand}. They are copied to the decoded
+ * {@link IpdsCommand} when it is decoded and {@link #writeTo(IpdsByteArrayOutputStream)} always writes the flags
+ * and the correlation ID of the {@link LazyIpdsCommand}. The data is written as-is (the raw bytes are copied)
+ * if the IPDS command has not been decoded yet, otherwise the data of the decoded {@link IpdsCommand} is written
+ * (which copies its original data as long as it has not been modified).
+ */
+public final class LazyIpdsCommand extends IpdsCommand {
+
+    private final IpdsInputStream raw;
+    private final int dataOffset;
+    private final DecoderContext context;
+    private IpdsCommand decoded;
+
+    /**
+     * Constructs the {@link LazyIpdsCommand} from the given {@link IpdsInputStream}. The {@link IpdsInputStream}
+     * starts at the flags of the IPDS command and is kept by the {@link LazyIpdsCommand}, so it must not
+     * be used by the caller afterwards. The IPDS command is decoded with the {@link de.textmode.ipdsbox.core.Decoder}s
+     * of the given {@link DecoderContext}.
+     */
+    LazyIpdsCommand(
+            final IpdsInputStream ipds,
+            final int commandCode,
+            final DecoderContext context) throws IOException {
+
+        super(ipds, commandCode);
+
+        // Rewind to the flags, so the IpdsInputStream can be passed to the constructor of the
+        // concrete IPDS command when the IPDS command is decoded. The data starts behind the
+        // flags and the optional correlation ID.
+        this.dataOffset = this.getCommandFlags().hasCorrelationID() ? 3 : 1;
+        ipds.rewind(this.dataOffset);
+        this.raw = ipds;
+        this.context = context;
+    }
+
+    /**
+     * Returns <code>true</code> if the IPDS command has already been decoded by {@link #getDecoded()}.
+     */
+    public boolean isDecoded() {
+        return this.decoded != null;
+    }
+
+    /**
+     * Returns the decoded {@link IpdsCommand}. The IPDS command is decoded on the first call, all further
+     * calls return the same {@link IpdsCommand}.
+     *
+     * @throws IOException if the IPDS command could not be decoded.
+     * @throws InvalidIpdsCommandException if the IPDS command could not be decoded.
+     */
+    public IpdsCommand getDecoded() throws IOException, InvalidIpdsCommandException {
+        if (this.decoded == null) {
+            // The kept view is decoded without copying it again...
+            final IpdsCommand command =
+                    IpdsCommandFactory.decodeView(this.createView(), this.getCommandCodeId(), this.context);
+
+            command.getCommandFlags().setFlags(this.getCommandFlags().getFlags());
+            command.setCorrelationId(this.getCorrelationId());
+
+            this.decoded = command;
+        }
+
+        return this.decoded;
+    }
+
+    /**
+     * Returns a view of the raw (not decoded) data of the IPDS command. The view is independent of the
+     * {@link LazyIpdsCommand}, so the caller may read from it.
+     */
+    public IpdsInputStream getRawData() throws IOException {
+        final IpdsInputStream view = this.createView();
+        view.skip(this.dataOffset);
+        return view;
+    }
+
+    /**
+     * Returns a view of the kept {@link IpdsInputStream} (starting at the flags) without changing the
+     * kept {@link IpdsInputStream}.
+     */
+    private IpdsInputStream createView() throws IOException {
+        final int length = this.raw.bytesAvailable();
+        final IpdsInputStream view = this.raw.readView(length);
+        this.raw.rewind(length);
+        return view;
+    }
+
+    @Override
+    protected int getDataLength() throws IOException, InvalidIpdsCommandException {
+        return this.decoded == null
+                ? this.raw.bytesAvailable() - this.dataOffset
+                : this.decoded.getEncodedDataLength();
+    }
+
+    @Override
+    protected void writeDataTo(final IpdsByteArrayOutputStream ipds) throws IOException, InvalidIpdsCommandException {
+        if (this.decoded == null) {
+            ipds.writeBytes(this.raw, this.dataOffset, this.raw.bytesAvailable() - this.dataOffset);
+        } else {
+            this.decoded.writeEncodedDataTo(ipds);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (this.decoded != null) {
+            return this.decoded.toString();
+        }
+
+        return "LazyIpdsCommand{"
+                + "commandId=" + Integer.toHexString(this.getCommandCodeId())
+                + ", flags=" + this.getCommandFlags()
+                + ", correlationId=" + this.getCorrelationId()
+                + ", dataLength=" + (this.raw.bytesAvailable() - this.dataOffset)
+                + '}';
+    }
+}
@@ -5,8 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class LoadCopyControlCommand extends IpdsCommand {
 
@@ -22,10 +22,10 @@ public final class LoadCopyControlCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs a {@link LoadCopyControlCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link LoadCopyControlCommand} from the given {@link IpdsInputStream}.
      */
 
-    LoadCopyControlCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    LoadCopyControlCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.LCC);
 
         while (ipds.bytesAvailable() > 0) {
@@ -37,6 +37,7 @@ public final class LoadCopyControlCommand extends IpdsCommand {
      * Returns a list of copy subgroups.
      */
     public List<CopySubgroup> getCopySubgroups() {
+        this.exposed();
         return this.subgroups;
     }
 
@@ -51,6 +52,15 @@ public final class LoadCopyControlCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() {
+        int length = 0;
+        for (final CopySubgroup subgroup : this.subgroups) {
+            length += 2 + subgroup.keywords.size() * 2;
+        }
+        return length;
+    }
+
     public static final class CopySubgroup {
         private final int copies;
         private final List<Keyword> keywords = new ArrayList<>();
@@ -63,7 +73,7 @@ public final class LoadCopyControlCommand extends IpdsCommand {
             this.copies = copies;
         }
 
-        CopySubgroup(final IpdsByteArrayInputStream ipds) throws IOException {
+        CopySubgroup(final IpdsInputStream ipds) throws IOException {
             int count = ipds.readUnsignedByte() - 2;
             this.copies = ipds.readUnsignedByte();
 
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Mapping a font local identifier to a HAID is called establishing a font equivalence. The LFE command is used to
@@ -25,9 +25,9 @@ public final class LoadFontEquivalenceCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link LoadFontEquivalenceCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link LoadFontEquivalenceCommand} from the given {@link IpdsInputStream}.
      */
-    LoadFontEquivalenceCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    LoadFontEquivalenceCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.LFE);
 
         while (ipds.bytesAvailable() > 0) {
@@ -39,6 +39,7 @@ public final class LoadFontEquivalenceCommand extends IpdsCommand {
      * Returns the entries of the LFE command.
      */
     public List<FontEquivalenceEntry> getEntries() {
+        this.exposed();
         return this.entries;
     }
 
@@ -49,6 +50,11 @@ public final class LoadFontEquivalenceCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() {
+        return this.entries.size() * 16;
+    }
+
     @Override
     public String toString() {
         return "LoadFontEquivalenceCommand{"
@@ -68,7 +74,7 @@ public final class LoadFontEquivalenceCommand extends IpdsCommand {
         private int flags;
 
 
-        FontEquivalenceEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        FontEquivalenceEntry(final IpdsInputStream ipds) throws IOException {
             this.fontLocalId = ipds.readUnsignedByte();
             this.haid = ipds.readUnsignedInteger16();
             this.fontInlineSequence = ipds.readUnsignedInteger16();
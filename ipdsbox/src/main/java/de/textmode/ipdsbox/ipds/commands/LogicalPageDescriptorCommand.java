@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
 
@@ -59,9 +61,9 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link LogicalPageDescriptorCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link LogicalPageDescriptorCommand} from the given {@link IpdsInputStream}.
      */
-    LogicalPageDescriptorCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    LogicalPageDescriptorCommand(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(ipds, IpdsCommandId.LPD);
 
         this.unitBase = ipds.readUnsignedByte();
@@ -95,12 +97,17 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
         this.fontLocalId = ipds.readUnsignedByte();
         this.color = ipds.readUnsignedInteger16();
 
-        byte[] buffer;
-        while ((buffer = ipds.readTripletIfExists()) != null) {
-            this.triplets.add(TripletFactory.create(buffer));
+        IpdsInputStream triplet;
+        while ((triplet = ipds.readTripletViewIfExists()) != null) {
+            this.triplets.add(TripletFactory.create(triplet, context));
         }
     }
 
+    @Override
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return Triplet.isUnmodifiedSince(this.triplets, container);
+    }
+
     @Override
     protected void writeDataTo(final IpdsByteArrayOutputStream ipds) throws IOException {
         ipds.writeUnsignedByte(this.unitBase);
@@ -138,6 +145,11 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() throws IOException {
+        return 43 + Triplet.getEncodedLength(this.triplets);
+    }
+
     /**
      * Returns the Unit base.
      */
@@ -149,6 +161,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Unit base.
      */
     public void setUnitBase(final int unitBase) {
+        this.modified();
         this.unitBase = unitBase;
     }
 
@@ -163,6 +176,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the xupub.
      */
     public void setXupub(final int xupub) {
+        this.modified();
         this.xupub = xupub;
     }
 
@@ -177,6 +191,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the yupub.
      */
     public void setYupub(final int yupub) {
+        this.modified();
         this.yupub = yupub;
     }
 
@@ -192,6 +207,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Xp extent.
      */
     public void setXpExtent(final int xpExtent) {
+        this.modified();
         this.xpExtent = xpExtent;
     }
 
@@ -206,6 +222,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Yp extent.
      */
     public void setYpExtent(final int ypExtent) {
+        this.modified();
         this.ypExtent = ypExtent;
     }
 
@@ -220,6 +237,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Ordered data flags.
      */
     public void setOrderedDataFlags(final int orderedDataFlags) {
+        this.modified();
         this.orderedDataFlags = orderedDataFlags;
     }
 
@@ -234,6 +252,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the I-axis orientation.
      */
     public void setIAxisOrientation(final int iAxisOrientation) {
+        this.modified();
         this.iAxisOrientation = iAxisOrientation;
     }
 
@@ -248,6 +267,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the B-axis orientation.
      */
     public void setBAxisOrientation(final int bAxisOrientation) {
+        this.modified();
         this.bAxisOrientation = bAxisOrientation;
     }
 
@@ -262,6 +282,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Initial Inline.
      */
     public void setInitialInline(final int initialInline) {
+        this.modified();
         this.initialInline = initialInline;
     }
 
@@ -276,6 +297,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Initial Baseline.
      */
     public void setInitialBaseline(final int initialBaseline) {
+        this.modified();
         this.initialBaseline = initialBaseline;
     }
 
@@ -290,6 +312,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Inline margin.
      */
     public void setInlineMargin(final int inlineMargin) {
+        this.modified();
         this.inlineMargin = inlineMargin;
     }
 
@@ -304,6 +327,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Interchar. adjustment.
      */
     public void setIntercharAdjustment(final int intercharAdjustment) {
+        this.modified();
         this.intercharAdjustment = intercharAdjustment;
     }
 
@@ -318,6 +342,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Baseline increment.
      */
     public void setBaselineIncrement(final int baselineIncrement) {
+        this.modified();
         this.baselineIncrement = baselineIncrement;
     }
 
@@ -332,6 +357,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the font local ID.
      */
     public void setFontLocalId(final int fontLocalId) {
+        this.modified();
         this.fontLocalId = fontLocalId;
     }
 
@@ -346,6 +372,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Sets the Color.
      */
     public void setColor(final int color) {
+        this.modified();
         this.color = color;
     }
 
@@ -353,7 +380,7 @@ public final class LogicalPageDescriptorCommand extends IpdsCommand {
      * Returns the Triplets.
      */
     public List<Triplet> getTriplets() {
-        return this.triplets;
+        return this.tracked(this.triplets);
     }
 
     @Override
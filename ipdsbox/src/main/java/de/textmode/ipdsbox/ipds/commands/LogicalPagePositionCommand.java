@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class LogicalPagePositionCommand extends IpdsCommand {
 
@@ -26,9 +26,9 @@ public final class LogicalPagePositionCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link LogicalPagePositionCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link LogicalPagePositionCommand} from the given {@link IpdsInputStream}.
      */
-    LogicalPagePositionCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    LogicalPagePositionCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.LPP);
 
         ipds.skip(1);
@@ -47,6 +47,11 @@ public final class LogicalPagePositionCommand extends IpdsCommand {
         ipds.writeUnsignedInteger16(this.orientation);
     }
 
+    @Override
+    protected int getDataLength() {
+        return 10;
+    }
+
     /**
      * Returns the X offset.
      */
@@ -58,6 +63,7 @@ public final class LogicalPagePositionCommand extends IpdsCommand {
      * Sets the X offset.
      */
     public void setXmPageOffset(final int xmPageOffset) {
+        this.modified();
         this.xmPageOffset = xmPageOffset;
     }
 
@@ -72,6 +78,7 @@ public final class LogicalPagePositionCommand extends IpdsCommand {
      * Sets the Y offset.
      */
     public void setYmPageOffset(final int ymPageOffset) {
+        this.modified();
         this.ymPageOffset = ymPageOffset;
     }
 
@@ -86,6 +93,7 @@ public final class LogicalPagePositionCommand extends IpdsCommand {
      * Sets the placement.
      */
     public void setPlacement(final int placement) {
+        this.modified();
         this.placement = placement;
     }
 
@@ -100,6 +108,7 @@ public final class LogicalPagePositionCommand extends IpdsCommand {
      * Sets the orientation.
      */
     public void setOrientation(final int orientation) {
+        this.modified();
         this.orientation = orientation;
     }
 
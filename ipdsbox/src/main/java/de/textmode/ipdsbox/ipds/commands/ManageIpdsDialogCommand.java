@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Manage IPDS Dialog (MID) command is valid only in home state and causes the printer to either start or
@@ -30,9 +30,9 @@ public final class ManageIpdsDialogCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link ManageIpdsDialogCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link ManageIpdsDialogCommand} from the given {@link IpdsInputStream}.
      */
-    ManageIpdsDialogCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    ManageIpdsDialogCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.MID);
 
         this.type = ipds.readUnsignedByte();
@@ -49,6 +49,7 @@ public final class ManageIpdsDialogCommand extends IpdsCommand {
      * Sets the type.
      */
     public void setType(final int type) {
+        this.modified();
         this.type = type;
     }
 
@@ -57,6 +58,11 @@ public final class ManageIpdsDialogCommand extends IpdsCommand {
         ipds.writeUnsignedByte(this.type);
     }
 
+    @Override
+    protected int getDataLength() {
+        return 1;
+    }
+
     @Override
     public String toString() {
         return "ManageIpdsDialogCommand{"
@@ -4,8 +4,8 @@ import java.io.IOException;
 
 import de.textmode.ipdsbox.core.ByteUtils;
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The No Operation (NOP) command has no effect on presentation. Zero or more data bytes
@@ -32,9 +32,9 @@ public final class NoOperationCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link NoOperationCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link NoOperationCommand} from the given {@link IpdsInputStream}.
      */
-    NoOperationCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    NoOperationCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.NOP);
 
         this.dataBytes = ipds.readRemainingBytes();
@@ -44,6 +44,7 @@ public final class NoOperationCommand extends IpdsCommand {
      * Returns the data bytes of the NOP.
      */
     public byte[] getDataBytes() {
+        this.exposed();
         return this.dataBytes;
     }
 
@@ -51,6 +52,7 @@ public final class NoOperationCommand extends IpdsCommand {
      * Sets the data bytes of the NOP.
      */
     public void setDataBytes(final byte[] dataBytes) {
+        this.modified();
         this.dataBytes = dataBytes;
     }
 
@@ -61,6 +63,11 @@ public final class NoOperationCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() {
+        return this.dataBytes == null ? 0 : this.dataBytes.length;
+    }
+
     @Override
     public String toString() {
         return "NoOperationCommand{"
@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
 
@@ -39,18 +41,19 @@ public final class PresentationFidelityControlCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link PresentationFidelityControlCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link PresentationFidelityControlCommand} from the given {@link IpdsInputStream}.
      */
-    PresentationFidelityControlCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    PresentationFidelityControlCommand(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(ipds, IpdsCommandId.PFC);
 
         ipds.skip(1);
         this.fidelityControlFlags = ipds.readUnsignedByte();
         ipds.skip(2);
+        this.triplets = new ArrayList<>();
 
-        byte[] buffer;
-        while ((buffer = ipds.readTripletIfExists()) != null) {
-            this.triplets.add(TripletFactory.create(buffer));
+        IpdsInputStream triplet;
+        while ((triplet = ipds.readTripletViewIfExists()) != null) {
+            this.triplets.add(TripletFactory.create(triplet, context));
         }
     }
 
@@ -65,6 +68,7 @@ public final class PresentationFidelityControlCommand extends IpdsCommand {
      * Sets the fidelity control flags.
      */
     public void setFidelityControlFlags(final int fidelityControlFlags) {
+        this.modified();
         this.fidelityControlFlags = fidelityControlFlags;
     }
 
@@ -72,16 +76,22 @@ public final class PresentationFidelityControlCommand extends IpdsCommand {
      * Returns the Triplets of this IPDS command.
      */
     public List<Triplet> getTriplets() {
-        return this.triplets;
+        return this.tracked(this.triplets);
     }
 
     /**
      * Sets the Triplets of this IPDS command.
      */
     public void setTriplets(final List<Triplet> triplets) {
+        this.modified();
         this.triplets = triplets;
     }
 
+    @Override
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return Triplet.isUnmodifiedSince(this.triplets, container);
+    }
+
     @Override
     protected void writeDataTo(final IpdsByteArrayOutputStream ipds) throws IOException {
         ipds.writeUnsignedByte(0x00);
@@ -93,6 +103,11 @@ public final class PresentationFidelityControlCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() throws IOException {
+        return 4 + Triplet.getEncodedLength(this.triplets);
+    }
+
     @Override
     public String toString() {
         return "PresentationFidelityControlCommand{"
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Sense Type and Model (STM) command requests the printer to respond with device-dependent
@@ -25,9 +25,9 @@ public final class SenseTypeAndModelCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link SenseTypeAndModelCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SenseTypeAndModelCommand} from the given {@link IpdsInputStream}.
      */
-    SenseTypeAndModelCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    SenseTypeAndModelCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.STM);
     }
 
@@ -36,6 +36,11 @@ public final class SenseTypeAndModelCommand extends IpdsCommand {
         // No data is transmitted with this command.
     }
 
+    @Override
+    protected int getDataLength() {
+        return 0;
+    }
+
     @Override
     public String toString() {
         return "SenseTypeAndModelCommand{}";
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.commands;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Set Home State (SHS) command is valid in any printer state. When the printer receives the SHS
@@ -25,9 +25,9 @@ public final class SetHomeStateCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link SetHomeStateCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SetHomeStateCommand} from the given {@link IpdsInputStream}.
      */
-    SetHomeStateCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    SetHomeStateCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.SHS);
     }
 
@@ -36,6 +36,11 @@ public final class SetHomeStateCommand extends IpdsCommand {
         // No data is transmitted with this command.
     }
 
+    @Override
+    protected int getDataLength() {
+        return 0;
+    }
+
     @Override
     public String toString() {
         return "SetHomeStateCommand{}";
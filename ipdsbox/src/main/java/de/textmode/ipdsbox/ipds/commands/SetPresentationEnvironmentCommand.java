@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
 
@@ -27,16 +29,16 @@ public final class SetPresentationEnvironmentCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link SetPresentationEnvironmentCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SetPresentationEnvironmentCommand} from the given {@link IpdsInputStream}.
      */
-    SetPresentationEnvironmentCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    SetPresentationEnvironmentCommand(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(ipds, IpdsCommandId.SPE);
 
         ipds.skip(2);
 
-        byte[] buffer;
-        while ((buffer = ipds.readTripletIfExists()) != null) {
-            this.triplets.add(TripletFactory.create(buffer));
+        IpdsInputStream triplet;
+        while ((triplet = ipds.readTripletViewIfExists()) != null) {
+            this.triplets.add(TripletFactory.create(triplet, context));
         }
     }
 
@@ -44,16 +46,22 @@ public final class SetPresentationEnvironmentCommand extends IpdsCommand {
      * Returns the Triplets of this IPDS command.
      */
     public List<Triplet> getTriplets() {
-        return this.triplets;
+        return this.tracked(this.triplets);
     }
 
     /**
      * Sets the Triplets of this IPDS command.
      */
     public void setTriplets(final List<Triplet> triplets) {
+        this.modified();
         this.triplets = triplets;
     }
 
+    @Override
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return Triplet.isUnmodifiedSince(this.triplets, container);
+    }
+
     @Override
     protected void writeDataTo(final IpdsByteArrayOutputStream ipds) throws IOException {
         ipds.writeUnsignedInteger16(0x0000);
@@ -63,6 +71,11 @@ public final class SetPresentationEnvironmentCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() throws IOException {
+        return 2 + Triplet.getEncodedLength(this.triplets);
+    }
+
     @Override
     public String toString() {
         return "SetPresentationEnvironmentCommand{"
@@ -3,8 +3,8 @@ package de.textmode.ipdsbox.ipds.commands;
 import java.io.IOException;
 import java.util.Arrays;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The {@link UnknownIpdsCommand} is created for IPDS commands that are unknown or not parsed yet.
@@ -15,10 +15,10 @@ public final class UnknownIpdsCommand extends IpdsCommand {
     private final byte[] rawData;
 
     /**
-     * Constructs the {@link UnknownIpdsCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link UnknownIpdsCommand} from the given {@link IpdsInputStream}.
      */
     UnknownIpdsCommand(
-            final IpdsByteArrayInputStream ipds,
+            final IpdsInputStream ipds,
             final int commandIdValue) throws IOException {
 
         super(ipds, commandIdValue);
@@ -30,6 +30,7 @@ public final class UnknownIpdsCommand extends IpdsCommand {
      * Returns the raw data bytes of the IPDS command.
      */
     public byte[] getDataBytes() {
+        this.exposed();
         return this.rawData;
     }
 
@@ -40,6 +41,11 @@ public final class UnknownIpdsCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() {
+        return this.rawData == null ? 0 : this.rawData.length;
+    }
+
     @Override
     public String toString() {
         return "UnknownIpdsCommand{"
@@ -4,8 +4,8 @@ import java.io.IOException;
 
 import de.textmode.ipdsbox.core.ByteUtils;
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Write Text (WT) command sends from 0 to 32,762 bytes of character data and controls to the printer. This
@@ -34,9 +34,9 @@ public final class WriteTextCommand extends IpdsCommand {
     }
 
     /**
-     * Constructs the {@link WriteTextCommand} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link WriteTextCommand} from the given {@link IpdsInputStream}.
      */
-    WriteTextCommand(final IpdsByteArrayInputStream ipds) throws IOException {
+    WriteTextCommand(final IpdsInputStream ipds) throws IOException {
         super(ipds, IpdsCommandId.WT);
 
         this.ptocaData = ipds.readRemainingBytes();
@@ -46,6 +46,7 @@ public final class WriteTextCommand extends IpdsCommand {
      * Returns the PTOCA data bytes of the IPDS Command.
      */
     public byte[] getPtocaData() {
+        this.exposed();
         return this.ptocaData;
     }
 
@@ -53,6 +54,7 @@ public final class WriteTextCommand extends IpdsCommand {
      * Sets the PTOCA data bytes of the IPDS Command.
      */
     public void setPtocaData(final byte[] ptocaData) {
+        this.modified();
         this.ptocaData = ptocaData;
     }
 
@@ -63,6 +65,11 @@ public final class WriteTextCommand extends IpdsCommand {
         }
     }
 
+    @Override
+    protected int getDataLength() {
+        return this.ptocaData == null ? 0 : this.ptocaData.length;
+    }
+
     @Override
     public String toString() {
         return "WriteTextCommand{"
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field specifies the combinations of Resource Types and Resource ID Formats supported by
@@ -24,9 +24,9 @@ public final class ActivateResourceSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Creates a {@link ActivateResourceSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link ActivateResourceSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    ActivateResourceSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    ActivateResourceSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.ActivateResource);
 
         while (ipds.bytesAvailable() > 0) {
@@ -52,6 +52,11 @@ public final class ActivateResourceSelfDefiningField extends SelfDefiningField {
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + (this.entries.size() * 2);
+    }
+
     /**
      * Returns the entries.
      */
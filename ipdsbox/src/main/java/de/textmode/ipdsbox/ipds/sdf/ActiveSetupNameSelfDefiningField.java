@@ -2,8 +2,9 @@ package de.textmode.ipdsbox.ipds.sdf;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.SetupNameTriplet;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
@@ -26,13 +27,13 @@ public final class ActiveSetupNameSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Creates a {@link ActiveSetupNameSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link ActiveSetupNameSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    ActiveSetupNameSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    ActiveSetupNameSelfDefiningField(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(SelfDefiningFieldId.ActiveSetupName);
 
         if (ipds.bytesAvailable() > 0) {
-            final Triplet triplet = TripletFactory.create(ipds.readTripletIfExists());
+            final Triplet triplet = TripletFactory.create(ipds.readTripletViewIfExists(), context);
 
             // Should be a Setup Name Triplet. If not, ignore...
             if (triplet.getTripletId() == TripletId.SetupName.getId()) {
@@ -51,17 +52,17 @@ public final class ActiveSetupNameSelfDefiningField extends SelfDefiningField {
             ipds.writeUnsignedInteger16(4);
             ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
         } else {
-            final IpdsByteArrayOutputStream tripletStream = new IpdsByteArrayOutputStream();
-            this.activeSetupName.writeTo(tripletStream);
-
-            final byte[] tripletBytes = tripletStream.toByteArray();
-
-            ipds.writeUnsignedInteger16(4 + tripletBytes.length);
+            ipds.writeUnsignedInteger16(4 + this.activeSetupName.getEncodedLength());
             ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
-            ipds.writeBytes(tripletBytes);
+            this.activeSetupName.writeTo(ipds);
         }
     }
 
+    @Override
+    public int getEncodedLength() throws IOException {
+        return this.activeSetupName == null ? 4 : 4 + this.activeSetupName.getEncodedLength();
+    }
+
     /**
      * Returns the active setup name.
      */
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Bar Code Type/Modifier self-defining field lists the optional bar codes that are supported by the printer in
@@ -25,9 +25,9 @@ public final class BarCodeTypeSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Creates a {@link BarCodeTypeSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link BarCodeTypeSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    BarCodeTypeSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    BarCodeTypeSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.BarCodeType);
 
         this.bcocaSubset = ipds.readUnsignedInteger16();
@@ -57,6 +57,11 @@ public final class BarCodeTypeSelfDefiningField extends SelfDefiningField {
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 6 + (this.entries.size() * 2);
+    }
+
     /**
      * Returns the BCOCA subset.
      */
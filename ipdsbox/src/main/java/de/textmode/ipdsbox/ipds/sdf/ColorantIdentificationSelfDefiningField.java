@@ -6,8 +6,8 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field lists all colorants available in the printer. Colorants and combinations of colorants can be
@@ -25,9 +25,9 @@ public final class ColorantIdentificationSelfDefiningField extends SelfDefiningF
     }
 
     /**
-     * Constructs a new {@link ColorantIdentificationSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a new {@link ColorantIdentificationSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    ColorantIdentificationSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    ColorantIdentificationSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.ColorantIdentification);
 
         while (ipds.bytesAvailable() > 0) {
@@ -40,17 +40,22 @@ public final class ColorantIdentificationSelfDefiningField extends SelfDefiningF
      */
     @Override
     public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException {
-        final IpdsByteArrayOutputStream temp = new IpdsByteArrayOutputStream();
+        ipds.writeUnsignedInteger16(this.getEncodedLength());
+        ipds.writeUnsignedInteger16(SelfDefiningFieldId.ColorantIdentification.getId());
 
         for (final ColorantIdentificationEntry entry : this.entries) {
-            entry.writeTo(temp);
+            entry.writeTo(ipds);
         }
+    }
 
-        final byte[] entriesArray = temp.toByteArray();
-
-        ipds.writeUnsignedInteger16(4 + entriesArray.length);
-        ipds.writeUnsignedInteger16(SelfDefiningFieldId.ColorantIdentification.getId());
-        ipds.writeBytes(entriesArray);
+    @Override
+    public int getEncodedLength() {
+        int length = 4;
+        for (final ColorantIdentificationEntry entry : this.entries) {
+            // UTF-16BE encodes every char in two bytes...
+            length += 5 + entry.colorantName.length() * 2;
+        }
+        return length;
     }
 
     /**
@@ -99,9 +104,9 @@ public final class ColorantIdentificationSelfDefiningField extends SelfDefiningF
         }
 
         /**
-         * Creates a new {@link ColorantIdentificationEntry} from the given {@link IpdsByteArrayInputStream}.
+         * Creates a new {@link ColorantIdentificationEntry} from the given {@link IpdsInputStream}.
          */
-        ColorantIdentificationEntry(final IpdsByteArrayInputStream ipds) throws IOException {
+        ColorantIdentificationEntry(final IpdsInputStream ipds) throws IOException {
             final int len = ipds.readUnsignedByte();
 
             this.entryType = ipds.readUnsignedByte();
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Common Bar Code Type/Modifier self-defining field lists those bar codes that are supported by the printer.
@@ -22,9 +22,9 @@ public final class CommonBarCodeTypeSelfDefiningField extends SelfDefiningField
     }
 
     /**
-     * Constructs a new {@link CommonBarCodeTypeSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a new {@link CommonBarCodeTypeSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    CommonBarCodeTypeSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    CommonBarCodeTypeSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.CommonBarCodeType);
 
@@ -46,6 +46,11 @@ public final class CommonBarCodeTypeSelfDefiningField extends SelfDefiningField
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.combinations.size();
+    }
+
     /**
      * Returns a list containing all active boundaries.
      */
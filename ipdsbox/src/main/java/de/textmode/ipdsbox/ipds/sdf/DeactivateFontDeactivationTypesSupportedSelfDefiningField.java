@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The DF Deactivation Types Supported self-defining field lists the optional deactivation types that are supported
@@ -24,10 +24,10 @@ public final class DeactivateFontDeactivationTypesSupportedSelfDefiningField ext
 
     /**
      * Constructs a new {@link DeactivateFontDeactivationTypesSupportedSelfDefiningField}
-     * from the given {@link IpdsByteArrayInputStream}.
+     * from the given {@link IpdsInputStream}.
      */
     DeactivateFontDeactivationTypesSupportedSelfDefiningField(
-            final IpdsByteArrayInputStream ipds) throws IOException {
+            final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.DeactivateFontDeactivationTypesSupported);
 
@@ -50,6 +50,11 @@ public final class DeactivateFontDeactivationTypesSupportedSelfDefiningField ext
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.types.size();
+    }
+
     /**
      * Returns a list with all  types.
      */
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field lists optional device-appearance values that are supported by the printer. A device
@@ -25,9 +25,9 @@ public final class DeviceAppearanceSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Constructs a new {@link DeviceAppearanceSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a new {@link DeviceAppearanceSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    DeviceAppearanceSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    DeviceAppearanceSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.DeviceAppearance);
 
@@ -49,6 +49,11 @@ public final class DeviceAppearanceSelfDefiningField extends SelfDefiningField {
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + (this.appearances.size() * 2);
+    }
+
     /**
      * Returns a list containing all appearances.
      */
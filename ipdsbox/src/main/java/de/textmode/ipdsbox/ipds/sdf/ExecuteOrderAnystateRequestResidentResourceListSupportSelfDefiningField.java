@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Execute Order Anystate RRL RT & RIDF Support self-defining field specifies the combinations of resource
@@ -24,10 +24,10 @@ public final class ExecuteOrderAnystateRequestResidentResourceListSupportSelfDef
 
     /**
      * Creates a {@link ExecuteOrderAnystateRequestResidentResourceListSupportSelfDefiningField}
-     * from the given {@link IpdsByteArrayInputStream}.
+     * from the given {@link IpdsInputStream}.
      */
     ExecuteOrderAnystateRequestResidentResourceListSupportSelfDefiningField(
-            final IpdsByteArrayInputStream ipds) throws IOException {
+            final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.ExecuteOrderAnystateRequestResidentResourceListSupport);
 
@@ -54,6 +54,11 @@ public final class ExecuteOrderAnystateRequestResidentResourceListSupportSelfDef
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + (this.entries.size() * 2);
+    }
+
     /**
      * Returns the entries.
      */
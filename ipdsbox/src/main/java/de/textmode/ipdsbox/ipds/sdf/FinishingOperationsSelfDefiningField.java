@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Finishing Operations self-defining field lists all the different types of finishing operations that the printer
@@ -23,9 +23,9 @@ public final class FinishingOperationsSelfDefiningField extends SelfDefiningFiel
     }
 
     /**
-     * Constructs a new {@link FinishingOperationsSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a new {@link FinishingOperationsSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    public FinishingOperationsSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    public FinishingOperationsSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.FinishingOperations);
 
@@ -47,6 +47,11 @@ public final class FinishingOperationsSelfDefiningField extends SelfDefiningFiel
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.operationTypes.size();
+    }
+
     /**
      * Returns a list with all operation types.
      */
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Finishing Options self-defining field lists all the finishing options that the printer
@@ -23,9 +23,9 @@ public final class FinishingOptionsSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Constructs a new {@link FinishingOptionsSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a new {@link FinishingOptionsSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    public FinishingOptionsSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    public FinishingOptionsSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.FinishingOptions);
 
@@ -47,6 +47,11 @@ public final class FinishingOptionsSelfDefiningField extends SelfDefiningField {
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.optionTypes.size();
+    }
+
     /**
      * Returns a list with all option types.
      */
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.sdf;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * IM-Image and Coded-Font Resolution Self-Defining Field.
@@ -29,9 +29,9 @@ public final class ImImageAndCodedFontResolutionSelfDefiningField extends SelfDe
 
     /**
      *  Constructs a new {@link ImImageAndCodedFontResolutionSelfDefiningField}
-     *  from the given {@link IpdsByteArrayInputStream}.
+     *  from the given {@link IpdsInputStream}.
      */
-    ImImageAndCodedFontResolutionSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    ImImageAndCodedFontResolutionSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.ImImageAndCodedFontResolution);
 
         this.unitBase = ipds.readUnsignedByte();
@@ -54,6 +54,11 @@ public final class ImImageAndCodedFontResolutionSelfDefiningField extends SelfDe
         ipds.writeUnsignedInteger16(this.yPels);
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 0x0A;
+    }
+
     /**
      * Returns the Unit base.
      */
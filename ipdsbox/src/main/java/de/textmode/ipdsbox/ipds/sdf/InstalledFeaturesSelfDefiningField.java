@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Installed Features Self-Defining Field.
@@ -22,9 +22,9 @@ public final class InstalledFeaturesSelfDefiningField extends SelfDefiningField
     }
 
     /**
-     * Creates a {@link InstalledFeaturesSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link InstalledFeaturesSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    InstalledFeaturesSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    InstalledFeaturesSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.InstalledFeatures);
 
         while (ipds.bytesAvailable() > 0) {
@@ -45,6 +45,11 @@ public final class InstalledFeaturesSelfDefiningField extends SelfDefiningField
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + (this.featureIds.size() * 2);
+    }
+
     /**
      * Returns the Feature IDs.
      */
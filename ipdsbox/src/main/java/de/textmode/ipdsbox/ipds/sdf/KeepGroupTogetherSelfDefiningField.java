@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.sdf;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field identifies the maximum number of sheets allowed within a recovery-unit group; these
@@ -30,9 +30,9 @@ public final class KeepGroupTogetherSelfDefiningField extends SelfDefiningField
     }
 
     /**
-     * Constructs a new {@link KeepGroupTogetherSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a new {@link KeepGroupTogetherSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    KeepGroupTogetherSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    KeepGroupTogetherSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.KeepGroupTogether);
 
         this.maximumNumberOfSheets = ipds.readUnsignedInteger16();
@@ -55,6 +55,11 @@ public final class KeepGroupTogetherSelfDefiningField extends SelfDefiningField
         ipds.writeUnsignedInteger16(this.maximumTotalGroupLength);
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 0x0B;
+    }
+
     /**
      * Returns the number of sheets allowed within a recovery-unit group.
      */
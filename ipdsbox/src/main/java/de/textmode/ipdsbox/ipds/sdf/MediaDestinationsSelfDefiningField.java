@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Bar Code Type/Modifier self-defining field lists the optional bar codes that are supported by the printer in
@@ -25,9 +25,9 @@ public final class MediaDestinationsSelfDefiningField extends SelfDefiningField
     }
 
     /**
-     * Creates a {@link MediaDestinationsSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link MediaDestinationsSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    MediaDestinationsSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    MediaDestinationsSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.MediaDestinations);
 
         this.defaultId = ipds.readUnsignedInteger16();
@@ -56,6 +56,11 @@ public final class MediaDestinationsSelfDefiningField extends SelfDefiningField
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 6 + (this.entries.size() * 4);
+    }
+
     /**
      * Returns the Default media-destination ID.
      */
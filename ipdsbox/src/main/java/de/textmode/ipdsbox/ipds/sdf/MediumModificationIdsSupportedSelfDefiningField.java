@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field lists the medium modification IDs that are currently supported by the XOH-SMM
@@ -25,9 +25,9 @@ public final class MediumModificationIdsSupportedSelfDefiningField extends SelfD
 
     /**
      * Constructs the {@link MediumModificationIdsSupportedSelfDefiningField}
-     * from the given {@link IpdsByteArrayInputStream}.
+     * from the given {@link IpdsInputStream}.
      */
-    MediumModificationIdsSupportedSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    MediumModificationIdsSupportedSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.MediumModificationIdsSupported);
 
@@ -50,6 +50,11 @@ public final class MediumModificationIdsSupportedSelfDefiningField extends SelfD
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + (this.mediumModificationIds.size() * 2);
+    }
+
     /**
      * Returns a list containing all currently-supported medium modification IDs.
      */
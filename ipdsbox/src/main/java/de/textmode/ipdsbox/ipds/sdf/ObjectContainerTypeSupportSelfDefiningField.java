@@ -6,8 +6,8 @@ import java.util.List;
 import java.util.StringJoiner;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field lists the object containers supported by the printer and for each type of object indicates
@@ -25,9 +25,9 @@ public final class ObjectContainerTypeSupportSelfDefiningField extends SelfDefin
     }
 
     /**
-     * Creates a {@link ObjectContainerTypeSupportSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link ObjectContainerTypeSupportSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    ObjectContainerTypeSupportSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    ObjectContainerTypeSupportSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.ObjectContainerTypeSupport);
 
         while (ipds.bytesAvailable() > 0) {
@@ -50,21 +50,29 @@ public final class ObjectContainerTypeSupportSelfDefiningField extends SelfDefin
      */
     @Override
     public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException {
-        final IpdsByteArrayOutputStream typesStream = new IpdsByteArrayOutputStream();
+        ipds.writeUnsignedInteger16(this.getEncodedLength());
+        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
 
         for (final TypeRecord typeRecord : this.typeRecords) {
-            typesStream.writeUnsignedByte(2 + (typeRecord.getRegIds().size() * 16));
-            typesStream.writeUnsignedByte(typeRecord.getType());
+            ipds.writeUnsignedByte(2 + (typeRecord.getRegIds().size() * 16));
+            ipds.writeUnsignedByte(typeRecord.getType());
 
             for (final byte[] regId : typeRecord.getRegIds()) {
-                typesStream.writeBytes(regId);
+                ipds.writeBytes(regId);
             }
         }
+    }
 
-        final byte[] types = typesStream.toByteArray();
-        ipds.writeUnsignedInteger16(4 + types.length);
-        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
-        ipds.writeBytes(types);
+    @Override
+    public int getEncodedLength() {
+        int length = 4;
+        for (final TypeRecord typeRecord : this.typeRecords) {
+            length += 2;
+            for (final byte[] regId : typeRecord.getRegIds()) {
+                length += regId.length;
+            }
+        }
+        return length;
     }
 
     /**
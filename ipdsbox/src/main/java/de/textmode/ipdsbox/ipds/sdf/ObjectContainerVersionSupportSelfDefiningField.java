@@ -9,8 +9,8 @@ import java.util.List;
 
 import de.textmode.ipdsbox.core.ByteUtils;
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field lists the object container versions supported by the printer.
@@ -29,9 +29,9 @@ public final class ObjectContainerVersionSupportSelfDefiningField extends SelfDe
     }
 
     /**
-     * Creates a {@link ObjectContainerVersionSupportSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link ObjectContainerVersionSupportSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    ObjectContainerVersionSupportSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    ObjectContainerVersionSupportSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.ObjectContainerVersionSupport);
 
         while (ipds.bytesAvailable() > 0) {
@@ -58,7 +58,8 @@ public final class ObjectContainerVersionSupportSelfDefiningField extends SelfDe
      */
     @Override
     public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException {
-        final IpdsByteArrayOutputStream versionStream = new IpdsByteArrayOutputStream();
+        ipds.writeUnsignedInteger16(this.getEncodedLength());
+        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
 
         for (final VersionRecord version : this.versionRecords) {
 
@@ -68,20 +69,25 @@ public final class ObjectContainerVersionSupportSelfDefiningField extends SelfDe
 
             final int len = 24 + encodedVersionName.length;
 
-            versionStream.writeUnsignedByte(len);
-            versionStream.writeBytes(version.regId);
-            versionStream.writeUnsignedByte(version.flags);
-            versionStream.writeUnsignedInteger16(version.getMajorVersion());
-            versionStream.writeUnsignedInteger16(version.getMinorVersion());
-            versionStream.writeUnsignedInteger16(version.getSubminorVersion());
-            versionStream.writeBytes(encodedVersionName);
+            ipds.writeUnsignedByte(len);
+            ipds.writeBytes(version.regId);
+            ipds.writeUnsignedByte(version.flags);
+            ipds.writeUnsignedInteger16(version.getMajorVersion());
+            ipds.writeUnsignedInteger16(version.getMinorVersion());
+            ipds.writeUnsignedInteger16(version.getSubminorVersion());
+            ipds.writeBytes(encodedVersionName);
         }
+    }
 
-        final byte[] versionBytes = versionStream.toByteArray();
-
-        ipds.writeUnsignedInteger16(4 + versionBytes.length);
-        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
-        ipds.writeBytes(versionBytes);
+    @Override
+    public int getEncodedLength() {
+        int length = 4;
+        for (final VersionRecord version : this.versionRecords) {
+            // UTF-16BE encodes every char in two bytes...
+            length += 8 + version.regId.length
+                    + (version.getVersionName() == null ? 0 : version.getVersionName().length() * 2);
+        }
+        return length;
     }
 
     /**
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The PFC Triplets Supported self-defining field lists the optional triplets that are supported by the printer on the
@@ -24,9 +24,9 @@ public final class PfcTripletsSupportedSelfDefiningField extends SelfDefiningFie
     }
 
     /**
-     * Constructs the {@link PfcTripletsSupportedSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link PfcTripletsSupportedSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    PfcTripletsSupportedSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    PfcTripletsSupportedSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.PfcTripletsSupported);
 
@@ -48,6 +48,11 @@ public final class PfcTripletsSupportedSelfDefiningField extends SelfDefiningFie
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.tripletIds.size();
+    }
+
     /**
      * Returns a list with all triplet IDs.
      */
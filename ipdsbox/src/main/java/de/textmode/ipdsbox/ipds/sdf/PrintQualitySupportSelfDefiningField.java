@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Print-Quality Support self-defining field specifies the minimum values for print quality supported by the
@@ -23,9 +23,9 @@ public final class PrintQualitySupportSelfDefiningField extends SelfDefiningFiel
     }
 
     /**
-     * Constructs the {@link PrintQualitySupportSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link PrintQualitySupportSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    public PrintQualitySupportSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    public PrintQualitySupportSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.PrintQualitySupport);
 
@@ -47,6 +47,11 @@ public final class PrintQualitySupportSelfDefiningField extends SelfDefiningFiel
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.boundaries.size();
+    }
+
     /**
      * Returns a list containing all active boundaries.
      */
@@ -5,8 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Parses the fields of the "Printable-Area Self-Defining Field".
@@ -33,9 +33,9 @@ public final class PrintableAreaSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Creates a {@link PrintableAreaSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link PrintableAreaSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    PrintableAreaSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    PrintableAreaSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.PrintableArea);
 
         this.mediaSourceId = ipds.readUnsignedByte();
@@ -65,13 +65,7 @@ public final class PrintableAreaSelfDefiningField extends SelfDefiningField {
 
     @Override
     public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException {
-
-        int entriesLen = 0;
-        for (final MediaIdEntry mediaIdEntry : this.mediaIdEntries) {
-            entriesLen += (3 + mediaIdEntry.getMediaId().length);
-        }
-
-        ipds.writeUnsignedInteger16(24 + entriesLen);
+        ipds.writeUnsignedInteger16(this.getEncodedLength());
         ipds.writeUnsignedInteger16(SelfDefiningFieldId.PrintableArea.getId());
 
         ipds.writeUnsignedByte(this.mediaSourceId);
@@ -95,6 +89,15 @@ public final class PrintableAreaSelfDefiningField extends SelfDefiningField {
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        int length = 24;
+        for (final MediaIdEntry mediaIdEntry : this.mediaIdEntries) {
+            length += 3 + mediaIdEntry.mediaId.length;
+        }
+        return length;
+    }
+
     /**
      * Returns the Media source ID.
      */
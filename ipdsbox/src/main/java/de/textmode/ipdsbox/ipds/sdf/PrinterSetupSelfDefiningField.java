@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Printer Setup self-defining field lists all setup IDs that are currently active in the printer.
@@ -22,9 +22,9 @@ public final class PrinterSetupSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Constructs the {@link PrinterSetupSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link PrinterSetupSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    PrinterSetupSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    PrinterSetupSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.PrinterSetup);
 
@@ -46,6 +46,11 @@ public final class PrinterSetupSelfDefiningField extends SelfDefiningField {
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + (this.setupIds.size() * 2);
+    }
+
     /**
      * Returns a list containing all active Setup IDs.
      */
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.sdf;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field reports the speed of the printer.
@@ -24,9 +24,9 @@ public final class PrinterSpeedSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Constructs the {@link PrinterSpeedSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link PrinterSpeedSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    PrinterSpeedSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    PrinterSpeedSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.PrinterSpeed);
 
         this.ppm = ipds.readUnsignedInteger32();
@@ -45,6 +45,11 @@ public final class PrinterSpeedSelfDefiningField extends SelfDefiningField {
         ipds.writeUnsignedInteger32(this.fpm);
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 0x0C;
+    }
+
     /**
      * Returns the pages per minute.
      */
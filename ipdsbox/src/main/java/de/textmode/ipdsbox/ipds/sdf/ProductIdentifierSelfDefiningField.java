@@ -5,8 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Product Identifier self-defining field is an optional field that specifies parameters that contain product
@@ -25,9 +25,9 @@ public final class ProductIdentifierSelfDefiningField extends SelfDefiningField
     }
 
     /**
-     * Creates a {@link ProductIdentifierSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link ProductIdentifierSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    ProductIdentifierSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    ProductIdentifierSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.ProductIdentifier);
 
         while (ipds.bytesAvailable() > 0) {
@@ -45,18 +45,23 @@ public final class ProductIdentifierSelfDefiningField extends SelfDefiningField
      */
     @Override
     public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException {
-        final IpdsByteArrayOutputStream temp = new IpdsByteArrayOutputStream();
+        ipds.writeUnsignedInteger16(this.getEncodedLength());
+        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
 
         for (final ProductIdentifierEntry entry : this.entries) {
-            temp.writeUnsignedByte(3 + entry.parameterValue.length);
-            temp.writeUnsignedInteger16(entry.getParameterId());
-            temp.writeBytes(entry.getParameterValue());
+            ipds.writeUnsignedByte(3 + entry.parameterValue.length);
+            ipds.writeUnsignedInteger16(entry.getParameterId());
+            ipds.writeBytes(entry.getParameterValue());
         }
+    }
 
-        final byte[] params = temp.toByteArray();
-        ipds.writeUnsignedInteger16(4 + params.length);
-        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
-        ipds.writeBytes(params);
+    @Override
+    public int getEncodedLength() {
+        int length = 4;
+        for (final ProductIdentifierEntry entry : this.entries) {
+            length += 3 + entry.parameterValue.length;
+        }
+        return length;
     }
 
     /**
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field specifies the group ID formats that are recognized by the printer in the Group ID (X'00')
@@ -24,9 +24,9 @@ public final class RecognizedGroupIdFormatsSelfDefiningField extends SelfDefinin
     }
 
     /**
-     * Constructs the {@link RecognizedGroupIdFormatsSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link RecognizedGroupIdFormatsSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    RecognizedGroupIdFormatsSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    RecognizedGroupIdFormatsSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.RecognizedGroupIdFormats);
 
@@ -48,6 +48,11 @@ public final class RecognizedGroupIdFormatsSelfDefiningField extends SelfDefinin
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.groupIdFormats.size();
+    }
+
     /**
      * Returns a list with all group ID formats.
      */
@@ -5,8 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field lists the medium modification IDs that are currently supported by the XOH-SMM
@@ -25,9 +25,9 @@ public final class ResidentSymbolSetSupportSelfDefiningField extends SelfDefinin
     }
 
     /**
-     * Constructs the {@link ResidentSymbolSetSupportSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link ResidentSymbolSetSupportSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    ResidentSymbolSetSupportSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    ResidentSymbolSetSupportSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.ResidentSymbolSetSupport);
 
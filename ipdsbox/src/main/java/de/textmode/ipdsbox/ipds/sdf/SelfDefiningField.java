@@ -30,6 +30,18 @@ public abstract class SelfDefiningField {
      */
     public abstract void writeTo(IpdsByteArrayOutputStream out) throws IOException;
 
+    /**
+     * Returns the number of bytes written by {@link #writeTo(IpdsByteArrayOutputStream)}.
+     *
+     * <p>The default implementation writes the {@link SelfDefiningField} to a length counter. Subclasses should
+     * override this method and compute the length directly.
+     */
+    public int getEncodedLength() throws IOException {
+        final IpdsByteArrayOutputStream counter = IpdsByteArrayOutputStream.createLengthCounter();
+        this.writeTo(counter);
+        return counter.getSize();
+    }
+
     /**
      * Returns the self-defining field ID.
      */
@@ -2,81 +2,151 @@ package de.textmode.ipdsbox.ipds.sdf;
 
 import java.io.IOException;
 
+import de.textmode.ipdsbox.core.Decoder;
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.DecoderRegistry;
+import de.textmode.ipdsbox.core.DecoderTable;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
 import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * A factory for all supported {@link SelfDefiningField}s.
+ *
+ * <p>The {@link SelfDefiningField}s are decoded by the {@link Decoder}s of a {@link DecoderTable}. The
+ * {@link DecoderTable} of all self-defining fields supported by ipdsbox is returned by
+ * {@link #getDefaultDecoders()}. Own {@link Decoder}s can be added with {@link DecoderTable#toRegistry()} and used
+ * by a {@link DecoderContext} (see {@link #create(IpdsInputStream, DecoderContext)}), which is passed to the
+ * self-defining fields carried by Acknowledge Replies as well.
  */
 public final class SelfDefiningFieldFactory {
 
+    private static final DecoderTable<SelfDefiningField> DEFAULT_DECODERS =
+        new DecoderRegistry<SelfDefiningField>(0, (ipds, code, context) -> new UnknownSelfDefiningField(ipds, code))
+            .register(SelfDefiningFieldId.PrintableArea.getId(),
+                    (ipds, code, context) -> new PrintableAreaSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.SymbolSetSupport.getId(),
+                    (ipds, code, context) -> new SymbolSetSupportSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ImImageAndCodedFontResolution.getId(),
+                    (ipds, code, context) -> new ImImageAndCodedFontResolutionSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.StoragePools.getId(),
+                    (ipds, code, context) -> new StoragePoolsSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.StandardOcaColorValueSupport.getId(),
+                    (ipds, code, context) -> new StandardOcaColorValueSupportSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.InstalledFeatures.getId(),
+                    (ipds, code, context) -> new InstalledFeaturesSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.AvailableFeatures.getId(),
+                    (ipds, code, context) -> new AvailableFeaturesSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ResidentSymbolSetSupport.getId(),
+                    (ipds, code, context) -> new ResidentSymbolSetSupportSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.PrintQualitySupport.getId(),
+                    (ipds, code, context) -> new PrintQualitySupportSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ExecuteOrderAnystateRequestResidentResourceListSupport.getId(),
+                    (ipds, code, context) ->
+                        new ExecuteOrderAnystateRequestResidentResourceListSupportSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ActivateResource.getId(),
+                    (ipds, code, context) -> new ActivateResourceSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.MediumModificationIdsSupported.getId(),
+                    (ipds, code, context) -> new MediumModificationIdsSupportedSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.CommonBarCodeType.getId(),
+                    (ipds, code, context) -> new CommonBarCodeTypeSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.BarCodeType.getId(),
+                    (ipds, code, context) -> new BarCodeTypeSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.MediaDestinations.getId(),
+                    (ipds, code, context) -> new MediaDestinationsSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.SupportedGroupOperations.getId(),
+                    (ipds, code, context) -> new SupportedGroupOperationsSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ProductIdentifier.getId(),
+                    (ipds, code, context) -> new ProductIdentifierSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ObjectContainerTypeSupport.getId(),
+                    (ipds, code, context) -> new ObjectContainerTypeSupportSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.DeactivateFontDeactivationTypesSupported.getId(),
+                    (ipds, code, context) -> new DeactivateFontDeactivationTypesSupportedSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.PfcTripletsSupported.getId(),
+                    (ipds, code, context) -> new PfcTripletsSupportedSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.PrinterSetup.getId(),
+                    (ipds, code, context) -> new PrinterSetupSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.FinishingOperations.getId(),
+                    (ipds, code, context) -> new FinishingOperationsSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.Up3iTupel.getId(),
+                    (ipds, code, context) -> new Up3iTupelSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.Up3iPaperInputMedia.getId(),
+                    (ipds, code, context) -> new Up3iPaperInputMediaSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ColorantIdentification.getId(),
+                    (ipds, code, context) -> new ColorantIdentificationSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.DeviceAppearance.getId(),
+                    (ipds, code, context) -> new DeviceAppearanceSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.KeepGroupTogether.getId(),
+                    (ipds, code, context) -> new KeepGroupTogetherSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.RecognizedGroupIdFormats.getId(),
+                    (ipds, code, context) -> new RecognizedGroupIdFormatsSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.SupportedDeviceResolutions.getId(),
+                    (ipds, code, context) -> new SupportedDeviceResolutionsSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ObjectContainerVersionSupport.getId(),
+                    (ipds, code, context) -> new ObjectContainerVersionSupportSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.FinishingOptions.getId(),
+                    (ipds, code, context) -> new FinishingOptionsSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.PrinterSpeed.getId(),
+                    (ipds, code, context) -> new PrinterSpeedSelfDefiningField(ipds))
+            .register(SelfDefiningFieldId.ActiveSetupName.getId(),
+                    (ipds, code, context) -> new ActiveSetupNameSelfDefiningField(ipds, context))
+            .freeze();
+
     /**
      * Private constructor to make checkstyle happy.
      */
     private SelfDefiningFieldFactory() {
     }
 
+    /**
+     * Returns the {@link DecoderTable} of all {@link SelfDefiningField}s supported by ipdsbox.
+     */
+    public static DecoderTable<SelfDefiningField> getDefaultDecoders() {
+        return DEFAULT_DECODERS;
+    }
+
     /**
      * Creates a {@link SelfDefiningField} from the given byte array. Note that the byte array must be
      * exactly as log as the self-defining field. If not an {@link IOException} wil be thrown.
      */
-    @SuppressWarnings("checkstyle:LineLength")
     public static SelfDefiningField create(final byte[] data) throws IOException {
+        return create(new IpdsByteArrayInputStream(data));
+    }
+
+    /**
+     * Creates a {@link SelfDefiningField} from the given {@link IpdsInputStream}, usually a view
+     * returned by {@link IpdsInputStream#readSelfDefiningFieldViewIfExists()}. Note that the
+     * {@link IpdsInputStream} must contain exactly as many bytes as the self-defining field. If
+     * not an {@link IOException} wil be thrown.
+     */
+    public static SelfDefiningField create(final IpdsInputStream ipds) throws IOException {
+        return create(ipds, DecoderContext.getDefault());
+    }
 
-        final IpdsByteArrayInputStream ipds = new IpdsByteArrayInputStream(data);
+    /**
+     * Creates a {@link SelfDefiningField} from the given {@link IpdsInputStream} with the {@link Decoder}s of
+     * the given {@link DecoderContext}.
+     */
+    public static SelfDefiningField create(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException {
 
-        // The implementation requires that the byte array is exactly as large
-        // as specified in the length field.
+        // The implementation requires that the IpdsInputStream contains exactly as many
+        // bytes as specified in the length field.
+        final int availableLength = ipds.bytesAvailable();
         final int length = ipds.readUnsignedInteger16();
-        if (length != data.length) {
+        if (length != availableLength) {
             throw new IOException(String.format(
                     "A self-defining field to be read seems to be %1$d bytes long "
                     + "but the IPDS data stream ends after %2$d bytes",
                     length,
-                    data.length));
+                    availableLength));
         }
 
-        final int sdfId = ipds.readUnsignedInteger16();
-        final SelfDefiningFieldId sdf = SelfDefiningFieldId.getIfKnown(sdfId);
-        if (sdf == null) {
-            return new UnknownSelfDefiningField(ipds, sdfId);
+        try {
+            return context.getSelfDefiningFields().decode(ipds, ipds.readUnsignedInteger16(), context);
+        } catch (final InvalidIpdsCommandException e) {
+            throw new IOException(e.getMessage(), e);
         }
-
-        return switch (sdf) {
-            case PrintableArea -> new PrintableAreaSelfDefiningField(ipds);
-            case SymbolSetSupport -> new SymbolSetSupportSelfDefiningField(ipds);
-            case ImImageAndCodedFontResolution -> new ImImageAndCodedFontResolutionSelfDefiningField(ipds);
-            case StoragePools -> new StoragePoolsSelfDefiningField(ipds);
-            case StandardOcaColorValueSupport -> new StandardOcaColorValueSupportSelfDefiningField(ipds);
-            case InstalledFeatures -> new InstalledFeaturesSelfDefiningField(ipds);
-            case AvailableFeatures -> new AvailableFeaturesSelfDefiningField(ipds);
-            case ResidentSymbolSetSupport -> new ResidentSymbolSetSupportSelfDefiningField(ipds);
-            case PrintQualitySupport -> new PrintQualitySupportSelfDefiningField(ipds);
-            case ExecuteOrderAnystateRequestResidentResourceListSupport -> new ExecuteOrderAnystateRequestResidentResourceListSupportSelfDefiningField(ipds);
-            case ActivateResource -> new ActivateResourceSelfDefiningField(ipds);
-            case MediumModificationIdsSupported -> new MediumModificationIdsSupportedSelfDefiningField(ipds);
-            case CommonBarCodeType -> new CommonBarCodeTypeSelfDefiningField(ipds);
-            case BarCodeType -> new BarCodeTypeSelfDefiningField(ipds);
-            case MediaDestinations -> new MediaDestinationsSelfDefiningField(ipds);
-            case SupportedGroupOperations -> new SupportedGroupOperationsSelfDefiningField(ipds);
-            case ProductIdentifier -> new ProductIdentifierSelfDefiningField(ipds);
-            case ObjectContainerTypeSupport -> new ObjectContainerTypeSupportSelfDefiningField(ipds);
-            case DeactivateFontDeactivationTypesSupported -> new DeactivateFontDeactivationTypesSupportedSelfDefiningField(ipds);
-            case PfcTripletsSupported -> new PfcTripletsSupportedSelfDefiningField(ipds);
-            case PrinterSetup -> new PrinterSetupSelfDefiningField(ipds);
-            case FinishingOperations -> new FinishingOperationsSelfDefiningField(ipds);
-            case Up3iTupel -> new Up3iTupelSelfDefiningField(ipds);
-            case Up3iPaperInputMedia -> new Up3iPaperInputMediaSelfDefiningField(ipds);
-            case ColorantIdentification -> new ColorantIdentificationSelfDefiningField(ipds);
-            case DeviceAppearance -> new DeviceAppearanceSelfDefiningField(ipds);
-            case KeepGroupTogether -> new KeepGroupTogetherSelfDefiningField(ipds);
-            case RecognizedGroupIdFormats -> new RecognizedGroupIdFormatsSelfDefiningField(ipds);
-            case SupportedDeviceResolutions -> new SupportedDeviceResolutionsSelfDefiningField(ipds);
-            case ObjectContainerVersionSupport -> new ObjectContainerVersionSupportSelfDefiningField(ipds);
-            case FinishingOptions -> new FinishingOptionsSelfDefiningField(ipds);
-            case PrinterSpeed -> new PrinterSpeedSelfDefiningField(ipds);
-            case ActiveSetupName -> new ActiveSetupNameSelfDefiningField(ipds);
-
-            default -> new UnknownSelfDefiningField(ipds, sdfId);
-        };
     }
 }
@@ -1,8 +1,5 @@
 package de.textmode.ipdsbox.ipds.sdf;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Enumeration of all self-defining fields.
  */
@@ -193,11 +190,21 @@ public enum SelfDefiningFieldId {
      */
     ActiveSetupName(0x002A, "Active Setup Name");
 
-    private static final Map<Integer, SelfDefiningFieldId> REVERSE_MAP = new HashMap<>();
+    // The ids of the self defining fields are small, so the id is used as an index into the lookup table.
+    private static final SelfDefiningFieldId[] LOOKUP_TABLE;
 
     static {
+        int maxId = 0;
+        for (final SelfDefiningFieldId sdf : values()) {
+            maxId = Math.max(maxId, sdf.getId());
+        }
+
+        LOOKUP_TABLE = new SelfDefiningFieldId[maxId + 1];
         for (final SelfDefiningFieldId sdf : values()) {
-            REVERSE_MAP.put(sdf.getId(), sdf);
+            if (sdf.getId() < 0 || LOOKUP_TABLE[sdf.getId()] != null) {
+                throw new IllegalStateException("Invalid or duplicate self defining field id " + sdf);
+            }
+            LOOKUP_TABLE[sdf.getId()] = sdf;
         }
     }
 
@@ -216,7 +223,7 @@ public enum SelfDefiningFieldId {
      * Gets the enum value for the given integer. Returns <code>null</code> if unknown.
      */
     public static SelfDefiningFieldId getIfKnown(final int value) {
-        return REVERSE_MAP.get(value);
+        return value >= 0 && value < LOOKUP_TABLE.length ? LOOKUP_TABLE[value] : null;
     }
 
     /**
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Standard OCA Color Value Support self-defining field specifies the set of Standard OCA color values that
@@ -24,9 +24,9 @@ public final class StandardOcaColorValueSupportSelfDefiningField extends SelfDef
 
     /**
      * Constructs the {@link StandardOcaColorValueSupportSelfDefiningField}
-     * from the given {@link IpdsByteArrayInputStream}.
+     * from the given {@link IpdsInputStream}.
      */
-    StandardOcaColorValueSupportSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    StandardOcaColorValueSupportSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.StandardOcaColorValueSupport);
 
@@ -48,6 +48,11 @@ public final class StandardOcaColorValueSupportSelfDefiningField extends SelfDef
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + (this.colorValues.size() * 2);
+    }
+
     /**
      * Returns a list containing all supported OCA colors.
      */
@@ -5,8 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Storage Pools self-defining field specifies storage pools within the printer. Each storage pool is defined
@@ -24,9 +24,9 @@ public final class StoragePoolsSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Creates a {@link StoragePoolsSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link StoragePoolsSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    StoragePoolsSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    StoragePoolsSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.StoragePools);
 
         while (ipds.bytesAvailable() > 0) {
@@ -52,24 +52,29 @@ public final class StoragePoolsSelfDefiningField extends SelfDefiningField {
      */
     @Override
     public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException {
-        final IpdsByteArrayOutputStream poolsStream = new IpdsByteArrayOutputStream();
+        ipds.writeUnsignedInteger16(this.getEncodedLength());
+        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
 
         for (final StoragePoolEntry entry : this.storagePoolEntries) {
-            poolsStream.writeUnsignedByte(11 + (entry.getObjectIds().size() * 2));
-            poolsStream.writeUnsignedByte(entry.getEntryId());
-            poolsStream.writeUnsignedByte(entry.getStoragePoolId());
-            poolsStream.writeUnsignedInteger32(entry.getEmptySize());
-            poolsStream.writeUnsignedInteger32(0x00);
+            ipds.writeUnsignedByte(11 + (entry.getObjectIds().size() * 2));
+            ipds.writeUnsignedByte(entry.getEntryId());
+            ipds.writeUnsignedByte(entry.getStoragePoolId());
+            ipds.writeUnsignedInteger32(entry.getEmptySize());
+            ipds.writeUnsignedInteger32(0x00);
 
             for (final Integer id : entry.getObjectIds()) {
-                poolsStream.writeUnsignedInteger16(id);
+                ipds.writeUnsignedInteger16(id);
             }
         }
+    }
 
-        final byte[] pools = poolsStream.toByteArray();
-        ipds.writeUnsignedInteger16(4 + pools.length);
-        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
-        ipds.writeBytes(pools);
+    @Override
+    public int getEncodedLength() {
+        int length = 4;
+        for (final StoragePoolEntry entry : this.storagePoolEntries) {
+            length += 11 + (entry.getObjectIds().size() * 2);
+        }
+        return length;
     }
 
     /**
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.sdf;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field lists the resolution (or resolutions) controlled by the printer; this includes the
@@ -31,9 +31,9 @@ public final class SupportedDeviceResolutionsSelfDefiningField extends SelfDefin
 
     /**
      * Constructs the {@link SupportedDeviceResolutionsSelfDefiningField}
-     * from the given {@link IpdsByteArrayInputStream}.
+     * from the given {@link IpdsInputStream}.
      */
-    SupportedDeviceResolutionsSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    SupportedDeviceResolutionsSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.SupportedDeviceResolutions);
 
         this.ripXpels = ipds.readUnsignedInteger16();
@@ -56,6 +56,11 @@ public final class SupportedDeviceResolutionsSelfDefiningField extends SelfDefin
         ipds.writeUnsignedInteger16(this.printHeadYpels);
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 0x0C;
+    }
+
     /**
      * Returns the resolution to which sheet-side data is RIPped for pels per inch
      * across the media.
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field specifies the group operations supported by a printer, pre-processor, or post-processor
@@ -25,9 +25,9 @@ public final class SupportedGroupOperationsSelfDefiningField extends SelfDefinin
     }
 
     /**
-     * Constructs the {@link SupportedGroupOperationsSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SupportedGroupOperationsSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    SupportedGroupOperationsSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    SupportedGroupOperationsSelfDefiningField(final IpdsInputStream ipds) throws IOException {
 
         super(SelfDefiningFieldId.SupportedGroupOperations);
 
@@ -49,6 +49,11 @@ public final class SupportedGroupOperationsSelfDefiningField extends SelfDefinin
         }
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.operationTypes.size();
+    }
+
     /**
      * Returns a list with all operation types.
      */
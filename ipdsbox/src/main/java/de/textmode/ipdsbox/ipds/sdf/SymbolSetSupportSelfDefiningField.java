@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Symbol-Set Support self-defining field specifies the limits of support for the Load Symbol Set command.
@@ -22,9 +22,9 @@ public final class SymbolSetSupportSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Creates a {@link SymbolSetSupportSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Creates a {@link SymbolSetSupportSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    SymbolSetSupportSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    SymbolSetSupportSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.SymbolSetSupport);
 
         while (ipds.bytesAvailable() > 0) {
@@ -65,39 +65,43 @@ public final class SymbolSetSupportSelfDefiningField extends SelfDefiningField {
      */
     @Override
     public void writeTo(final IpdsByteArrayOutputStream ipds) throws IOException {
-        final IpdsByteArrayOutputStream entryStream = new IpdsByteArrayOutputStream();
+        ipds.writeUnsignedInteger16(this.getEncodedLength());
+        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
 
         for (final SymbolSetSupportEntry entry : this.entries) {
 
             if (entry.getValueEntryId() == 0x01) {
-                entryStream.writeUnsignedByte(6 + entry.getFgids().size() * 2);
-                entryStream.writeUnsignedByte(entry.getValueEntryId()); // Should be 0x01
-                entryStream.writeUnsignedByte(entry.getXBoxSize());
-                entryStream.writeUnsignedByte(entry.getYBoxSize());
-                entryStream.writeUnsignedByte(0x00);
-                entryStream.writeUnsignedByte(0x02);
+                ipds.writeUnsignedByte(6 + entry.getFgids().size() * 2);
+                ipds.writeUnsignedByte(entry.getValueEntryId()); // Should be 0x01
+                ipds.writeUnsignedByte(entry.getXBoxSize());
+                ipds.writeUnsignedByte(entry.getYBoxSize());
+                ipds.writeUnsignedByte(0x00);
+                ipds.writeUnsignedByte(0x02);
             } else {
-                entryStream.writeUnsignedByte(10 + entry.getFgids().size() * 2);
-                entryStream.writeUnsignedByte(entry.getValueEntryId()); // Should be 0x02
-                entryStream.writeUnsignedByte(entry.getUnitBase());
-                entryStream.writeUnsignedByte(0x00);
-                entryStream.writeUnsignedInteger16(entry.getPpub());
-                entryStream.writeUnsignedByte(entry.getMaximumSize());
-                entryStream.writeUnsignedByte(entry.getUniformSize());
-                entryStream.writeUnsignedByte(0x00);
-                entryStream.writeUnsignedByte(0x02);
+                ipds.writeUnsignedByte(10 + entry.getFgids().size() * 2);
+                ipds.writeUnsignedByte(entry.getValueEntryId()); // Should be 0x02
+                ipds.writeUnsignedByte(entry.getUnitBase());
+                ipds.writeUnsignedByte(0x00);
+                ipds.writeUnsignedInteger16(entry.getPpub());
+                ipds.writeUnsignedByte(entry.getMaximumSize());
+                ipds.writeUnsignedByte(entry.getUniformSize());
+                ipds.writeUnsignedByte(0x00);
+                ipds.writeUnsignedByte(0x02);
             }
 
             for (final Integer fgid : entry.getFgids()) {
-                entryStream.writeUnsignedInteger16(fgid);
+                ipds.writeUnsignedInteger16(fgid);
             }
         }
+    }
 
-        final byte[] entries = entryStream.toByteArray();
-
-        ipds.writeUnsignedInteger16(4 + entries.length);
-        ipds.writeUnsignedInteger16(this.getSelfDefiningFieldId());
-        ipds.writeBytes(entries);
+    @Override
+    public int getEncodedLength() {
+        int length = 4;
+        for (final SymbolSetSupportEntry entry : this.entries) {
+            length += (entry.getValueEntryId() == 0x01 ? 6 : 10) + entry.getFgids().size() * 2;
+        }
+        return length;
     }
 
     /**
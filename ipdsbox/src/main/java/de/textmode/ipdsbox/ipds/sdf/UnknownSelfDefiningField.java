@@ -3,8 +3,8 @@ package de.textmode.ipdsbox.ipds.sdf;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * A self-defining field that is not parsed.
@@ -14,9 +14,9 @@ public final class UnknownSelfDefiningField extends SelfDefiningField {
     private byte[] rawData;
 
     /**
-     * Constructs the {@link UnknownSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link UnknownSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    public UnknownSelfDefiningField(final IpdsByteArrayInputStream ipds, final int sdfId) {
+    public UnknownSelfDefiningField(final IpdsInputStream ipds, final int sdfId) {
         super(sdfId);
         this.rawData = ipds.readRemainingBytes();
     }
@@ -31,6 +31,11 @@ public final class UnknownSelfDefiningField extends SelfDefiningField {
         out.writeBytes(this.rawData);
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 4 + this.rawData.length;
+    }
+
     /**
      * Returns the raw data.
      */
@@ -4,8 +4,8 @@ import java.io.IOException;
 
 import de.textmode.ipdsbox.core.ByteUtils;
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field reports the media attributes of all media that exist in the UP3I line. One of these
@@ -27,9 +27,9 @@ public final class Up3iPaperInputMediaSelfDefiningField extends SelfDefiningFiel
     }
 
     /**
-     * Constructs the {@link Up3iPaperInputMediaSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link Up3iPaperInputMediaSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    Up3iPaperInputMediaSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    Up3iPaperInputMediaSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.Up3iPaperInputMedia);
 
         this.mediaSourceId = ipds.readUnsignedInteger16();
@@ -48,6 +48,11 @@ public final class Up3iPaperInputMediaSelfDefiningField extends SelfDefiningFiel
         ipds.writeBytes(this.up3iMediaInformation);
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 6 + this.up3iMediaInformation.length;
+    }
+
     /**
      * Returns the media source ID.
      */
@@ -4,8 +4,8 @@ import java.io.IOException;
 
 import de.textmode.ipdsbox.core.ByteUtils;
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This self-defining field reports the physical order and properties of the UP3I devices connected to the printer.
@@ -28,9 +28,9 @@ public final class Up3iTupelSelfDefiningField extends SelfDefiningField {
     }
 
     /**
-     * Constructs the {@link Up3iTupelSelfDefiningField} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link Up3iTupelSelfDefiningField} from the given {@link IpdsInputStream}.
      */
-    Up3iTupelSelfDefiningField(final IpdsByteArrayInputStream ipds) throws IOException {
+    Up3iTupelSelfDefiningField(final IpdsInputStream ipds) throws IOException {
         super(SelfDefiningFieldId.Up3iTupel);
 
         this.tupelId = ipds.readUnsignedInteger16();
@@ -49,6 +49,11 @@ public final class Up3iTupelSelfDefiningField extends SelfDefiningField {
         ipds.writeBytes(this.up3iDeviceInformation);
     }
 
+    @Override
+    public int getEncodedLength() {
+        return 6 + this.up3iDeviceInformation.length;
+    }
+
     /**
      * Returns the tupel ID.
      */
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Coded Graphic Character Set Global Identifier triplet (X'01') specifies the code page and
@@ -44,9 +44,9 @@ public final class CodedGraphicCharacterSetGlobalIdentifierTriplet extends Tripl
 
     /**
      * Constructs a {@link CodedGraphicCharacterSetGlobalIdentifierTriplet} from
-     * the given {@link IpdsByteArrayInputStream}.
+     * the given {@link IpdsInputStream}.
      */
-    CodedGraphicCharacterSetGlobalIdentifierTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    CodedGraphicCharacterSetGlobalIdentifierTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.CodedGraphicCharacterSetGlobalIdentifier);
 
         this.graphicCharacterSetGlobalIdentifier = ipds.readUnsignedInteger16();
@@ -89,7 +89,7 @@ public final class CodedGraphicCharacterSetGlobalIdentifierTriplet extends Tripl
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(6);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedInteger16(this.graphicCharacterSetGlobalIdentifier);
@@ -101,6 +101,11 @@ public final class CodedGraphicCharacterSetGlobalIdentifierTriplet extends Tripl
         }
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 6;
+    }
+
     @Override
     public String toString() {
         return "CGCSGID{"
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class ColorFidelityTriplet extends Triplet {
 
@@ -23,9 +23,9 @@ public final class ColorFidelityTriplet extends Triplet {
     }
 
     /**
-     * Constructs a {@link ColorFidelityTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link ColorFidelityTriplet} from the given {@link IpdsInputStream}.
      */
-    ColorFidelityTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    ColorFidelityTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.ColorFidelity);
 
         this.continuationRule = ipds.readUnsignedByte();
@@ -36,7 +36,7 @@ public final class ColorFidelityTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(8);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.continuationRule);
@@ -47,6 +47,11 @@ public final class ColorFidelityTriplet extends Triplet {
         out.writeUnsignedByte(0);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 8;
+    }
+
     /**
      * Returns the Continuation Rule.
      */
@@ -58,6 +63,7 @@ public final class ColorFidelityTriplet extends Triplet {
      * Sets the Continuation Rule.
      */
     public void setContinuationRule(final int continuationRule) {
+        this.modified();
         this.continuationRule = continuationRule;
     }
 
@@ -72,6 +78,7 @@ public final class ColorFidelityTriplet extends Triplet {
      * Sets the Reporting Rule.
      */
     public void setReportingRule(final int reportingRule) {
+        this.modified();
         this.reportingRule = reportingRule;
     }
 
@@ -87,6 +94,7 @@ public final class ColorFidelityTriplet extends Triplet {
      * Sets the Substitution Rule.
      */
     public void setSubstitutionRule(final int substitutionRule) {
+        this.modified();
         this.substitutionRule = substitutionRule;
     }
 
@@ -2,17 +2,17 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class ColorManagementResourceDescriptorTriplet extends Triplet {
 
     private int mode;
 
     /**
-     * Constructs a {@link ColorManagementResourceDescriptorTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link ColorManagementResourceDescriptorTriplet} from the given {@link IpdsInputStream}.
      */
-    ColorManagementResourceDescriptorTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    ColorManagementResourceDescriptorTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.ColorManagementResourceDescriptor);
 
         ipds.skip(1);
@@ -20,7 +20,7 @@ public final class ColorManagementResourceDescriptorTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(0x05);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(0x00);
@@ -28,6 +28,11 @@ public final class ColorManagementResourceDescriptorTriplet extends Triplet {
         out.writeUnsignedByte(0x00);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 0x05;
+    }
+
     /**
      * Returns the mode.
      */
@@ -39,6 +44,7 @@ public final class ColorManagementResourceDescriptorTriplet extends Triplet {
      * Sets the mode.
      */
     public void setMode(final int mode) {
+        this.modified();
         this.mode = mode;
     }
 
@@ -3,8 +3,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class ColorSpecificationTriplet extends Triplet {
 
@@ -16,9 +16,9 @@ public final class ColorSpecificationTriplet extends Triplet {
     private byte[] colorValue;
 
     /**
-     * Constructs a {@link ColorSpecificationTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link ColorSpecificationTriplet} from the given {@link IpdsInputStream}.
      */
-    ColorSpecificationTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    ColorSpecificationTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.ColorSpecification);
 
         ipds.skip(1);
@@ -34,7 +34,7 @@ public final class ColorSpecificationTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(12 + this.colorValue.length);
         out.writeUnsignedByte(this.getTripletId());
 
@@ -50,6 +50,11 @@ public final class ColorSpecificationTriplet extends Triplet {
         out.writeBytes(this.colorValue);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 12 + this.colorValue.length;
+    }
+
     /**
      * Returns the Color space.
      */
@@ -61,6 +66,7 @@ public final class ColorSpecificationTriplet extends Triplet {
      * Sets the Color space.
      */
     public void setColorSpace(final int colorSpace) {
+        this.modified();
         this.colorSpace = colorSpace;
     }
 
@@ -75,6 +81,7 @@ public final class ColorSpecificationTriplet extends Triplet {
      * Sets the ColSize1.
      */
     public void setColSize1(final int v) {
+        this.modified();
         this.colSize1 = v;
     }
 
@@ -89,6 +96,7 @@ public final class ColorSpecificationTriplet extends Triplet {
      * Sets the ColSize2.
      */
     public void setColSize2(final int v) {
+        this.modified();
         this.colSize2 = v;
     }
 
@@ -103,6 +111,7 @@ public final class ColorSpecificationTriplet extends Triplet {
      * Sets the ColSize3.
      */
     public void setColSize3(final int v) {
+        this.modified();
         this.colSize3 = v;
     }
 
@@ -117,6 +126,7 @@ public final class ColorSpecificationTriplet extends Triplet {
      * Sets the ColSize4.
      */
     public void setColSize4(final int v) {
+        this.modified();
         this.colSize4 = v;
     }
 
@@ -124,6 +134,7 @@ public final class ColorSpecificationTriplet extends Triplet {
      * Returns the Color value.
      */
     public byte[] getColorValue() {
+        this.exposed();
         return this.colorValue;
     }
 
@@ -131,6 +142,7 @@ public final class ColorSpecificationTriplet extends Triplet {
      * Sets the Color value.
      */
     public void setColorValue(final byte[] colorValue) {
+        this.modified();
         this.colorValue = colorValue;
     }
 
@@ -140,7 +152,7 @@ public final class ColorSpecificationTriplet extends Triplet {
                 + "tid=0x" + Integer.toHexString(this.getTripletId())
                 + ", cs=0x" + Integer.toHexString(this.colorSpace)
                 + ", sizes=[" + this.colSize1 + "," + this.colSize2 + "," + this.colSize3 + "," + this.colSize4 + "]"
-                + ", valueBytes=" + StringUtils.toHexString(this.getColorValue())
+                + ", valueBytes=" + StringUtils.toHexString(this.colorValue)
                 + '}';
     }
 }
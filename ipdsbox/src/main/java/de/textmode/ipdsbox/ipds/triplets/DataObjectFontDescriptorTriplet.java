@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class DataObjectFontDescriptorTriplet extends Triplet {
 
@@ -16,9 +16,9 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
     private int encodingID;
 
     /**
-     * Constructs a {@link DataObjectFontDescriptorTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link DataObjectFontDescriptorTriplet} from the given {@link IpdsInputStream}.
      */
-    DataObjectFontDescriptorTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    DataObjectFontDescriptorTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.DataObjectFontDescriptor);
 
         this.fontFlags = ipds.readUnsignedByte();
@@ -31,7 +31,7 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(0x10);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.fontFlags);
@@ -43,6 +43,11 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
         out.writeInteger16(this.encodingID);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 0x10;
+    }
+
     /**
      * Returns the Font flags.
      */
@@ -54,6 +59,7 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
      * Sets the Font flags.
      */
     public void setFontFlags(final int fontFlags) {
+        this.modified();
         this.fontFlags = fontFlags;
     }
 
@@ -68,6 +74,7 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
      * Sets the Font technology.
      */
     public void setFontTechnology(final int fontTechnology) {
+        this.modified();
         this.fontTechnology = fontTechnology;
     }
 
@@ -82,6 +89,7 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
      * Sets the vertical font size.
      */
     public void setVerticalFontSize(final int verticalFontSize) {
+        this.modified();
         this.verticalFontSize = verticalFontSize;
     }
 
@@ -96,6 +104,7 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
      * Sets the Horizontal scale factor.
      */
     public void setHorizontalScaleFactor(final int horizontalScaleFactor) {
+        this.modified();
         this.horizontalScaleFactor = horizontalScaleFactor;
     }
 
@@ -110,6 +119,7 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
      * Sets the Character rotation.
      */
     public void setCharacterRotation(final int characterRotation) {
+        this.modified();
         this.characterRotation = characterRotation;
     }
 
@@ -124,6 +134,7 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
      * Sets the Encoding environment.
      */
     public void setEncodingEnvironment(final int encodingEnvironment) {
+        this.modified();
         this.encodingEnvironment = encodingEnvironment;
     }
 
@@ -138,6 +149,7 @@ public final class DataObjectFontDescriptorTriplet extends Triplet {
      * Sets the EncodingID.
      */
     public void setEncodingID(final int encodingID) {
+        this.modified();
         this.encodingID = encodingID;
     }
 
@@ -2,17 +2,17 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class DeviceAppearanceTriplet extends Triplet {
 
     private int appearance;
 
     /**
-     * Constructs a {@link DeviceAppearanceTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link DeviceAppearanceTriplet} from the given {@link IpdsInputStream}.
      */
-    DeviceAppearanceTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    DeviceAppearanceTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.DeviceAppearance);
 
         ipds.skip(1);
@@ -20,7 +20,7 @@ public final class DeviceAppearanceTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(7);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(0);
@@ -28,6 +28,11 @@ public final class DeviceAppearanceTriplet extends Triplet {
         out.writeUnsignedInteger16(0x0000);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 7;
+    }
+
     /**
      * Returns the appearance.
      */
@@ -39,6 +44,7 @@ public final class DeviceAppearanceTriplet extends Triplet {
      * Sets the appearance.
      */
     public void setAppearance(final int appearance) {
+        this.modified();
         this.appearance = appearance;
     }
 
@@ -2,17 +2,17 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class EncodingSchemeIdTriplet extends Triplet {
 
     private int dataEsId;
 
     /**
-     * Constructs a {@link EncodingSchemeIdTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link EncodingSchemeIdTriplet} from the given {@link IpdsInputStream}.
      */
-    EncodingSchemeIdTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    EncodingSchemeIdTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.EncodingSchemeID);
 
         ipds.skip(2);
@@ -20,13 +20,18 @@ public final class EncodingSchemeIdTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(6);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedInteger16(0);
         out.writeUnsignedInteger16(this.dataEsId);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 6;
+    }
+
     /**
      * Returns the Data ESID.
      */
@@ -38,6 +43,7 @@ public final class EncodingSchemeIdTriplet extends Triplet {
      * Sets the Data ESID.
      */
     public void setDataEsId(final int dataEsId) {
+        this.modified();
         this.dataEsId = dataEsId;
     }
 
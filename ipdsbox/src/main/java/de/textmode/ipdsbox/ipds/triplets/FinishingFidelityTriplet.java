@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class FinishingFidelityTriplet extends Triplet {
 
@@ -11,9 +11,9 @@ public final class FinishingFidelityTriplet extends Triplet {
     private int reportingRule;
 
     /**
-     * Constructs a {@link FinishingFidelityTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link FinishingFidelityTriplet} from the given {@link IpdsInputStream}.
      */
-    FinishingFidelityTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    FinishingFidelityTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.FinishingFidelity);
 
         this.continuationRule = ipds.readUnsignedByte();
@@ -22,7 +22,7 @@ public final class FinishingFidelityTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(7);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.continuationRule);
@@ -31,6 +31,11 @@ public final class FinishingFidelityTriplet extends Triplet {
         out.writeUnsignedInteger16(0);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 7;
+    }
+
     /**
      * Returns the Continuation Rule.
      */
@@ -42,6 +47,7 @@ public final class FinishingFidelityTriplet extends Triplet {
      * Sets the Continuation Rule.
      */
     public void setContinuationRule(final int continuationRule) {
+        this.modified();
         this.continuationRule = continuationRule;
     }
 
@@ -56,6 +62,7 @@ public final class FinishingFidelityTriplet extends Triplet {
      * Sets the Reporting Rule.
      */
     public void setReportingRule(final int reportingRule) {
+        this.modified();
         this.reportingRule = reportingRule;
     }
 
@@ -4,8 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The Finishing Operation triplet (X'85') specifies a specific finishing operation to be
@@ -36,9 +36,9 @@ public final class FinishingOperationTriplet extends Triplet {
     }
 
     /**
-     * Constructs a {@link FinishingOperationTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link FinishingOperationTriplet} from the given {@link IpdsInputStream}.
      */
-    public FinishingOperationTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    public FinishingOperationTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.FinishingOperation);
 
         this.operationType = ipds.readUnsignedByte();
@@ -55,7 +55,7 @@ public final class FinishingOperationTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(0x09 + (this.positions.size() * 2));
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.getOperationType());
@@ -70,6 +70,11 @@ public final class FinishingOperationTriplet extends Triplet {
         }
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 0x09 + (this.positions.size() * 2);
+    }
+
     /**
      * Returns the type of the finishing operation.
      */
@@ -110,7 +115,7 @@ public final class FinishingOperationTriplet extends Triplet {
      * Returns a list of finishing operation positions (the list may be empty).
      */
     public List<Integer> getPositions() {
-        return this.positions;
+        return this.tracked(this.positions);
     }
 
     @Override
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Represents the Font Resolution and Metric Technology (X'84') triplet.
@@ -17,9 +17,9 @@ public final class FontResolutionAndMetricTechnologyTriplet extends Triplet {
     private int yUnitsPerUnitBase;
 
     /**
-     * Constructs a {@link FontResolutionAndMetricTechnologyTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link FontResolutionAndMetricTechnologyTriplet} from the given {@link IpdsInputStream}.
      */
-    FontResolutionAndMetricTechnologyTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    FontResolutionAndMetricTechnologyTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.FontResolutionandMetricTechnology);
 
         this.metricTechnology = ipds.readUnsignedByte();
@@ -34,7 +34,7 @@ public final class FontResolutionAndMetricTechnologyTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(8);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.metricTechnology);
@@ -43,6 +43,11 @@ public final class FontResolutionAndMetricTechnologyTriplet extends Triplet {
         out.writeUnsignedInteger16(this.yUnitsPerUnitBase);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 8;
+    }
+
     /**
      * Returns the Metric technology.
      */
@@ -54,6 +59,7 @@ public final class FontResolutionAndMetricTechnologyTriplet extends Triplet {
      * Sets the Metric technology.
      */
     public void setMetricTechnology(final int metricTechnology) {
+        this.modified();
         this.metricTechnology = metricTechnology;
     }
 
@@ -68,6 +74,7 @@ public final class FontResolutionAndMetricTechnologyTriplet extends Triplet {
      * Sets the Unit base.
      */
     public void setUnitBase(final int unitBase) {
+        this.modified();
         this.unitBase = unitBase;
     }
 
@@ -82,6 +89,7 @@ public final class FontResolutionAndMetricTechnologyTriplet extends Triplet {
      * Sets the X units per unit base.
      */
     public void setXUnitsPerUnitBase(final int xUnitsPerUnitBase) {
+        this.modified();
         this.xUnitsPerUnitBase = xUnitsPerUnitBase;
     }
 
@@ -96,6 +104,7 @@ public final class FontResolutionAndMetricTechnologyTriplet extends Triplet {
      * Sets the Y units per unit base.
      */
     public void setYUnitsPerUnitBase(final int yUnitsPerUnitBase) {
+        this.modified();
         this.yUnitsPerUnitBase = yUnitsPerUnitBase;
     }
 
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class FullyQualifiedNameTriplet extends Triplet {
 
@@ -13,9 +13,9 @@ public final class FullyQualifiedNameTriplet extends Triplet {
 
 
     /**
-     * Constructs a {@link FullyQualifiedNameTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link FullyQualifiedNameTriplet} from the given {@link IpdsInputStream}.
      */
-    FullyQualifiedNameTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    FullyQualifiedNameTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.FullyQualifiedName);
 
         this.fqnType = ipds.readUnsignedByte();
@@ -28,7 +28,7 @@ public final class FullyQualifiedNameTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(4 + this.fqn.length);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.fqnType);
@@ -36,6 +36,11 @@ public final class FullyQualifiedNameTriplet extends Triplet {
         out.writeBytes(this.fqn);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 4 + this.fqn.length;
+    }
+
     /**
      * Returns the FQN type.
      */
@@ -47,6 +52,7 @@ public final class FullyQualifiedNameTriplet extends Triplet {
      * Sets the FQN type.
      */
     public void setFqnType(final int fqnType) {
+        this.modified();
         this.fqnType = fqnType;
     }
 
@@ -61,6 +67,7 @@ public final class FullyQualifiedNameTriplet extends Triplet {
      * Sets the FQN format.
      */
     public void setFqnFormat(final int fqnFormat) {
+        this.modified();
         this.fqnFormat = fqnFormat;
     }
 
@@ -68,6 +75,7 @@ public final class FullyQualifiedNameTriplet extends Triplet {
      * Returns the FQN.
      */
     public byte[] getFqn() {
+        this.exposed();
         return this.fqn;
     }
 
@@ -75,6 +83,7 @@ public final class FullyQualifiedNameTriplet extends Triplet {
      * Sets the FQN.
      */
     public void setFqn(final byte[] fqn) {
+        this.modified();
         this.fqn = fqn;
     }
 
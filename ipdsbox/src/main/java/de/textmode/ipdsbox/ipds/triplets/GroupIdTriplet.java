@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.group.AixAndOs2ComDataFormat;
 import de.textmode.ipdsbox.ipds.triplets.group.AixAndWindowsPrintDataFormat;
 import de.textmode.ipdsbox.ipds.triplets.group.ExtendedOs400PrintDataFormat;
@@ -34,9 +34,9 @@ public final class GroupIdTriplet extends Triplet {
     }
 
     /**
-     * Constructs a {@link GroupIdTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link GroupIdTriplet} from the given {@link IpdsInputStream}.
      */
-    GroupIdTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    GroupIdTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.GroupID);
 
         if (ipds.bytesAvailable() >= 1) {
@@ -59,6 +59,7 @@ public final class GroupIdTriplet extends Triplet {
      * Sets the format or -1 if no format shoule be set in this triplet.
      */
     public void setFormat(final int format) {
+        this.modified();
         this.format = format;
     }
 
@@ -67,6 +68,7 @@ public final class GroupIdTriplet extends Triplet {
      * {@link GroupIdTriplet} does not contain grouping information.
      */
     public GroupIdData getGroupIdData() {
+        this.exposed();
         return this.data;
     }
 
@@ -75,10 +77,11 @@ public final class GroupIdTriplet extends Triplet {
      * {@link GroupIdTriplet} does not contain grouping information.
      */
     public void setGroupInformationDataIfExist(final GroupIdData data) {
+        this.modified();
         this.data = data;
     }
 
-    private GroupIdData parseFormatData(final IpdsByteArrayInputStream ipds) throws IOException {
+    private GroupIdData parseFormatData(final IpdsInputStream ipds) throws IOException {
         return switch (this.format) {
             case 0x01 -> new MvsAndVsePrintDataFormat(ipds);
             case 0x02 -> new VmPrintDataFormat(ipds);
@@ -93,7 +96,7 @@ public final class GroupIdTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         final byte[] dataBytes = this.data == null ? null : this.data.toByteArray();
 
         final int len = 2 + (this.format == -1 ? 0 : 1) + (dataBytes == null ? 0 : dataBytes.length);
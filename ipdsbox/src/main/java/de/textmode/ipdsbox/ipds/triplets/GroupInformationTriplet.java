@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.group.AdditionalInformationFormat;
 import de.textmode.ipdsbox.ipds.triplets.group.CopySetNumberFormat;
 import de.textmode.ipdsbox.ipds.triplets.group.ExtendedCopySetNumberFormat;
@@ -22,9 +22,9 @@ public final class GroupInformationTriplet extends Triplet {
     private GroupInformationData data;
 
     /**
-     * Constructs a {@link GroupInformationTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link GroupInformationTriplet} from the given {@link IpdsInputStream}.
      */
-    GroupInformationTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    GroupInformationTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.GroupInformation);
 
         if (ipds.bytesAvailable() >= 1) {
@@ -37,7 +37,7 @@ public final class GroupInformationTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         final byte[] dataBytes = this.data == null ? null : this.data.toByteArray();
 
         final int len = 2 + (this.format == -1 ? 0 : 1) + (dataBytes == null ? 0 : dataBytes.length);
@@ -65,6 +65,7 @@ public final class GroupInformationTriplet extends Triplet {
      * Sets the format or -1 if no format shoule be set in this triplet.
      */
     public void setFormat(final int format) {
+        this.modified();
         this.format = format;
     }
 
@@ -75,6 +76,7 @@ public final class GroupInformationTriplet extends Triplet {
      * {@link GroupInformationTriplet} does not contain grouping information.
      */
     public GroupInformationData getGroupInformationDataIfExist() {
+        this.exposed();
         return this.data;
     }
 
@@ -83,10 +85,11 @@ public final class GroupInformationTriplet extends Triplet {
      * {@link GroupInformationTriplet} does not contain grouping information.
      */
     public void setGroupInformationDataIfExist(final GroupInformationData data) {
+        this.modified();
         this.data = data;
     }
 
-    private GroupInformationData parseFormatData(final IpdsByteArrayInputStream ipds) throws IOException {
+    private GroupInformationData parseFormatData(final IpdsInputStream ipds) throws IOException {
         return switch (this.format) {
             case 0x01 -> new MicrofilmSaveRestoreFormat(ipds);
             case 0x02 -> new CopySetNumberFormat(ipds);
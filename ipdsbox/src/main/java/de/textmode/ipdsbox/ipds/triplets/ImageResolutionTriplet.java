@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class ImageResolutionTriplet extends Triplet {
 
@@ -13,9 +13,9 @@ public final class ImageResolutionTriplet extends Triplet {
     private int yupub;
 
     /**
-     * Constructs a {@link ImageResolutionTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link ImageResolutionTriplet} from the given {@link IpdsInputStream}.
      */
-    ImageResolutionTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    ImageResolutionTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.ImageResolution);
 
         ipds.skip(2);
@@ -26,7 +26,7 @@ public final class ImageResolutionTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(0x0A);
         out.writeUnsignedByte(this.getTripletId());
 
@@ -37,6 +37,11 @@ public final class ImageResolutionTriplet extends Triplet {
         out.writeUnsignedInteger16(this.yupub);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 0x0A;
+    }
+
     /**
      * Returns the X unit base.
      */
@@ -48,6 +53,7 @@ public final class ImageResolutionTriplet extends Triplet {
      * Sets the X unit base.
      */
     public void setXUnitBase(final int xUnitBase) {
+        this.modified();
         this.xUnitBase = xUnitBase;
     }
 
@@ -62,6 +68,7 @@ public final class ImageResolutionTriplet extends Triplet {
      * Sets the Y unit base.
      */
     public void setYUnitBase(final int yUnitBase) {
+        this.modified();
         this.yUnitBase = yUnitBase;
     }
 
@@ -76,6 +83,7 @@ public final class ImageResolutionTriplet extends Triplet {
      * Sets the XUPUB.
      */
     public void setXupub(final int xupub) {
+        this.modified();
         this.xupub = xupub;
     }
 
@@ -90,6 +98,7 @@ public final class ImageResolutionTriplet extends Triplet {
      * Sets the YUPUB.
      */
     public void setYupub(final int yupub) {
+        this.modified();
         this.yupub = yupub;
     }
 
@@ -2,28 +2,33 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class InvokeCmrTriplet extends Triplet {
 
     private int hostAssignedId;
 
     /**
-     * Constructs a {@link InvokeCmrTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link InvokeCmrTriplet} from the given {@link IpdsInputStream}.
      */
-    InvokeCmrTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    InvokeCmrTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.LinkedFont);
         this.hostAssignedId = ipds.readUnsignedInteger16();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(4);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedInteger16(this.hostAssignedId);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 4;
+    }
+
     /**
      * Returns the host assigned ID.
      */
@@ -35,6 +40,7 @@ public final class InvokeCmrTriplet extends Triplet {
      * Sets the host assigned ID.
      */
     public void setHostAssignedId(final int hostAssignedId) {
+        this.modified();
         this.hostAssignedId = hostAssignedId;
     }
 
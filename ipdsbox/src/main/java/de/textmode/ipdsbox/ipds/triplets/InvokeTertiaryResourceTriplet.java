@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class InvokeTertiaryResourceTriplet extends Triplet {
 
@@ -13,9 +13,9 @@ public final class InvokeTertiaryResourceTriplet extends Triplet {
     private int internalResourceId;
 
     /**
-     * Constructs a {@link InvokeTertiaryResourceTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link InvokeTertiaryResourceTriplet} from the given {@link IpdsInputStream}.
      */
-    InvokeTertiaryResourceTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    InvokeTertiaryResourceTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.InvokeTertiaryResource);
 
         this.tertiaryResourceType = ipds.readUnsignedByte();
@@ -30,7 +30,7 @@ public final class InvokeTertiaryResourceTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(12);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.tertiaryResourceType);
@@ -40,6 +40,11 @@ public final class InvokeTertiaryResourceTriplet extends Triplet {
         out.writeUnsignedInteger16(this.internalResourceId);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 12;
+    }
+
     /**
      * Returns the host assigned ID.
      */
@@ -51,6 +56,7 @@ public final class InvokeTertiaryResourceTriplet extends Triplet {
      * Sets the host assigned ID.
      */
     public void setHostAssignedId(final int hostAssignedId) {
+        this.modified();
         this.hostAssignedId = hostAssignedId;
     }
 
@@ -65,6 +71,7 @@ public final class InvokeTertiaryResourceTriplet extends Triplet {
      * Sets the tertiary resource type.
      */
     public void setTertiaryResourceType(final int tertiaryResourceType) {
+        this.modified();
         this.tertiaryResourceType = tertiaryResourceType;
     }
 
@@ -79,6 +86,7 @@ public final class InvokeTertiaryResourceTriplet extends Triplet {
      * Sets the ID type.
      */
     public void setIdType(final int idType) {
+        this.modified();
         this.idType = idType;
     }
 
@@ -93,6 +101,7 @@ public final class InvokeTertiaryResourceTriplet extends Triplet {
      * Sets the internal resource ID.
      */
     public void setInternalResourceId(final int internalResourceId) {
+        this.modified();
         this.internalResourceId = internalResourceId;
     }
 
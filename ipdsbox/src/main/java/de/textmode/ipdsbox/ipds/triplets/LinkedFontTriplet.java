@@ -5,8 +5,8 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class LinkedFontTriplet extends Triplet {
 
@@ -18,9 +18,9 @@ public final class LinkedFontTriplet extends Triplet {
     private String fullFontName;
 
     /**
-     * Constructs a {@link LinkedFontTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link LinkedFontTriplet} from the given {@link IpdsInputStream}.
      */
-    LinkedFontTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    LinkedFontTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.LinkedFont);
 
         this.hostAssignedId = ipds.readUnsignedInteger16();
@@ -39,7 +39,7 @@ public final class LinkedFontTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
 
         final byte[] encodedFontName =  this.fullFontName == null
                 ? null
@@ -67,6 +67,20 @@ public final class LinkedFontTriplet extends Triplet {
         }
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        if (this.fontIdType == 0x00) {
+            return 4;
+        } else if (this.fontIdType == 0x01) {
+            return 6;
+        } else if (this.fontIdType == 0x02) {
+            // UTF-16BE encodes every char in two bytes...
+            return 4 + (this.fullFontName == null ? 0 : this.fullFontName.length() * 2);
+        } else {
+            return 3;
+        }
+    }
+
     /**
      * Returns the host assigned ID.
      */
@@ -78,6 +92,7 @@ public final class LinkedFontTriplet extends Triplet {
      * Sets the host assigned ID.
      */
     public void setHostAssignedId(final int hostAssignedId) {
+        this.modified();
         this.hostAssignedId = hostAssignedId;
     }
 
@@ -92,6 +107,7 @@ public final class LinkedFontTriplet extends Triplet {
      * Sets the font ID type.
      */
     public void setFontIdType(final int fontIdType) {
+        this.modified();
         this.fontIdType = fontIdType;
     }
 
@@ -106,6 +122,7 @@ public final class LinkedFontTriplet extends Triplet {
      * Sets the font index.
      */
     public void setFontIndex(final int fontIndex) {
+        this.modified();
         this.fontIndex = fontIndex;
     }
 
@@ -120,6 +137,7 @@ public final class LinkedFontTriplet extends Triplet {
      * Sets the full font name.
      */
     public void setFullFontName(final String fullFontName) {
+        this.modified();
         this.fullFontName = fullFontName;
     }
 
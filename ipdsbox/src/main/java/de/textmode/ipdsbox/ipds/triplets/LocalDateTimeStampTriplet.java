@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class LocalDateTimeStampTriplet extends Triplet {
 
@@ -17,9 +17,9 @@ public final class LocalDateTimeStampTriplet extends Triplet {
     private String hundredth;
 
     /**
-     * Constructs a {@link LocalDateTimeStampTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link LocalDateTimeStampTriplet} from the given {@link IpdsInputStream}.
      */
-    LocalDateTimeStampTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    LocalDateTimeStampTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.LocalDateandTimeStamp);
 
         this.stampType = ipds.readUnsignedByte();
@@ -33,7 +33,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(0x11);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.stampType);
@@ -46,6 +46,11 @@ public final class LocalDateTimeStampTriplet extends Triplet {
         out.writeEbcdicString(this.hundredth, 2);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 0x11;
+    }
+
     /**
      * Returns the StampType.
      */
@@ -57,6 +62,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
      * Sets the StampType.
      */
     public void setStampType(final int stampType) {
+        this.modified();
         this.stampType = stampType;
     }
 
@@ -71,6 +77,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
      * Sets the Year (part 1).
      */
     public void setYearPart1(final String yearPart1) {
+        this.modified();
         this.yearPart1 = yearPart1;
     }
 
@@ -85,6 +92,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
      * Sets the Year (part 2).
      */
     public void setYearPart2(final String yearPart2) {
+        this.modified();
         this.yearPart2 = yearPart2;
     }
 
@@ -99,6 +107,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
      * Sets the Day.
      */
     public void setDay(final String day) {
+        this.modified();
         this.day = day;
     }
 
@@ -113,6 +122,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
      * Sets the Hour.
      */
     public void setHour(final String hour) {
+        this.modified();
         this.hour = hour;
     }
 
@@ -127,6 +137,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
      * Sets the Minute.
      */
     public void setMinute(final String minute) {
+        this.modified();
         this.minute = minute;
     }
 
@@ -141,6 +152,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
      * Sets the Second.
      */
     public void setSecond(final String second) {
+        this.modified();
         this.second = second;
     }
 
@@ -155,6 +167,7 @@ public final class LocalDateTimeStampTriplet extends Triplet {
      * Sets the Hundredth.
      */
     public void setHundredth(final String hundredth) {
+        this.modified();
         this.hundredth = hundredth;
     }
 
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class MetricAdjustmentTriplet extends Triplet {
 
@@ -16,9 +16,9 @@ public final class MetricAdjustmentTriplet extends Triplet {
     private int vBaselineAdjustment;
 
     /**
-     * Constructs a {@link MetricAdjustmentTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link MetricAdjustmentTriplet} from the given {@link IpdsInputStream}.
      */
-    MetricAdjustmentTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    MetricAdjustmentTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.MetricAdjustment);
 
         this.unitBase = ipds.readUnsignedByte();
@@ -31,7 +31,7 @@ public final class MetricAdjustmentTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(0x0F);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.unitBase);
@@ -43,6 +43,11 @@ public final class MetricAdjustmentTriplet extends Triplet {
         out.writeInteger16(this.vBaselineAdjustment);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 0x0F;
+    }
+
     /**
      * Returns the Unit base.
      */
@@ -54,6 +59,7 @@ public final class MetricAdjustmentTriplet extends Triplet {
      * Sets the Unit base.
      */
     public void setUnitBase(final int v) {
+        this.modified();
         this.unitBase = v;
     }
 
@@ -68,6 +74,7 @@ public final class MetricAdjustmentTriplet extends Triplet {
      * Sets the XUPUB.
      */
     public void setXupub(final int v) {
+        this.modified();
         this.xupub = v;
     }
 
@@ -82,6 +89,7 @@ public final class MetricAdjustmentTriplet extends Triplet {
      * Sets the YUPUB.
      */
     public void setYupub(final int v) {
+        this.modified();
         this.yupub = v;
     }
 
@@ -96,6 +104,7 @@ public final class MetricAdjustmentTriplet extends Triplet {
      * Sets the H uniform increment.
      */
     public void setHUniformIncrement(final int v) {
+        this.modified();
         this.hUniformIncrement = v;
     }
 
@@ -110,6 +119,7 @@ public final class MetricAdjustmentTriplet extends Triplet {
      * Sets the V uniform increment.
      */
     public void setVUniformIncrement(final int v) {
+        this.modified();
         this.vUniformIncrement = v;
     }
 
@@ -124,6 +134,7 @@ public final class MetricAdjustmentTriplet extends Triplet {
      * Sets the H baseline adjustment.
      */
     public void setHBaselineAdjustment(final int v) {
+        this.modified();
         this.hBaselineAdjustment = v;
     }
 
@@ -138,6 +149,7 @@ public final class MetricAdjustmentTriplet extends Triplet {
      * Sets the V baseline adjustment.
      */
     public void setVBaselineAdjustment(final int v) {
+        this.modified();
         this.vBaselineAdjustment = v;
     }
 
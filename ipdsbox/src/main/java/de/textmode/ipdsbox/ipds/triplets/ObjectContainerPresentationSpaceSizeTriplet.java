@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
 
@@ -16,9 +16,9 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
     private int yocExtent;
 
     /**
-     * Constructs a {@link ObjectContainerPresentationSpaceSizeTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link ObjectContainerPresentationSpaceSizeTriplet} from the given {@link IpdsInputStream}.
      */
-    ObjectContainerPresentationSpaceSizeTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    ObjectContainerPresentationSpaceSizeTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.ObjectContainerPresentationSpaceSize);
 
         ipds.skip(2);
@@ -42,7 +42,7 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         if (this.xupub != 0 && this.yupub != 0 && this.xocExtent != 0 && this.yocExtent != 0) {
             out.writeUnsignedByte(0x11);
             out.writeUnsignedByte(this.getTripletId());
@@ -62,6 +62,11 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
         }
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return this.xupub != 0 && this.yupub != 0 && this.xocExtent != 0 && this.yocExtent != 0 ? 0x11 : 0x05;
+    }
+
     /**
      * Returns the PDF Presentation space size.
      */
@@ -73,6 +78,7 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
      * Sets the PDF Presentation space size.
      */
     public void setPdfPresentationSpaceSize(final int pdfPresentationSpaceSize) {
+        this.modified();
         this.pdfPresentationSpaceSize = pdfPresentationSpaceSize;
     }
 
@@ -87,6 +93,7 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
      * Sets the X unit base.
      */
     public void setXUnitBase(final int xUnitBase) {
+        this.modified();
         this.xUnitBase = xUnitBase;
     }
 
@@ -101,6 +108,7 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
      * Sets the Y unit base.
      */
     public void setYUnitBase(final int yUnitBase) {
+        this.modified();
         this.yUnitBase = yUnitBase;
     }
 
@@ -115,6 +123,7 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
      * Sets the XUPUB.
      */
     public void setXupub(final int v) {
+        this.modified();
         this.xupub = v;
     }
 
@@ -129,6 +138,7 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
      * Sets the YUPUB.
      */
     public void setYupub(final int yupub) {
+        this.modified();
         this.yupub = yupub;
     }
 
@@ -143,6 +153,7 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
      * Sets the Xoc extent.
      */
     public void setXocExtent(final int xocExtent) {
+        this.modified();
         this.xocExtent = xocExtent;
     }
 
@@ -157,6 +168,7 @@ public final class ObjectContainerPresentationSpaceSizeTriplet extends Triplet {
      * Sets the Yoc extent.
      */
     public void setYocExtent(final int yocExtent) {
+        this.modified();
         this.yocExtent = yocExtent;
     }
 
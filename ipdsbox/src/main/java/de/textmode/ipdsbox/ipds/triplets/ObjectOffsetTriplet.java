@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class ObjectOffsetTriplet extends Triplet {
 
@@ -12,9 +12,9 @@ public final class ObjectOffsetTriplet extends Triplet {
 
 
     /**
-     * Constructs a {@link ObjectOffsetTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link ObjectOffsetTriplet} from the given {@link IpdsInputStream}.
      */
-    ObjectOffsetTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    ObjectOffsetTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.ObjectOffset);
 
         this.objectType = ipds.readUnsignedByte();
@@ -23,7 +23,7 @@ public final class ObjectOffsetTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(8);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.objectType);
@@ -31,6 +31,11 @@ public final class ObjectOffsetTriplet extends Triplet {
         out.writeUnsignedInteger32(this.objectOffset);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 8;
+    }
+
     /**
      * Returns the Object type.
      */
@@ -42,6 +47,7 @@ public final class ObjectOffsetTriplet extends Triplet {
      * Sets the Object type.
      */
     public void setObjectType(final int objectType) {
+        this.modified();
         this.objectType = objectType;
     }
 
@@ -56,6 +62,7 @@ public final class ObjectOffsetTriplet extends Triplet {
      * Sets the Object offset.
      */
     public void setObjectOffset(final long objectOffset) {
+        this.modified();
         this.objectOffset = objectOffset;
     }
 
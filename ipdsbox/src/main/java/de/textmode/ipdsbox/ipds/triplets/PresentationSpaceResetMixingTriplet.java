@@ -2,29 +2,34 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class PresentationSpaceResetMixingTriplet extends Triplet {
 
     private int mixingFlags;
 
     /**
-     * Constructs a {@link PresentationSpaceResetMixingTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link PresentationSpaceResetMixingTriplet} from the given {@link IpdsInputStream}.
      */
-    PresentationSpaceResetMixingTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    PresentationSpaceResetMixingTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.PresentationSpaceResetMixing);
 
         this.mixingFlags = ipds.readUnsignedByte();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(3);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.mixingFlags);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 3;
+    }
+
     /**
      * Returns the Mixing flags.
      */
@@ -36,6 +41,7 @@ public final class PresentationSpaceResetMixingTriplet extends Triplet {
      * Sets the Mixing flags.
      */
     public void setMixingFlags(final int mixingFlags) {
+        this.modified();
         this.mixingFlags = mixingFlags;
     }
 
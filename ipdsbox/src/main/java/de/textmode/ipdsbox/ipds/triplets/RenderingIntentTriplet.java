@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class RenderingIntentTriplet extends Triplet {
 
@@ -13,9 +13,9 @@ public final class RenderingIntentTriplet extends Triplet {
     private int goca;
 
     /**
-     * Constructs a {@link RenderingIntentTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link RenderingIntentTriplet} from the given {@link IpdsInputStream}.
      */
-    RenderingIntentTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    RenderingIntentTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.RenderingIntent);
 
         ipds.skip(2);
@@ -26,7 +26,7 @@ public final class RenderingIntentTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(0x0A);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedInteger16(0x0000);
@@ -37,6 +37,11 @@ public final class RenderingIntentTriplet extends Triplet {
         out.writeUnsignedInteger16(0x0000);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 0x0A;
+    }
+
     /**
      * Returns the IOCA.
      */
@@ -48,6 +53,7 @@ public final class RenderingIntentTriplet extends Triplet {
      * Sets the IOCA.
      */
     public void setIOCA(final int ioca) {
+        this.modified();
         this.ioca = ioca;
     }
 
@@ -62,6 +68,7 @@ public final class RenderingIntentTriplet extends Triplet {
      * Sets the Object container.
      */
     public void setObjectContainer(final int objectContainer) {
+        this.modified();
         this.objectContainer = objectContainer;
     }
 
@@ -78,6 +85,7 @@ public final class RenderingIntentTriplet extends Triplet {
      */
     @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
     public void setPTOCA(final int ptoca) {
+        this.modified();
         this.ptoca = ptoca;
     }
 
@@ -94,6 +102,7 @@ public final class RenderingIntentTriplet extends Triplet {
      */
     @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
     public void setGOCA(final int goca) {
+        this.modified();
         this.goca = goca;
     }
 
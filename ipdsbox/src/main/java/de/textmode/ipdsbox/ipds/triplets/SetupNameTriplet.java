@@ -5,8 +5,8 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class SetupNameTriplet extends Triplet {
 
@@ -15,9 +15,9 @@ public final class SetupNameTriplet extends Triplet {
     private String setupName;
 
     /**
-     * Constructs a {@link SetupNameTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link SetupNameTriplet} from the given {@link IpdsInputStream}.
      */
-    SetupNameTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    SetupNameTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.SetupName);
 
         ipds.skip(2);
@@ -25,7 +25,7 @@ public final class SetupNameTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         final byte[] encodedName = UTF16BE.encode(CharBuffer.wrap(this.setupName)).array();
         final int encodedFontNameLen = encodedName.length;
 
@@ -35,6 +35,12 @@ public final class SetupNameTriplet extends Triplet {
         out.writeBytes(encodedName);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        // UTF-16BE encodes every char in two bytes...
+        return 4 + this.setupName.length() * 2;
+    }
+
     /**
      * Returns the setup name.
      */
@@ -46,6 +52,7 @@ public final class SetupNameTriplet extends Triplet {
      * Sets the setup name.
      */
     public void setSetupName(final String setupName) {
+        this.modified();
         this.setupName = setupName;
     }
 
@@ -2,17 +2,17 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 public final class TonerSaverTriplet extends Triplet {
 
     private int control;
 
     /**
-     * Constructs a {@link TonerSaverTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link TonerSaverTriplet} from the given {@link IpdsInputStream}.
      */
-    TonerSaverTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    TonerSaverTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.TonerSaver);
 
         ipds.skip(1);
@@ -20,7 +20,7 @@ public final class TonerSaverTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(6);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(0);
@@ -28,6 +28,11 @@ public final class TonerSaverTriplet extends Triplet {
         out.writeUnsignedInteger16(0);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 6;
+    }
+
     /**
      * Returns the Control.
      */
@@ -39,6 +44,7 @@ public final class TonerSaverTriplet extends Triplet {
      * Sets the Control.
      */
     public void setControl(final int control) {
+        this.modified();
         this.control = control;
     }
 
@@ -1,8 +1,11 @@
 package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
+import java.util.List;
 
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Triplets are variable-length substructures that can be used within one or more IPDS commands to provide
@@ -13,6 +16,8 @@ public abstract class Triplet {
 
     private final int tripletId;
 
+    private final IpdsEncodingCache encoding = new IpdsEncodingCache();
+
     /**
      * Constructs a new {@link Triplet}.
      */
@@ -35,7 +40,114 @@ public abstract class Triplet {
     }
 
     /**
-     * Writes this {@link Triplet} to the given {@link IpdsByteArrayOutputStream}.
+     * Writes this {@link Triplet} to the given {@link IpdsByteArrayOutputStream}. If the encoded form of the
+     * {@link Triplet} is known (i. e. the {@link Triplet} has been decoded and has not been modified since
+     * or it has already been encoded), the encoded form is copied as-is.
+     */
+    public final void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+        this.encoding.writeTo(out, this::encodeTo);
+    }
+
+    /**
+     * Encodes this {@link Triplet} and writes it to the given {@link IpdsByteArrayOutputStream}.
+     */
+    protected abstract void encodeTo(IpdsByteArrayOutputStream out) throws IOException;
+
+    /**
+     * Returns the number of bytes written by {@link #writeTo(IpdsByteArrayOutputStream)}.
+     */
+    public final int getEncodedLength() throws IOException {
+        return this.encoding.isValid() ? this.encoding.getLength() : this.computeEncodedLength();
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #encodeTo(IpdsByteArrayOutputStream)}.
+     *
+     * <p>The default implementation writes the {@link Triplet} to a length counter. Subclasses should override
+     * this method and compute the length directly.
+     */
+    protected int computeEncodedLength() throws IOException {
+        final IpdsByteArrayOutputStream counter = IpdsByteArrayOutputStream.createLengthCounter();
+        this.encodeTo(counter);
+        return counter.getSize();
+    }
+
+    /**
+     * Returns <code>true</code> if the encoded form of the {@link Triplet} is known, so
+     * {@link #writeTo(IpdsByteArrayOutputStream)} copies it instead of encoding the {@link Triplet}.
+     */
+    public final boolean isEncodingCached() {
+        return this.encoding.isValid();
+    }
+
+    /**
+     * Sets the original encoded form of a decoded {@link Triplet}. The given view is kept (the bytes are not copied),
+     * so its underlying data must not be modified as long as the {@link Triplet} is used.
+     */
+    final void setOriginalEncoding(final IpdsInputStream original) {
+        this.encoding.setOriginal(original);
+    }
+
+    /**
+     * Discards the encoded form of the {@link Triplet}. Must be called by every method that modifies the
+     * {@link Triplet}.
+     */
+    protected final void modified() {
+        this.encoding.modified();
+    }
+
+    /**
+     * Discards the encoded form of the {@link Triplet} for good, so it is encoded by every
+     * {@link #writeTo(IpdsByteArrayOutputStream)}. Must be called by every method that returns a mutable part of
+     * the {@link Triplet} whose modifications can not be tracked (i. e. a byte array), because the caller may
+     * modify it at any time.
+     */
+    protected final void exposed() {
+        this.encoding.exposed();
+    }
+
+    /**
+     * Returns a view of the given {@link List} that discards the encoded form of the {@link Triplet} whenever an
+     * element is added, removed or replaced. Must be used by every method that returns a {@link List} of the
+     * {@link Triplet}.
      */
-    public abstract void writeTo(IpdsByteArrayOutputStream out) throws IOException;
+    protected final <T> List<T> tracked(final List<T> list) {
+        return this.encoding.track(list);
+    }
+
+    /**
+     * Returns <code>true</code> if the {@link Triplet} has not been modified since the encoded form of the given
+     * {@link IpdsEncodingCache} (the one of the containing IPDS structure) has been cached.
+     */
+    public final boolean isUnmodifiedSince(final IpdsEncodingCache container) {
+        return this.encoding.isUnmodifiedSince(container);
+    }
+
+    /**
+     * Returns <code>true</code> if none of the given {@link Triplet}s has been modified since the encoded form of
+     * the given {@link IpdsEncodingCache} (the one of the containing IPDS structure) has been cached.
+     */
+    public static boolean isUnmodifiedSince(
+            final List<? extends Triplet> triplets,
+            final IpdsEncodingCache container) {
+
+        for (final Triplet triplet : triplets) {
+            if (!triplet.isUnmodifiedSince(container)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #writeTo(IpdsByteArrayOutputStream)} for all given
+     * {@link Triplet}s.
+     */
+    public static int getEncodedLength(final List<? extends Triplet> triplets) throws IOException {
+        int length = 0;
+        for (final Triplet triplet : triplets) {
+            length += triplet.getEncodedLength();
+        }
+        return length;
+    }
 }
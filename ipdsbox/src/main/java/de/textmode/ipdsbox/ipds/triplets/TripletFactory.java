@@ -2,13 +2,85 @@ package de.textmode.ipdsbox.ipds.triplets;
 
 import java.io.IOException;
 
+import de.textmode.ipdsbox.core.Decoder;
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.DecoderRegistry;
+import de.textmode.ipdsbox.core.DecoderTable;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
 import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * A factory for all supported {@link Triplet}s.
+ *
+ * <p>The {@link Triplet}s are decoded by the {@link Decoder}s of a {@link DecoderTable}. The {@link DecoderTable}
+ * of all {@link Triplet}s supported by ipdsbox is returned by {@link #getDefaultDecoders()}. Own {@link Decoder}s
+ * (i. e. for vendor-specific triplets) can be added with {@link DecoderTable#toRegistry()} and used by a
+ * {@link DecoderContext} (see {@link #create(IpdsInputStream, DecoderContext)}), which is passed to the triplets
+ * carried by IPDS commands, orders and self-defining fields as well.
  */
 public final class TripletFactory {
 
+    private static final DecoderTable<Triplet> DEFAULT_DECODERS =
+        new DecoderRegistry<Triplet>(0, (ipds, code, context) -> new UnknownTriplet(ipds, code))
+            .register(TripletId.CMRTagFidelity.getId(),
+                    (ipds, code, context) -> new CmrTagFidelityTriplet(ipds))
+            .register(TripletId.CodedGraphicCharacterSetGlobalIdentifier.getId(),
+                    (ipds, code, context) -> new CodedGraphicCharacterSetGlobalIdentifierTriplet(ipds))
+            .register(TripletId.ColorFidelity.getId(),
+                    (ipds, code, context) -> new ColorFidelityTriplet(ipds))
+            .register(TripletId.ColorManagementResourceDescriptor.getId(),
+                    (ipds, code, context) -> new ColorManagementResourceDescriptorTriplet(ipds))
+            .register(TripletId.ColorSpecification.getId(),
+                    (ipds, code, context) -> new ColorSpecificationTriplet(ipds))
+            .register(TripletId.DataObjectFontDescriptor.getId(),
+                    (ipds, code, context) -> new DataObjectFontDescriptorTriplet(ipds))
+            .register(TripletId.DeviceAppearance.getId(),
+                    (ipds, code, context) -> new DeviceAppearanceTriplet(ipds))
+            .register(TripletId.EncodingSchemeID.getId(),
+                    (ipds, code, context) -> new EncodingSchemeIdTriplet(ipds))
+            .register(TripletId.FinishingFidelity.getId(),
+                    (ipds, code, context) -> new FinishingFidelityTriplet(ipds))
+            .register(TripletId.FinishingOperation.getId(),
+                    (ipds, code, context) -> new FinishingOperationTriplet(ipds))
+            .register(TripletId.FontResolutionandMetricTechnology.getId(),
+                    (ipds, code, context) -> new FontResolutionAndMetricTechnologyTriplet(ipds))
+            .register(TripletId.FullyQualifiedName.getId(),
+                    (ipds, code, context) -> new FullyQualifiedNameTriplet(ipds))
+            .register(TripletId.GroupID.getId(),
+                    (ipds, code, context) -> new GroupIdTriplet(ipds))
+            .register(TripletId.GroupInformation.getId(),
+                    (ipds, code, context) -> new GroupInformationTriplet(ipds))
+            .register(TripletId.ImageResolution.getId(),
+                    (ipds, code, context) -> new ImageResolutionTriplet(ipds))
+            .register(TripletId.InvokeCMR.getId(),
+                    (ipds, code, context) -> new InvokeCmrTriplet(ipds))
+            .register(TripletId.InvokeTertiaryResource.getId(),
+                    (ipds, code, context) -> new InvokeTertiaryResourceTriplet(ipds))
+            .register(TripletId.LinkedFont.getId(),
+                    (ipds, code, context) -> new LinkedFontTriplet(ipds))
+            .register(TripletId.LocalDateandTimeStamp.getId(),
+                    (ipds, code, context) -> new LocalDateTimeStampTriplet(ipds))
+            .register(TripletId.MetricAdjustment.getId(),
+                    (ipds, code, context) -> new MetricAdjustmentTriplet(ipds))
+            .register(TripletId.ObjectContainerPresentationSpaceSize.getId(),
+                    (ipds, code, context) -> new ObjectContainerPresentationSpaceSizeTriplet(ipds))
+            .register(TripletId.ObjectOffset.getId(),
+                    (ipds, code, context) -> new ObjectOffsetTriplet(ipds))
+            .register(TripletId.PresentationSpaceResetMixing.getId(),
+                    (ipds, code, context) -> new PresentationSpaceResetMixingTriplet(ipds))
+            .register(TripletId.RenderingIntent.getId(),
+                    (ipds, code, context) -> new RenderingIntentTriplet(ipds))
+            .register(TripletId.SetupName.getId(),
+                    (ipds, code, context) -> new SetupNameTriplet(ipds))
+            .register(TripletId.TextFidelity.getId(),
+                    (ipds, code, context) -> new TextFidelityTriplet(ipds))
+            .register(TripletId.TonerSaver.getId(),
+                    (ipds, code, context) -> new TonerSaverTriplet(ipds))
+            .register(TripletId.UP3IFinishingOperation.getId(),
+                    (ipds, code, context) -> new UP3IFinishingOperationTriplet(ipds))
+            .freeze();
+
     /**
      * Private constructor to make checkstyle happy.
      */
@@ -16,59 +88,72 @@ public final class TripletFactory {
     }
 
     /**
-     * Creates a {@link Triplet} from the given {@link IpdsByteArrayInputStream}.
+     * Returns the {@link DecoderTable} of all {@link Triplet}s supported by ipdsbox.
+     */
+    public static DecoderTable<Triplet> getDefaultDecoders() {
+        return DEFAULT_DECODERS;
+    }
+
+    /**
+     * Creates a {@link Triplet} from the given byte array. Note that the byte array must be
+     * exactly as long as the triplet. If not an {@link IOException} will be thrown. The {@link Triplet}
+     * keeps the byte array as its original encoded form, so it must not be modified afterwards.
      */
     public static Triplet create(final byte[] data) throws IOException {
+        return create(new IpdsByteArrayInputStream(data));
+    }
 
-        final IpdsByteArrayInputStream ipds = new IpdsByteArrayInputStream(data);
+    /**
+     * Creates a {@link Triplet} from the given {@link IpdsInputStream}, usually a view returned
+     * by {@link IpdsInputStream#readTripletViewIfExists()}. Note that the {@link IpdsInputStream}
+     * must contain exactly as many bytes as the triplet. If not an {@link IOException} will be thrown.
+     * The {@link Triplet} keeps a view of the underlying data as its original encoded form, so the underlying
+     * data must not be modified as long as the {@link Triplet} is used.
+     */
+    public static Triplet create(final IpdsInputStream ipds) throws IOException {
+        return create(ipds, DecoderContext.getDefault());
+    }
 
-        // The implementation requires that the byte array is exactly as large
-        // as specified in the length field.
+    /**
+     * Creates a {@link Triplet} from the given {@link IpdsInputStream} with the {@link Decoder}s of the
+     * given {@link DecoderContext}.
+     */
+    public static Triplet create(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException {
+
+        final int availableLength = ipds.bytesAvailable();
+        final Triplet triplet = decode(ipds, context);
+
+        // Keep a view of the original encoded form (no copy), so an unmodified triplet is written as-is.
+        ipds.rewind(availableLength - ipds.bytesAvailable());
+        triplet.setOriginalEncoding(ipds.readView(availableLength));
+
+        return triplet;
+    }
+
+    /**
+     * Decodes the {@link Triplet}.
+     */
+    private static Triplet decode(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException {
+
+        // The implementation requires that the IpdsInputStream contains exactly as many
+        // bytes as specified in the length field.
+        final int availableLength = ipds.bytesAvailable();
         final int length = ipds.readUnsignedByte();
-        if (length != data.length) {
+        if (length != availableLength) {
             throw new IOException(String.format(
                     "A triplet to be read seems to be %1$d bytes long but the IPDS data stream ends after %2$d bytes",
                     length,
-                    data.length));
+                    availableLength));
         }
 
-        final int tripletId = ipds.readUnsignedByte();
-        final TripletId triplet = TripletId.getIfKnown(tripletId);
-        if (triplet == null) {
-            return new UnknownTriplet(ipds, tripletId);
+        try {
+            return context.getTriplets().decode(ipds, ipds.readUnsignedByte(), context);
+        } catch (final InvalidIpdsCommandException e) {
+            throw new IOException(e.getMessage(), e);
         }
-
-        return switch (triplet) {
-            case CMRTagFidelity -> new CmrTagFidelityTriplet(ipds);
-            case CodedGraphicCharacterSetGlobalIdentifier -> new CodedGraphicCharacterSetGlobalIdentifierTriplet(ipds);
-            case ColorFidelity -> new ColorFidelityTriplet(ipds);
-            case ColorManagementResourceDescriptor -> new ColorManagementResourceDescriptorTriplet(ipds);
-            case ColorSpecification -> new ColorSpecificationTriplet(ipds);
-            case DataObjectFontDescriptor -> new DataObjectFontDescriptorTriplet(ipds);
-            case DeviceAppearance -> new DeviceAppearanceTriplet(ipds);
-            case EncodingSchemeID -> new EncodingSchemeIdTriplet(ipds);
-            case FinishingFidelity -> new FinishingFidelityTriplet(ipds);
-            case FinishingOperation -> new FinishingOperationTriplet(ipds);
-            case FontResolutionandMetricTechnology -> new FontResolutionAndMetricTechnologyTriplet(ipds);
-            case FullyQualifiedName -> new FullyQualifiedNameTriplet(ipds);
-            case GroupID -> new GroupIdTriplet(ipds);
-            case GroupInformation -> new GroupInformationTriplet(ipds);
-            case ImageResolution -> new ImageResolutionTriplet(ipds);
-            case InvokeCMR -> new InvokeCmrTriplet(ipds);
-            case InvokeTertiaryResource -> new InvokeTertiaryResourceTriplet(ipds);
-            case LinkedFont -> new LinkedFontTriplet(ipds);
-            case LocalDateandTimeStamp -> new LocalDateTimeStampTriplet(ipds);
-            case MetricAdjustment -> new MetricAdjustmentTriplet(ipds);
-            case ObjectContainerPresentationSpaceSize -> new ObjectContainerPresentationSpaceSizeTriplet(ipds);
-            case ObjectOffset -> new ObjectOffsetTriplet(ipds);
-            case PresentationSpaceResetMixing -> new PresentationSpaceResetMixingTriplet(ipds);
-            case RenderingIntent -> new RenderingIntentTriplet(ipds);
-            case SetupName -> new SetupNameTriplet(ipds);
-            case TextFidelity -> new TextFidelityTriplet(ipds);
-            case TonerSaver -> new TonerSaverTriplet(ipds);
-            case UP3IFinishingOperation -> new UP3IFinishingOperationTriplet(ipds);
-
-            default -> new UnknownTriplet(ipds, tripletId);
-        };
     }
 }
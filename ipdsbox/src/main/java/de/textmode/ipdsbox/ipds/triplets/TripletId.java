@@ -1,8 +1,5 @@
 package de.textmode.ipdsbox.ipds.triplets;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Enumeration of all Triplets used in IPDS commands.
  */
@@ -172,11 +169,14 @@ public enum TripletId {
      */
     InvokeTertiaryResource(0xA2, "Invoke Tertiary Resource");
 
-    private static final Map<Integer, TripletId> REVERSE_MAP = new HashMap<>();
+    private static final TripletId[] LOOKUP_TABLE = new TripletId[256];
 
     static {
         for (final TripletId tripletId : values()) {
-            REVERSE_MAP.put(tripletId.getId(), tripletId);
+            if ((tripletId.getId() & ~0xFF) != 0 || LOOKUP_TABLE[tripletId.getId()] != null) {
+                throw new IllegalStateException("Invalid or duplicate triplet id " + tripletId);
+            }
+            LOOKUP_TABLE[tripletId.getId()] = tripletId;
         }
     }
 
@@ -195,7 +195,7 @@ public enum TripletId {
      * Gets the enum value for the given integer of <code>null</code> if the value is unknown.
      */
     public static TripletId getIfKnown(final int value) {
-        return REVERSE_MAP.get(value);
+        return (value & ~0xFF) == 0 ? LOOKUP_TABLE[value] : null;
     }
 
     /**
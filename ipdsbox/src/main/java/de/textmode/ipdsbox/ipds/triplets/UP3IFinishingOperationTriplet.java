@@ -3,8 +3,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * The UP3I Finishing Operation (X'8E') triplet specifies a specific finishing operation
@@ -16,9 +16,9 @@ public final class UP3IFinishingOperationTriplet extends Triplet {
     private final byte[] data;
 
     /**
-     * Constructs a {@link UP3IFinishingOperationTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link UP3IFinishingOperationTriplet} from the given {@link IpdsInputStream}.
      */
-    UP3IFinishingOperationTriplet(final IpdsByteArrayInputStream ipds) throws IOException {
+    UP3IFinishingOperationTriplet(final IpdsInputStream ipds) throws IOException {
         super(TripletId.UP3IFinishingOperation);
 
         this.sequenceNumber = ipds.readUnsignedByte();
@@ -26,13 +26,18 @@ public final class UP3IFinishingOperationTriplet extends Triplet {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedByte(3 + this.data.length);
         out.writeUnsignedByte(this.getTripletId());
         out.writeUnsignedByte(this.sequenceNumber);
         out.writeBytes(this.data);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 3 + this.data.length;
+    }
+
     /**
      * Returns the sequence number of this triplet.
      */
@@ -44,6 +49,7 @@ public final class UP3IFinishingOperationTriplet extends Triplet {
      * Returns finishing operation data as defined in the UP3I Specification.
      */
     public byte[] getData() {
+        this.exposed();
         return this.data;
     }
 
@@ -3,8 +3,8 @@ package de.textmode.ipdsbox.ipds.triplets;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Represents an unknown triplet.
@@ -14,24 +14,30 @@ public final class UnknownTriplet extends Triplet {
     private final byte[] rawData;
 
     /**
-     * Constructs a {@link UnknownTriplet} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs a {@link UnknownTriplet} from the given {@link IpdsInputStream}.
      */
-    UnknownTriplet(final IpdsByteArrayInputStream ipds, final int tripletId) throws IOException {
+    UnknownTriplet(final IpdsInputStream ipds, final int tripletId) throws IOException {
         super(tripletId);
         this.rawData = ipds.readRemainingBytes();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
-        out.writeUnsignedByte(3 + this.rawData.length);
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
+        out.writeUnsignedByte(2 + this.rawData.length);
         out.writeUnsignedByte(this.getTripletId());
         out.writeBytes(this.rawData);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 2 + this.rawData.length;
+    }
+
     /**
      * Returns the raw data of the triplet.
      */
     public byte[] getRawData() {
+        this.exposed();
         return this.rawData;
     }
 
@@ -3,7 +3,7 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Additional information format.
@@ -15,7 +15,7 @@ public final class AdditionalInformationFormat extends GroupInformationData {
     /**
      * Constructs the {@link AdditionalInformationFormat}.
      */
-    public AdditionalInformationFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public AdditionalInformationFormat(final IpdsInputStream ipds) throws IOException {
 
         // Additional information associated with this group. The information is
         // considered to be binary data, unless there was a preceding CGCSGID
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.GroupIdTriplet;
 
 /**
@@ -25,7 +25,7 @@ public final class AixAndOs2ComDataFormat extends GroupIdData {
     /**
      * Constructs the {@link AixAndOs2ComDataFormat}.
      */
-    public AixAndOs2ComDataFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public AixAndOs2ComDataFormat(final IpdsInputStream ipds) throws IOException {
 
         this.fileFype = ipds.readUnsignedByte();
         this.fileName = ipds
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.GroupIdTriplet;
 
 /**
@@ -16,7 +16,7 @@ public final class AixAndWindowsPrintDataFormat extends GroupIdData {
     /**
      * Constructs the {@link AixAndWindowsPrintDataFormat}.
      */
-    public AixAndWindowsPrintDataFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public AixAndWindowsPrintDataFormat(final IpdsInputStream ipds) throws IOException {
         this.fileName = ipds
                 .readAsciiString(ipds.bytesAvailable())
                 .trim();
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Copy set number format.
@@ -15,7 +15,7 @@ public final class CopySetNumberFormat extends GroupInformationData {
     /**
      * Constructs the {@link CopySetNumberFormat}.
      */
-    public CopySetNumberFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public CopySetNumberFormat(final IpdsInputStream ipds) throws IOException {
         this.copySetNumber = ipds.readUnsignedInteger16();
     }
 
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Extended copy set number format.
@@ -16,7 +16,7 @@ public final class ExtendedCopySetNumberFormat extends GroupInformationData {
     /**
      * Constructs the {@link ExtendedCopySetNumberFormat}.
      */
-    public ExtendedCopySetNumberFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public ExtendedCopySetNumberFormat(final IpdsInputStream ipds) throws IOException {
         this.copySetNumber = ipds.readUnsignedInteger32();
         this.totalCopies = ipds.readUnsignedInteger32();
     }
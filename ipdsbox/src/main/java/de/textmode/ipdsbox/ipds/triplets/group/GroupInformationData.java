@@ -3,7 +3,7 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.IpdsboxRuntimeException;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.GroupInformationTriplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletId;
 
@@ -3,7 +3,7 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Group name format.
@@ -15,7 +15,7 @@ public final class GroupNameFormat extends GroupInformationData {
     /**
      * Constructs the {@link GroupNameFormat}.
      */
-    public GroupNameFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public GroupNameFormat(final IpdsInputStream ipds) throws IOException {
         // A 1 to 250 byte long group name. The name is considered to be binary data,
         // unless there was a preceding CGCSGID triplet in the XOH-DGB command.
         this.rawData = ipds.readRemainingBytes();
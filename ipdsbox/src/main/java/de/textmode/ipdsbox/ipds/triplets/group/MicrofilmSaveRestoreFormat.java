@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Microfilm save/restore format.
@@ -15,7 +15,7 @@ public final class MicrofilmSaveRestoreFormat extends GroupInformationData {
     /**
      * Constructs the {@link MicrofilmSaveRestoreFormat}.
      */
-    public MicrofilmSaveRestoreFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public MicrofilmSaveRestoreFormat(final IpdsInputStream ipds) throws IOException {
         this.indicatorByte = ipds.readUnsignedByte();
     }
 
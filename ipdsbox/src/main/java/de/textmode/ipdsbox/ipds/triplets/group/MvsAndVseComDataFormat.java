@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.GroupIdTriplet;
 
 /**
@@ -24,7 +24,7 @@ public final class MvsAndVseComDataFormat extends GroupIdData {
     /**
      * Constructs the {@link MvsAndVseComDataFormat}.
      */
-    public MvsAndVseComDataFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public MvsAndVseComDataFormat(final IpdsInputStream ipds) throws IOException {
         this.fileFype = ipds.readUnsignedByte();
         this.jobClass = ipds.readEbcdicString(1).trim();
         this.jobName = ipds.readEbcdicString(8).trim();
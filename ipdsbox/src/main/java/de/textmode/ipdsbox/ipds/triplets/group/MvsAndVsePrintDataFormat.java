@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.GroupIdTriplet;
 
 /**
@@ -19,7 +19,7 @@ public final class MvsAndVsePrintDataFormat extends GroupIdData {
     /**
      * Constructs the {@link MvsAndVsePrintDataFormat}.
      */
-    public MvsAndVsePrintDataFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public MvsAndVsePrintDataFormat(final IpdsInputStream ipds) throws IOException {
         this.jobClass = ipds.readEbcdicString(1).trim();
         this.jobName = ipds.readEbcdicString(8).trim();
         this.jobId = ipds.readEbcdicString(8).trim();
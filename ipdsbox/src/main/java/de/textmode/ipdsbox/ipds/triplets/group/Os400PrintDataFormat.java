@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.GroupIdTriplet;
 
 /**
@@ -23,7 +23,7 @@ public final class Os400PrintDataFormat extends GroupIdData {
     /**
      * Constructs the {@link Os400PrintDataFormat}.
      */
-    public Os400PrintDataFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public Os400PrintDataFormat(final IpdsInputStream ipds) throws IOException {
         this.libraryName = ipds.readEbcdicString(10).trim();
         this.queueName = ipds.readEbcdicString(10).trim();
         this.fileName = ipds.readEbcdicString(10).trim();
@@ -6,7 +6,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Page count format.
@@ -18,7 +18,7 @@ public final class PageCountFormat extends GroupInformationData {
     /**
      * Constructs the {@link PageCountFormat}.
      */
-    public PageCountFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public PageCountFormat(final IpdsInputStream ipds) throws IOException {
         final byte[] longBigEndian = ipds.readBytes(8);
         final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(longBigEndian));
 
@@ -1,7 +1,7 @@
 package de.textmode.ipdsbox.ipds.triplets.group;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 import java.io.IOException;
 
@@ -15,7 +15,7 @@ public final class UnknownGroupIdDataFormat extends GroupIdData {
     /**
      * Constructs the {@link UnknownGroupIdDataFormat}.
      */
-    public UnknownGroupIdDataFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public UnknownGroupIdDataFormat(final IpdsInputStream ipds) throws IOException {
         this.rawData = ipds.readRemainingBytes();
     }
 
@@ -1,7 +1,7 @@
 package de.textmode.ipdsbox.ipds.triplets.group;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 import java.io.IOException;
 
@@ -15,7 +15,7 @@ public final class UnknownGroupInformationDataFormat extends GroupInformationDat
     /**
      * Constructs the {@link UnknownGroupInformationDataFormat}.
      */
-    public UnknownGroupInformationDataFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public UnknownGroupInformationDataFormat(final IpdsInputStream ipds) throws IOException {
         this.rawData = ipds.readRemainingBytes();
     }
 
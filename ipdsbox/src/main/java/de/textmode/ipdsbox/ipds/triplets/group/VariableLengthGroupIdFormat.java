@@ -3,7 +3,7 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.GroupIdTriplet;
 
 /**
@@ -16,7 +16,7 @@ public final class VariableLengthGroupIdFormat extends GroupIdData {
     /**
      * Constructs the {@link VariableLengthGroupIdFormat}.
      */
-    public VariableLengthGroupIdFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public VariableLengthGroupIdFormat(final IpdsInputStream ipds) throws IOException {
         this.rawData = ipds.readRemainingBytes();
     }
 
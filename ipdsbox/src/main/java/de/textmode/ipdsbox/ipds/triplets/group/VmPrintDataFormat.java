@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.triplets.group;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.GroupIdTriplet;
 
 /**
@@ -20,7 +20,7 @@ public final class VmPrintDataFormat extends GroupIdData {
     /**
      * Constructs the {@link VmPrintDataFormat}.
      */
-    public VmPrintDataFormat(final IpdsByteArrayInputStream ipds) throws IOException {
+    public VmPrintDataFormat(final IpdsInputStream ipds) throws IOException {
         this.spoolClass = ipds.readEbcdicString(1).trim();
         this.fileName = ipds.readEbcdicString(8).trim();
         this.userId = ipds.readEbcdicString(8).trim();
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xoaorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Control Edge Marks order.
@@ -13,20 +13,25 @@ public final class ControlEdgeMarksOrder extends XoaOrder {
     private int edgeMark;
 
     /**
-     * Constructs the {@link ControlEdgeMarksOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link ControlEdgeMarksOrder} from the given {@link IpdsInputStream}.
      */
-    ControlEdgeMarksOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    ControlEdgeMarksOrder(final IpdsInputStream ipds) throws IOException {
         super(XoaOrderCode.ControlEdgeMarks);
 
         this.edgeMark = ipds.readUnsignedByte();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.edgeMark);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 3;
+    }
+
     /**
      * Returns the edge mark.
      */
@@ -38,6 +43,7 @@ public final class ControlEdgeMarksOrder extends XoaOrder {
      * Sets the edge mark.
      */
     public void setEdgeMark(final int edgeMark) {
+        this.modified();
         this.edgeMark = edgeMark;
     }
 
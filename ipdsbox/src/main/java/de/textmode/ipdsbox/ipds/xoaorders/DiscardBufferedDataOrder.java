@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xoaorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Discard Buffered Data order.
@@ -11,17 +11,22 @@ import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
 public final class DiscardBufferedDataOrder extends XoaOrder {
 
     /**
-     * Constructs the {@link DiscardBufferedDataOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link DiscardBufferedDataOrder} from the given {@link IpdsInputStream}.
      */
-    DiscardBufferedDataOrder(final IpdsByteArrayInputStream ipds) {
+    DiscardBufferedDataOrder(final IpdsInputStream ipds) {
         super(XoaOrderCode.DiscardBufferedData);
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 2;
+    }
+
     /**
      * Accept method for the {@link XoaOrderVisitor}.
      */
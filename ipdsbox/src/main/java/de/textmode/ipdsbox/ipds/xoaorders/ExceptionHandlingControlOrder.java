@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xoaorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Exception-Handling Control order.
@@ -26,9 +26,9 @@ public final class ExceptionHandlingControlOrder extends XoaOrder {
     }
 
     /**
-     * Constructs the {@link ExceptionHandlingControlOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link ExceptionHandlingControlOrder} from the given {@link IpdsInputStream}.
      */
-    ExceptionHandlingControlOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    ExceptionHandlingControlOrder(final IpdsInputStream ipds) throws IOException {
         super(XoaOrderCode.ExceptionHandlingControl);
 
         this.exceptionReportingFlags = ipds.readUnsignedByte();
@@ -37,13 +37,18 @@ public final class ExceptionHandlingControlOrder extends XoaOrder {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.exceptionReportingFlags);
         out.writeUnsignedByte(this.automaticRecoveryFlags);
         out.writeUnsignedByte(this.exceptionPresentationProcessingFlags);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 5;
+    }
+
     /**
      * Returns the Exception Reporting Flags.
      */
@@ -55,6 +60,7 @@ public final class ExceptionHandlingControlOrder extends XoaOrder {
      * Sets the Exception Reporting Flags.
      */
     public void setExceptionReportingFlags(final int exceptionReportingFlags) {
+        this.modified();
         this.exceptionReportingFlags = exceptionReportingFlags;
     }
 
@@ -69,6 +75,7 @@ public final class ExceptionHandlingControlOrder extends XoaOrder {
      * Sets the Automatic Recovery Flags.
      */
     public void setAutomaticRecoveryFlags(final int automaticRecoveryFlags) {
+        this.modified();
         this.automaticRecoveryFlags = automaticRecoveryFlags;
     }
 
@@ -83,6 +90,7 @@ public final class ExceptionHandlingControlOrder extends XoaOrder {
      * Sets the Exception-presentation processing flags.
      */
     public void setExceptionPresentationProcessingFlags(final int exceptionPresentationProcessingFlags) {
+        this.modified();
         this.exceptionPresentationProcessingFlags = exceptionPresentationProcessingFlags;
     }
 
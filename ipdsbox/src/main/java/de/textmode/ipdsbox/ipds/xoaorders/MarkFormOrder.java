@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xoaorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Mark Form order.
@@ -11,17 +11,22 @@ import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
 public final class MarkFormOrder extends XoaOrder {
 
     /**
-     * Constructs the {@link MarkFormOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link MarkFormOrder} from the given {@link IpdsInputStream}.
      */
-    public MarkFormOrder(final IpdsByteArrayInputStream ipds) {
+    public MarkFormOrder(final IpdsInputStream ipds) {
         super(XoaOrderCode.MarkForm);
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 2;
+    }
+
     /**
      * Accept method for the {@link XoaOrderVisitor}.
      */
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xoaorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Print-Quality Control order.
@@ -13,20 +13,25 @@ public final class PrintQualityControlOrder extends XoaOrder {
     private int qualityLevel;
 
     /**
-     * Constructs the {@link PrintQualityControlOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link PrintQualityControlOrder} from the given {@link IpdsInputStream}.
      */
-    PrintQualityControlOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    PrintQualityControlOrder(final IpdsInputStream ipds) throws IOException {
         super(XoaOrderCode.PrintQualityControl);
 
         this.qualityLevel = ipds.readUnsignedByte();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.qualityLevel);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 3;
+    }
+
     /**
      * Returns the quality level.
      */
@@ -38,6 +43,7 @@ public final class PrintQualityControlOrder extends XoaOrder {
      * Sets the quality level.
      */
     public void setQualityLevel(final int qualityLevel) {
+        this.modified();
         this.qualityLevel = qualityLevel;
     }
 
@@ -5,8 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Request Resource List order.
@@ -20,9 +20,9 @@ public final class RequestResourceListOrder extends XoaOrder {
 
 
     /**
-     * Constructs the {@link RequestResourceListOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link RequestResourceListOrder} from the given {@link IpdsInputStream}.
      */
-    RequestResourceListOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    RequestResourceListOrder(final IpdsInputStream ipds) throws IOException {
         super(XoaOrderCode.RequestResourceList);
 
         this.queryType = ipds.readUnsignedByte();
@@ -34,7 +34,7 @@ public final class RequestResourceListOrder extends XoaOrder {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.queryType);
         out.writeUnsignedInteger16(this.continuationIndicator);
@@ -44,6 +44,15 @@ public final class RequestResourceListOrder extends XoaOrder {
         }
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        int length = 5;
+        for (final ResourceQuery query : this.resourceQueries) {
+            length += 3 + query.resourceId.length;
+        }
+        return length;
+    }
+
     /**
      * Returns the query type.
      */
@@ -55,6 +64,7 @@ public final class RequestResourceListOrder extends XoaOrder {
      * Sets the query type.
      */
     public void setQueryType(final int queryType) {
+        this.modified();
         this.queryType = queryType;
     }
 
@@ -69,6 +79,7 @@ public final class RequestResourceListOrder extends XoaOrder {
      * Sets the continuation indicator.
      */
     public void setContinuationIndicator(final int continuationIndicator) {
+        this.modified();
         this.continuationIndicator = continuationIndicator;
     }
 
@@ -96,9 +107,9 @@ public final class RequestResourceListOrder extends XoaOrder {
         }
 
         /**
-         * Constructs the {@link ResourceQuery} from the given {@link IpdsByteArrayInputStream}.
+         * Constructs the {@link ResourceQuery} from the given {@link IpdsInputStream}.
          */
-        ResourceQuery(final IpdsByteArrayInputStream ipds) throws IOException {
+        ResourceQuery(final IpdsInputStream ipds) throws IOException {
             final int length = ipds.readUnsignedByte();
             this.resourceType = ipds.readUnsignedByte();
             this.resourceIdFormat = ipds.readUnsignedByte();
@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
 
@@ -20,9 +22,9 @@ public final class RequestSetupNameListOrder extends XoaOrder {
     private final List<Triplet> triplets = new ArrayList<Triplet>();
 
     /**
-     * Constructs the {@link RequestSetupNameListOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link RequestSetupNameListOrder} from the given {@link IpdsInputStream}.
      */
-    RequestSetupNameListOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    RequestSetupNameListOrder(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(XoaOrderCode.RequestSetupNameList);
 
         this.queryType = ipds.readUnsignedByte();
@@ -30,14 +32,19 @@ public final class RequestSetupNameListOrder extends XoaOrder {
 
         ipds.skip(2);
 
-        byte[] buffer;
-        while ((buffer = ipds.readTripletIfExists()) != null) {
-            this.triplets.add(TripletFactory.create(buffer));
+        IpdsInputStream triplet;
+        while ((triplet = ipds.readTripletViewIfExists()) != null) {
+            this.triplets.add(TripletFactory.create(triplet, context));
         }
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return Triplet.isUnmodifiedSince(this.triplets, container);
+    }
+
+    @Override
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.queryType);
         out.writeUnsignedByte(this.requestFlags);
@@ -48,6 +55,11 @@ public final class RequestSetupNameListOrder extends XoaOrder {
         }
     }
 
+    @Override
+    protected int computeEncodedLength() throws IOException {
+        return 6 + Triplet.getEncodedLength(this.triplets);
+    }
+
     /**
      * Returns the query type.
      */
@@ -59,6 +71,7 @@ public final class RequestSetupNameListOrder extends XoaOrder {
      * Sets the query type.
      */
     public void setQueryType(final int queryType) {
+        this.modified();
         this.queryType = queryType;
     }
 
@@ -73,6 +86,7 @@ public final class RequestSetupNameListOrder extends XoaOrder {
      * Sets the request flags.
      */
     public void setRequestFlags(final int requestFlags) {
+        this.modified();
         this.requestFlags = requestFlags;
     }
 
@@ -80,7 +94,7 @@ public final class RequestSetupNameListOrder extends XoaOrder {
      * Returns a {@link List} of all {@link Triplet}s contained in the {@link RequestSetupNameListOrder}.
      */
     public List<Triplet> getTriplets() {
-        return this.triplets;
+        return this.tracked(this.triplets);
     }
 
     /**
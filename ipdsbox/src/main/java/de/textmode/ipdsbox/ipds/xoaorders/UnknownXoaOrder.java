@@ -3,8 +3,8 @@ package de.textmode.ipdsbox.ipds.xoaorders;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This {@link UnknownXoaOrder} is created for all unknown {@link XoaOrder}.
@@ -14,20 +14,25 @@ public final class UnknownXoaOrder extends XoaOrder {
     private final byte[] orderCodeData;
 
     /**
-     * Constructs the {@link UnknownXoaOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link UnknownXoaOrder} from the given {@link IpdsInputStream}.
      */
-    protected UnknownXoaOrder(final IpdsByteArrayInputStream ipds, final int orderCodeId) {
+    protected UnknownXoaOrder(final IpdsInputStream ipds, final int orderCodeId) {
         super(orderCodeId);
 
         this.orderCodeData = ipds.readRemainingBytes();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeBytes(this.orderCodeData);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 2 + this.orderCodeData.length;
+    }
+
     /**
      * Accept method for the {@link XoaOrderVisitor}.
      */
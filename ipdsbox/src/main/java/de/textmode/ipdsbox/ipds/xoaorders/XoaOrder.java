@@ -1,8 +1,11 @@
 package de.textmode.ipdsbox.ipds.xoaorders;
 
 import java.io.IOException;
+import java.util.List;
 
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Superclass of all Execute Anystate Orders.
@@ -11,6 +14,8 @@ public abstract class XoaOrder {
 
     private final int orderCodeId;
 
+    private final IpdsEncodingCache encoding = new IpdsEncodingCache();
+
     /**
      * Constructs the {@link XoaOrder}.
      */
@@ -41,9 +46,110 @@ public abstract class XoaOrder {
     }
 
     /**
-     * Writes this {@link XoaOrder} to the given {@link IpdsByteArrayOutputStream}.
+     * Writes this {@link XoaOrder} to the given {@link IpdsByteArrayOutputStream}. If the encoded form of the
+     * {@link XoaOrder} is known (i. e. the {@link XoaOrder} has been decoded and has not been modified since
+     * or it has already been encoded), the encoded form is copied as-is.
+     */
+    public final void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+        this.checkEncoding();
+        this.encoding.writeTo(out, this::encodeTo);
+    }
+
+    /**
+     * Encodes this {@link XoaOrder} and writes it to the given {@link IpdsByteArrayOutputStream}.
+     */
+    protected abstract void encodeTo(IpdsByteArrayOutputStream out) throws IOException;
+
+    /**
+     * Returns the number of bytes written by {@link #writeTo(IpdsByteArrayOutputStream)}.
+     */
+    public final int getEncodedLength() throws IOException {
+        return this.checkEncoding() ? this.encoding.getLength() : this.computeEncodedLength();
+    }
+
+    /**
+     * Discards the encoded form if an IPDS structure contained in the {@link XoaOrder} has been modified since the
+     * encoded form has been cached. Returns <code>true</code> if the encoded form is valid.
      */
-    public abstract void writeTo(IpdsByteArrayOutputStream out) throws IOException;
+    private boolean checkEncoding() {
+        if (this.encoding.isValid() && !this.isContentUnmodifiedSince(this.encoding)) {
+            this.encoding.modified();
+        }
+        return this.encoding.isValid();
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #encodeTo(IpdsByteArrayOutputStream)}.
+     *
+     * <p>The default implementation writes the {@link XoaOrder} to a length counter. Subclasses should override
+     * this method and compute the length directly.
+     */
+    protected int computeEncodedLength() throws IOException {
+        final IpdsByteArrayOutputStream counter = IpdsByteArrayOutputStream.createLengthCounter();
+        this.encodeTo(counter);
+        return counter.getSize();
+    }
+
+    /**
+     * Returns <code>true</code> if the encoded form of the {@link XoaOrder} is known, so
+     * {@link #writeTo(IpdsByteArrayOutputStream)} copies it instead of encoding the {@link XoaOrder}.
+     */
+    public final boolean isEncodingCached() {
+        return this.checkEncoding();
+    }
+
+    /**
+     * Sets the original encoded form of a decoded {@link XoaOrder}. The given view is kept (the bytes are not copied),
+     * so its underlying data must not be modified as long as the {@link XoaOrder} is used.
+     */
+    final void setOriginalEncoding(final IpdsInputStream original) {
+        this.encoding.setOriginal(original);
+    }
+
+    /**
+     * Discards the encoded form of the {@link XoaOrder}. Must be called by every method that modifies the
+     * {@link XoaOrder}.
+     */
+    protected final void modified() {
+        this.encoding.modified();
+    }
+
+    /**
+     * Discards the encoded form of the {@link XoaOrder} for good, so it is encoded by every
+     * {@link #writeTo(IpdsByteArrayOutputStream)}. Must be called by every method that returns a mutable part of
+     * the {@link XoaOrder} whose modifications can not be tracked (i. e. a byte array), because the caller may
+     * modify it at any time.
+     */
+    protected final void exposed() {
+        this.encoding.exposed();
+    }
+
+    /**
+     * Returns a view of the given {@link List} that discards the encoded form of the {@link XoaOrder} whenever an
+     * element is added, removed or replaced. Must be used by every method that returns a {@link List} of the
+     * {@link XoaOrder}.
+     */
+    protected final <T> List<T> tracked(final List<T> list) {
+        return this.encoding.track(list);
+    }
+
+    /**
+     * Returns <code>true</code> if no IPDS structure contained in the {@link XoaOrder} (i. e. a triplet) has been
+     * modified since the given encoded form has been cached. Must be overridden by every {@link XoaOrder} that
+     * returns contained IPDS structures.
+     */
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> if neither the {@link XoaOrder} nor an IPDS structure contained in it has been
+     * modified since the encoded form of the given {@link IpdsEncodingCache} (the one of the containing IPDS
+     * structure) has been cached.
+     */
+    public final boolean isUnmodifiedSince(final IpdsEncodingCache container) {
+        return this.encoding.isUnmodifiedSince(container) && this.isContentUnmodifiedSince(container);
+    }
 
     /**
      * Accept method for the {@link XoaOrderVisitor}.
@@ -1,8 +1,5 @@
 package de.textmode.ipdsbox.ipds.xoaorders;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * XOA (Execute Order Anystate) Order Code.
  */
@@ -97,11 +94,16 @@ public enum XoaOrderCode {
      */
     RequestSetupNameList(0xFA00, "XOA Request Setup Name List");
 
-    private static final Map<Integer, XoaOrderCode> REVERSE_MAP = new HashMap<>();
+    // The high byte of the XOA order codes is unique (the low byte is always X'00'), so the high byte
+    // is used as an index into the lookup table.
+    private static final XoaOrderCode[] LOOKUP_TABLE = new XoaOrderCode[256];
 
     static {
         for (final XoaOrderCode code : values()) {
-            REVERSE_MAP.put(code.getValue(), code);
+            if ((code.getValue() & ~0xFFFF) != 0 || LOOKUP_TABLE[code.getValue() >>> 8] != null) {
+                throw new IllegalStateException("Invalid or duplicate XOA order code " + code);
+            }
+            LOOKUP_TABLE[code.getValue() >>> 8] = code;
         }
     }
 
@@ -121,7 +123,12 @@ public enum XoaOrderCode {
      * code is unknown.
      */
     public static XoaOrderCode getIfKnown(final int value) {
-        return REVERSE_MAP.get(value);
+        if ((value & ~0xFFFF) != 0) {
+            return null;
+        }
+
+        final XoaOrderCode code = LOOKUP_TABLE[value >>> 8];
+        return code != null && code.code == value ? code : null;
     }
 
     /**
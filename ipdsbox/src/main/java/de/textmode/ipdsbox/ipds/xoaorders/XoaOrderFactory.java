@@ -2,13 +2,51 @@ package de.textmode.ipdsbox.ipds.xoaorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.Decoder;
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.DecoderRegistry;
+import de.textmode.ipdsbox.core.DecoderTable;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * A factory for all supported {@link XoaOrder}s.
+ *
+ * <p>The {@link XoaOrder}s are decoded by the {@link Decoder}s of a {@link DecoderTable}. The {@link DecoderTable}
+ * of all XOA orders supported by ipdsbox is returned by {@link #getDefaultDecoders()}. Own {@link Decoder}s can be
+ * added with {@link DecoderTable#toRegistry()} and used by a {@link DecoderContext} (see
+ * {@link #create(IpdsInputStream, DecoderContext)}), which is passed to the XOA orders carried by Execute Order
+ * Anystate commands as well.
  */
 public final class XoaOrderFactory {
 
+    // The second byte of all XOA order codes is zero, so the first byte is used as the index...
+    private static final DecoderTable<XoaOrder> DEFAULT_DECODERS =
+        new DecoderRegistry<XoaOrder>(8, (ipds, code, context) -> new UnknownXoaOrder(ipds, code))
+            .register(XoaOrderCode.ActivatePrinterAlarm.getValue(),
+                    (ipds, code, context) -> new ActivatePrinterAlarmOrder(ipds))
+            .register(XoaOrderCode.AlternateOffsetStacker.getValue(),
+                    (ipds, code, context) -> new AlternateOffsetStackerOrder(ipds))
+            .register(XoaOrderCode.ControlEdgeMarks.getValue(),
+                    (ipds, code, context) -> new ControlEdgeMarksOrder(ipds))
+            .register(XoaOrderCode.DiscardBufferedData.getValue(),
+                    (ipds, code, context) -> new DiscardBufferedDataOrder(ipds))
+            .register(XoaOrderCode.DiscardUnstackedPages.getValue(),
+                    (ipds, code, context) -> new DiscardUnstackedPagesOrder(ipds))
+            .register(XoaOrderCode.ExceptionHandlingControl.getValue(),
+                    (ipds, code, context) -> new ExceptionHandlingControlOrder(ipds))
+            .register(XoaOrderCode.MarkForm.getValue(),
+                    (ipds, code, context) -> new MarkFormOrder(ipds))
+            .register(XoaOrderCode.ObtainAdditionalExceptionInformation.getValue(),
+                    (ipds, code, context) -> new ObtainAdditionalExceptionInformationOrder(ipds))
+            .register(XoaOrderCode.PrintQualityControl.getValue(),
+                    (ipds, code, context) -> new PrintQualityControlOrder(ipds))
+            .register(XoaOrderCode.RequestResourceList.getValue(),
+                    (ipds, code, context) -> new RequestResourceListOrder(ipds))
+            .register(XoaOrderCode.RequestSetupNameList.getValue(),
+                    (ipds, code, context) -> new RequestSetupNameListOrder(ipds, context))
+            .freeze();
+
     /**
      * Private constructor to make checkstyle happy.
      */
@@ -16,28 +54,41 @@ public final class XoaOrderFactory {
     }
 
     /**
-     * Creates a {@link XoaOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Returns the {@link DecoderTable} of all {@link XoaOrder}s supported by ipdsbox.
+     */
+    public static DecoderTable<XoaOrder> getDefaultDecoders() {
+        return DEFAULT_DECODERS;
+    }
+
+    /**
+     * Creates a {@link XoaOrder} from the given {@link IpdsInputStream}. The {@link XoaOrder} keeps a view of the
+     * underlying data as its original encoded form, so the underlying data must not be modified as long as the
+     * {@link XoaOrder} is used.
+     */
+    public static XoaOrder create(final IpdsInputStream ipds) throws IOException {
+        return create(ipds, DecoderContext.getDefault());
+    }
+
+    /**
+     * Creates a {@link XoaOrder} from the given {@link IpdsInputStream} with the {@link Decoder}s of the
+     * given {@link DecoderContext}.
      */
-    public static XoaOrder create(final IpdsByteArrayInputStream ipds) throws IOException {
-
-        final int orderCodeId = ipds.readUnsignedInteger16();
-        final XoaOrderCode orderCode = XoaOrderCode.getIfKnown(orderCodeId);
-
-        return switch (orderCode) {
-            case ActivatePrinterAlarm -> new ActivatePrinterAlarmOrder(ipds);
-            case AlternateOffsetStacker -> new AlternateOffsetStackerOrder(ipds);
-            case ControlEdgeMarks -> new ControlEdgeMarksOrder(ipds);
-            case DiscardBufferedData -> new DiscardBufferedDataOrder(ipds);
-            case DiscardUnstackedPages -> new DiscardUnstackedPagesOrder(ipds);
-            case ExceptionHandlingControl -> new ExceptionHandlingControlOrder(ipds);
-            case MarkForm -> new MarkFormOrder(ipds);
-            case ObtainAdditionalExceptionInformation -> new ObtainAdditionalExceptionInformationOrder(ipds);
-            case PrintQualityControl -> new PrintQualityControlOrder(ipds);
-            case RequestResourceList -> new RequestResourceListOrder(ipds);
-            case RequestSetupNameList -> new RequestSetupNameListOrder(ipds);
-
-            // Unhandled and/or unknown (orderCode == null)...
-            default -> new UnknownXoaOrder(ipds, orderCodeId);
-        };
+    public static XoaOrder create(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException {
+
+        final int availableLength = ipds.bytesAvailable();
+        final XoaOrder order;
+        try {
+            order = context.getXoaOrders().decode(ipds, ipds.readUnsignedInteger16(), context);
+        } catch (final InvalidIpdsCommandException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        // Keep a view of the original encoded form (no copy), so an unmodified order is written as-is.
+        ipds.rewind(availableLength - ipds.bytesAvailable());
+        order.setOriginalEncoding(ipds.readView(availableLength));
+
+        return order;
     }
 }
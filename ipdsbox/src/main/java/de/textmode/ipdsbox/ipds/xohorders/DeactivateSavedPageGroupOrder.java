@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
 
@@ -17,19 +19,24 @@ public final class DeactivateSavedPageGroupOrder extends XohOrder {
     private final List<Triplet> triplets = new ArrayList<>();
 
     /**
-     * Constructs the {@link DeactivateSavedPageGroupOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link DeactivateSavedPageGroupOrder} from the given {@link IpdsInputStream}.
      */
-    DeactivateSavedPageGroupOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    DeactivateSavedPageGroupOrder(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(XohOrderCode.DeactivateSavedPageGroup);
 
-        byte[] buffer;
-        while ((buffer = ipds.readTripletIfExists()) != null) {
-            this.triplets.add(TripletFactory.create(buffer));
+        IpdsInputStream triplet;
+        while ((triplet = ipds.readTripletViewIfExists()) != null) {
+            this.triplets.add(TripletFactory.create(triplet, context));
         }
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return Triplet.isUnmodifiedSince(this.triplets, container);
+    }
+
+    @Override
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
 
         for (final Triplet triplet : this.triplets) {
@@ -37,11 +44,16 @@ public final class DeactivateSavedPageGroupOrder extends XohOrder {
         }
     }
 
+    @Override
+    protected int computeEncodedLength() throws IOException {
+        return 2 + Triplet.getEncodedLength(this.triplets);
+    }
+
     /**
      * Returns a {@link List} of all {@link Triplet}s contained in the {@link DeactivateSavedPageGroupOrder}.
      */
     public List<Triplet> getTriplets() {
-        return this.triplets;
+        return this.tracked(this.triplets);
     }
 
     /**
@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 import de.textmode.ipdsbox.ipds.triplets.Triplet;
 import de.textmode.ipdsbox.ipds.triplets.TripletFactory;
 
@@ -33,22 +35,27 @@ public final class DefineGroupBoundaryOrder extends XohOrder {
     }
 
     /**
-     * Constructs the {@link DefineGroupBoundaryOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link DefineGroupBoundaryOrder} from the given {@link IpdsInputStream}.
      */
-    DefineGroupBoundaryOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    DefineGroupBoundaryOrder(final IpdsInputStream ipds, final DecoderContext context) throws IOException {
         super(XohOrderCode.DefineGroupBoundary);
 
         this.orderType = ipds.readByte();
         this.groupLevel = ipds.readByte();
 
-        byte[] buffer;
-        while ((buffer = ipds.readTripletIfExists()) != null) {
-            this.triplets.add(TripletFactory.create(buffer));
+        IpdsInputStream triplet;
+        while ((triplet = ipds.readTripletViewIfExists()) != null) {
+            this.triplets.add(TripletFactory.create(triplet, context));
         }
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return Triplet.isUnmodifiedSince(this.triplets, container);
+    }
+
+    @Override
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.orderType);
         out.writeUnsignedByte(this.groupLevel);
@@ -58,6 +65,11 @@ public final class DefineGroupBoundaryOrder extends XohOrder {
         }
     }
 
+    @Override
+    protected int computeEncodedLength() throws IOException {
+        return 4 + Triplet.getEncodedLength(this.triplets);
+    }
+
     /**
      * Returns the order type.
      */
@@ -69,6 +81,7 @@ public final class DefineGroupBoundaryOrder extends XohOrder {
      * Sets the order type.
      */
     public void setOrderType(final int orderType) {
+        this.modified();
         this.orderType = orderType;
     }
 
@@ -83,6 +96,7 @@ public final class DefineGroupBoundaryOrder extends XohOrder {
      * Sets the group level.
      */
     public void setGroupLevel(final int groupLevel) {
+        this.modified();
         this.groupLevel = groupLevel;
     }
 
@@ -90,7 +104,7 @@ public final class DefineGroupBoundaryOrder extends XohOrder {
      * Returns a {@link List} of all {@link Triplet}s contained in the {@link DefineGroupBoundaryOrder}.
      */
     public List<Triplet> getTriplets() {
-        return this.triplets;
+        return this.tracked(this.triplets);
     }
 
     /**
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Obtain Printer Characteristics order.
@@ -20,15 +20,20 @@ public final class ObtainPrinterCharacteristicsOrder extends XohOrder {
     /**
      * Constructs the {@link ObtainPrinterCharacteristicsOrder}.
      */
-    ObtainPrinterCharacteristicsOrder(final IpdsByteArrayInputStream ipds) {
+    ObtainPrinterCharacteristicsOrder(final IpdsInputStream ipds) {
         super(XohOrderCode.ObtainPrinterCharacteristics);
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 2;
+    }
+
     /**
      * Accept method for the {@link XohOrderVisitor}.
      */
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Page Counters Control order.
@@ -13,20 +13,25 @@ public final class PageCountersControlOrder extends XohOrder {
     private int counterUpdate;
 
     /**
-     * Constructs the {@link PageCountersControlOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link PageCountersControlOrder} from the given {@link IpdsInputStream}.
      */
-    PageCountersControlOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    PageCountersControlOrder(final IpdsInputStream ipds) throws IOException {
         super(XohOrderCode.PageCountersControl);
 
         this.counterUpdate = ipds.readUnsignedByte();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.counterUpdate);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 3;
+    }
+
     /**
      * Returns the counter update.
      */
@@ -38,6 +43,7 @@ public final class PageCountersControlOrder extends XohOrder {
      * Sets the counter update.
      */
     public void setCounterUpdate(final int counterUpdate) {
+        this.modified();
         this.counterUpdate = counterUpdate;
     }
 
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Select Input Media Source order.
@@ -13,20 +13,25 @@ public final class SelectInputMediaSourceOrder extends XohOrder {
     private int sourceId;
 
     /**
-     * Constructs the {@link SelectInputMediaSourceOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SelectInputMediaSourceOrder} from the given {@link IpdsInputStream}.
      */
-    SelectInputMediaSourceOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    SelectInputMediaSourceOrder(final IpdsInputStream ipds) throws IOException {
         super(XohOrderCode.SelectInputMediaSource);
 
         this.sourceId = ipds.readUnsignedByte();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.sourceId);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 3;
+    }
+
     /**
      * Returns the source ID.
      */
@@ -38,6 +43,7 @@ public final class SelectInputMediaSourceOrder extends XohOrder {
      * Sets the source ID.
      */
     public void setSourceId(final int sourceId) {
+        this.modified();
         this.sourceId = sourceId;
     }
 
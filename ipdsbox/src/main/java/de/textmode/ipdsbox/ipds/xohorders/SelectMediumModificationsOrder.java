@@ -5,8 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Select Medium Modifications order.
@@ -18,9 +18,9 @@ public final class SelectMediumModificationsOrder extends XohOrder {
     private final List<MediumModification> modifications = new ArrayList<>();
 
     /**
-     * Constructs the {@link SelectMediumModificationsOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SelectMediumModificationsOrder} from the given {@link IpdsInputStream}.
      */
-    SelectMediumModificationsOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    SelectMediumModificationsOrder(final IpdsInputStream ipds) throws IOException {
         super(XohOrderCode.SelectMediumModifications);
 
         ipds.skip(8);
@@ -31,7 +31,7 @@ public final class SelectMediumModificationsOrder extends XohOrder {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
 
         out.writeUnsignedInteger32(0x00);
@@ -42,6 +42,15 @@ public final class SelectMediumModificationsOrder extends XohOrder {
         }
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        int length = 10;
+        for (final MediumModification mod : this.modifications) {
+            length += 5 + (mod.modificationParameters == null ? 0 : mod.modificationParameters.length);
+        }
+        return length;
+    }
+
     /**
      * Accept method for the {@link XohOrderVisitor}.
      */
@@ -76,9 +85,9 @@ public final class SelectMediumModificationsOrder extends XohOrder {
         }
 
         /**
-         * Constructs the {@link MediumModification} from the given {@link IpdsByteArrayInputStream}.
+         * Constructs the {@link MediumModification} from the given {@link IpdsInputStream}.
          */
-        public MediumModification(final IpdsByteArrayInputStream in) throws IOException {
+        public MediumModification(final IpdsInputStream in) throws IOException {
             final int len = in.readUnsignedInteger16();
             this.type = in.readUnsignedByte();
             this.modificationId = in.readUnsignedInteger16();
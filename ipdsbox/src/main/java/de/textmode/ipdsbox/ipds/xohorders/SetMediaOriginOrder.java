@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Set Media Origin order.
@@ -23,9 +23,9 @@ public final class SetMediaOriginOrder extends XohOrder {
     }
 
     /**
-     * Constructs the {@link SetMediaOriginOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SetMediaOriginOrder} from the given {@link IpdsInputStream}.
      */
-    SetMediaOriginOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    SetMediaOriginOrder(final IpdsInputStream ipds) throws IOException {
         super(XohOrderCode.SetMediaOrigin);
 
         this.origin = ipds.readUnsignedByte();
@@ -42,15 +42,21 @@ public final class SetMediaOriginOrder extends XohOrder {
      * Sets the origin.
      */
     public void setOrigin(final int origin) {
+        this.modified();
         this.origin = origin;
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.origin);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 3;
+    }
+
     /**
      * Accept method for the {@link XohOrderVisitor}.
      */
@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Set Media Size order.
@@ -28,9 +28,9 @@ public final class SetMediaSizeOrder extends XohOrder {
     }
 
     /**
-     * Constructs the {@link SetMediaSizeOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SetMediaSizeOrder} from the given {@link IpdsInputStream}.
      */
-    SetMediaSizeOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    SetMediaSizeOrder(final IpdsInputStream ipds) throws IOException {
         super(XohOrderCode.SetMediaSize);
 
         this.unitBase = ipds.readUnsignedByte();
@@ -40,7 +40,7 @@ public final class SetMediaSizeOrder extends XohOrder {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.unitBase);
         out.writeUnsignedInteger16(this.upub);
@@ -48,6 +48,11 @@ public final class SetMediaSizeOrder extends XohOrder {
         out.writeUnsignedInteger16(this.ymExtent);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 9;
+    }
+
     /**
      * Returns the unit base.
      */
@@ -59,6 +64,7 @@ public final class SetMediaSizeOrder extends XohOrder {
      * Sets the unit base.
      */
     public void setUnitBase(final int unitBase) {
+        this.modified();
         this.unitBase = unitBase;
     }
 
@@ -73,6 +79,7 @@ public final class SetMediaSizeOrder extends XohOrder {
      * Sets the units per unit base.
      */
     public void setUpub(final int upub) {
+        this.modified();
         this.upub = upub;
     }
 
@@ -87,6 +94,7 @@ public final class SetMediaSizeOrder extends XohOrder {
      * Sets the X extent of the medium presentation space.
      */
     public void setXmExtent(final int xmExtent) {
+        this.modified();
         this.xmExtent = xmExtent;
     }
 
@@ -101,6 +109,7 @@ public final class SetMediaSizeOrder extends XohOrder {
      * Sets the Y extent of the medium presentation space.
      */
     public void setYmExtent(final int ymExtent) {
+        this.modified();
         this.ymExtent = ymExtent;
     }
 
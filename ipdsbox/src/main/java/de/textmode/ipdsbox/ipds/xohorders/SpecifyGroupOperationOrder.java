@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Specify Group Operation order.
@@ -14,9 +14,9 @@ public final class SpecifyGroupOperationOrder extends XohOrder {
     private int groupLevel;
 
     /**
-     * Constructs the {@link SpecifyGroupOperationOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link SpecifyGroupOperationOrder} from the given {@link IpdsInputStream}.
      */
-    SpecifyGroupOperationOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    SpecifyGroupOperationOrder(final IpdsInputStream ipds) throws IOException {
         super(XohOrderCode.SpecifyGroupOperation);
 
         this.operation = ipds.readUnsignedByte();
@@ -24,12 +24,17 @@ public final class SpecifyGroupOperationOrder extends XohOrder {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.operation);
         out.writeUnsignedByte(this.groupLevel);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 4;
+    }
+
     /**
      * Returns the operation.
      * @return the operation.
@@ -42,6 +47,7 @@ public final class SpecifyGroupOperationOrder extends XohOrder {
      * Sets the operation.
      */
     public void setOperation(final int operation) {
+        this.modified();
         this.operation = operation;
     }
 
@@ -56,6 +62,7 @@ public final class SpecifyGroupOperationOrder extends XohOrder {
      * Sets the group level.
      */
     public void setGroupLevel(final int groupLevel) {
+        this.modified();
         this.groupLevel = groupLevel;
     }
 
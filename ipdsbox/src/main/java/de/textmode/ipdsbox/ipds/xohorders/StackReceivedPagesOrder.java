@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Stack Received Pages order.
@@ -11,17 +11,22 @@ import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
 public final class StackReceivedPagesOrder extends XohOrder {
 
     /**
-     * Constructs the {@link StackReceivedPagesOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link StackReceivedPagesOrder} from the given {@link IpdsInputStream}.
      */
-    StackReceivedPagesOrder(final IpdsByteArrayInputStream ipds) {
+    StackReceivedPagesOrder(final IpdsInputStream ipds) {
         super(XohOrderCode.StackReceivedPages);
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 2;
+    }
+
     /**
      * Accept method for the {@link XohOrderVisitor}.
      */
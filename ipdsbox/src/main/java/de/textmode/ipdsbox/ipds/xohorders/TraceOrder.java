@@ -3,8 +3,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 import java.io.IOException;
 
 import de.textmode.ipdsbox.core.StringUtils;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This class carries all parameters of the Trace order.
@@ -16,9 +16,9 @@ public final class TraceOrder extends XohOrder {
     private byte[] options;
 
     /**
-     * Constructs the {@link TraceOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link TraceOrder} from the given {@link IpdsInputStream}.
      */
-    TraceOrder(final IpdsByteArrayInputStream ipds) throws IOException {
+    TraceOrder(final IpdsInputStream ipds) throws IOException {
         super(XohOrderCode.Trace);
 
         this.function = ipds.readUnsignedByte();
@@ -27,13 +27,18 @@ public final class TraceOrder extends XohOrder {
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeUnsignedByte(this.function);
         out.writeUnsignedByte(this.controlFlags);
         out.writeBytes(this.options);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 4 + this.options.length;
+    }
+
     /**
      * Returns the function.
      */
@@ -45,6 +50,7 @@ public final class TraceOrder extends XohOrder {
      * Sets the function.
      */
     public void setFunction(final int function) {
+        this.modified();
         this.function = function;
     }
 
@@ -59,6 +65,7 @@ public final class TraceOrder extends XohOrder {
      * Sets the control flags.
      */
     public void setControlFlags(final int controlFlags) {
+        this.modified();
         this.controlFlags = controlFlags;
     }
 
@@ -66,6 +73,7 @@ public final class TraceOrder extends XohOrder {
      * Returns the options.
      */
     public byte[] getOptions() {
+        this.exposed();
         return this.options;
     }
 
@@ -73,6 +81,7 @@ public final class TraceOrder extends XohOrder {
      * Sets the options.
      */
     public void setOptions(final byte[] options) {
+        this.modified();
         this.options = options;
     }
 
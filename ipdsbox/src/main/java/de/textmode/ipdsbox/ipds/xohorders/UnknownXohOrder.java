@@ -2,8 +2,8 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * This {@link UnknownXohOrder} is created for all unknown {@link XohOrder}.
@@ -13,20 +13,25 @@ public final class UnknownXohOrder extends XohOrder {
     private final byte[] orderCodeData;
 
     /**
-     * Constructs the {@link UnknownXohOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link UnknownXohOrder} from the given {@link IpdsInputStream}.
      */
-    UnknownXohOrder(final IpdsByteArrayInputStream ipds, final int orderCodeId) {
+    UnknownXohOrder(final IpdsInputStream ipds, final int orderCodeId) {
         super(orderCodeId);
 
         this.orderCodeData = ipds.readRemainingBytes();
     }
 
     @Override
-    public void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+    protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
         out.writeUnsignedInteger16(this.getOrderCodeId());
         out.writeBytes(this.orderCodeData);
     }
 
+    @Override
+    protected int computeEncodedLength() {
+        return 2 + this.orderCodeData.length;
+    }
+
     /**
      * Accept method for the {@link XohOrderVisitor}.
      */
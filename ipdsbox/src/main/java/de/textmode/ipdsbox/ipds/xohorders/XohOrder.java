@@ -1,9 +1,11 @@
 package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
+import java.util.List;
 
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsEncodingCache;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * Superclass of all Execute Home State Orders.
@@ -12,6 +14,8 @@ public abstract class XohOrder {
 
     private final int orderCodeId;
 
+    private final IpdsEncodingCache encoding = new IpdsEncodingCache();
+
     /**
      * Constructs the {@link XohOrder}.
      */
@@ -20,7 +24,7 @@ public abstract class XohOrder {
     }
 
     /**
-     * Constructs the {@link XohOrder} object from IPDS data read with an {@link IpdsByteArrayInputStream}.
+     * Constructs the {@link XohOrder} object from IPDS data read with an {@link IpdsInputStream}.
      */
     protected XohOrder(final XohOrderCode code) {
         this.orderCodeId = code.getValue();
@@ -42,9 +46,110 @@ public abstract class XohOrder {
     }
 
     /**
-     * Writes this {@link XohOrder} to the given {@link IpdsByteArrayOutputStream}.
+     * Writes this {@link XohOrder} to the given {@link IpdsByteArrayOutputStream}. If the encoded form of the
+     * {@link XohOrder} is known (i. e. the {@link XohOrder} has been decoded and has not been modified since
+     * or it has already been encoded), the encoded form is copied as-is.
+     */
+    public final void writeTo(final IpdsByteArrayOutputStream out) throws IOException {
+        this.checkEncoding();
+        this.encoding.writeTo(out, this::encodeTo);
+    }
+
+    /**
+     * Encodes this {@link XohOrder} and writes it to the given {@link IpdsByteArrayOutputStream}.
+     */
+    protected abstract void encodeTo(IpdsByteArrayOutputStream out) throws IOException;
+
+    /**
+     * Returns the number of bytes written by {@link #writeTo(IpdsByteArrayOutputStream)}.
+     */
+    public final int getEncodedLength() throws IOException {
+        return this.checkEncoding() ? this.encoding.getLength() : this.computeEncodedLength();
+    }
+
+    /**
+     * Discards the encoded form if an IPDS structure contained in the {@link XohOrder} has been modified since the
+     * encoded form has been cached. Returns <code>true</code> if the encoded form is valid.
      */
-    public abstract void writeTo(IpdsByteArrayOutputStream out) throws IOException;
+    private boolean checkEncoding() {
+        if (this.encoding.isValid() && !this.isContentUnmodifiedSince(this.encoding)) {
+            this.encoding.modified();
+        }
+        return this.encoding.isValid();
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #encodeTo(IpdsByteArrayOutputStream)}.
+     *
+     * <p>The default implementation writes the {@link XohOrder} to a length counter. Subclasses should override
+     * this method and compute the length directly.
+     */
+    protected int computeEncodedLength() throws IOException {
+        final IpdsByteArrayOutputStream counter = IpdsByteArrayOutputStream.createLengthCounter();
+        this.encodeTo(counter);
+        return counter.getSize();
+    }
+
+    /**
+     * Returns <code>true</code> if the encoded form of the {@link XohOrder} is known, so
+     * {@link #writeTo(IpdsByteArrayOutputStream)} copies it instead of encoding the {@link XohOrder}.
+     */
+    public final boolean isEncodingCached() {
+        return this.checkEncoding();
+    }
+
+    /**
+     * Sets the original encoded form of a decoded {@link XohOrder}. The given view is kept (the bytes are not copied),
+     * so its underlying data must not be modified as long as the {@link XohOrder} is used.
+     */
+    final void setOriginalEncoding(final IpdsInputStream original) {
+        this.encoding.setOriginal(original);
+    }
+
+    /**
+     * Discards the encoded form of the {@link XohOrder}. Must be called by every method that modifies the
+     * {@link XohOrder}.
+     */
+    protected final void modified() {
+        this.encoding.modified();
+    }
+
+    /**
+     * Discards the encoded form of the {@link XohOrder} for good, so it is encoded by every
+     * {@link #writeTo(IpdsByteArrayOutputStream)}. Must be called by every method that returns a mutable part of
+     * the {@link XohOrder} whose modifications can not be tracked (i. e. a byte array), because the caller may
+     * modify it at any time.
+     */
+    protected final void exposed() {
+        this.encoding.exposed();
+    }
+
+    /**
+     * Returns a view of the given {@link List} that discards the encoded form of the {@link XohOrder} whenever an
+     * element is added, removed or replaced. Must be used by every method that returns a {@link List} of the
+     * {@link XohOrder}.
+     */
+    protected final <T> List<T> tracked(final List<T> list) {
+        return this.encoding.track(list);
+    }
+
+    /**
+     * Returns <code>true</code> if no IPDS structure contained in the {@link XohOrder} (i. e. a triplet) has been
+     * modified since the given encoded form has been cached. Must be overridden by every {@link XohOrder} that
+     * returns contained IPDS structures.
+     */
+    protected boolean isContentUnmodifiedSince(final IpdsEncodingCache container) {
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> if neither the {@link XohOrder} nor an IPDS structure contained in it has been
+     * modified since the encoded form of the given {@link IpdsEncodingCache} (the one of the containing IPDS
+     * structure) has been cached.
+     */
+    public final boolean isUnmodifiedSince(final IpdsEncodingCache container) {
+        return this.encoding.isUnmodifiedSince(container) && this.isContentUnmodifiedSince(container);
+    }
 
     /**
      * Accept method for the {@link XohOrderVisitor}.
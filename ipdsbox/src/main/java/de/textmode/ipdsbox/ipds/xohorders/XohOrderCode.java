@@ -1,8 +1,5 @@
 package de.textmode.ipdsbox.ipds.xohorders;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * XOH (Execute Order Home State) Order Code.
  */
@@ -115,11 +112,16 @@ public enum XohOrderCode {
      */
     Trace(0xF200, "XOH Trace");
 
-    private static final Map<Integer, XohOrderCode> REVERSE_MAP = new HashMap<>();
+    // The high byte of the XOH order codes is unique (the low byte is always X'00'), so the high byte
+    // is used as an index into the lookup table.
+    private static final XohOrderCode[] LOOKUP_TABLE = new XohOrderCode[256];
 
     static {
         for (final XohOrderCode code : values()) {
-            REVERSE_MAP.put(code.getValue(), code);
+            if ((code.getValue() & ~0xFFFF) != 0 || LOOKUP_TABLE[code.getValue() >>> 8] != null) {
+                throw new IllegalStateException("Invalid or duplicate XOH order code " + code);
+            }
+            LOOKUP_TABLE[code.getValue() >>> 8] = code;
         }
     }
 
@@ -139,7 +141,12 @@ public enum XohOrderCode {
      * code is unknown.
      */
     public static XohOrderCode getIfKnown(final int value) {
-        return REVERSE_MAP.get(value);
+        if ((value & ~0xFFFF) != 0) {
+            return null;
+        }
+
+        final XohOrderCode code = LOOKUP_TABLE[value >>> 8];
+        return code != null && code.code == value ? code : null;
     }
 
     /**
@@ -2,14 +2,63 @@ package de.textmode.ipdsbox.ipds.xohorders;
 
 import java.io.IOException;
 
+import de.textmode.ipdsbox.core.Decoder;
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.DecoderRegistry;
+import de.textmode.ipdsbox.core.DecoderTable;
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
-import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
 
 /**
  * A factory for all supported {@link XohOrder}s.
+ *
+ * <p>The {@link XohOrder}s are decoded by the {@link Decoder}s of a {@link DecoderTable}. The {@link DecoderTable}
+ * of all XOH orders supported by ipdsbox is returned by {@link #getDefaultDecoders()}. Own {@link Decoder}s can be
+ * added with {@link DecoderTable#toRegistry()} and used by a {@link DecoderContext} (see
+ * {@link #create(IpdsInputStream, DecoderContext)}), which is passed to the XOH orders carried by Execute Order
+ * Home State commands as well.
  */
 public final class XohOrderFactory {
 
+    // The second byte of all XOH order codes is zero, so the first byte is used as the index...
+    private static final DecoderTable<XohOrder> DEFAULT_DECODERS =
+        new DecoderRegistry<XohOrder>(8, (ipds, code, context) -> new UnknownXohOrder(ipds, code))
+            .register(XohOrderCode.DeactivateSavedPageGroup.getValue(),
+                    (ipds, code, context) -> new DeactivateSavedPageGroupOrder(ipds, context))
+            .register(XohOrderCode.DefineGroupBoundary.getValue(),
+                    (ipds, code, context) -> new DefineGroupBoundaryOrder(ipds, context))
+            .register(XohOrderCode.EjectToFrontFacing.getValue(),
+                    (ipds, code, context) -> new EjectToFrontFacingOrder(ipds))
+            .register(XohOrderCode.EraseResidualFontData.getValue(),
+                    (ipds, code, context) -> new EraseResidualFontDataOrder(ipds))
+            .register(XohOrderCode.EraseResidualPrintData.getValue(),
+                    (ipds, code, context) -> new EraseResidualPrintDataOrder(ipds))
+            .register(XohOrderCode.ObtainPrinterCharacteristics.getValue(),
+                    (ipds, code, context) -> new ObtainPrinterCharacteristicsOrder(ipds))
+            .register(XohOrderCode.PageCountersControl.getValue(),
+                    (ipds, code, context) -> new PageCountersControlOrder(ipds))
+            .register(XohOrderCode.PrintBufferedData.getValue(),
+                    (ipds, code, context) -> new PrintBufferedDataOrder(ipds))
+            .register(XohOrderCode.RemoveSavedGroup.getValue(),
+                    (ipds, code, context) -> new RemoveSavedPageGroupOrder(ipds, context))
+            .register(XohOrderCode.SelectInputMediaSource.getValue(),
+                    (ipds, code, context) -> new SelectInputMediaSourceOrder(ipds))
+            .register(XohOrderCode.SelectMediumModifications.getValue(),
+                    (ipds, code, context) -> new SelectMediumModificationsOrder(ipds))
+            .register(XohOrderCode.SeparateContinuousForms.getValue(),
+                    (ipds, code, context) -> new SeparateContinuousFormsOrder(ipds))
+            .register(XohOrderCode.SetMediaOrigin.getValue(),
+                    (ipds, code, context) -> new SetMediaOriginOrder(ipds))
+            .register(XohOrderCode.SetMediaSize.getValue(),
+                    (ipds, code, context) -> new SetMediaSizeOrder(ipds))
+            .register(XohOrderCode.SpecifyGroupOperation.getValue(),
+                    (ipds, code, context) -> new SpecifyGroupOperationOrder(ipds))
+            .register(XohOrderCode.StackReceivedPages.getValue(),
+                    (ipds, code, context) -> new StackReceivedPagesOrder(ipds))
+            .register(XohOrderCode.Trace.getValue(),
+                    (ipds, code, context) -> new TraceOrder(ipds))
+            .freeze();
+
     /**
      * Private constructor to make checkstyle happy.
      */
@@ -17,35 +66,37 @@ public final class XohOrderFactory {
     }
 
     /**
-     * Creates a {@link XohOrder} from the given {@link IpdsByteArrayInputStream}.
+     * Returns the {@link DecoderTable} of all {@link XohOrder}s supported by ipdsbox.
+     */
+    public static DecoderTable<XohOrder> getDefaultDecoders() {
+        return DEFAULT_DECODERS;
+    }
+
+    /**
+     * Creates a {@link XohOrder} from the given {@link IpdsInputStream}. The {@link XohOrder} keeps a view of the
+     * underlying data as its original encoded form, so the underlying data must not be modified as long as the
+     * {@link XohOrder} is used.
      */
-    public static XohOrder create(final IpdsByteArrayInputStream ipds)
+    public static XohOrder create(final IpdsInputStream ipds)
         throws IOException, InvalidIpdsCommandException {
+        return create(ipds, DecoderContext.getDefault());
+    }
+
+    /**
+     * Creates a {@link XohOrder} from the given {@link IpdsInputStream} with the {@link Decoder}s of the
+     * given {@link DecoderContext}.
+     */
+    public static XohOrder create(
+            final IpdsInputStream ipds,
+            final DecoderContext context) throws IOException, InvalidIpdsCommandException {
+
+        final int availableLength = ipds.bytesAvailable();
+        final XohOrder order = context.getXohOrders().decode(ipds, ipds.readUnsignedInteger16(), context);
+
+        // Keep a view of the original encoded form (no copy), so an unmodified order is written as-is.
+        ipds.rewind(availableLength - ipds.bytesAvailable());
+        order.setOriginalEncoding(ipds.readView(availableLength));
 
-        final int orderCodeId = ipds.readUnsignedInteger16();
-        final XohOrderCode orderCode = XohOrderCode.getIfKnown(orderCodeId);
-
-        return switch (orderCode) {
-            case DeactivateSavedPageGroup -> new DeactivateSavedPageGroupOrder(ipds);
-            case DefineGroupBoundary -> new DefineGroupBoundaryOrder(ipds);
-            case EjectToFrontFacing -> new EjectToFrontFacingOrder(ipds);
-            case EraseResidualFontData -> new EraseResidualFontDataOrder(ipds);
-            case EraseResidualPrintData -> new EraseResidualPrintDataOrder(ipds);
-            case ObtainPrinterCharacteristics -> new ObtainPrinterCharacteristicsOrder(ipds);
-            case PageCountersControl -> new PageCountersControlOrder(ipds);
-            case PrintBufferedData -> new PrintBufferedDataOrder(ipds);
-            case RemoveSavedGroup -> new RemoveSavedPageGroupOrder(ipds);
-            case SelectInputMediaSource -> new SelectInputMediaSourceOrder(ipds);
-            case SelectMediumModifications -> new SelectMediumModificationsOrder(ipds);
-            case SeparateContinuousForms -> new SeparateContinuousFormsOrder(ipds);
-            case SetMediaOrigin -> new SetMediaOriginOrder(ipds);
-            case SetMediaSize -> new SetMediaSizeOrder(ipds);
-            case SpecifyGroupOperation -> new SpecifyGroupOperationOrder(ipds);
-            case StackReceivedPages -> new StackReceivedPagesOrder(ipds);
-            case Trace -> new TraceOrder(ipds);
-
-            // Unhandled and/or unknown (orderCode == null)...
-            default -> new UnknownXohOrder(ipds, orderCodeId);
-        };
+        return order;
     }
 }
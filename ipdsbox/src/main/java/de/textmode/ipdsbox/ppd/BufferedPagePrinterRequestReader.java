@@ -0,0 +1,348 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import de.textmode.ipdsbox.core.ByteUtils;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+
+/**
+ * Reads {@link PagePrinterRequest}s from an {@link InputStream} using a reusable receive buffer.
+ *
+ * <p>Unlike the {@link PagePrinterRequestReader}, which reads the request header byte by byte, the
+ * {@link BufferedPagePrinterRequestReader} reads as many bytes as available into its receive buffer
+ * and parses the request headers and the data of the requests from this buffer. So many small requests
+ * (like ACKs and NOPs) are usually read with one single call of {@link InputStream#read(byte[], int, int)},
+ * which is one syscall if the {@link InputStream} is the {@link InputStream} of a socket.
+ *
+ * <p>The data of the current request is available as a view of the receive buffer (see {@link #getData()}),
+ * which is only valid until the next request is read. Use {@link #read()} or {@link #toPagePrinterRequest()}
+ * if a {@link PagePrinterRequest} that owns its data is required. If the {@link BufferedPagePrinterRequestReader}
+ * has a {@link PagePrinterRequestBufferPool}, the data is copied into a pooled buffer and the returned
+ * {@link PagePrinterRequest}s have to be released (see {@link PagePrinterRequest#release()}).
+ *
+ * <p>The receive buffer grows if a request is larger than the receive buffer and shrinks back to its initial
+ * size after such a request has been read. A request that claims to be longer than the maximum request length
+ * (see {@link #DEFAULT_MAX_REQUEST_LENGTH}) is rejected, so a broken or malicious counterpart can not make the
+ * {@link BufferedPagePrinterRequestReader} allocate arbitrary amounts of memory.
+ */
+public final class BufferedPagePrinterRequestReader {
+
+    /**
+     * The default size of the receive buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The default maximum length of a request (including the header).
+     */
+    public static final int DEFAULT_MAX_REQUEST_LENGTH = PagePrinterRequestDecoder.DEFAULT_MAX_REQUEST_LENGTH;
+
+    private static final int HEADER_LENGTH = 8;
+
+    private final InputStream in;
+    private final PagePrinterRequestBufferPool pool;
+    private final int bufferSize;
+    private final int maxRequestLength;
+    private byte[] buffer;
+    private int start;
+    private int end;
+
+    private int request;
+    private int dataOffset = -1;
+    private int dataLength;
+
+    private int lastReadCalls;
+    private int lastBytesRead;
+    private long totalReadCalls;
+    private long totalBytesRead;
+    private long requestCount;
+
+    /**
+     * Constructs a {@link BufferedPagePrinterRequestReader} with a receive buffer of the default size.
+     *
+     * @param in {@link InputStream} to be read from
+     */
+    public BufferedPagePrinterRequestReader(final InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a {@link BufferedPagePrinterRequestReader}.
+     *
+     * @param in {@link InputStream} to be read from
+     * @param bufferSize the initial size of the receive buffer
+     */
+    public BufferedPagePrinterRequestReader(final InputStream in, final int bufferSize) {
+        this(in, bufferSize, null);
+    }
+
+    /**
+     * Constructs a {@link BufferedPagePrinterRequestReader} that copies the data of the {@link PagePrinterRequest}s
+     * returned by {@link #read()} and {@link #toPagePrinterRequest()} into buffers of a
+     * {@link PagePrinterRequestBufferPool}.
+     *
+     * @param in {@link InputStream} to be read from
+     * @param bufferSize the initial size of the receive buffer
+     * @param pool the {@link PagePrinterRequestBufferPool} or <code>null</code> if the data should not be pooled
+     */
+    public BufferedPagePrinterRequestReader(
+            final InputStream in,
+            final int bufferSize,
+            final PagePrinterRequestBufferPool pool) {
+
+        this(in, bufferSize, pool, DEFAULT_MAX_REQUEST_LENGTH);
+    }
+
+    /**
+     * Constructs a {@link BufferedPagePrinterRequestReader} that copies the data of the {@link PagePrinterRequest}s
+     * returned by {@link #read()} and {@link #toPagePrinterRequest()} into buffers of a
+     * {@link PagePrinterRequestBufferPool}.
+     *
+     * @param in {@link InputStream} to be read from
+     * @param bufferSize the initial size of the receive buffer
+     * @param pool the {@link PagePrinterRequestBufferPool} or <code>null</code> if the data should not be pooled
+     * @param maxRequestLength the maximum length of a request (including the header)
+     *
+     * @throws IllegalArgumentException if the buffer size or the maximum request length is less than 8.
+     */
+    public BufferedPagePrinterRequestReader(
+            final InputStream in,
+            final int bufferSize,
+            final PagePrinterRequestBufferPool pool,
+            final int maxRequestLength) {
+
+        if (bufferSize < HEADER_LENGTH) {
+            throw new IllegalArgumentException("The buffer size must be at least " + HEADER_LENGTH + " bytes");
+        }
+        if (maxRequestLength < HEADER_LENGTH) {
+            throw new IllegalArgumentException("The maximum request length must be at least " + HEADER_LENGTH);
+        }
+
+        this.in = in;
+        this.pool = pool;
+        this.bufferSize = bufferSize;
+        this.maxRequestLength = maxRequestLength;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Reads the next {@link PagePrinterRequest}. After this method returned <code>true</code>, the
+     * request can be accessed using {@link #getRequest()} and {@link #getData()}.
+     *
+     * @return <code>false</code> if the end of the {@link InputStream} has been reached
+     *  before the first byte of the next request.
+     *
+     * @throws IOException If an error occurred while reading from the {@link InputStream}, when
+     *  the {@link InputStream} ends unexpectedly or when the request exceeds the maximum request length.
+     */
+    public boolean next() throws IOException {
+        this.dataOffset = -1;
+        this.lastReadCalls = 0;
+        this.lastBytesRead = 0;
+
+        this.shrink();
+
+        if (!this.fill(HEADER_LENGTH)) {
+            return false;
+        }
+
+        final int length = ByteUtils.toInteger32(this.buffer, this.start);
+        if (length < HEADER_LENGTH) {
+            throw new IOException(PagePrinterRequestReader.ERROR_INVALID_LENGTH + length);
+        }
+
+        if (length > this.maxRequestLength) {
+            throw new IOException("The received request has a length of " + length
+                    + " bytes which exceeds the maximum request length of " + this.maxRequestLength + " bytes");
+        }
+
+        if (!this.fill(length)) {
+            throw new IOException(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF);
+        }
+
+        this.request = ByteUtils.toInteger32(this.buffer, this.start + 4);
+        this.dataOffset = this.start + HEADER_LENGTH;
+        this.dataLength = length - HEADER_LENGTH;
+        this.start += length;
+
+        ++this.requestCount;
+
+        return true;
+    }
+
+    /**
+     * Reads the next {@link PagePrinterRequest}. The returned {@link PagePrinterRequest} owns a copy of its data
+     * (which is a pooled buffer if the {@link BufferedPagePrinterRequestReader} has a
+     * {@link PagePrinterRequestBufferPool}).
+     *
+     * @return If EOF occurred on reading the first byte <code>null</code> will be returned, otherwise
+     *  a newly constructed {@link PagePrinterRequest}.
+     *
+     * @throws IOException If an error occurred while reading from the {@link InputStream} or when
+     *  the {@link InputStream} ends unexpectedly.
+     */
+    public PagePrinterRequest read() throws IOException {
+        return this.next() ? this.toPagePrinterRequest() : null;
+    }
+
+    /**
+     * Makes sure that at least <code>required</code> bytes are available in the receive buffer. The
+     * receive buffer is compacted (or enlarged) if the bytes would not fit into the buffer.
+     *
+     * @return <code>false</code> if the end of the {@link InputStream} has been reached before any
+     *  byte could be read.
+     */
+    private boolean fill(final int required) throws IOException {
+        if (this.end - this.start >= required) {
+            return true;
+        }
+
+        if (this.start == this.end) {
+            this.start = 0;
+            this.end = 0;
+        }
+
+        if (this.buffer.length - this.start < required) {
+            final byte[] target = required > this.buffer.length
+                    ? new byte[Math.max(required, this.buffer.length * 2)]
+                    : this.buffer;
+
+            System.arraycopy(this.buffer, this.start, target, 0, this.end - this.start);
+            this.end -= this.start;
+            this.start = 0;
+            this.buffer = target;
+        }
+
+        while (this.end - this.start < required) {
+            final int count = this.in.read(this.buffer, this.end, this.buffer.length - this.end);
+            ++this.lastReadCalls;
+            ++this.totalReadCalls;
+
+            if (count == -1) {
+                if (this.end == this.start) {
+                    return false;
+                }
+                throw new IOException(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF);
+            }
+
+            this.end += count;
+            this.lastBytesRead += count;
+            this.totalBytesRead += count;
+        }
+
+        return true;
+    }
+
+    /**
+     * Shrinks the receive buffer back to its initial size if it has been enlarged for a large request
+     * and the bytes not yet consumed fit into a buffer of the initial size.
+     */
+    private void shrink() {
+        final int available = this.end - this.start;
+        if (this.buffer.length > this.bufferSize && available <= this.bufferSize) {
+            final byte[] target = new byte[this.bufferSize];
+            System.arraycopy(this.buffer, this.start, target, 0, available);
+            this.start = 0;
+            this.end = available;
+            this.buffer = target;
+        }
+    }
+
+    /**
+     * Checks that {@link #next()} has been called successfully.
+     */
+    private void checkCurrentRequest() {
+        if (this.dataOffset < 0) {
+            throw new IllegalStateException("There is no current request");
+        }
+    }
+
+    /**
+     * Returns the integer value of the current request.
+     */
+    public int getRequest() {
+        this.checkCurrentRequest();
+        return this.request;
+    }
+
+    /**
+     * Returns the length of the data of the current request.
+     */
+    public int getDataLength() {
+        this.checkCurrentRequest();
+        return this.dataLength;
+    }
+
+    /**
+     * Returns a view of the data of the current request. The view shares the receive buffer, so
+     * it is only valid until the next request is read.
+     */
+    public IpdsInputStream getData() {
+        this.checkCurrentRequest();
+        return new IpdsByteArrayInputStream(
+                this.buffer,
+                this.dataOffset,
+                this.buffer.length - this.dataOffset - this.dataLength);
+    }
+
+    /**
+     * Returns a {@link PagePrinterRequest} for the current request. The data of the request is copied
+     * (into a pooled buffer if the {@link BufferedPagePrinterRequestReader} has a
+     * {@link PagePrinterRequestBufferPool}).
+     */
+    public PagePrinterRequest toPagePrinterRequest() {
+        this.checkCurrentRequest();
+
+        if (this.pool != null && this.dataLength > 0) {
+            final PagePrinterRequest result = this.pool.acquire(this.request, this.dataLength);
+            System.arraycopy(this.buffer, this.dataOffset, result.getData(), 0, this.dataLength);
+            return result;
+        }
+
+        final byte[] data = this.dataLength == 0 ? ByteUtils.EMPTY_BYTE_ARRAY : new byte[this.dataLength];
+        System.arraycopy(this.buffer, this.dataOffset, data, 0, this.dataLength);
+
+        return new PagePrinterRequest(this.request, data);
+    }
+
+    /**
+     * Returns the number of calls of {@link InputStream#read(byte[], int, int)} that were required to
+     * read the current request. This is 0 if the current request has been read completely by
+     * the calls for a previous request.
+     */
+    public int getLastRequestReadCalls() {
+        return this.lastReadCalls;
+    }
+
+    /**
+     * Returns the number of bytes read from the {@link InputStream} while reading the current request.
+     * This may be more or less than the length of the current request, because the receive buffer
+     * may contain following requests or may already have contained the current request.
+     */
+    public int getLastRequestBytesRead() {
+        return this.lastBytesRead;
+    }
+
+    /**
+     * Returns the total number of calls of {@link InputStream#read(byte[], int, int)}.
+     */
+    public long getTotalReadCalls() {
+        return this.totalReadCalls;
+    }
+
+    /**
+     * Returns the total number of bytes read from the {@link InputStream}.
+     */
+    public long getTotalBytesRead() {
+        return this.totalBytesRead;
+    }
+
+    /**
+     * Returns the number of requests read.
+     */
+    public long getRequestCount() {
+        return this.requestCount;
+    }
+}
@@ -0,0 +1,100 @@
+package de.textmode.ipdsbox.ppd;
+
+/**
+ * The {@link FlushPolicy} determines when a {@link PagePrinterRequestWriter} writes the queued
+ * {@link PagePrinterRequest}s to its channel.
+ *
+ * <p>Writing every {@link PagePrinterRequest} immediately results in one TCP segment per request, which is
+ * wasteful for bulk page data (many Write Text and Write Image commands). On the other hand a request the
+ * peer has to respond to (i. e. an IPDS command with the ARQ flag, an Acknowledge Reply or a request that
+ * is not an IPDS data request) must not be delayed because the peer would wait for it.
+ */
+public final class FlushPolicy {
+
+    /**
+     * Every {@link PagePrinterRequest} is written immediately.
+     */
+    public static final FlushPolicy IMMEDIATE = new FlushPolicy(true, 0, 0);
+
+    private final boolean flushIfResponseExpected;
+    private final int sizeThreshold;
+    private final long maxDelayMillis;
+
+    private FlushPolicy(final boolean flushIfResponseExpected, final int sizeThreshold, final long maxDelayMillis) {
+        this.flushIfResponseExpected = flushIfResponseExpected;
+        this.sizeThreshold = sizeThreshold;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Returns a {@link FlushPolicy} that writes the queued {@link PagePrinterRequest}s as soon as a
+     * {@link PagePrinterRequest} is queued the peer has to respond to (for example an IPDS command with
+     * the ARQ flag). Other {@link PagePrinterRequest}s are coalesced until one of the thresholds is reached.
+     *
+     * @param sizeThreshold the queued requests are written if they are at least this number of bytes
+     * @param maxDelayMillis the queued requests are written if the oldest one has been queued for at least
+     *  this number of milliseconds. 0 disables the time threshold.
+     */
+    public static FlushPolicy onResponseExpected(final int sizeThreshold, final long maxDelayMillis) {
+        return new FlushPolicy(true, checkSizeThreshold(sizeThreshold), checkMaxDelay(maxDelayMillis));
+    }
+
+    /**
+     * Returns a {@link FlushPolicy} that writes the queued {@link PagePrinterRequest}s only if one of the
+     * thresholds is reached (or if the {@link PagePrinterRequestWriter} is flushed explicitly).
+     *
+     * @param sizeThreshold the queued requests are written if they are at least this number of bytes
+     * @param maxDelayMillis the queued requests are written if the oldest one has been queued for at least
+     *  this number of milliseconds. 0 disables the time threshold.
+     */
+    public static FlushPolicy thresholds(final int sizeThreshold, final long maxDelayMillis) {
+        return new FlushPolicy(false, checkSizeThreshold(sizeThreshold), checkMaxDelay(maxDelayMillis));
+    }
+
+    private static int checkSizeThreshold(final int sizeThreshold) {
+        if (sizeThreshold < 1) {
+            throw new IllegalArgumentException("The size threshold must be positive");
+        }
+        return sizeThreshold;
+    }
+
+    private static long checkMaxDelay(final long maxDelayMillis) {
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("The maximum delay must not be negative");
+        }
+        return maxDelayMillis;
+    }
+
+    /**
+     * Returns <code>true</code> if the queued {@link PagePrinterRequest}s are written as soon as a
+     * {@link PagePrinterRequest} is queued the peer has to respond to.
+     */
+    public boolean isFlushIfResponseExpected() {
+        return this.flushIfResponseExpected;
+    }
+
+    /**
+     * Returns the number of bytes that causes the queued {@link PagePrinterRequest}s to be written.
+     * 0 means that every {@link PagePrinterRequest} is written immediately.
+     */
+    public int getSizeThreshold() {
+        return this.sizeThreshold;
+    }
+
+    /**
+     * Returns the maximum number of milliseconds a {@link PagePrinterRequest} may be queued.
+     * 0 means that there is no time threshold.
+     */
+    public long getMaxDelayMillis() {
+        return this.maxDelayMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "FlushPolicy{"
+                + "flushIfResponseExpected=" + this.flushIfResponseExpected
+                + ", sizeThreshold=" + this.sizeThreshold
+                + ", maxDelayMillis=" + this.maxDelayMillis
+                + '}';
+    }
+}
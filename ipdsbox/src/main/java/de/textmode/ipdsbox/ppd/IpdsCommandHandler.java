@@ -0,0 +1,14 @@
+package de.textmode.ipdsbox.ppd;
+
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+
+/**
+ * This is the handler interface for every {@link IpdsCommand} decoded from a {@link PagePrinterRequest}.
+ */
+public interface IpdsCommandHandler {
+
+    /**
+     * Handles the {@link IpdsCommand}.
+     */
+    void handle(final IpdsCommand command);
+}
@@ -0,0 +1,191 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.core.StringUtils;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
+
+/**
+ * Packs multiple {@link IpdsCommand}s into one IPDS data request (request 0x0E) and writes the
+ * requests to an {@link OutputStream}.
+ *
+ * <p>Hosts like IBM InfoPrint usually send many IPDS commands within one request, whereas
+ * {@link PagePrinterRequest#PagePrinterRequest(IpdsCommand)} builds a request for exactly one IPDS command.
+ * The {@link IpdsCommandPackingWriter} encodes the {@link IpdsCommand}s directly into the open request (the
+ * length of an {@link IpdsCommand} is determined in advance by {@link IpdsCommand#getEncodedLength()}), so the
+ * encoded IPDS commands are not copied again. The request is closed (i. e. the length fields are filled in
+ * and the request is written) if
+ * <ul>
+ * <li>an {@link IpdsCommand} with the ARQ flag has been appended, because the sender will wait for the
+ *     Acknowledge Reply. The {@link OutputStream} is flushed in this case.</li>
+ * <li>the next {@link IpdsCommand} does not fit into the request.</li>
+ * <li>the next {@link IpdsCommand} is an Acknowledge Reply and the open request contains IPDS commands
+ *     or vice versa, because the direction is part of the request header.</li>
+ * <li>{@link #flush()} is called. The {@link OutputStream} is flushed in this case.</li>
+ * </ul>
+ */
+public final class IpdsCommandPackingWriter implements Flushable {
+
+    /**
+     * The default maximum length of a request (including all headers).
+     */
+    public static final int DEFAULT_MAX_REQUEST_LENGTH = 32 * 1024;
+
+    private static final int HEADER_LENGTH = 16;
+    private static final int MAX_COMMAND_LENGTH = 0xFFFF;
+    private static final byte[] EMPTY_HEADER = new byte[HEADER_LENGTH];
+
+    private final OutputStream out;
+    private final int maxRequestLength;
+    private final boolean isDebugMode;
+    private final IpdsByteArrayOutputStream request;
+
+    private boolean isAcknowledgeReplyRequest;
+
+    private long requestCount;
+    private long commandCount;
+
+    /**
+     * Constructs an {@link IpdsCommandPackingWriter} with the default maximum request length.
+     *
+     * @param out the {@link OutputStream} to write to
+     */
+    public IpdsCommandPackingWriter(final OutputStream out) {
+        this(out, DEFAULT_MAX_REQUEST_LENGTH, false);
+    }
+
+    /**
+     * Constructs an {@link IpdsCommandPackingWriter}.
+     *
+     * @param out the {@link OutputStream} to write to
+     * @param maxRequestLength the maximum length of a request (including all headers). A single IPDS command that
+     *  is larger than this limit is written in a request of its own.
+     * @param isDebugMode <code>true</code> if every written request should be printed to stderr
+     */
+    public IpdsCommandPackingWriter(final OutputStream out, final int maxRequestLength, final boolean isDebugMode) {
+        if (maxRequestLength <= HEADER_LENGTH) {
+            throw new IllegalArgumentException("The maximum request length must be larger than " + HEADER_LENGTH);
+        }
+
+        this.out = out;
+        this.maxRequestLength = maxRequestLength;
+        this.isDebugMode = isDebugMode;
+        this.request = new IpdsByteArrayOutputStream(Math.max(maxRequestLength, HEADER_LENGTH + MAX_COMMAND_LENGTH));
+    }
+
+    /**
+     * Appends the given {@link IpdsCommand} to the open request. Writes the request if the {@link IpdsCommand}
+     * has the ARQ flag.
+     *
+     * @throws IOException if an error occurred while writing to the {@link OutputStream}.
+     * @throws InvalidIpdsCommandException if the {@link IpdsCommand} could not be encoded.
+     */
+    public void write(final IpdsCommand command) throws IOException, InvalidIpdsCommandException {
+        final int size = command.getEncodedLength();
+        if (size > MAX_COMMAND_LENGTH) {
+            throw new InvalidIpdsCommandException(
+                    "The IPDS command " + command.getCommandCode() + " is too long (" + size + " bytes)");
+        }
+
+        final boolean isAcknowledgeReply = command.getCommandCodeId() == IpdsCommandId.ACK.getValue();
+
+        final int length = this.request.getSize();
+        if (length > HEADER_LENGTH
+                && (length + size > this.maxRequestLength
+                    || isAcknowledgeReply != this.isAcknowledgeReplyRequest)) {
+
+            this.writeRequest();
+        }
+
+        if (this.request.getSize() == 0) {
+            // Reserve the header of the request, it is filled in by writeRequest()...
+            this.request.writeBytes(EMPTY_HEADER);
+        }
+
+        final int start = this.request.getSize();
+        try {
+            command.writeTo(this.request);
+        } catch (final IOException | InvalidIpdsCommandException | RuntimeException e) {
+            // Remove the partially encoded IPDS command from the open request...
+            this.request.reset(start);
+            throw e;
+        }
+
+        this.isAcknowledgeReplyRequest = isAcknowledgeReply;
+        ++this.commandCount;
+
+        if (command.getCommandFlags().isAcknowledgmentRequired()) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Writes the open request (if it contains any IPDS command) and flushes the {@link OutputStream}.
+     *
+     * @throws IOException if an error occurred while writing to the {@link OutputStream}.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.request.getSize() > HEADER_LENGTH) {
+            this.writeRequest();
+        }
+
+        this.out.flush();
+    }
+
+    /**
+     * Fills in the length fields of the open request and writes it to the {@link OutputStream}.
+     */
+    private void writeRequest() throws IOException {
+        // The format (see PagePrinterRequest):
+        //
+        // "00000015 0000000E 00000001 00000005 0005D6E480"
+        //     ^        ^        ^        ^         ^
+        //     |        |        |        |         +-- the IPDS commands
+        //     |        |        |        +-- Length of the following IPDS commands.
+        //     |        |        +-- 0x00000001 if sent to the printer, 0x00000000 if an ACK is sent by the printer
+        //     |        +-- 0x0E is "IPDS data"
+        //     +-- Complete length (incl. itself)
+        final int length = this.request.getSize();
+
+        this.request.overwriteInteger32(0, length);
+        this.request.overwriteInteger32(4, 0x0E);
+        this.request.overwriteInteger32(8, this.isAcknowledgeReplyRequest ? 0x00000000 : 0x00000001);
+        this.request.overwriteInteger32(12, length - HEADER_LENGTH);
+
+        this.request.writeTo(this.out);
+
+        if (this.isDebugMode) {
+            System.err.println("SEND: " + StringUtils.toHexString(this.request.toByteArray(), 0, length));
+        }
+
+        this.request.reset();
+        ++this.requestCount;
+    }
+
+    /**
+     * Returns the number of bytes of the IPDS commands in the open request.
+     */
+    public int getPendingBytes() {
+        return Math.max(0, this.request.getSize() - HEADER_LENGTH);
+    }
+
+    /**
+     * Returns the number of requests written.
+     */
+    public long getRequestCount() {
+        return this.requestCount;
+    }
+
+    /**
+     * Returns the number of {@link IpdsCommand}s written (or appended to the open request).
+     */
+    public long getCommandCount() {
+        return this.commandCount;
+    }
+}
@@ -0,0 +1,194 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import de.textmode.ipdsbox.core.ByteUtils;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+
+/**
+ * Reads {@link PagePrinterRequest}s from an {@link InputStream} and returns every {@link IpdsCommand}
+ * carried by the requests, regardless of how many {@link IpdsCommand}s are carried by a single request.
+ *
+ * <p>Requests that do not carry IPDS data (i. e. all requests other than 0x0E) are passed to a
+ * {@link PagePrinterRequestHandler}, so the caller can handle these control requests separately.
+ *
+ * <p>The data of a request is read into an internal buffer that is reused for all requests. The buffer
+ * only grows if a request is larger than every request read before, so the memory used by the
+ * {@link IpdsCommandReader} does not depend on the length of the session.
+ */
+public final class IpdsCommandReader {
+
+    private static final int HEADER_LENGTH = 8;
+    private static final int INITIAL_BUFFER_SIZE = 32 * 1024;
+
+    private final InputStream in;
+    private final PagePrinterRequestHandler controlRequestHandler;
+    private final byte[] header = new byte[HEADER_LENGTH];
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private IpdsInputStream commands;
+
+    /**
+     * Constructs an {@link IpdsCommandReader} that ignores all requests that do not carry IPDS data.
+     *
+     * @param in {@link InputStream} to be read from
+     */
+    public IpdsCommandReader(final InputStream in) {
+        this(in, null);
+    }
+
+    /**
+     * Constructs an {@link IpdsCommandReader}.
+     *
+     * @param in {@link InputStream} to be read from
+     * @param controlRequestHandler {@link PagePrinterRequestHandler} that gets all requests that do not carry
+     *  IPDS data. May be <code>null</code> if these requests shall be ignored.
+     */
+    public IpdsCommandReader(final InputStream in, final PagePrinterRequestHandler controlRequestHandler) {
+        this.in = in;
+        this.controlRequestHandler = controlRequestHandler;
+    }
+
+    /**
+     * Reads and returns the next {@link IpdsCommand}. If required, the next {@link PagePrinterRequest}s
+     * are read from the {@link InputStream}.
+     *
+     * @return the next {@link IpdsCommand} or <code>null</code> if the end of the {@link InputStream}
+     *  has been reached.
+     *
+     * @throws IOException If an error occurred while reading from the {@link InputStream} or when
+     *  the {@link InputStream} ends unexpectedly.
+     * @throws InvalidIpdsCommandException If the IPDS command could not be parsed.
+     */
+    public IpdsCommand read() throws IOException, InvalidIpdsCommandException {
+        while (this.commands == null || this.commands.bytesAvailable() == 0) {
+            if (!this.readNextRequest()) {
+                return null;
+            }
+        }
+
+        return IpdsCommandFactory.create(this.commands.readIpdsCommandViewIfExists());
+    }
+
+    /**
+     * Reads the next {@link PagePrinterRequest} into the internal buffer.
+     *
+     * @return <code>false</code> if the end of the {@link InputStream} has been reached.
+     */
+    private boolean readNextRequest() throws IOException {
+        this.commands = null;
+
+        final int headerLength = this.in.readNBytes(this.header, 0, HEADER_LENGTH);
+        if (headerLength == 0) {
+            return false;
+        }
+        if (headerLength < HEADER_LENGTH) {
+            throw new IOException(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF);
+        }
+
+        final int length = ByteUtils.toInteger32(this.header, 0);
+        final int request = ByteUtils.toInteger32(this.header, 4);
+
+        final int dataLength = length - HEADER_LENGTH;
+        if (dataLength < 0) {
+            throw new IOException(PagePrinterRequestReader.ERROR_INVALID_LENGTH + length);
+        }
+
+        if (dataLength > this.buffer.length) {
+            this.buffer = new byte[Math.max(dataLength, this.buffer.length * 2)];
+        }
+
+        if (this.in.readNBytes(this.buffer, 0, dataLength) < dataLength) {
+            throw new IOException(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF);
+        }
+
+        if (request != 0x0E) {
+            if (this.controlRequestHandler != null) {
+                this.controlRequestHandler.handle(
+                        new PagePrinterRequest(request, Arrays.copyOf(this.buffer, dataLength)));
+            }
+            return true;
+        }
+
+        // The first 8 bytes of the IPDS data contain some kind of flags and the length
+        // of the following IPDS commands. Skip them...
+        if (dataLength < 8) {
+            throw new IOException(PagePrinterRequestReader.ERROR_INVALID_LENGTH + length);
+        }
+
+        this.commands = new IpdsByteArrayInputStream(this.buffer, 8, this.buffer.length - dataLength);
+        return true;
+    }
+
+    /**
+     * Returns an {@link Iterator} over all {@link IpdsCommand}s that are readable from the {@link InputStream}.
+     * Errors are thrown as {@link UncheckedIOException}s.
+     */
+    public Iterator<IpdsCommand> iterator() {
+        return new Iterator<>() {
+
+            private IpdsCommand next;
+
+            @Override
+            public boolean hasNext() {
+                if (this.next == null) {
+                    this.next = IpdsCommandReader.this.readUnchecked();
+                }
+                return this.next != null;
+            }
+
+            @Override
+            public IpdsCommand next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final IpdsCommand result = this.next;
+                this.next = null;
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link Spliterator} over all {@link IpdsCommand}s that are readable from the {@link InputStream}.
+     * Errors are thrown as {@link UncheckedIOException}s.
+     */
+    public Spliterator<IpdsCommand> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this.iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a sequential {@link Stream} of all {@link IpdsCommand}s that are readable from the
+     * {@link InputStream}. Errors are thrown as {@link UncheckedIOException}s.
+     */
+    public Stream<IpdsCommand> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Reads the next {@link IpdsCommand} and wraps all exceptions into an {@link UncheckedIOException}.
+     */
+    private IpdsCommand readUnchecked() {
+        try {
+            return this.read();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (final InvalidIpdsCommandException e) {
+            throw new UncheckedIOException(new IOException(e.getMessage(), e));
+        }
+    }
+}
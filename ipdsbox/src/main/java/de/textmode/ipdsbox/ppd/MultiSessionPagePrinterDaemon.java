@@ -0,0 +1,419 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.textmode.ipdsbox.core.ExceptionHelper;
+import de.textmode.ipdsbox.core.LoggerInterface;
+import de.textmode.ipdsbox.ppd.PagePrinterDaemon.DaemonState;
+
+/**
+ * The {@link MultiSessionPagePrinterDaemon} receives page printer requests (PPR) from many counterparts
+ * at the same time. Unlike the {@link PagePrinterDaemon}, which handles one connection after the other,
+ * it uses non-blocking I/O and serves all connections (sessions) on a small fixed set of I/O threads.
+ *
+ * <p>Every accepted connection is assigned to one of the I/O threads (round robin, I/O threads that have
+ * terminated unexpectedly are skipped). The I/O thread reads
+ * the data of the connection, decodes the {@link PagePrinterRequest}s using a {@link PagePrinterRequestDecoder}
+ * and passes them, together with the {@link PagePrinterSession}, to the {@link PagePrinterSessionHandler}.
+ *
+ * <p>The {@link Observer}s are notified about state changes like the ones of the {@link PagePrinterDaemon}.
+ * The state is {@link DaemonState#RUNNING} as long as at least one session is established and
+ * {@link DaemonState#ACCEPTING} if the daemon is waiting for connections and no session is established.
+ */
+final class MultiSessionPagePrinterDaemon extends Observable implements Runnable {
+
+    private static final int RECEIVE_BUFFER_SIZE = 64 * 1024;
+
+    private final ServerSocketChannel serverSocketChannel;
+    private final LoggerInterface logger;
+    private final PagePrinterSessionHandler sessionHandler;
+    private final IoWorker[] workers;
+
+    private final AtomicLong sessionIds = new AtomicLong();
+    private int activeSessions;
+
+    private volatile DaemonState state = DaemonState.INITIALIZED;
+
+    /**
+     * Constructs a {@link MultiSessionPagePrinterDaemon}.
+     *
+     * @param serverSocketChannel the {@link ServerSocketChannel} that will be used for accepting connections
+     * @param logger a logger used for output of messages to the user
+     * @param sessionHandler the {@link PagePrinterSessionHandler} that will be invoked for
+     *  every {@link PagePrinterRequest}
+     * @param ioThreads the number of I/O threads
+     */
+    MultiSessionPagePrinterDaemon(
+            final ServerSocketChannel serverSocketChannel,
+            final LoggerInterface logger,
+            final PagePrinterSessionHandler sessionHandler,
+            final int ioThreads) throws IOException {
+
+        this.serverSocketChannel = serverSocketChannel;
+        this.logger = logger;
+        this.sessionHandler = sessionHandler;
+
+        this.workers = new IoWorker[ioThreads];
+        for (int ix = 0; ix < ioThreads; ++ix) {
+            this.workers[ix] = new IoWorker(ix, Selector.open());
+        }
+    }
+
+    /**
+     * Returns the current state of the {@link MultiSessionPagePrinterDaemon}.
+     * @return the current state of the {@link MultiSessionPagePrinterDaemon}.
+     */
+    public DaemonState getDaemonState() {
+        return this.state;
+    }
+
+    /**
+     * Returns the number of currently established sessions.
+     */
+    public synchronized int getActiveSessionCount() {
+        return this.activeSessions;
+    }
+
+    /**
+     * Sets the new state of the {@link MultiSessionPagePrinterDaemon} and notifies all
+     * {@link Observer}s of the state change.
+     */
+    private synchronized void setDaemonState(final DaemonState newState) {
+        if (this.state == DaemonState.SHUTDOWN_REQUESTED && newState != DaemonState.SHUTDOWN_DONE) {
+            return;
+        }
+
+        this.state = newState;
+        this.setChanged();
+        this.notifyObservers(this.state);
+    }
+
+    /**
+     * Start up the {@link MultiSessionPagePrinterDaemon}. The I/O threads as well as the thread that
+     * accepts the connections are started, so this method will return pretty fast.
+     */
+    public void startup() {
+        this.logger.info("Starting multi session page printer daemon....");
+        new Thread(this).start();
+    }
+
+    /**
+     * Starts the I/O threads and accepts incoming connections until the {@link MultiSessionPagePrinterDaemon}
+     * is shut down.
+     */
+    @Override
+    public void run() {
+        final Thread[] threads = new Thread[this.workers.length];
+        for (int ix = 0; ix < threads.length; ++ix) {
+            threads[ix] = new Thread(this.workers[ix], "ppd-io-" + ix);
+            threads[ix].start();
+        }
+
+        this.logger.info("Waiting for connections...");
+        this.setDaemonState(DaemonState.ACCEPTING);
+
+        int next = 0;
+        while (this.state != DaemonState.SHUTDOWN_REQUESTED) {
+            try {
+                final SocketChannel channel = this.serverSocketChannel.accept();
+                channel.configureBlocking(false);
+
+                final IoWorker worker = this.nextAliveWorker(next);
+                if (worker == null) {
+                    this.logger.error("All I/O threads have terminated, the connection is refused");
+                    closeQuietly(channel);
+                    continue;
+                }
+
+                worker.register(channel);
+                next = (worker.index + 1) % this.workers.length;
+            } catch (final IOException e) {
+                if (this.state != DaemonState.SHUTDOWN_REQUESTED) {
+                    this.logger.error(ExceptionHelper.stackTraceToString(e));
+                }
+
+                // No more connections can be accepted if the server socket has been closed...
+                if (!this.serverSocketChannel.isOpen()) {
+                    this.shutdown();
+                }
+            }
+        }
+
+        for (final Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        this.setDaemonState(DaemonState.SHUTDOWN_DONE);
+    }
+
+    /**
+     * Returns the first {@link IoWorker} that is still alive, starting at the given index (round robin), or
+     * <code>null</code> if all {@link IoWorker}s have terminated.
+     */
+    private IoWorker nextAliveWorker(final int start) {
+        for (int ix = 0; ix < this.workers.length; ++ix) {
+            final IoWorker worker = this.workers[(start + ix) % this.workers.length];
+            if (worker.isAlive) {
+                return worker;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Shut down the {@link MultiSessionPagePrinterDaemon}. This method will just initiate the shutdown
+     * and return. This method will <b>not</b> wait until the shutdown is complete.
+     */
+    public void shutdown() {
+        this.logger.info("Shutting down multi session page printer daemon....");
+
+        if (this.state != DaemonState.SHUTDOWN_REQUESTED && this.state != DaemonState.SHUTDOWN_DONE) {
+            this.setDaemonState(DaemonState.SHUTDOWN_REQUESTED);
+        }
+
+        try {
+            this.serverSocketChannel.close();
+        } catch (final IOException e) {
+            this.logger.debug("An exception occurred on close of the server socket (ignored!)");
+            this.logger.debug(ExceptionHelper.stackTraceToString(e));
+        }
+
+        for (final IoWorker worker : this.workers) {
+            worker.selector.wakeup();
+        }
+
+        this.logger.info("Page printer shutdown request has been issued.");
+    }
+
+    /**
+     * An {@link IoWorker} serves many {@link PagePrinterSession}s using one {@link Selector}.
+     */
+    private final class IoWorker implements Runnable {
+
+        private final int index;
+        private final Selector selector;
+        private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+        private final Queue<PagePrinterSession> writeRequests = new ConcurrentLinkedQueue<>();
+        private final Queue<PagePrinterSession> closeRequests = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(RECEIVE_BUFFER_SIZE);
+
+        // Cleared as soon as the I/O thread terminates, so no more connections are handed over.
+        private volatile boolean isAlive = true;
+
+        IoWorker(final int index, final Selector selector) {
+            this.index = index;
+            this.selector = selector;
+        }
+
+        /**
+         * Hands over a newly accepted connection to this {@link IoWorker}.
+         */
+        void register(final SocketChannel channel) {
+            this.newChannels.add(channel);
+            this.selector.wakeup();
+
+            // The I/O thread may have terminated in the meantime...
+            if (!this.isAlive) {
+                this.closeNewChannels();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (MultiSessionPagePrinterDaemon.this.state != DaemonState.SHUTDOWN_REQUESTED) {
+                    this.selector.select();
+                    this.registerNewChannels();
+                    this.closeRequestedSessions();
+                    this.enableWrites();
+
+                    for (final SelectionKey key : this.selector.selectedKeys()) {
+                        this.handleKey(key);
+                    }
+                    this.selector.selectedKeys().clear();
+                }
+            } catch (final IOException | RuntimeException e) {
+                // Includes the ClosedSelectorException...
+                MultiSessionPagePrinterDaemon.this.logger.error(ExceptionHelper.stackTraceToString(e));
+            } finally {
+                this.isAlive = false;
+                this.closeAll();
+            }
+        }
+
+        private void registerNewChannels() {
+            SocketChannel channel;
+            while ((channel = this.newChannels.poll()) != null) {
+                try {
+                    final PagePrinterSession session = new PagePrinterSession(
+                            MultiSessionPagePrinterDaemon.this.sessionIds.incrementAndGet(),
+                            channel,
+                            MultiSessionPagePrinterDaemon.this.sessionHandler,
+                            this::requestWrite,
+                            this::requestClose);
+
+                    channel.register(this.selector, SelectionKey.OP_READ, session);
+                    this.sessionOpened(session);
+                } catch (final IOException | RuntimeException e) {
+                    MultiSessionPagePrinterDaemon.this.logger.error(ExceptionHelper.stackTraceToString(e));
+
+                    final SelectionKey key = channel.keyFor(this.selector);
+                    if (key != null && key.attachment() != null) {
+                        this.close(key, (PagePrinterSession) key.attachment());
+                    } else {
+                        closeQuietly(channel);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Invoked if data has been queued for sending on the given {@link PagePrinterSession}. The
+         * {@link Selector} is woken up, so the I/O thread can wait for the connection to become writable.
+         */
+        private void requestWrite(final PagePrinterSession session) {
+            this.writeRequests.add(session);
+            this.selector.wakeup();
+        }
+
+        /**
+         * Invoked if the given {@link PagePrinterSession} shall be closed (on any thread). The {@link Selector} is
+         * woken up, so the I/O thread closes the session and invokes the {@link PagePrinterSessionHandler}.
+         */
+        private void requestClose(final PagePrinterSession session) {
+            this.closeRequests.add(session);
+            this.selector.wakeup();
+        }
+
+        private void closeRequestedSessions() {
+            PagePrinterSession session;
+            while ((session = this.closeRequests.poll()) != null) {
+                final SelectionKey key = session.getChannel().keyFor(this.selector);
+                if (key != null) {
+                    this.close(key, session);
+                } else {
+                    closeQuietly(session.getChannel());
+                }
+            }
+        }
+
+        private void enableWrites() {
+            PagePrinterSession session;
+            while ((session = this.writeRequests.poll()) != null) {
+                final SelectionKey key = session.getChannel().keyFor(this.selector);
+                if (key != null && key.isValid() && session.hasPendingWrites()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            }
+        }
+
+        private void handleKey(final SelectionKey key) {
+            final PagePrinterSession session = (PagePrinterSession) key.attachment();
+            if (session == null) {
+                return;
+            }
+
+            try {
+                if (key.isValid() && key.isWritable() && session.writePending()) {
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                }
+
+                if (key.isValid() && key.isReadable()) {
+                    this.receiveBuffer.clear();
+                    if (session.getChannel().read(this.receiveBuffer) < 0) {
+                        session.endOfStream();
+                        this.close(key, session);
+                        return;
+                    }
+
+                    this.receiveBuffer.flip();
+                    session.received(this.receiveBuffer);
+                }
+
+                if (!key.isValid() || session.isCloseRequested()) {
+                    this.close(key, session);
+                }
+            } catch (final IOException | RuntimeException e) {
+                // A failing session (or a failing PagePrinterSessionHandler) must not affect the other
+                // sessions served by this I/O thread, so only this session is closed...
+                MultiSessionPagePrinterDaemon.this.logger.error(ExceptionHelper.stackTraceToString(e));
+                this.close(key, session);
+            }
+        }
+
+        private void sessionOpened(final PagePrinterSession session) {
+            // The sessions of all I/O threads are counted, so the counter and the state are changed together...
+            synchronized (MultiSessionPagePrinterDaemon.this) {
+                if (++MultiSessionPagePrinterDaemon.this.activeSessions == 1) {
+                    MultiSessionPagePrinterDaemon.this.setDaemonState(DaemonState.RUNNING);
+                }
+            }
+            MultiSessionPagePrinterDaemon.this.sessionHandler.sessionOpened(session);
+        }
+
+        private void close(final SelectionKey key, final PagePrinterSession session) {
+            // The session may already have been closed (i. e. if close() has been invoked more than once)...
+            if (session == null || key.attachment() != session) {
+                return;
+            }
+
+            key.attach(null);
+            key.cancel();
+            closeQuietly(session.getChannel());
+
+            try {
+                MultiSessionPagePrinterDaemon.this.sessionHandler.sessionClosed(session);
+            } catch (final RuntimeException e) {
+                MultiSessionPagePrinterDaemon.this.logger.error(ExceptionHelper.stackTraceToString(e));
+            }
+
+            synchronized (MultiSessionPagePrinterDaemon.this) {
+                if (--MultiSessionPagePrinterDaemon.this.activeSessions == 0) {
+                    MultiSessionPagePrinterDaemon.this.setDaemonState(DaemonState.ACCEPTING);
+                }
+            }
+        }
+
+        private void closeAll() {
+            if (this.selector.isOpen()) {
+                for (final SelectionKey key : this.selector.keys()) {
+                    this.close(key, (PagePrinterSession) key.attachment());
+                }
+                closeQuietly(this.selector);
+            }
+
+            this.closeNewChannels();
+        }
+
+        private void closeNewChannels() {
+            SocketChannel channel;
+            while ((channel = this.newChannels.poll()) != null) {
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    private static void closeQuietly(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (final IOException e) {
+            // Ignored - nothing we can do here...
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.textmode.ipdsbox.io.IpdsByteBufferInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+
+/**
+ * Reads {@link PagePrinterRequest}s from a capture file (a file that contains the raw PPD/PPR data
+ * stream of a complete session, as sent by a Page Printer Requester) without copying them to the heap.
+ *
+ * <p>The capture file is memory mapped. The 8 byte header of every request (overall length and request code)
+ * is read in place and the data of the request is exposed as an {@link IpdsInputStream} that shares the
+ * mapped memory. Because a single mapping can not exceed 2 GB, the file is mapped in windows. If a request
+ * does not fit into the current window, a new window is mapped that starts at the request, so at most one
+ * window is referenced by the {@link PagePrinterCaptureReader} at a time.
+ *
+ * <p>The reader is used like a cursor:
+ * <pre>
+ * try (PagePrinterCaptureReader reader = new PagePrinterCaptureReader(path)) {
+ *     while (reader.next()) {
+ *         if (reader.getRequest() == 0x0E) {
+ *             final IpdsInputStream ipds = reader.getIpdsData();
+ *             IpdsInputStream command;
+ *             while ((command = ipds.readIpdsCommandViewIfExists()) != null) {
+ *                 ...
+ *             }
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>Note that the views returned by the {@link PagePrinterCaptureReader} keep their window mapped as long
+ * as they are referenced, so views should not be retained longer than required.
+ */
+public final class PagePrinterCaptureReader implements Closeable {
+
+    /**
+     * Default size of a window (256 MB).
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private static final int HEADER_LENGTH = 8;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    private long nextOffset;
+    private long requestOffset = -1;
+    private int requestLength;
+    private int request;
+
+    /**
+     * Constructs a {@link PagePrinterCaptureReader} that uses the default window size.
+     *
+     * @param path the capture file to be read
+     *
+     * @throws IOException if the capture file could not be opened.
+     */
+    public PagePrinterCaptureReader(final Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a {@link PagePrinterCaptureReader}.
+     *
+     * @param path the capture file to be read
+     * @param windowSize the (minimum) size of a mapped window. A larger window is mapped if a single
+     *  request is larger than the given size.
+     *
+     * @throws IOException if the capture file could not be opened.
+     */
+    public PagePrinterCaptureReader(final Path path, final int windowSize) throws IOException {
+        if (windowSize < HEADER_LENGTH) {
+            throw new IllegalArgumentException("The window size must be at least " + HEADER_LENGTH + " bytes");
+        }
+
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = this.channel.size();
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Advances to the next {@link PagePrinterRequest} of the capture file.
+     *
+     * @return <code>true</code> if the next {@link PagePrinterRequest} has been read, <code>false</code>
+     *  if the end of the capture file has been reached.
+     *
+     * @throws IOException if the capture file could not be read or the capture file ends unexpectedly.
+     */
+    public boolean next() throws IOException {
+        final long offset = this.nextOffset;
+        if (offset == this.fileSize) {
+            this.requestOffset = -1;
+            return false;
+        }
+
+        if (this.fileSize - offset < HEADER_LENGTH) {
+            throw new IOException(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF);
+        }
+
+        this.ensureMapped(offset, HEADER_LENGTH);
+
+        final int index = (int) (offset - this.windowStart);
+        final int length = this.window.getInt(index);
+        if (length < HEADER_LENGTH) {
+            throw new IOException(PagePrinterRequestReader.ERROR_INVALID_LENGTH + length);
+        }
+
+        if (this.fileSize - offset < length) {
+            throw new IOException(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF);
+        }
+
+        this.request = this.window.getInt(index + 4);
+        this.ensureMapped(offset, length);
+
+        this.requestOffset = offset;
+        this.requestLength = length;
+        this.nextOffset = offset + length;
+
+        return true;
+    }
+
+    /**
+     * Makes sure that the given region of the capture file is contained in the current window. If not,
+     * a new window is mapped that starts at the given offset.
+     */
+    private void ensureMapped(final long offset, final int length) throws IOException {
+        if (this.window != null
+                && offset >= this.windowStart
+                && offset + length <= this.windowStart + this.window.limit()) {
+            return;
+        }
+
+        final long size = Math.min(Math.max(this.windowSize, length), this.fileSize - offset);
+
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        this.windowStart = offset;
+    }
+
+    /**
+     * Checks that {@link #next()} has been called successfully.
+     */
+    private void checkCurrentRequest() {
+        if (this.requestOffset < 0) {
+            throw new IllegalStateException("There is no current request");
+        }
+    }
+
+    /**
+     * Returns the integer value of the current request.
+     */
+    public int getRequest() {
+        this.checkCurrentRequest();
+        return this.request;
+    }
+
+    /**
+     * Returns the offset of the current request within the capture file.
+     */
+    public long getRequestOffset() {
+        this.checkCurrentRequest();
+        return this.requestOffset;
+    }
+
+    /**
+     * Returns the length of the data of the current request (excluding the 8 byte header).
+     */
+    public int getDataLength() {
+        this.checkCurrentRequest();
+        return this.requestLength - HEADER_LENGTH;
+    }
+
+    /**
+     * Returns a view of the data of the current request (excluding the 8 byte header).
+     */
+    public IpdsInputStream getData() {
+        this.checkCurrentRequest();
+        return this.createView(HEADER_LENGTH, this.requestLength - HEADER_LENGTH);
+    }
+
+    /**
+     * Returns a view of the IPDS commands carried by the current request. The first 8 bytes of the
+     * data of a request carrying IPDS data (request 0x0E) are skipped, so the returned
+     * {@link IpdsInputStream} starts with the first IPDS command.
+     *
+     * @throws IOException if the current request does not carry IPDS data.
+     */
+    public IpdsInputStream getIpdsData() throws IOException {
+        this.checkCurrentRequest();
+
+        if (this.request != 0x0E || this.requestLength < HEADER_LENGTH + 8) {
+            throw new IOException("The request at offset " + this.requestOffset + " does not carry IPDS data");
+        }
+
+        return this.createView(HEADER_LENGTH + 8, this.requestLength - HEADER_LENGTH - 8);
+    }
+
+    /**
+     * Returns a {@link PagePrinterRequest} for the current request. The data of the request
+     * is copied to the heap.
+     */
+    public PagePrinterRequest toPagePrinterRequest() {
+        return new PagePrinterRequest(this.getRequest(), this.getData().readRemainingBytes());
+    }
+
+    private IpdsInputStream createView(final int offset, final int length) {
+        final int index = (int) (this.requestOffset - this.windowStart) + offset;
+        return new IpdsByteBufferInputStream(this.window, index, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.window = null;
+        this.channel.close();
+    }
+}
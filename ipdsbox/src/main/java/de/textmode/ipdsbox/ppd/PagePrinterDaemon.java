@@ -6,6 +6,10 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import de.textmode.ipdsbox.core.ExceptionHelper;
 import de.textmode.ipdsbox.core.LoggerInterface;
@@ -14,12 +18,21 @@ import de.textmode.ipdsbox.core.LoggerInterface;
  * The {@link PagePrinterDaemon} (PPD) receives page printer requests (PPR) from its counterpart.
  * This implementation supports TCP connections from a "real" counterpart as well as an
  * {@link InputStream}.
+ *
+ * <p>By default, the connections are handled one after the other on the thread of the daemon. If an
+ * {@link ExecutorService} is given, every accepted connection is handled by a task of the
+ * {@link ExecutorService} (see {@link de.textmode.ipdsbox.core.ExecutionMode}), so many connections
+ * can be handled at the same time. In this case the state is {@link DaemonState#RUNNING} as long as
+ * at least one connection is established.
  */
 final class PagePrinterDaemon extends Observable implements Runnable {
 
     private final ServerSocket serverSocket;
     private final LoggerInterface logger;
     private final PagePrinterRequestHandler requestHandler;
+    private final ExecutorService executor;
+    private final Set<Socket> sessionSockets = ConcurrentHashMap.newKeySet();
+    private int activeSessions;
 
     /**
      * The state of the {@link PagePrinterDaemon}.
@@ -66,9 +79,26 @@ final class PagePrinterDaemon extends Observable implements Runnable {
      */
     PagePrinterDaemon(final ServerSocket serverSocket, final LoggerInterface logger,
         final PagePrinterRequestHandler requestHandler) {
+        this(serverSocket, logger, requestHandler, null);
+    }
+
+    /**
+     * Constructs a {@link PagePrinterDaemon} that will read the requests and IPDS commands
+     * from {@link Socket}s. Every accepted connection is handled by a task of the given {@link ExecutorService}.
+     *
+     * @param serverSocket the {@link ServerSocket} that will be used for accepting connections
+     * @param logger a logger used for output of messages to the user
+     * @param requestHandler the {@link PagePrinterRequestHandler} that will be invoked for
+     *  every {@link PagePrinterRequest}
+     * @param executor the {@link ExecutorService} that handles the connections or <code>null</code>
+     *  if the connections shall be handled one after the other on the thread of the daemon
+     */
+    PagePrinterDaemon(final ServerSocket serverSocket, final LoggerInterface logger,
+        final PagePrinterRequestHandler requestHandler, final ExecutorService executor) {
         this.logger = logger;
         this.requestHandler = requestHandler;
         this.serverSocket = serverSocket;
+        this.executor = executor;
     }
 
     /**
@@ -83,7 +113,7 @@ final class PagePrinterDaemon extends Observable implements Runnable {
      * Sets the new state of the {@link PagePrinterDaemon} and notifies all
      * {@link Observer}s of the state change.
      */
-    private void setDaemonState(final DaemonState newState) {
+    private synchronized void setDaemonState(final DaemonState newState) {
         this.state = newState;
         this.setChanged();
         this.notifyObservers(this.state);
@@ -110,16 +140,41 @@ final class PagePrinterDaemon extends Observable implements Runnable {
         while (this.state != DaemonState.SHUTDOWN_REQUESTED) {
             try {
                 this.acceptConnection();
-                this.handleConnection();
+
+                if (this.executor == null) {
+                    this.handleConnection();
+                } else {
+                    this.submitConnection(this.clientSocket);
+                }
             } catch (final IOException e) {
                 if (this.state != DaemonState.SHUTDOWN_REQUESTED) {
                     this.logger.error(ExceptionHelper.stackTraceToString(e));
                 }
             }
         }
+
+        if (this.executor != null) {
+            this.awaitSessions();
+        }
+
         this.setDaemonState(DaemonState.SHUTDOWN_DONE);
     }
 
+    /**
+     * Closes the connections handled by the {@link ExecutorService} and waits until all tasks have terminated, so
+     * the {@link PagePrinterRequestHandler} is not invoked anymore after the shutdown is done.
+     */
+    private void awaitSessions() {
+        this.executor.shutdown();
+        try {
+            do {
+                this.closeSessionSockets();
+            } while (!this.executor.awaitTermination(1, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Listens on the {@link ServerSocket} and waits for an incoming connection.
      *
@@ -128,10 +183,46 @@ final class PagePrinterDaemon extends Observable implements Runnable {
      */
     private void acceptConnection() throws IOException {
         this.logger.info("Waiting for a connection...");
-        this.setDaemonState(DaemonState.ACCEPTING);
+        this.setAcceptingIfIdle();
         this.clientSocket = this.serverSocket.accept();
     }
 
+    /**
+     * Sets the state to {@link DaemonState#ACCEPTING} if no connection is handled by the {@link ExecutorService}.
+     */
+    private synchronized void setAcceptingIfIdle() {
+        if (this.activeSessions == 0 && this.state != DaemonState.SHUTDOWN_REQUESTED) {
+            this.setDaemonState(DaemonState.ACCEPTING);
+        }
+    }
+
+    /**
+     * Hands over the accepted connection to the {@link ExecutorService}.
+     */
+    private void submitConnection(final Socket socket) {
+        synchronized (this) {
+            if (++this.activeSessions == 1) {
+                this.setDaemonState(DaemonState.RUNNING);
+            }
+        }
+
+        this.sessionSockets.add(socket);
+        this.executor.execute(() -> {
+            try {
+                this.readRequests(socket);
+            } finally {
+                this.sessionSockets.remove(socket);
+                closeQuietly(socket);
+
+                synchronized (this) {
+                    if (--this.activeSessions == 0 && this.state == DaemonState.RUNNING) {
+                        this.setDaemonState(DaemonState.ACCEPTING);
+                    }
+                }
+            }
+        });
+    }
+
     /**
      * Handles the connection. Reads {@link PagePrinterRequest}s from the given {@link Socket}
      * and passes all of them to the registered {@link PagePrinterRequestHandler}. The method
@@ -139,12 +230,21 @@ final class PagePrinterDaemon extends Observable implements Runnable {
      */
     private void handleConnection() {
         this.setDaemonState(DaemonState.RUNNING);
+        this.readRequests(this.clientSocket);
+    }
 
+    /**
+     * Reads {@link PagePrinterRequest}s from the given {@link Socket} and passes all of them to the
+     * registered {@link PagePrinterRequestHandler}. The method will return if the connection gets
+     * closed (gracefully or unexpectedly).
+     */
+    private void readRequests(final Socket socket) {
         try {
-            final InputStream in = this.clientSocket.getInputStream();
+            final BufferedPagePrinterRequestReader reader =
+                    new BufferedPagePrinterRequestReader(socket.getInputStream());
 
             PagePrinterRequest req;
-            while ((req = PagePrinterRequestReader.read(in)) != null) {
+            while ((req = reader.read()) != null) {
                 if (this.state != DaemonState.RUNNING) {
                     return;
                 }
@@ -187,7 +287,23 @@ final class PagePrinterDaemon extends Observable implements Runnable {
             }
         }
 
+        this.closeSessionSockets();
+
         this.logger.info("Page printer shutdown request has been issued.");
     }
 
+    private void closeSessionSockets() {
+        for (final Socket socket : this.sessionSockets) {
+            closeQuietly(socket);
+        }
+    }
+
+    private static void closeQuietly(final Socket socket) {
+        try {
+            socket.close();
+        } catch (final IOException e) {
+            // Ignored - nothing we can do here...
+        }
+    }
+
 }
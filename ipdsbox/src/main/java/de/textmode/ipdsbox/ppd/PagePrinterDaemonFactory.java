@@ -1,9 +1,12 @@
 package de.textmode.ipdsbox.ppd;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
 import java.util.Observer;
 
+import de.textmode.ipdsbox.core.ExecutionMode;
 import de.textmode.ipdsbox.core.IpdsConfigurationException;
 import de.textmode.ipdsbox.core.LoggerInterface;
 
@@ -15,17 +18,24 @@ public final class PagePrinterDaemonFactory {
     private static final String ERROR_NO_HANDLER = "No PagePrinterRequestHandler has been specified";
     private static final String ERROR_NO_LOGGER = "No Logger has been specified";
     private static final String ERROR_NO_SOCKET = "No server socket has been specified";
+    private static final String ERROR_NO_CHANNEL = "No server socket channel has been specified";
+    private static final String ERROR_INVALID_IO_THREADS = "The number of I/O threads must be at least 1";
 
     private LoggerInterface logger;
     private PagePrinterRequestHandler requestHandler;
     private ServerSocket serverSocket;
     private Observer observer;
+    private ExecutionMode executionMode;
+    private PagePrinterSessionHandler sessionHandler;
+    private ServerSocketChannel serverSocketChannel;
+    private int ioThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 
     /**
      * Creates a {@link PagePrinterDaemon}. At least an {@link InputStream} or {@link ServerSocket}
      * must have been set as well as a {@link PagePrinterRequestHandler}.
      *
-     * @throws IpdsConfigurationException if a faulty configuration is detected.
+     * @throws IpdsConfigurationException if a faulty configuration is detected (i. e. an {@link ExecutionMode}
+     *  has been set that is not supported by the running JVM).
      */
     PagePrinterDaemon create() throws IpdsConfigurationException {
         if (this.requestHandler == null) {
@@ -36,7 +46,45 @@ public final class PagePrinterDaemonFactory {
             throw new IpdsConfigurationException(ERROR_NO_SOCKET);
         }
 
-        final PagePrinterDaemon daemon = new PagePrinterDaemon(this.serverSocket, this.logger, this.requestHandler);
+        final PagePrinterDaemon daemon = new PagePrinterDaemon(
+                this.serverSocket,
+                this.logger,
+                this.requestHandler,
+                this.executionMode == null ? null : this.executionMode.createExecutorService("ppd-session-"));
+
+        if (this.observer != null) {
+            daemon.addObserver(this.observer);
+            daemon.notifyObservers(daemon.getDaemonState());
+        }
+
+        return daemon;
+    }
+
+    /**
+     * Creates a {@link MultiSessionPagePrinterDaemon}. A {@link ServerSocketChannel} must have been set as
+     * well as a {@link PagePrinterSessionHandler} or a {@link PagePrinterRequestHandler}.
+     *
+     * @throws IpdsConfigurationException if a faulty configuration is detected.
+     * @throws IOException if the selectors of the I/O threads could not be opened.
+     */
+    MultiSessionPagePrinterDaemon createMultiSession() throws IpdsConfigurationException, IOException {
+        if (this.sessionHandler == null && this.requestHandler == null) {
+            throw new IpdsConfigurationException(ERROR_NO_HANDLER);
+        } else if (this.logger == null) {
+            throw new IpdsConfigurationException(ERROR_NO_LOGGER);
+        } else if (this.serverSocketChannel == null) {
+            throw new IpdsConfigurationException(ERROR_NO_CHANNEL);
+        } else if (this.ioThreads < 1) {
+            throw new IpdsConfigurationException(ERROR_INVALID_IO_THREADS);
+        }
+
+        final PagePrinterRequestHandler handler = this.requestHandler;
+        final PagePrinterSessionHandler h = this.sessionHandler != null
+                ? this.sessionHandler
+                : (session, request) -> handler.handle(request);
+
+        final MultiSessionPagePrinterDaemon daemon =
+                new MultiSessionPagePrinterDaemon(this.serverSocketChannel, this.logger, h, this.ioThreads);
 
         if (this.observer != null) {
             daemon.addObserver(this.observer);
@@ -89,4 +137,52 @@ public final class PagePrinterDaemonFactory {
         this.requestHandler = h;
         return this;
     }
+
+    /**
+     * Sets the {@link ServerSocketChannel} the {@link MultiSessionPagePrinterDaemon} will use to listen for
+     * incoming connections. The {@link ServerSocketChannel} must be in blocking mode.
+     *
+     * @param c the {@link ServerSocketChannel} used for accepting connections.
+     */
+    PagePrinterDaemonFactory serverSocketChannel(final ServerSocketChannel c) {
+        this.serverSocketChannel = c;
+        return this;
+    }
+
+    /**
+     * Sets the {@link PagePrinterSessionHandler} of the {@link MultiSessionPagePrinterDaemon} that will passed
+     * every {@link PagePrinterRequest} to, together with the {@link PagePrinterSession}.
+     *
+     * @param h the {@link PagePrinterSessionHandler} used for processing {@link PagePrinterRequest}.
+     */
+    PagePrinterDaemonFactory pagePrinterSessionHandler(final PagePrinterSessionHandler h) {
+        this.sessionHandler = h;
+        return this;
+    }
+
+    /**
+     * Sets the number of I/O threads of the {@link MultiSessionPagePrinterDaemon}. Defaults to half
+     * the number of available processors.
+     *
+     * @param n the number of I/O threads.
+     */
+    PagePrinterDaemonFactory ioThreads(final int n) {
+        this.ioThreads = n;
+        return this;
+    }
+
+    /**
+     * Sets the (optional) {@link ExecutionMode} of the {@link PagePrinterDaemon}. If set, every accepted
+     * connection is handled on its own (platform or virtual) thread, so many connections can be handled
+     * at the same time. If not set, the connections are handled one after the other.
+     *
+     * <p>Note that if set, the {@link PagePrinterRequestHandler} is invoked concurrently by the threads of all
+     * connections, so it must be thread safe.
+     *
+     * @param m the {@link ExecutionMode} used for handling connections.
+     */
+    PagePrinterDaemonFactory executionMode(final ExecutionMode m) {
+        this.executionMode = m;
+        return this;
+    }
 }
@@ -2,6 +2,8 @@ package de.textmode.ipdsbox.ppd;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
 import de.textmode.ipdsbox.core.StringUtils;
@@ -20,6 +22,8 @@ public final class PagePrinterRequest {
 
     private final int request;
     private final byte[] buffer;
+    private final int length;
+    private final PagePrinterRequestBufferPool.Lease lease;
 
     /**
      * Constructs a {@link PagePrinterRequest}.
@@ -43,6 +47,18 @@ public final class PagePrinterRequest {
     public PagePrinterRequest(final int request, final byte[] buffer) {
         this.request = request;
         this.buffer = buffer;
+        this.length = buffer.length;
+        this.lease = null;
+    }
+
+    /**
+     * Constructs a pooled {@link PagePrinterRequest} (see {@link PagePrinterRequestBufferPool}).
+     */
+    PagePrinterRequest(final int request, final PagePrinterRequestBufferPool.Lease lease, final int length) {
+        this.request = request;
+        this.buffer = lease.getBuffer();
+        this.length = length;
+        this.lease = lease;
     }
 
     private static byte[] commandToByteArray(final IpdsCommand ipdsCommand)
@@ -56,11 +72,8 @@ public final class PagePrinterRequest {
         //     |        |        +-- 0005 = length, D6E4 = IPDS command code, 80 = Flag (ACK requested)
         //     |        +-- Length of the following IPDS command. Maybe more than one can be sent at once?!?
         //     +-- Some kind of flags?
-        final IpdsByteArrayOutputStream commandOnly = new IpdsByteArrayOutputStream();
-        ipdsCommand.writeTo(commandOnly);
-
-        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
-        final byte[] ipdsCommandBytes = commandOnly.toByteArray();
+        final int commandLength = ipdsCommand.getEncodedLength();
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream(8 + commandLength);
 
         // Traces showed that the first four bytes contain 0x00000001 if the command is sent *TO* a
         // printer and 0x00000000 if a ACK reply is sent *FROM* a printer.
@@ -70,8 +83,8 @@ public final class PagePrinterRequest {
             out.writeUnsignedInteger32(0x00000001);
         }
 
-        out.writeUnsignedInteger32(ipdsCommandBytes.length);
-        out.writeBytes(ipdsCommandBytes);
+        out.writeUnsignedInteger32(commandLength);
+        ipdsCommand.writeTo(out);
 
         return out.toByteArray();
     }
@@ -85,12 +98,64 @@ public final class PagePrinterRequest {
 
     /**
      * Returns the data of the request (i. e. the IPDS data).
+     *
+     * <p>If the {@link PagePrinterRequest} is pooled, the returned array may be larger than the data
+     * of the request. Use {@link #getDataLength()} to determine the length of the data.
+     *
+     * @throws IllegalStateException if the pooled {@link PagePrinterRequest} has already been released.
      */
     @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "It is intended that the buffer may be modified")
     public byte[] getData() {
+        if (this.lease != null && this.lease.isReleased()) {
+            throw new IllegalStateException("The PagePrinterRequest has already been released");
+        }
         return this.buffer;
     }
 
+    /**
+     * Returns the length of the data of the request.
+     */
+    public int getDataLength() {
+        return this.length;
+    }
+
+    /**
+     * Returns <code>true</code> if the data of the {@link PagePrinterRequest} is a buffer of a
+     * {@link PagePrinterRequestBufferPool}.
+     */
+    public boolean isPooled() {
+        return this.lease != null;
+    }
+
+    /**
+     * Increments the reference count of a pooled {@link PagePrinterRequest}. Every call of this method
+     * must be paired with a call of {@link #release()}. Does nothing if the {@link PagePrinterRequest}
+     * is not pooled.
+     *
+     * @return this {@link PagePrinterRequest}.
+     *
+     * @throws IllegalStateException if the pooled {@link PagePrinterRequest} has already been released.
+     */
+    public PagePrinterRequest retain() {
+        if (this.lease != null) {
+            this.lease.retain();
+        }
+        return this;
+    }
+
+    /**
+     * Decrements the reference count of a pooled {@link PagePrinterRequest}. If the reference count drops to
+     * zero, the buffer is returned to the {@link PagePrinterRequestBufferPool} and the {@link PagePrinterRequest}
+     * must not be used anymore. Does nothing if the {@link PagePrinterRequest} is not pooled.
+     *
+     * @return <code>true</code> if the buffer has been returned to the {@link PagePrinterRequestBufferPool}.
+     *
+     * @throws IllegalStateException if the pooled {@link PagePrinterRequest} has already been released.
+     */
+    public boolean release() {
+        return this.lease != null && this.lease.release();
+    }
+
     /**
      * Writes the {@link PagePrinterRequest} to the given {@link OutputStream}.
      */
@@ -113,24 +178,41 @@ public final class PagePrinterRequest {
         //     |        +-- Maybe an "operation code", 0x0E is "IPDS data"?
         //     +-- Complete length (incl. itself)
 
-        final byte[] overallLength = intToByteArray(this.getData().length + 8);
+        final byte[] overallLength = intToByteArray(this.length + 8);
         final byte[] requestCode = intToByteArray(this.request);
 
         out.write(overallLength);
         out.write(requestCode);
-        out.write(this.getData());
+        out.write(this.getData(), 0, this.length);
 
         if (isDebugMode) {
             System.err.println("SEND: "
                     + StringUtils.toHexString(overallLength)
                     + StringUtils.toHexString(requestCode)
-                    + StringUtils.toHexString(this.getData()));
+                    + StringUtils.toHexString(this.getData(), 0, this.length));
         }
 
         // Make sure to send it as fast as possible...
         out.flush();
     }
 
+    /**
+     * Writes the {@link PagePrinterRequest} to the given {@link GatheringByteChannel}. The header and the data
+     * are written with one gathering write. Use a {@link PagePrinterRequestWriter} if multiple
+     * {@link PagePrinterRequest}s should be coalesced.
+     */
+    public void writeTo(final GatheringByteChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(8);
+        header.putInt(this.length + 8);
+        header.putInt(this.request);
+        header.flip();
+
+        final ByteBuffer[] buffers = new ByteBuffer[] {header, ByteBuffer.wrap(this.getData(), 0, this.length)};
+        while (buffers[1].hasRemaining() || header.hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
     /**
      * Converts the given integer value into a byte array.
      */
@@ -149,7 +231,7 @@ public final class PagePrinterRequest {
     public String toString() {
         return "PagePrinterRequest{"
                 + "requestCode=" + StringUtils.toHexString(intToByteArray(this.request))
-                + ", data=" + StringUtils.toHexString(this.getData())
+                + ", data=" + StringUtils.toHexString(this.getData(), 0, this.length)
                 + '}';
     }
 }
@@ -0,0 +1,417 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.lang.ref.Cleaner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.textmode.ipdsbox.core.LoggerInterface;
+
+/**
+ * A pool of byte arrays for the data of {@link PagePrinterRequest}s.
+ *
+ * <p>Buffers are grouped into size classes (powers of two, starting with {@value #MIN_BUFFER_LENGTH} bytes).
+ * Every size class has a slab of free buffers that is shared by all threads. Requests whose data is larger than
+ * the largest size class are not pooled.
+ *
+ * <p>Optionally every thread gets a small cache of free buffers per size class, so acquiring and releasing a
+ * buffer usually does not touch the shared slab. The thread cache is disabled by default because the buffers
+ * cached by a thread are lost when the thread terminates. It should only be enabled if the buffers are acquired
+ * and released by a small set of long-living threads (like the I/O threads of a
+ * {@link MultiSessionPagePrinterDaemon}), but not with a thread per session. A thread that terminates can
+ * return its cached buffers to the shared slab by calling {@link #releaseThreadCache()}.
+ *
+ * <p>A pooled {@link PagePrinterRequest} is reference counted. It is created with a reference count of one,
+ * {@link PagePrinterRequest#retain()} increments and {@link PagePrinterRequest#release()} decrements the
+ * reference count. The buffer is returned to the pool when the reference count drops to zero. Note that the
+ * buffer of a pooled {@link PagePrinterRequest} is usually larger than the data of the request, so
+ * {@link PagePrinterRequest#getDataLength()} has to be used to determine the length of the data.
+ *
+ * <p>If the leak detection is enabled (see {@link #enableLeakDetection(LoggerInterface)}), the pool reports
+ * every pooled {@link PagePrinterRequest} that has been garbage collected without being released. The report
+ * contains the stack trace of the code that acquired the {@link PagePrinterRequest}. Because the stack trace
+ * is recorded for every acquired buffer, the leak detection should only be enabled for debugging.
+ */
+public final class PagePrinterRequestBufferPool {
+
+    /**
+     * Length of the smallest size class.
+     */
+    public static final int MIN_BUFFER_LENGTH = 256;
+
+    /**
+     * Default length of the largest size class. The data of WT and WOC commands sent by
+     * PSF is usually 32 KB, so this has to be at least 32 KB plus the header.
+     */
+    public static final int DEFAULT_MAX_BUFFER_LENGTH = 64 * 1024;
+
+    /**
+     * Default number of free buffers per size class in the shared slab.
+     */
+    public static final int DEFAULT_SLAB_CAPACITY = 64;
+
+    /**
+     * Default number of free buffers per size class in the cache of every thread. The thread cache
+     * is disabled by default.
+     */
+    public static final int DEFAULT_THREAD_CACHE_CAPACITY = 0;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_LENGTH);
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final int maxBufferLength;
+    private final int threadCacheCapacity;
+    private final ArrayBlockingQueue<byte[]>[] slabs;
+    private final ThreadLocal<ThreadCache> threadCache;
+
+    private final LongAdder allocatedBuffers = new LongAdder();
+    private final LongAdder reusedBuffers = new LongAdder();
+    private final LongAdder unpooledBuffers = new LongAdder();
+    private final LongAdder leakedRequests = new LongAdder();
+
+    private volatile boolean leakDetectionEnabled;
+    private volatile LoggerInterface leakLogger;
+
+    /**
+     * A per-thread cache of free buffers. Every size class is a simple stack.
+     */
+    private static final class ThreadCache {
+
+        private final byte[][][] buffers;
+        private final int[] counts;
+
+        ThreadCache(final int sizeClasses, final int capacity) {
+            this.buffers = new byte[sizeClasses][capacity][];
+            this.counts = new int[sizeClasses];
+        }
+
+        byte[] poll(final int sizeClass) {
+            final int count = this.counts[sizeClass];
+            if (count == 0) {
+                return null;
+            }
+
+            final byte[] buffer = this.buffers[sizeClass][count - 1];
+            this.buffers[sizeClass][count - 1] = null;
+            this.counts[sizeClass] = count - 1;
+
+            return buffer;
+        }
+
+        boolean offer(final int sizeClass, final byte[] buffer) {
+            final int count = this.counts[sizeClass];
+            if (count == this.buffers[sizeClass].length) {
+                return false;
+            }
+
+            this.buffers[sizeClass][count] = buffer;
+            this.counts[sizeClass] = count + 1;
+
+            return true;
+        }
+
+        /**
+         * Moves all cached buffers of the given size class to the given slab. Buffers that do not fit
+         * into the slab are left to the garbage collector.
+         */
+        void drainTo(final int sizeClass, final ArrayBlockingQueue<byte[]> slab) {
+            for (int ix = 0; ix < this.counts[sizeClass]; ++ix) {
+                slab.offer(this.buffers[sizeClass][ix]);
+                this.buffers[sizeClass][ix] = null;
+            }
+
+            this.counts[sizeClass] = 0;
+        }
+    }
+
+    /**
+     * The buffer and the reference count of a pooled {@link PagePrinterRequest}. The {@link Lease} is also
+     * the cleaning action that is registered if the leak detection is enabled, so it must not reference the
+     * {@link PagePrinterRequest}.
+     */
+    static final class Lease implements Runnable {
+
+        private final PagePrinterRequestBufferPool pool;
+        private final byte[] buffer;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final Throwable allocationSite;
+        private Cleaner.Cleanable cleanable;
+
+        Lease(final PagePrinterRequestBufferPool pool, final byte[] buffer, final Throwable allocationSite) {
+            this.pool = pool;
+            this.buffer = buffer;
+            this.allocationSite = allocationSite;
+        }
+
+        /**
+         * Returns the pooled buffer.
+         */
+        byte[] getBuffer() {
+            return this.buffer;
+        }
+
+        /**
+         * Returns <code>true</code> if the reference count has dropped to zero.
+         */
+        boolean isReleased() {
+            return this.references.get() <= 0;
+        }
+
+        /**
+         * Increments the reference count.
+         */
+        void retain() {
+            int current;
+            do {
+                current = this.references.get();
+                if (current <= 0) {
+                    throw new IllegalStateException("The PagePrinterRequest has already been released");
+                }
+            } while (!this.references.compareAndSet(current, current + 1));
+        }
+
+        /**
+         * Decrements the reference count and returns the buffer to the pool if the reference count drops to zero.
+         *
+         * @return <code>true</code> if the buffer has been returned to the pool.
+         */
+        boolean release() {
+            final int remaining = this.references.decrementAndGet();
+            if (remaining < 0) {
+                this.references.incrementAndGet();
+                throw new IllegalStateException("The PagePrinterRequest has already been released");
+            }
+
+            if (remaining > 0) {
+                return false;
+            }
+
+            if (this.cleanable != null) {
+                this.cleanable.clean();
+            }
+
+            this.pool.recycle(this.buffer);
+            return true;
+        }
+
+        /**
+         * Invoked by the {@link Cleaner} if the {@link PagePrinterRequest} became phantom reachable
+         * or by {@link #release()}.
+         */
+        @Override
+        public void run() {
+            if (!this.isReleased()) {
+                this.pool.reportLeak(this.allocationSite);
+            }
+        }
+    }
+
+    /**
+     * Constructs a {@link PagePrinterRequestBufferPool} with default settings.
+     */
+    public PagePrinterRequestBufferPool() {
+        this(DEFAULT_MAX_BUFFER_LENGTH, DEFAULT_SLAB_CAPACITY, DEFAULT_THREAD_CACHE_CAPACITY);
+    }
+
+    /**
+     * Constructs a {@link PagePrinterRequestBufferPool}.
+     *
+     * @param maxBufferLength length of the largest size class. Will be rounded up to a power of two.
+     * @param slabCapacity number of free buffers per size class in the shared slab
+     * @param threadCacheCapacity number of free buffers per size class in the cache of every thread, zero
+     *  disables the thread cache
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PagePrinterRequestBufferPool(final int maxBufferLength, final int slabCapacity,
+            final int threadCacheCapacity) {
+
+        if (maxBufferLength < MIN_BUFFER_LENGTH) {
+            throw new IllegalArgumentException("The maximum buffer length must be at least " + MIN_BUFFER_LENGTH);
+        }
+        if (slabCapacity < 1 || threadCacheCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+
+        final int sizeClasses = sizeClassOf(maxBufferLength) + 1;
+
+        this.maxBufferLength = lengthOf(sizeClasses - 1);
+        this.threadCacheCapacity = threadCacheCapacity;
+        this.slabs = new ArrayBlockingQueue[sizeClasses];
+        for (int ix = 0; ix < sizeClasses; ++ix) {
+            this.slabs[ix] = new ArrayBlockingQueue<>(slabCapacity);
+        }
+
+        this.threadCache = ThreadLocal.withInitial(() -> new ThreadCache(sizeClasses, threadCacheCapacity));
+    }
+
+    /**
+     * Returns the size class for the given length.
+     */
+    private static int sizeClassOf(final int length) {
+        if (length <= MIN_BUFFER_LENGTH) {
+            return 0;
+        }
+
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * Returns the length of the buffers of the given size class.
+     */
+    private static int lengthOf(final int sizeClass) {
+        return MIN_BUFFER_LENGTH << sizeClass;
+    }
+
+    /**
+     * Enables the leak detection. Every pooled {@link PagePrinterRequest} that is garbage collected without
+     * being released is counted (see {@link #getLeakedRequests()}) and reported to the given logger.
+     *
+     * @param logger logger that receives the leak reports. May be <code>null</code>.
+     */
+    public void enableLeakDetection(final LoggerInterface logger) {
+        this.leakLogger = logger;
+        this.leakDetectionEnabled = true;
+    }
+
+    /**
+     * Disables the leak detection. {@link PagePrinterRequest}s that have been acquired while the leak
+     * detection was enabled are still tracked.
+     */
+    public void disableLeakDetection() {
+        this.leakDetectionEnabled = false;
+    }
+
+    /**
+     * Returns the length of the largest size class. Larger buffers are not pooled.
+     */
+    public int getMaxBufferLength() {
+        return this.maxBufferLength;
+    }
+
+    /**
+     * Acquires a buffer that can hold at least <code>length</code> bytes and returns a pooled
+     * {@link PagePrinterRequest} that owns the buffer. The content of the buffer is undefined, so the
+     * caller has to fill the first <code>length</code> bytes of {@link PagePrinterRequest#getData()}.
+     *
+     * @param request The integer value of the request.
+     * @param length length of the data of the request.
+     *
+     * @return a pooled {@link PagePrinterRequest} with a reference count of one.
+     */
+    public PagePrinterRequest acquire(final int request, final int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+
+        if (length > this.maxBufferLength) {
+            this.unpooledBuffers.increment();
+            return new PagePrinterRequest(request, new byte[length]);
+        }
+
+        final Throwable allocationSite = this.leakDetectionEnabled
+                ? new Throwable("PagePrinterRequest acquired here")
+                : null;
+
+        final Lease lease = new Lease(this, this.allocate(sizeClassOf(length)), allocationSite);
+        final PagePrinterRequest result = new PagePrinterRequest(request, lease, length);
+
+        if (allocationSite != null) {
+            lease.cleanable = CLEANER.register(result, lease);
+        }
+
+        return result;
+    }
+
+    /**
+     * Takes a free buffer of the given size class from the thread cache or the slab, or allocates a new one.
+     */
+    private byte[] allocate(final int sizeClass) {
+        byte[] buffer = this.threadCacheCapacity > 0 ? this.threadCache.get().poll(sizeClass) : null;
+        if (buffer == null) {
+            buffer = this.slabs[sizeClass].poll();
+        }
+
+        if (buffer != null) {
+            this.reusedBuffers.increment();
+            return buffer;
+        }
+
+        this.allocatedBuffers.increment();
+        return new byte[lengthOf(sizeClass)];
+    }
+
+    /**
+     * Returns a buffer to the thread cache or the slab. If both are full the buffer is left to the garbage collector.
+     */
+    private void recycle(final byte[] buffer) {
+        final int sizeClass = sizeClassOf(buffer.length);
+
+        if (this.threadCacheCapacity > 0 && this.threadCache.get().offer(sizeClass, buffer)) {
+            return;
+        }
+
+        this.slabs[sizeClass].offer(buffer);
+    }
+
+    /**
+     * Returns the buffers cached by the current thread to the shared slab and removes the thread cache of
+     * the current thread. Should be called by a thread that has used the {@link PagePrinterRequestBufferPool}
+     * (with the thread cache enabled) before it terminates. If the thread uses the
+     * {@link PagePrinterRequestBufferPool} again, a new thread cache is created.
+     */
+    public void releaseThreadCache() {
+        if (this.threadCacheCapacity == 0) {
+            return;
+        }
+
+        final ThreadCache cache = this.threadCache.get();
+        for (int ix = 0; ix < this.slabs.length; ++ix) {
+            cache.drainTo(ix, this.slabs[ix]);
+        }
+
+        this.threadCache.remove();
+    }
+
+    /**
+     * Reports a {@link PagePrinterRequest} that has been garbage collected without being released.
+     */
+    private void reportLeak(final Throwable allocationSite) {
+        this.leakedRequests.increment();
+
+        final LoggerInterface logger = this.leakLogger;
+        if (logger != null) {
+            logger.error("A pooled PagePrinterRequest has been garbage collected without being released",
+                    allocationSite);
+        }
+    }
+
+    /**
+     * Returns the number of buffers that have been allocated because no free buffer was available.
+     */
+    public long getAllocatedBuffers() {
+        return this.allocatedBuffers.sum();
+    }
+
+    /**
+     * Returns the number of buffers that have been taken from a thread cache or a slab.
+     */
+    public long getReusedBuffers() {
+        return this.reusedBuffers.sum();
+    }
+
+    /**
+     * Returns the number of requests whose data was too large to be pooled.
+     */
+    public long getUnpooledBuffers() {
+        return this.unpooledBuffers.sum();
+    }
+
+    /**
+     * Returns the number of pooled {@link PagePrinterRequest}s that have been garbage collected
+     * without being released. Only counted if the leak detection is enabled.
+     */
+    public long getLeakedRequests() {
+        return this.leakedRequests.sum();
+    }
+}
@@ -0,0 +1,262 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import de.textmode.ipdsbox.core.ByteUtils;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandErrorHandler;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+
+/**
+ * Decodes {@link PagePrinterRequest}s from chunks of bytes. Unlike the {@link PagePrinterRequestReader}
+ * the {@link PagePrinterRequestDecoder} never blocks, so it can be used with non-blocking I/O (i. e.
+ * from a selector loop).
+ *
+ * <p>The caller feeds the {@link PagePrinterRequestDecoder} with arbitrary chunks of bytes (a chunk
+ * may contain a part of a request header, a part of an IPDS command or many requests at once). Every
+ * complete {@link PagePrinterRequest} is passed to a {@link PagePrinterRequestHandler}, and every
+ * {@link de.textmode.ipdsbox.ipds.commands.IpdsCommand} carried by a request with IPDS data (request 0x0E)
+ * is passed to an {@link IpdsCommandHandler}.
+ *
+ * <p>An IPDS command that can not be decoded is passed (with its offset within the data of the request) to an
+ * {@link IpdsCommandErrorHandler} and the decoding continues with the next IPDS command (or, if the length of the
+ * IPDS command is broken, with the next request). Only a request with an invalid length aborts the decoding.
+ *
+ * <p>As soon as the header of a request is complete, a buffer for the data of the request is allocated
+ * and all following bytes of the request are copied into this buffer exactly once. The buffer becomes
+ * the data of the {@link PagePrinterRequest}, so bytes already consumed are never copied again.
+ *
+ * <p>Because the buffer is allocated as soon as the header is complete, a request that claims to be longer
+ * than the maximum request length (see {@link #DEFAULT_MAX_REQUEST_LENGTH}) is rejected, so a broken or
+ * malicious counterpart can not make the {@link PagePrinterRequestDecoder} allocate arbitrary amounts of memory.
+ *
+ * <p>The {@link PagePrinterRequestDecoder} is not thread safe. Every session (connection) needs its own
+ * {@link PagePrinterRequestDecoder}.
+ */
+public final class PagePrinterRequestDecoder {
+
+    /**
+     * The default maximum length of a request (including the header) that will be accepted.
+     */
+    public static final int DEFAULT_MAX_REQUEST_LENGTH = 16 * 1024 * 1024;
+
+    private static final int HEADER_LENGTH = 8;
+
+    private final PagePrinterRequestHandler requestHandler;
+    private final IpdsCommandHandler commandHandler;
+    private final IpdsCommandErrorHandler commandErrorHandler;
+    private final int maxRequestLength;
+
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private int headerBytes;
+
+    private int request;
+    private byte[] data;
+    private int dataBytes;
+
+    /**
+     * Constructs a {@link PagePrinterRequestDecoder}.
+     *
+     * @param requestHandler the {@link PagePrinterRequestHandler} that will be invoked for every
+     *  {@link PagePrinterRequest}. May be <code>null</code>.
+     * @param commandHandler the {@link IpdsCommandHandler} that will be invoked for every
+     *  {@link de.textmode.ipdsbox.ipds.commands.IpdsCommand}. May be <code>null</code> if the
+     *  IPDS commands shall not be decoded.
+     */
+    public PagePrinterRequestDecoder(
+            final PagePrinterRequestHandler requestHandler,
+            final IpdsCommandHandler commandHandler) {
+
+        this(requestHandler, commandHandler, DEFAULT_MAX_REQUEST_LENGTH);
+    }
+
+    /**
+     * Constructs a {@link PagePrinterRequestDecoder} that rejects requests longer than the given length.
+     *
+     * @param requestHandler the {@link PagePrinterRequestHandler} that will be invoked for every
+     *  {@link PagePrinterRequest}. May be <code>null</code>.
+     * @param commandHandler the {@link IpdsCommandHandler} that will be invoked for every
+     *  {@link de.textmode.ipdsbox.ipds.commands.IpdsCommand}. May be <code>null</code> if the
+     *  IPDS commands shall not be decoded.
+     * @param maxRequestLength the maximum length of a request (including the 8 bytes of the header)
+     *
+     * @throws IllegalArgumentException if the maximum request length is less than 8.
+     */
+    public PagePrinterRequestDecoder(
+            final PagePrinterRequestHandler requestHandler,
+            final IpdsCommandHandler commandHandler,
+            final int maxRequestLength) {
+
+        this(requestHandler, commandHandler, null, maxRequestLength);
+    }
+
+    /**
+     * Constructs a {@link PagePrinterRequestDecoder} that rejects requests longer than the given length and
+     * reports IPDS commands that can not be decoded to the given {@link IpdsCommandErrorHandler}.
+     *
+     * @param requestHandler the {@link PagePrinterRequestHandler} that will be invoked for every
+     *  {@link PagePrinterRequest}. May be <code>null</code>.
+     * @param commandHandler the {@link IpdsCommandHandler} that will be invoked for every
+     *  {@link de.textmode.ipdsbox.ipds.commands.IpdsCommand}. May be <code>null</code> if the
+     *  IPDS commands shall not be decoded.
+     * @param commandErrorHandler the {@link IpdsCommandErrorHandler} that will be invoked for every
+     *  IPDS command that can not be decoded. May be <code>null</code> if such IPDS commands shall be skipped.
+     * @param maxRequestLength the maximum length of a request (including the 8 bytes of the header)
+     *
+     * @throws IllegalArgumentException if the maximum request length is less than 8.
+     */
+    public PagePrinterRequestDecoder(
+            final PagePrinterRequestHandler requestHandler,
+            final IpdsCommandHandler commandHandler,
+            final IpdsCommandErrorHandler commandErrorHandler,
+            final int maxRequestLength) {
+
+        if (maxRequestLength < HEADER_LENGTH) {
+            throw new IllegalArgumentException("The maximum request length must be at least " + HEADER_LENGTH);
+        }
+
+        this.requestHandler = requestHandler;
+        this.commandHandler = commandHandler;
+        this.commandErrorHandler = commandErrorHandler;
+        this.maxRequestLength = maxRequestLength;
+    }
+
+    /**
+     * Decodes the given bytes.
+     *
+     * @param chunk the bytes to be decoded
+     * @param offset the offset of the first byte to be decoded
+     * @param length the number of bytes to be decoded
+     *
+     * @throws IOException if a request with an invalid length or a request that exceeds the maximum
+     *  request length has been decoded.
+     */
+    public void feed(final byte[] chunk, final int offset, final int length) throws IOException {
+
+        this.feed(ByteBuffer.wrap(chunk, offset, length));
+    }
+
+    /**
+     * Decodes all remaining bytes of the given {@link ByteBuffer}. The position of the {@link ByteBuffer}
+     * is advanced to its limit.
+     *
+     * @param chunk the bytes to be decoded
+     *
+     * @throws IOException if a request with an invalid length or a request that exceeds the maximum
+     *  request length has been decoded.
+     */
+    public void feed(final ByteBuffer chunk) throws IOException {
+        while (chunk.hasRemaining()) {
+            if (this.data == null) {
+                final int count = Math.min(chunk.remaining(), HEADER_LENGTH - this.headerBytes);
+                chunk.get(this.header, this.headerBytes, count);
+                this.headerBytes += count;
+
+                if (this.headerBytes == HEADER_LENGTH) {
+                    this.startRequest();
+                }
+            } else {
+                final int count = Math.min(chunk.remaining(), this.data.length - this.dataBytes);
+                chunk.get(this.data, this.dataBytes, count);
+                this.dataBytes += count;
+            }
+
+            if (this.data != null && this.dataBytes == this.data.length) {
+                this.completeRequest();
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the {@link PagePrinterRequestDecoder} is between two requests,
+     * i. e. there are no bytes of a partial request pending.
+     */
+    public boolean isIdle() {
+        return this.headerBytes == 0;
+    }
+
+    /**
+     * Signals the end of the data stream.
+     *
+     * @throws IOException if the data stream ends within a request.
+     */
+    public void endOfStream() throws IOException {
+        if (!this.isIdle()) {
+            throw new IOException(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF);
+        }
+    }
+
+    /**
+     * Called when the header of a request is complete. Allocates the buffer for the data of the request.
+     */
+    private void startRequest() throws IOException {
+        final int length = ByteUtils.toInteger32(this.header, 0);
+        if (length < HEADER_LENGTH) {
+            throw new IOException(PagePrinterRequestReader.ERROR_INVALID_LENGTH + length);
+        }
+
+        if (length > this.maxRequestLength) {
+            throw new IOException("The received request has a length of " + length
+                    + " bytes which exceeds the maximum request length of " + this.maxRequestLength + " bytes");
+        }
+
+        this.request = ByteUtils.toInteger32(this.header, 4);
+        this.data = length == HEADER_LENGTH ? ByteUtils.EMPTY_BYTE_ARRAY : new byte[length - HEADER_LENGTH];
+        this.dataBytes = 0;
+    }
+
+    /**
+     * Called when the data of a request is complete. Invokes the handlers and resets the state
+     * for the next request.
+     */
+    private void completeRequest() throws IOException {
+        final PagePrinterRequest req = new PagePrinterRequest(this.request, this.data);
+
+        this.headerBytes = 0;
+        this.data = null;
+        this.dataBytes = 0;
+
+        if (this.requestHandler != null) {
+            this.requestHandler.handle(req);
+        }
+
+        if (this.commandHandler != null && req.getRequest() == 0x0E && req.getDataLength() > 0) {
+            if (req.getDataLength() < 8) {
+                throw new IOException(PagePrinterRequestReader.ERROR_INVALID_LENGTH + (req.getDataLength() + 8));
+            }
+
+            final IpdsInputStream ipds = new IpdsByteArrayInputStream(req.getData(), 8);
+
+            while (ipds.bytesAvailable() > 0) {
+                final int offset = ipds.tell();
+                final IpdsInputStream command;
+
+                try {
+                    command = ipds.readIpdsCommandViewIfExists();
+                } catch (final IOException e) {
+                    // The length of the IPDS command is broken, so the following IPDS commands can not be found...
+                    this.handleCommandError(offset, e);
+                    return;
+                }
+
+                try {
+                    this.commandHandler.handle(IpdsCommandFactory.create(command));
+                } catch (final IOException | InvalidIpdsCommandException e) {
+                    this.handleCommandError(offset, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes an IPDS command that could not be decoded to the {@link IpdsCommandErrorHandler} (if any).
+     */
+    private void handleCommandError(final int offset, final Exception exception) {
+        if (this.commandErrorHandler != null) {
+            this.commandErrorHandler.handle(offset, exception);
+        }
+    }
+}
@@ -58,6 +58,32 @@ public final class PagePrinterRequestReader {
      *  the {@link InputStream} ends unexpectedly.
      */
     public static PagePrinterRequest read(final InputStream in, final boolean printReadBytes) throws IOException {
+        return read(in, printReadBytes, null);
+    }
+
+    /**
+     * Reads bytes from an {@link InputStream} and construct a new {@link PagePrinterRequest} from the read bytes.
+     * The data of the request is read into a buffer of the given {@link PagePrinterRequestBufferPool}, so the
+     * returned {@link PagePrinterRequest} has to be released (see {@link PagePrinterRequest#release()}).
+     *
+     * @param in {@link InputStream} to be read from
+     * @param pool the {@link PagePrinterRequestBufferPool} to take the buffer from
+     *
+     * @return If EOF occurred on reading the first byte <code>null</code> will be returned, otherwise
+     *  a newly constructed {@link PagePrinterRequest}.
+     *
+     * @throws IOException If an error occurred while reading from the {@link InputStream} or when
+     *  the {@link InputStream} ends unexpectedly.
+     */
+    public static PagePrinterRequest read(final InputStream in, final PagePrinterRequestBufferPool pool)
+            throws IOException {
+        return read(in, false, pool);
+    }
+
+    private static PagePrinterRequest read(
+            final InputStream in,
+            final boolean printReadBytes,
+            final PagePrinterRequestBufferPool pool) throws IOException {
 
         // The first four byte contain the overall length of the request, including
         // the length of the four bytes itself.
@@ -72,22 +98,31 @@ public final class PagePrinterRequestReader {
 
         // The remaining bytes contain the data of the command (i. e. the IPDS data).
         // Note that not every command carries additional data.
-        int dataLength = length - 8;
+        final int dataLength = length - 8;
         if (dataLength < 0) {
             throw new IOException(ERROR_INVALID_LENGTH + length);
         }
 
         // Now read the remaining bytes of the request (if there are any).
-        final byte[] buffer = dataLength == 0 ? ByteUtils.EMPTY_BYTE_ARRAY : new byte[dataLength];
+        final PagePrinterRequest result;
+        if (pool != null && dataLength > 0) {
+            result = pool.acquire(request, dataLength);
+        } else {
+            result = new PagePrinterRequest(
+                    request,
+                    dataLength == 0 ? ByteUtils.EMPTY_BYTE_ARRAY : new byte[dataLength]);
+        }
+
+        final byte[] buffer = result.getData();
 
         int offset = 0;
-        while (dataLength > 0) {
-            final int filled = in.read(buffer, offset, dataLength);
+        while (offset < dataLength) {
+            final int filled = in.read(buffer, offset, dataLength - offset);
             if (filled == -1) {
+                result.release();
                 throw new IOException(ERROR_UNEXPECTED_EOF);
             }
             offset += filled;
-            dataLength -= filled;
         }
 
         if (printReadBytes) {
@@ -95,10 +130,11 @@ public final class PagePrinterRequestReader {
             os.writeUnsignedInteger32(length);
             os.writeUnsignedInteger32(request);
 
-            System.err.println("RECV: " + StringUtils.toHexString(os.toByteArray()) + StringUtils.toHexString(buffer));
+            System.err.println("RECV: " + StringUtils.toHexString(os.toByteArray())
+                    + StringUtils.toHexString(buffer, 0, dataLength));
         }
 
-        return new PagePrinterRequest(request, buffer);
+        return result;
     }
 
     /**
@@ -0,0 +1,275 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+
+import de.textmode.ipdsbox.core.ByteUtils;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
+
+/**
+ * Writes {@link PagePrinterRequest}s to a {@link GatheringByteChannel}.
+ *
+ * <p>The {@link PagePrinterRequestWriter} queues the header and the data of every {@link PagePrinterRequest}
+ * and writes all queued {@link PagePrinterRequest}s with gathering writes (see
+ * {@link GatheringByteChannel#write(ByteBuffer[], int, int)}), so neither the data is copied nor a separate
+ * write is required for every header. When the queued {@link PagePrinterRequest}s are written is determined
+ * by the {@link FlushPolicy}.
+ *
+ * <p>If a time threshold is used, the queued {@link PagePrinterRequest}s are only written by
+ * {@link #write(PagePrinterRequest)}, {@link #flushIfDue()} and {@link #flush()}. So the caller has to call
+ * {@link #flushIfDue()} periodically (all methods are thread safe) or {@link #flush()} before it waits for
+ * data from the peer.
+ *
+ * <p>A pooled {@link PagePrinterRequest} is retained while it is queued, so the caller may release it as soon
+ * as {@link #write(PagePrinterRequest)} returns.
+ *
+ * <p>The {@link GatheringByteChannel} must be in blocking mode.
+ */
+public final class PagePrinterRequestWriter implements Flushable, Closeable {
+
+    private static final int HEADER_LENGTH = 8;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final GatheringByteChannel channel;
+    private final FlushPolicy policy;
+
+    private PagePrinterRequest[] requests = new PagePrinterRequest[INITIAL_CAPACITY];
+    private ByteBuffer[] buffers = new ByteBuffer[INITIAL_CAPACITY * 2];
+    private ByteBuffer[] headers = new ByteBuffer[INITIAL_CAPACITY];
+    private int pendingRequests;
+    private long pendingBytes;
+    private long firstPendingNanos;
+
+    private long flushCount;
+    private long writeCalls;
+    private long bytesWritten;
+
+    /**
+     * Constructs a {@link PagePrinterRequestWriter} that writes every {@link PagePrinterRequest} immediately.
+     *
+     * @param channel the {@link GatheringByteChannel} to write to
+     */
+    public PagePrinterRequestWriter(final GatheringByteChannel channel) {
+        this(channel, FlushPolicy.IMMEDIATE);
+    }
+
+    /**
+     * Constructs a {@link PagePrinterRequestWriter}.
+     *
+     * @param channel the {@link GatheringByteChannel} to write to
+     * @param policy the {@link FlushPolicy}
+     */
+    public PagePrinterRequestWriter(final GatheringByteChannel channel, final FlushPolicy policy) {
+        this.channel = channel;
+        this.policy = policy;
+    }
+
+    /**
+     * Returns <code>true</code> if the peer has to respond to the given {@link PagePrinterRequest}, i. e.
+     * if the {@link PagePrinterRequest} is not an IPDS data request or if it contains an IPDS command with
+     * the ARQ flag or an Acknowledge Reply.
+     */
+    static boolean isResponseExpected(final PagePrinterRequest request) {
+        if (request.getRequest() != 0x0E) {
+            return true;
+        }
+
+        final byte[] data = request.getData();
+        final int end = request.getDataLength();
+
+        int offset = HEADER_LENGTH;
+        while (offset + 5 <= end) {
+            final int length = ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+            final int id = ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+
+            if ((data[offset + 4] & 0x80) != 0 || id == IpdsCommandId.ACK.getValue()) {
+                return true;
+            }
+
+            if (length < 5) {
+                break;
+            }
+            offset += length;
+        }
+
+        return false;
+    }
+
+    /**
+     * Queues the given {@link PagePrinterRequest} and writes all queued {@link PagePrinterRequest}s
+     * if required by the {@link FlushPolicy}.
+     *
+     * @throws IOException if an error occurred while writing to the channel.
+     */
+    public synchronized void write(final PagePrinterRequest request) throws IOException {
+        this.enqueue(request.retain());
+
+        if (this.policy.getSizeThreshold() == 0
+                || this.pendingBytes >= this.policy.getSizeThreshold()
+                || this.policy.isFlushIfResponseExpected() && isResponseExpected(request)
+                || this.isDue()) {
+
+            this.flush();
+        }
+    }
+
+    /**
+     * Writes all queued {@link PagePrinterRequest}s if the oldest one has been queued longer than
+     * allowed by the {@link FlushPolicy}.
+     *
+     * @return <code>true</code> if the queued {@link PagePrinterRequest}s have been written.
+     *
+     * @throws IOException if an error occurred while writing to the channel.
+     */
+    public synchronized boolean flushIfDue() throws IOException {
+        if (!this.isDue()) {
+            return false;
+        }
+
+        this.flush();
+        return true;
+    }
+
+    private boolean isDue() {
+        final long maxDelayMillis = this.policy.getMaxDelayMillis();
+
+        return this.pendingRequests > 0
+                && maxDelayMillis > 0
+                && System.nanoTime() - this.firstPendingNanos >= maxDelayMillis * 1000000L;
+    }
+
+    /**
+     * Adds the header and the data of the given {@link PagePrinterRequest} to the queue.
+     */
+    private void enqueue(final PagePrinterRequest request) {
+        if (this.pendingRequests == this.requests.length) {
+            this.requests = Arrays.copyOf(this.requests, this.pendingRequests * 2);
+            this.buffers = Arrays.copyOf(this.buffers, this.pendingRequests * 4);
+            this.headers = Arrays.copyOf(this.headers, this.pendingRequests * 2);
+        }
+
+        ByteBuffer header = this.headers[this.pendingRequests];
+        if (header == null) {
+            header = ByteBuffer.allocate(HEADER_LENGTH);
+            this.headers[this.pendingRequests] = header;
+        }
+
+        final int length = request.getDataLength();
+        header.clear();
+        header.putInt(length + HEADER_LENGTH);
+        header.putInt(request.getRequest());
+        header.flip();
+
+        this.buffers[this.pendingRequests * 2] = header;
+        this.buffers[this.pendingRequests * 2 + 1] = length == 0
+                ? ByteBuffer.wrap(ByteUtils.EMPTY_BYTE_ARRAY)
+                : ByteBuffer.wrap(request.getData(), 0, length);
+
+        if (this.pendingRequests == 0) {
+            this.firstPendingNanos = System.nanoTime();
+        }
+
+        this.requests[this.pendingRequests] = request;
+        this.pendingBytes += length + HEADER_LENGTH;
+        ++this.pendingRequests;
+    }
+
+    /**
+     * Writes all queued {@link PagePrinterRequest}s.
+     *
+     * @throws IOException if an error occurred while writing to the channel.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (this.pendingRequests == 0) {
+            return;
+        }
+
+        try {
+            final int count = this.pendingRequests * 2;
+            int offset = 0;
+            long remaining = this.pendingBytes;
+
+            while (remaining > 0) {
+                remaining -= this.channel.write(this.buffers, offset, count - offset);
+                ++this.writeCalls;
+
+                while (offset < count && !this.buffers[offset].hasRemaining()) {
+                    ++offset;
+                }
+            }
+
+            ++this.flushCount;
+            this.bytesWritten += this.pendingBytes;
+        } finally {
+            for (int ix = 0; ix < this.pendingRequests; ++ix) {
+                this.requests[ix].release();
+                this.requests[ix] = null;
+            }
+
+            Arrays.fill(this.buffers, 0, this.pendingRequests * 2, null);
+            this.pendingRequests = 0;
+            this.pendingBytes = 0;
+        }
+    }
+
+    /**
+     * Writes all queued {@link PagePrinterRequest}s and closes the channel.
+     *
+     * @throws IOException if an error occurred while writing to or closing the channel.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Returns the {@link FlushPolicy} of the {@link PagePrinterRequestWriter}.
+     */
+    public FlushPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Returns the number of queued {@link PagePrinterRequest}s.
+     */
+    public synchronized int getPendingRequests() {
+        return this.pendingRequests;
+    }
+
+    /**
+     * Returns the number of queued bytes (including the headers of the {@link PagePrinterRequest}s).
+     */
+    public synchronized long getPendingBytes() {
+        return this.pendingBytes;
+    }
+
+    /**
+     * Returns the number of flushes that wrote at least one {@link PagePrinterRequest}.
+     */
+    public synchronized long getFlushCount() {
+        return this.flushCount;
+    }
+
+    /**
+     * Returns the number of calls of {@link GatheringByteChannel#write(ByteBuffer[], int, int)}.
+     */
+    public synchronized long getWriteCalls() {
+        return this.writeCalls;
+    }
+
+    /**
+     * Returns the total number of bytes written to the channel.
+     */
+    public synchronized long getBytesWritten() {
+        return this.bytesWritten;
+    }
+}
@@ -0,0 +1,184 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * A {@link PagePrinterSession} is a single connection from a Page Printer Requester to a
+ * {@link MultiSessionPagePrinterDaemon}. It is passed to the {@link PagePrinterSessionHandler}
+ * together with every received {@link PagePrinterRequest}, so the handler can keep per-session
+ * state (see {@link #setAttachment(Object)}) and reply on the correct connection.
+ */
+public final class PagePrinterSession {
+
+    private final long id;
+    private final SocketChannel channel;
+    private final SocketAddress remoteAddress;
+    private final Queue<ByteBuffer> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final PagePrinterRequestDecoder decoder;
+    private final Consumer<PagePrinterSession> writeRequestedCallback;
+    private final Consumer<PagePrinterSession> closeRequestedCallback;
+
+    private volatile Object attachment;
+    private volatile boolean isCloseRequested;
+
+    /**
+     * Constructs a {@link PagePrinterSession}.
+     *
+     * @param id the identifier of the session (unique within the {@link MultiSessionPagePrinterDaemon})
+     * @param channel the {@link SocketChannel} of the connection
+     * @param handler the {@link PagePrinterSessionHandler} that gets every received {@link PagePrinterRequest}
+     * @param writeRequestedCallback invoked if data has been queued for sending
+     * @param closeRequestedCallback invoked if the connection shall be closed
+     */
+    PagePrinterSession(
+            final long id,
+            final SocketChannel channel,
+            final PagePrinterSessionHandler handler,
+            final Consumer<PagePrinterSession> writeRequestedCallback,
+            final Consumer<PagePrinterSession> closeRequestedCallback) throws IOException {
+
+        this.id = id;
+        this.channel = channel;
+        this.remoteAddress = channel.getRemoteAddress();
+        this.decoder = new PagePrinterRequestDecoder(request -> handler.handle(this, request), null);
+        this.writeRequestedCallback = writeRequestedCallback;
+        this.closeRequestedCallback = closeRequestedCallback;
+    }
+
+    /**
+     * Returns the identifier of the {@link PagePrinterSession}.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the address of the Page Printer Requester.
+     */
+    public SocketAddress getRemoteAddress() {
+        return this.remoteAddress;
+    }
+
+    /**
+     * Returns the object attached to this {@link PagePrinterSession}.
+     */
+    public Object getAttachment() {
+        return this.attachment;
+    }
+
+    /**
+     * Attaches an object (usually the state of the session kept by the {@link PagePrinterSessionHandler})
+     * to this {@link PagePrinterSession}.
+     */
+    public void setAttachment(final Object object) {
+        this.attachment = object;
+    }
+
+    /**
+     * Returns <code>true</code> if the connection is open and {@link #close()} has not been invoked.
+     */
+    public boolean isOpen() {
+        return !this.isCloseRequested && this.channel.isOpen();
+    }
+
+    /**
+     * Sends the given {@link PagePrinterRequest} to the Page Printer Requester. This method never blocks. The
+     * {@link PagePrinterRequest} is queued and sent by the I/O thread of the {@link PagePrinterSession}.
+     *
+     * @throws IOException if the {@link PagePrinterSession} has already been closed.
+     */
+    public void send(final PagePrinterRequest request) throws IOException {
+        if (!this.isOpen()) {
+            throw new IOException("The session " + this.id + " has been closed");
+        }
+
+        final int length = request.getDataLength();
+        final ByteBuffer buffer = ByteBuffer.allocate(length + 8);
+        buffer.putInt(length + 8);
+        buffer.putInt(request.getRequest());
+        buffer.put(request.getData(), 0, length);
+        buffer.flip();
+
+        this.pendingWrites.add(buffer);
+        this.writeRequestedCallback.accept(this);
+    }
+
+    /**
+     * Closes the connection. This method never blocks and may be invoked on any thread. The connection is
+     * closed by the I/O thread of the {@link PagePrinterSession}, which then invokes
+     * {@link PagePrinterSessionHandler#sessionClosed(PagePrinterSession)}. Queued data that has not been
+     * sent yet is discarded.
+     */
+    public void close() throws IOException {
+        if (!this.isCloseRequested) {
+            this.isCloseRequested = true;
+            this.closeRequestedCallback.accept(this);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #close()} has been invoked.
+     */
+    boolean isCloseRequested() {
+        return this.isCloseRequested;
+    }
+
+    /**
+     * Returns the {@link SocketChannel} of the connection.
+     */
+    SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Passes the received bytes to the {@link PagePrinterRequestDecoder} of the session.
+     */
+    void received(final ByteBuffer chunk) throws IOException {
+        this.decoder.feed(chunk);
+    }
+
+    /**
+     * Writes as many queued bytes as possible without blocking.
+     *
+     * @return <code>true</code> if all queued bytes have been written.
+     */
+    boolean writePending() throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = this.pendingWrites.peek()) != null) {
+            this.channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+            this.pendingWrites.poll();
+        }
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> if bytes are queued for sending.
+     */
+    boolean hasPendingWrites() {
+        return !this.pendingWrites.isEmpty();
+    }
+
+    /**
+     * Checks that the connection has not been closed within a {@link PagePrinterRequest}.
+     */
+    void endOfStream() throws IOException {
+        this.decoder.endOfStream();
+    }
+
+    @Override
+    public String toString() {
+        return "PagePrinterSession{"
+                + "id=" + this.id
+                + ", remoteAddress=" + this.remoteAddress
+                + '}';
+    }
+}
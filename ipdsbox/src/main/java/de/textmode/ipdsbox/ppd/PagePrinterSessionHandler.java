@@ -0,0 +1,29 @@
+package de.textmode.ipdsbox.ppd;
+
+/**
+ * This is the handler interface for every {@link PagePrinterRequest} received by a
+ * {@link MultiSessionPagePrinterDaemon}. Unlike the {@link PagePrinterRequestHandler} the handler
+ * gets the {@link PagePrinterSession} the {@link PagePrinterRequest} has been received on.
+ *
+ * <p>The methods are invoked by the I/O threads of the {@link MultiSessionPagePrinterDaemon}, so
+ * implementations must not block.
+ */
+public interface PagePrinterSessionHandler {
+
+    /**
+     * Handles the {@link PagePrinterRequest} received on the given {@link PagePrinterSession}.
+     */
+    void handle(final PagePrinterSession session, final PagePrinterRequest request);
+
+    /**
+     * Invoked after a new {@link PagePrinterSession} has been established.
+     */
+    default void sessionOpened(final PagePrinterSession session) {
+    }
+
+    /**
+     * Invoked after a {@link PagePrinterSession} has been closed.
+     */
+    default void sessionClosed(final PagePrinterSession session) {
+    }
+}
@@ -0,0 +1,126 @@
+package de.textmode.ipdsbox.core;
+
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link DecoderRegistry} and the {@link DecoderTable}.
+ */
+public final class DecoderRegistryTest extends TestCase {
+
+    private static final IpdsByteArrayInputStream EMPTY = new IpdsByteArrayInputStream(new byte[0]);
+    private static final DecoderContext CONTEXT = DecoderContext.getDefault();
+
+    private static DecoderRegistry<String> registry(final int shift) {
+        return new DecoderRegistry<String>(shift, (ipds, code, context) -> "unknown " + Integer.toHexString(code));
+    }
+
+    /**
+     * Checks that the registered {@link Decoder}s and the fallback {@link Decoder} are called.
+     */
+    public void testDecode() throws Exception {
+        final DecoderTable<String> table = registry(0)
+                .register(0xD6E4, (ipds, code, context) -> "STM")
+                .register(0xD62D, (ipds, code, context) -> "WT")
+                .freeze();
+
+        assertEquals("STM", table.decode(EMPTY, 0xD6E4, CONTEXT));
+        assertEquals("WT", table.decode(EMPTY, 0xD62D, CONTEXT));
+        assertEquals("unknown d611", table.decode(EMPTY, 0xD611, CONTEXT));
+
+        // Same index but a different code...
+        assertEquals("unknown e4", table.decode(EMPTY, 0xE4, CONTEXT));
+        assertEquals("unknown 1d6e4", table.decode(EMPTY, 0x1D6E4, CONTEXT));
+
+        assertTrue(table.isRegistered(0xD6E4));
+        assertFalse(table.isRegistered(0xE4));
+    }
+
+    /**
+     * Checks that the codes are shifted before they are used as index.
+     */
+    public void testShift() throws Exception {
+        final DecoderTable<String> table = registry(8)
+                .register(0x1500, (ipds, code, context) -> "SIMS")
+                .register(0x0400, (ipds, code, context) -> "DGB")
+                .freeze();
+
+        assertEquals("SIMS", table.decode(EMPTY, 0x1500, CONTEXT));
+        assertEquals("DGB", table.decode(EMPTY, 0x0400, CONTEXT));
+        assertEquals("unknown 1501", table.decode(EMPTY, 0x1501, CONTEXT));
+    }
+
+    /**
+     * Checks that a {@link Decoder} can be replaced and removed and that a {@link DecoderTable} is not
+     * affected by later changes of its {@link DecoderRegistry}.
+     */
+    public void testOverride() throws Exception {
+        final DecoderRegistry<String> registry = registry(0).register(0x01, (ipds, code, context) -> "one");
+        final DecoderTable<String> table = registry.freeze();
+
+        registry.register(0x01, (ipds, code, context) -> "ONE").register(0x02, (ipds, code, context) -> "two");
+        final DecoderTable<String> overridden = registry.freeze();
+
+        assertEquals("one", table.decode(EMPTY, 0x01, CONTEXT));
+        assertEquals("unknown 2", table.decode(EMPTY, 0x02, CONTEXT));
+        assertEquals("ONE", overridden.decode(EMPTY, 0x01, CONTEXT));
+        assertEquals("two", overridden.decode(EMPTY, 0x02, CONTEXT));
+
+        final DecoderTable<String> derived = overridden.toRegistry().unregister(0x01).freeze();
+        assertEquals("unknown 1", derived.decode(EMPTY, 0x01, CONTEXT));
+        assertEquals("two", derived.decode(EMPTY, 0x02, CONTEXT));
+        assertEquals("ONE", overridden.decode(EMPTY, 0x01, CONTEXT));
+    }
+
+    /**
+     * Checks that invalid registrations are rejected.
+     */
+    public void testInvalid() {
+        final DecoderRegistry<String> registry = registry(0).register(0xD6E4, (ipds, code, context) -> "STM");
+
+        try {
+            registry.register(0xD5E4, (ipds, code, context) -> "collision");
+            fail("IllegalArgumentException expected");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("collides"));
+        }
+
+        try {
+            registry.register(-1, (ipds, code, context) -> "negative");
+            fail("IllegalArgumentException expected");
+        } catch (final IllegalArgumentException e) {
+            // expected...
+        }
+
+        try {
+            registry.register(0x01, null);
+            fail("IllegalArgumentException expected");
+        } catch (final IllegalArgumentException e) {
+            // expected...
+        }
+
+        try {
+            new DecoderRegistry<String>(0, null);
+            fail("IllegalArgumentException expected");
+        } catch (final IllegalArgumentException e) {
+            // expected...
+        }
+    }
+
+    /**
+     * Checks that the {@link Decoder} reads from the given {@link de.textmode.ipdsbox.io.IpdsInputStream} and gets
+     * the given {@link DecoderContext}.
+     */
+    public void testStream() throws Exception {
+        final DecoderTable<String> table = registry(0)
+                .register(0x01, (ipds, code, context) -> HexFormat.of().formatHex(ipds.readBytes(2)))
+                .register(0x02, (ipds, code, context) -> context == CONTEXT ? "context" : "other")
+                .freeze();
+
+        assertEquals("abcd",
+                table.decode(new IpdsByteArrayInputStream(HexFormat.of().parseHex("ABCD")), 0x01, CONTEXT));
+        assertEquals("context", table.decode(EMPTY, 0x02, CONTEXT));
+    }
+}
@@ -202,4 +202,76 @@ public final class IpdsByteArrayInputStreamTest extends TestCase {
         is.rewind(2);
         assertTrue(is.readUnsignedByte() == 0x11);
     }
+
+    /**
+     * Tests reading views of triplets. The views must share the underlying byte array.
+     */
+    public void testReadTripletView() throws Exception {
+        final byte[] data = HexFormat.of().parseHex("0300AA04011122");
+        final IpdsByteArrayInputStream is = new IpdsByteArrayInputStream(data);
+
+        final IpdsByteArrayInputStream first = is.readTripletViewIfExists();
+        assertEquals(3, first.bytesAvailable());
+        assertEquals(0, first.tell());
+
+        final IpdsByteArrayInputStream second = is.readTripletViewIfExists();
+        assertEquals(4, second.bytesAvailable());
+        assertEquals(3, second.tell());
+
+        assertNull(is.readTripletViewIfExists());
+
+        // Changes of the underlying byte array are visible in the view...
+        data[4] = 0x02;
+        second.skip(1);
+        assertEquals(0x02, second.readUnsignedByte());
+        assertTrue(Arrays.equals(HexFormat.of().parseHex("1122"), second.readRemainingBytes()));
+    }
+
+    /**
+     * Tests reading views of IPDS commands and self-defining fields.
+     */
+    public void testReadIpdsCommandAndSelfDefiningFieldView() throws Exception {
+        final IpdsByteArrayInputStream is = buildIpdsByteArrayInputStream("0005D6E4800004001A");
+
+        final IpdsByteArrayInputStream command = is.readIpdsCommandViewIfExists();
+        assertTrue(Arrays.equals(HexFormat.of().parseHex("0005D6E480"), command.readRemainingBytes()));
+
+        final IpdsByteArrayInputStream sdf = is.readSelfDefiningFieldViewIfExists();
+        assertTrue(Arrays.equals(HexFormat.of().parseHex("0004001A"), sdf.readRemainingBytes()));
+
+        assertNull(is.readSelfDefiningFieldViewIfExists());
+    }
+
+    /**
+     * Tests that a view can not be read beyond its end.
+     */
+    public void testReadView() throws Exception {
+        final IpdsByteArrayInputStream is = buildIpdsByteArrayInputStream("00112233445566778899");
+        is.skip(2);
+
+        final IpdsByteArrayInputStream view = is.readView(3);
+        assertEquals(5, is.bytesAvailable());
+        assertEquals(0x223344, view.readUnsignedInteger24());
+
+        try {
+            view.readUnsignedByte();
+            fail("read after the end of the view...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains("0 bytes left to parse."));
+        }
+    }
+
+    /**
+     * Tests reading a broken (truncated) triplet.
+     */
+    public void testReadTruncatedTriplet() throws Exception {
+        final IpdsByteArrayInputStream is = buildIpdsByteArrayInputStream("0500AA");
+
+        try {
+            is.readTripletViewIfExists();
+            fail("read a truncated triplet...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains("seems to be 5 bytes long"));
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package de.textmode.ipdsbox.io;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import junit.framework.TestCase;
@@ -184,4 +186,106 @@ public final class IpdsByteArrayOutputStreamTest extends TestCase {
         assertEquals(1632781107, is.readInteger32());
         assertEquals(-1632781107, is.readInteger32());
     }
+
+    /**
+     * Checks that the buffer grows and is retained by reset.
+     */
+    public void testGrowAndReset() throws Exception {
+        final IpdsByteArrayOutputStream os = new IpdsByteArrayOutputStream(2);
+        assertEquals(2, os.getCapacity());
+
+        os.writeUnsignedInteger32(0x01020304L);
+        os.writeUnsignedByte(0x05);
+        assertEquals(5, os.getSize());
+        assertTrue(os.getCapacity() >= 5);
+        assertTrue(Arrays.equals(new byte[] {1, 2, 3, 4, 5}, os.toByteArray()));
+
+        final int capacity = os.getCapacity();
+        os.reset();
+        assertEquals(0, os.getSize());
+        assertEquals(capacity, os.getCapacity());
+
+        os.writeInteger16(-2);
+        assertTrue(Arrays.equals(new byte[] {(byte) 0xFF, (byte) 0xFE}, os.toByteArray()));
+
+        os.ensureCapacity(100);
+        assertTrue(os.getCapacity() >= 102);
+    }
+
+    /**
+     * Checks the read-only view and writing to a {@link ByteBuffer}.
+     */
+    public void testByteBufferHandoff() throws Exception {
+        final IpdsByteArrayOutputStream os = new IpdsByteArrayOutputStream();
+        os.writeUnsignedInteger24(0x010203);
+
+        final ByteBuffer view = os.toByteBuffer();
+        assertTrue(view.isReadOnly());
+        assertEquals(3, view.remaining());
+        assertEquals(0x01, view.get(0));
+        assertEquals(0x03, view.get(2));
+
+        final ByteBuffer target = ByteBuffer.allocate(5);
+        target.put((byte) 0x7F);
+        os.writeTo(target);
+        assertEquals(4, target.position());
+        assertTrue(Arrays.equals(new byte[] {0x7F, 1, 2, 3, 0}, target.array()));
+
+        try {
+            os.writeTo(ByteBuffer.allocate(2));
+            fail("Should fail because the ByteBuffer is too small.");
+        } catch (final BufferOverflowException e) {
+            // expected...
+        }
+    }
+
+    /**
+     * Checks that a length counter only counts the written bytes.
+     */
+    public void testLengthCounter() throws Exception {
+        final IpdsByteArrayOutputStream os = IpdsByteArrayOutputStream.createLengthCounter();
+        os.writeUnsignedInteger32(0);
+        os.writeBytes(new byte[1000]);
+        os.writeEbcdicString("ABC");
+
+        assertEquals(1007, os.getSize());
+        assertEquals(0, os.getCapacity());
+
+        try {
+            os.toByteArray();
+            fail("Should fail because a length counter does not store the written bytes.");
+        } catch (final IllegalStateException e) {
+            assertEquals("A length counter does not store the written bytes", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks rolling back written bytes and overwriting a length field.
+     */
+    public void testResetToSizeAndOverwrite() throws Exception {
+        final IpdsByteArrayOutputStream os = new IpdsByteArrayOutputStream();
+        os.writeInteger32(0);
+        os.writeUnsignedInteger16(0xABCD);
+        os.writeUnsignedInteger16(0xEF01);
+
+        os.reset(6);
+        assertEquals(6, os.getSize());
+
+        os.overwriteInteger32(0, 0x01020304);
+        assertTrue(Arrays.equals(new byte[] {1, 2, 3, 4, (byte) 0xAB, (byte) 0xCD}, os.toByteArray()));
+
+        try {
+            os.reset(7);
+            fail("reset beyond the written bytes...");
+        } catch (final IndexOutOfBoundsException e) {
+            assertEquals("Invalid size 7 for 6 written bytes", e.getMessage());
+        }
+
+        try {
+            os.overwriteInteger32(3, 0);
+            fail("overwritten bytes that have not been written...");
+        } catch (final IndexOutOfBoundsException e) {
+            assertEquals("Invalid range 3+4 for 6 written bytes", e.getMessage());
+        }
+    }
 }
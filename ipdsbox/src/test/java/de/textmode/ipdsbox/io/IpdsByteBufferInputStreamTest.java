@@ -0,0 +1,131 @@
+package de.textmode.ipdsbox.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
+import junit.framework.TestCase;
+
+/**
+ * Unit-Tests for the class {@link IpdsByteBufferInputStream}.
+ */
+public final class IpdsByteBufferInputStreamTest extends TestCase {
+
+    /**
+     * Helper Method for creating a {@link IpdsByteBufferInputStream} that reads from a direct {@link ByteBuffer}.
+     */
+    private static IpdsByteBufferInputStream buildIpdsByteBufferInputStream(final String hexString) {
+        final byte[] data = HexFormat.of().parseHex(hexString);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+
+        return new IpdsByteBufferInputStream(buffer);
+    }
+
+    /**
+     * Checks reading signed and unsigned values.
+     */
+    public void testReadValues() throws Exception {
+        assertEquals(255, buildIpdsByteBufferInputStream("FF").readUnsignedByte());
+        assertEquals(-1, buildIpdsByteBufferInputStream("FF").readByte());
+        assertEquals(50176, buildIpdsByteBufferInputStream("C400").readUnsignedInteger16());
+        assertEquals(-12345, buildIpdsByteBufferInputStream("CFC7").readInteger16());
+        assertEquals(12845056, buildIpdsByteBufferInputStream("C40000").readUnsignedInteger24());
+        assertEquals(-3932160, buildIpdsByteBufferInputStream("C40000").readInteger24());
+        assertEquals(4294966784L, buildIpdsByteBufferInputStream("FFFFFE00").readUnsignedInteger32());
+        assertEquals(-12345, buildIpdsByteBufferInputStream("FFFFCFC7").readInteger32());
+    }
+
+    /**
+     * Checks reading multiple values.
+     */
+    public void testReadMultipleValues() throws Exception {
+        final IpdsByteBufferInputStream is =
+                buildIpdsByteBufferInputStream("01000100000100000001F4F5F64A5AF1F2F3010203");
+
+        assertEquals(1, is.readUnsignedByte());
+        assertEquals(1, is.readUnsignedInteger16());
+        assertEquals(1, is.readUnsignedInteger24());
+        assertEquals(1, is.readUnsignedInteger32());
+        assertEquals("456", is.readEbcdicString(3));
+        assertEquals("[]", is.readEbcdicString(2));
+        assertTrue(Arrays.equals(HexFormat.of().parseHex("F1F2F3"), is.readBytes(3)));
+
+        assertTrue(Arrays.equals(HexFormat.of().parseHex("010203"), is.readRemainingBytes()));
+        assertEquals(0, is.readRemainingBytes().length);
+
+        try {
+            is.readUnsignedByte();
+            fail("read after the end of the stream...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains("0 bytes left to parse."));
+        }
+    }
+
+    /**
+     * Checks that the position and the byte order of the {@link ByteBuffer} are not modified.
+     */
+    public void testBufferIsNotModified() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap(HexFormat.of().parseHex("FFFF00010203"));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(2);
+
+        final IpdsByteBufferInputStream is = new IpdsByteBufferInputStream(buffer);
+        assertEquals(4, is.bytesAvailable());
+        assertEquals(2, is.tell());
+        assertEquals(0x0001, is.readUnsignedInteger16());
+        assertEquals("\u0002\u0003", is.readAsciiString(2));
+
+        assertEquals(2, buffer.position());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+    }
+
+    /**
+     * Tests reading views of triplets and IPDS commands.
+     */
+    public void testReadViews() throws Exception {
+        final IpdsByteBufferInputStream is = buildIpdsByteBufferInputStream("0300AA040111220005D6E480");
+
+        final IpdsByteBufferInputStream first = is.readTripletViewIfExists();
+        assertEquals(3, first.bytesAvailable());
+
+        final IpdsByteBufferInputStream second = is.readTripletViewIfExists();
+        assertEquals(3, second.tell());
+        assertTrue(Arrays.equals(HexFormat.of().parseHex("04011122"), second.readRemainingBytes()));
+
+        final IpdsByteBufferInputStream command = is.readIpdsCommandViewIfExists();
+        assertEquals(5, command.bytesAvailable());
+        assertNull(is.readIpdsCommandViewIfExists());
+    }
+
+    /**
+     * Tests parsing an {@link IpdsCommand} from a memory mapped file.
+     */
+    public void testParseFromMappedFile() throws Exception {
+        final Path file = Files.createTempFile("ipdsbox", ".bin");
+        try {
+            Files.write(file, HexFormat.of().parseHex("0005D6E4800005D60380"));
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                final IpdsByteBufferInputStream is = IpdsByteBufferInputStream.map(channel, 0, 10);
+
+                assertEquals(IpdsCommandId.STM,
+                        IpdsCommandFactory.create(is.readIpdsCommandViewIfExists()).getCommandCode());
+                assertEquals(IpdsCommandId.NOP,
+                        IpdsCommandFactory.create(is.readIpdsCommandViewIfExists()).getCommandCode());
+                assertNull(is.readIpdsCommandViewIfExists());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
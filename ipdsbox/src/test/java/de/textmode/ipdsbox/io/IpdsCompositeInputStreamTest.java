@@ -0,0 +1,93 @@
+package de.textmode.ipdsbox.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit-Tests for the class {@link IpdsCompositeInputStream}.
+ */
+public final class IpdsCompositeInputStreamTest extends TestCase {
+
+    /**
+     * Helper Method for creating a {@link IpdsCompositeInputStream} with one segment per given hex string.
+     */
+    private static IpdsCompositeInputStream buildIpdsCompositeInputStream(final String... hexStrings)
+            throws IOException {
+
+        final IpdsCompositeInputStream is = new IpdsCompositeInputStream();
+        for (final String hexString : hexStrings) {
+            is.append(new IpdsByteArrayInputStream(HexFormat.of().parseHex(hexString)));
+        }
+
+        return is;
+    }
+
+    /**
+     * Checks reading values that span the boundary of two segments.
+     */
+    public void testReadValuesAcrossSegments() throws Exception {
+        assertEquals(50176, buildIpdsCompositeInputStream("C4", "00").readUnsignedInteger16());
+        assertEquals(12845056, buildIpdsCompositeInputStream("C400", "00").readUnsignedInteger24());
+        assertEquals(12845056, buildIpdsCompositeInputStream("C4", "", "0000").readUnsignedInteger24());
+        assertEquals(-3932160, buildIpdsCompositeInputStream("C4", "00", "00").readInteger24());
+        assertEquals(4294966784L, buildIpdsCompositeInputStream("FFFFFE", "00").readUnsignedInteger32());
+        assertEquals(-12345, buildIpdsCompositeInputStream("FF", "FFCF", "C7").readInteger32());
+    }
+
+    /**
+     * Checks reading multiple values, bytes and strings from multiple segments.
+     */
+    public void testReadMultipleValues() throws Exception {
+        final IpdsCompositeInputStream is =
+                buildIpdsCompositeInputStream("0100", "0100000100", "000001F4", "F5F64A5A", "F1F2F3010203");
+
+        assertEquals(5, is.getSegmentCount());
+        assertEquals(1, is.readUnsignedByte());
+        assertEquals(1, is.readUnsignedInteger16());
+        assertEquals(1, is.readUnsignedInteger24());
+        assertEquals(1, is.readUnsignedInteger32());
+        assertEquals("456", is.readEbcdicString(3));
+        assertEquals("[]", is.readEbcdicString(2));
+
+        final StringBuilder sb = new StringBuilder("x");
+        is.readEbcdicString(3, sb);
+        assertEquals("x123", sb.toString());
+
+        is.rewind(6);
+        assertEquals("F64A5AF1F2F3", HexFormat.of().withUpperCase().formatHex(is.readBytes(6)));
+        assertEquals("010203", HexFormat.of().withUpperCase().formatHex(is.readRemainingBytes()));
+        assertEquals(0, is.bytesAvailable());
+    }
+
+    /**
+     * Checks that segments can be appended while the {@link IpdsCompositeInputStream} is read and
+     * that different kinds of {@link IpdsInputStream}s can be combined.
+     */
+    public void testAppend() throws Exception {
+        final IpdsCompositeInputStream is = buildIpdsCompositeInputStream("0004");
+        assertEquals(2, is.bytesAvailable());
+
+        is.append(new IpdsByteBufferInputStream(ByteBuffer.wrap(HexFormat.of().parseHex("AABBCC"))));
+
+        final IpdsCompositeInputStream sdf = is.readSelfDefiningFieldViewIfExists();
+        assertEquals(4, sdf.bytesAvailable());
+        assertEquals(4, sdf.readUnsignedInteger16());
+        assertEquals(0xAABB, sdf.readUnsignedInteger16());
+        assertEquals(1, is.bytesAvailable());
+
+        final IpdsByteArrayInputStream source = new IpdsByteArrayInputStream(HexFormat.of().parseHex("DDEE"));
+        is.append(source);
+        assertEquals(0, source.bytesAvailable());
+        assertEquals(0xCCDDEE, is.readUnsignedInteger24());
+
+        try {
+            sdf.append(new IpdsByteArrayInputStream(HexFormat.of().parseHex("FF")));
+            fail("IllegalStateException expected");
+        } catch (final IllegalStateException e) {
+            // expected...
+        }
+    }
+}
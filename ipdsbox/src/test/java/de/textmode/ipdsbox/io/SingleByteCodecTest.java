@@ -0,0 +1,92 @@
+package de.textmode.ipdsbox.io;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit-Tests for the class {@link SingleByteCodec}.
+ */
+public final class SingleByteCodecTest extends TestCase {
+
+    private static final char EURO_SIGN = (char) 0x20AC;
+
+    /**
+     * Checks that the tables are equal to the {@link Charset}s.
+     */
+    public void testTablesEqualCharset() throws Exception {
+        for (final String name : new String[] {"ibm-500", "ibm-850", "IBM037", "IBM273", "ISO-8859-1"}) {
+            final Charset charset = Charset.forName(name);
+            final SingleByteCodec codec = SingleByteCodec.forCharset(charset);
+
+            final byte[] all = new byte[256];
+            for (int ix = 0; ix < all.length; ++ix) {
+                all[ix] = (byte) ix;
+            }
+
+            assertEquals(name, new String(all, charset), codec.decode(all, 0, all.length));
+
+            for (int ch = 0; ch <= 0xFFFF; ++ch) {
+                if (Character.isSurrogate((char) ch)) {
+                    continue;
+                }
+
+                final byte[] expected = String.valueOf((char) ch).getBytes(charset);
+                assertEquals(name + " " + ch, expected[0], codec.encode((char) ch));
+            }
+        }
+    }
+
+    /**
+     * Checks encoding and decoding some strings.
+     */
+    public void testEncodeAndDecode() throws Exception {
+        final SingleByteCodec codec = SingleByteCodec.IBM500;
+
+        assertEquals("C1C2C340F1F2F3", HexFormat.of().withUpperCase().formatHex(codec.encode("ABC 123")));
+        assertTrue(codec.canEncode('A'));
+        assertFalse(codec.canEncode(EURO_SIGN));
+        assertEquals(0x3F, codec.encode(EURO_SIGN)); // SUB
+
+        final byte[] data = HexFormat.of().parseHex("00C1C2C300");
+        final StringBuilder sb = new StringBuilder("X");
+        codec.decode(data, 1, 3, sb);
+        assertEquals("XABC", sb.toString());
+
+        final char[] chars = new char[5];
+        assertEquals(3, codec.decode(data, 1, 3, chars, 2));
+        assertTrue(Arrays.equals(new char[] {0, 0, 'A', 'B', 'C'}, chars));
+
+        assertSame(codec, SingleByteCodec.forCharset(Charset.forName("IBM500")));
+    }
+
+    /**
+     * A multi byte charset is rejected.
+     */
+    public void testMultiByteCharset() throws Exception {
+        try {
+            SingleByteCodec.forCharset(StandardCharsets.UTF_8);
+            fail("Should fail because UTF-8 is not a single byte charset.");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("The charset UTF-8 is not a single byte charset", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads strings from an {@link IpdsInputStream} into a reused {@link StringBuilder}.
+     */
+    public void testReadIntoStringBuilder() throws Exception {
+        final IpdsByteArrayInputStream ipds = new IpdsByteArrayInputStream(HexFormat.of().parseHex("C1C2C3414243"));
+        final StringBuilder sb = new StringBuilder();
+
+        ipds.readEbcdicString(3, sb);
+        sb.append('/');
+        ipds.readAsciiString(3, sb);
+
+        assertEquals("ABC/ABC", sb.toString());
+        assertEquals(0, ipds.bytesAvailable());
+    }
+}
@@ -0,0 +1,182 @@
+package de.textmode.ipdsbox.ipds.acknowledge;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+import de.textmode.ipdsbox.ipds.sdf.UnknownSelfDefiningField;
+import de.textmode.ipdsbox.ppd.PagePrinterRequest;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link AcknowledgeReplyAssembler}.
+ */
+public final class AcknowledgeReplyAssemblerTest extends TestCase {
+
+    // OPC reply (acknowledge type 0x06), the second self-defining field spans both fragments...
+    private static final String OPC_FIRST = "0013D6FF200600010002" + "000600FFAABB" + "000800";
+    private static final String OPC_LAST = "000FD6FF000600000000" + "FE01020304";
+    private static final String OPC = "0018D6FF000600010002" + "000600FFAABB" + "000800FE01020304";
+
+    private static IpdsByteArrayInputStream streamFromHex(final String hex) {
+        return new IpdsByteArrayInputStream(HexFormat.of().parseHex(hex));
+    }
+
+    private static PagePrinterRequest requestFromHex(final String hex) {
+        return new PagePrinterRequest(
+                0x0E, HexFormat.of().parseHex(String.format("00000001%08X", hex.length() / 2) + hex));
+    }
+
+    private static String encode(final AcknowledgeReply reply) throws Exception {
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        reply.writeTo(out);
+        return HexFormat.of().withUpperCase().formatHex(out.toByteArray());
+    }
+
+    /**
+     * Checks that the self-defining fields of an OPC reply are decoded as soon as they are complete
+     * and that the fragments are reassembled to one Acknowledge Reply.
+     */
+    public void testObtainPrinterCharacteristics() throws Exception {
+        final AcknowledgeReplyAssembler assembler = new AcknowledgeReplyAssembler();
+
+        assertFalse(assembler.add(streamFromHex(OPC_FIRST)));
+        assertFalse(assembler.isComplete());
+        assertEquals(0x06, assembler.getAcknowledgeType());
+        assertEquals(1, assembler.getSelfDefiningFields().size());
+        assertEquals(0x00FF, assembler.getSelfDefiningFields().get(0).getSelfDefiningFieldId());
+
+        assertTrue(assembler.add(streamFromHex(OPC_LAST)));
+        assertEquals(2, assembler.getFragmentCount());
+        assertEquals(2, assembler.getSelfDefiningFields().size());
+
+        final UnknownSelfDefiningField sdf = (UnknownSelfDefiningField) assembler.getSelfDefiningFields().get(1);
+        assertEquals(0x00FE, sdf.getSelfDefiningFieldId());
+
+        final AcknowledgeReply reply = assembler.getAcknowledgeReply();
+        assertSame(reply, assembler.getAcknowledgeReply());
+        assertEquals(1, reply.getStackedPageCounter());
+        assertEquals(2, reply.getStackedCopyCounter());
+        assertFalse(reply.getCommandFlags().isAcknowledgmentContinuationRequested());
+        assertEquals(2, ((ObtainPrinterCharacteristicsAcknowledgeData) reply.getAcknowledgeData())
+                .getSelfDefiningField().size());
+
+        assertEquals(OPC, encode(reply));
+    }
+
+    /**
+     * Checks that the reassembled data of an OPC reply is decoded by the {@link DecoderContext} if it has an own
+     * decoder for the acknowledge type.
+     */
+    public void testObtainPrinterCharacteristicsWithOwnDecoder() throws Exception {
+        final DecoderContext context = DecoderContext.getDefault().withAcknowledgeData(
+                AcknowledgeDataFactory.getDefaultDecoders().toRegistry()
+                    .register(0x06, (ipds, ackType, ctx) ->
+                            new LazyObtainPrinterCharacteristicsAcknowledgeData(ipds, ctx))
+                    .freeze());
+
+        final AcknowledgeReplyAssembler assembler = new AcknowledgeReplyAssembler(context);
+        assertFalse(assembler.add(streamFromHex(OPC_FIRST)));
+        assertTrue(assembler.add(streamFromHex(OPC_LAST)));
+        assertTrue(assembler.getSelfDefiningFields().isEmpty());
+
+        final AcknowledgeReply reply = assembler.getAcknowledgeReply();
+        final LazyObtainPrinterCharacteristicsAcknowledgeData opc =
+                (LazyObtainPrinterCharacteristicsAcknowledgeData) reply.getAcknowledgeData();
+        assertEquals(2, opc.getSelfDefiningFieldCount());
+        assertEquals(0x00FE, opc.get(1).getSelfDefiningFieldId());
+
+        assertEquals(OPC, encode(reply));
+    }
+
+    /**
+     * Checks the reassembly of acknowledge data that is not decoded incrementally.
+     */
+    public void testRawAcknowledgeData() throws Exception {
+        final AcknowledgeReplyAssembler assembler = new AcknowledgeReplyAssembler();
+
+        assertFalse(assembler.add(requestFromHex("000ED6FF6012340200030004" + "0102")));
+        assertTrue(assembler.add(requestFromHex("000CD6FF0002000000000304")));
+        assertTrue(assembler.getSelfDefiningFields().isEmpty());
+
+        final AcknowledgeReply reply = assembler.getAcknowledgeReply();
+        assertEquals(0x1234, reply.getCorrelationId());
+        assertEquals(3, reply.getStackedPageCounter());
+        assertTrue(Arrays.equals(
+                HexFormat.of().parseHex("01020304"),
+                ((RawAcknowledgeData) reply.getAcknowledgeData()).getRawAcknowledgeData()));
+
+        assembler.reset();
+        assertEquals(0, assembler.getFragmentCount());
+        assertTrue(assembler.add(streamFromHex(OPC)));
+        assertEquals(OPC, encode(assembler.getAcknowledgeReply()));
+    }
+
+    /**
+     * Checks that {@link IpdsCommandFactory#create(java.util.List)} reassembles the Acknowledge Replies.
+     */
+    public void testCreateFromRequests() throws Exception {
+        final AcknowledgeReply reply = (AcknowledgeReply) IpdsCommandFactory.create(
+                Arrays.asList(requestFromHex(OPC_FIRST), requestFromHex(OPC_LAST)));
+
+        assertEquals(OPC, encode(reply));
+
+        try {
+            IpdsCommandFactory.create(Arrays.asList(requestFromHex(OPC_FIRST)));
+            fail("InvalidIpdsCommandException expected");
+        } catch (final InvalidIpdsCommandException e) {
+            // expected...
+        }
+    }
+
+    /**
+     * Checks that invalid fragments and the wrong use of the {@link AcknowledgeReplyAssembler} are rejected.
+     */
+    public void testInvalid() throws Exception {
+        final AcknowledgeReplyAssembler assembler = new AcknowledgeReplyAssembler();
+
+        try {
+            assembler.getAcknowledgeType();
+            fail("IllegalStateException expected");
+        } catch (final IllegalStateException e) {
+            // expected...
+        }
+
+        try {
+            assembler.add(streamFromHex("0005D6E480"));
+            fail("InvalidIpdsCommandException expected");
+        } catch (final InvalidIpdsCommandException e) {
+            // expected...
+        }
+
+        assembler.add(streamFromHex(OPC_FIRST));
+        try {
+            assembler.getAcknowledgeReply();
+            fail("IllegalStateException expected");
+        } catch (final IllegalStateException e) {
+            // expected...
+        }
+
+        // The last fragment ends within the second self-defining field...
+        try {
+            assembler.add(streamFromHex("000DD6FF000600000000FE0102"));
+            fail("IOException expected");
+        } catch (final IOException e) {
+            // expected...
+        }
+
+        assembler.reset();
+        assembler.add(streamFromHex(OPC));
+        try {
+            assembler.add(streamFromHex(OPC));
+            fail("InvalidIpdsCommandException expected");
+        } catch (final InvalidIpdsCommandException e) {
+            // expected...
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package de.textmode.ipdsbox.ipds.acknowledge;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.core.DecoderContext;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+import de.textmode.ipdsbox.ipds.sdf.InstalledFeaturesSelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningFieldId;
+import de.textmode.ipdsbox.ipds.sdf.UnknownSelfDefiningField;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link LazyObtainPrinterCharacteristicsAcknowledgeData}.
+ */
+public final class LazyObtainPrinterCharacteristicsAcknowledgeDataTest extends TestCase {
+
+    // Installed Features, an unknown self-defining field and Installed Features again...
+    private static final String SDFS = "0008000600010002" + "000600FFAABB" + "000600060003";
+
+    private static LazyObtainPrinterCharacteristicsAcknowledgeData create(final String hex) throws IOException {
+        return new LazyObtainPrinterCharacteristicsAcknowledgeData(
+                new IpdsByteArrayInputStream(HexFormat.of().parseHex(hex)));
+    }
+
+    private static String encode(final AcknowledgeData data) throws IOException {
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        data.writeTo(out);
+        return HexFormat.of().withUpperCase().formatHex(out.toByteArray());
+    }
+
+    /**
+     * Checks the access to the self-defining fields by their {@link SelfDefiningFieldId}.
+     */
+    public void testGet() throws Exception {
+        final LazyObtainPrinterCharacteristicsAcknowledgeData data = create(SDFS);
+
+        assertEquals(3, data.getSelfDefiningFieldCount());
+        assertTrue(data.contains(SelfDefiningFieldId.InstalledFeatures));
+        assertFalse(data.contains(SelfDefiningFieldId.PrinterSpeed));
+        assertNull(data.get(SelfDefiningFieldId.PrinterSpeed));
+        assertEquals("LazyObtainPrinterCharacteristicsAcknowledgeData{selfDefiningFields=3, decoded=0}",
+                data.toString());
+
+        final InstalledFeaturesSelfDefiningField features =
+                (InstalledFeaturesSelfDefiningField) data.get(SelfDefiningFieldId.InstalledFeatures);
+
+        assertEquals(Arrays.asList(1, 2), features.getFeatureIds());
+        assertSame(features, data.get(SelfDefiningFieldId.InstalledFeatures));
+        assertSame(features, data.get(0));
+        assertEquals("LazyObtainPrinterCharacteristicsAcknowledgeData{selfDefiningFields=3, decoded=1}",
+                data.toString());
+
+        assertEquals(2, data.getAll(SelfDefiningFieldId.InstalledFeatures).size());
+        assertTrue(data.getAll(SelfDefiningFieldId.PrinterSpeed).isEmpty());
+        assertTrue(data.get(1) instanceof UnknownSelfDefiningField);
+        assertEquals(3, data.getSelfDefiningFields().size());
+    }
+
+    /**
+     * Checks that undecoded self-defining fields are written as-is and decoded ones are encoded.
+     */
+    public void testWriteTo() throws Exception {
+        final LazyObtainPrinterCharacteristicsAcknowledgeData data = create(SDFS);
+        assertEquals(SDFS, encode(data));
+
+        ((InstalledFeaturesSelfDefiningField) data.get(2)).getFeatureIds().add(4);
+        assertEquals("0008000600010002" + "000600FFAABB" + "0008000600030004", encode(data));
+    }
+
+    /**
+     * Checks that the {@link LazyObtainPrinterCharacteristicsAcknowledgeData} is created for an Acknowledge
+     * Reply if it is registered in the {@link DecoderContext} the Acknowledge Reply is decoded with.
+     */
+    public void testDecoderTable() throws Exception {
+        final DecoderContext context = DecoderContext.getDefault().withAcknowledgeData(
+                AcknowledgeDataFactory.getDefaultDecoders().toRegistry()
+                    .register(0x06, (ipds, ackType, ctx) ->
+                            new LazyObtainPrinterCharacteristicsAcknowledgeData(ipds, ctx))
+                    .freeze());
+
+        final byte[] data = HexFormat.of().parseHex("001ED6FF000600000000" + SDFS);
+        final AcknowledgeReply reply =
+                (AcknowledgeReply) IpdsCommandFactory.create(new IpdsByteArrayInputStream(data), context);
+        assertTrue(reply.getAcknowledgeData() instanceof LazyObtainPrinterCharacteristicsAcknowledgeData);
+
+        // The default DecoderContext is not affected...
+        final AcknowledgeReply other = (AcknowledgeReply) IpdsCommandFactory.create(data);
+        assertTrue(other.getAcknowledgeData() instanceof ObtainPrinterCharacteristicsAcknowledgeData);
+    }
+
+    /**
+     * Checks that self-defining fields with an invalid length are rejected.
+     */
+    public void testInvalid() throws Exception {
+        for (final String hex : new String[] {"0003000600", "000900060001", "0001"}) {
+            try {
+                create(hex);
+                fail("IOException expected for " + hex);
+            } catch (final IOException e) {
+                // expected...
+            }
+        }
+    }
+}
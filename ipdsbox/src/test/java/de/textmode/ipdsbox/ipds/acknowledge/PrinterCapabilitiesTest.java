@@ -0,0 +1,151 @@
+package de.textmode.ipdsbox.ipds.acknowledge;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.ipds.sdf.PrintableAreaSelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.PrinterSpeedSelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.SelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.StoragePoolsSelfDefiningField;
+import de.textmode.ipdsbox.ipds.sdf.StoragePoolsSelfDefiningField.StoragePoolEntry;
+import de.textmode.ipdsbox.ipds.sdf.SupportedDeviceResolutionsSelfDefiningField;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link PrinterCapabilities}.
+ */
+public final class PrinterCapabilitiesTest extends TestCase {
+
+    // Type 0x3820, model 0x01, Device Control (level FF10), Text (level FF20) and Device Control again...
+    private static final String STM =
+            "FF3820010000" + "000AC4C3FF1050017008" + "000AD7E3FF2010014001" + "0008C4C3FF105002";
+
+    private static SenseTypeAndModelAcknowledgeData createStm() throws Exception {
+        return new SenseTypeAndModelAcknowledgeData(
+                new IpdsByteArrayInputStream(HexFormat.of().parseHex(STM)));
+    }
+
+    private static List<SelfDefiningField> createSelfDefiningFields() throws Exception {
+        final PrintableAreaSelfDefiningField tray1 = new PrintableAreaSelfDefiningField();
+        tray1.setMediaSourceId(1);
+        tray1.setUpub(14400);
+        tray1.setActualMediumPresentationSpaceWidth(11906);
+        tray1.setActualMediumPresentationSpaceLength(16838);
+        tray1.setXmPPAExtent(11800);
+        tray1.setYmPPAExtent(16700);
+
+        final PrintableAreaSelfDefiningField tray2 = new PrintableAreaSelfDefiningField();
+        tray2.setMediaSourceId(2);
+        tray2.setActualMediumPresentationSpaceWidth(12240);
+
+        // The same media source again is ignored...
+        final PrintableAreaSelfDefiningField tray1Again = new PrintableAreaSelfDefiningField();
+        tray1Again.setMediaSourceId(1);
+
+        final SupportedDeviceResolutionsSelfDefiningField resolution =
+                new SupportedDeviceResolutionsSelfDefiningField();
+        resolution.setRipXpels(6000);
+        resolution.setRipYpels(6000);
+        resolution.setPrintHeadXpels(6000);
+        resolution.setPrintHeadYpels(12000);
+
+        final StoragePoolEntry pool = new StoragePoolEntry();
+        pool.setStoragePoolId(3);
+        pool.setEmptySize(1048576);
+
+        final StoragePoolsSelfDefiningField pools = new StoragePoolsSelfDefiningField();
+        pools.getStoragePoolEntries().add(pool);
+
+        final PrinterSpeedSelfDefiningField speed = new PrinterSpeedSelfDefiningField();
+        speed.setPpm(120);
+        speed.setFpm(330);
+
+        return Arrays.asList(tray1, tray2, tray1Again, resolution, pools, speed);
+    }
+
+    private static void check(final PrinterCapabilities capabilities) {
+        assertEquals(0x3820, capabilities.getType());
+        assertEquals(0x01, capabilities.getModel());
+
+        assertEquals(2, capabilities.getCommandSetCount());
+        assertTrue(capabilities.supportsCommandSet(0xC4C3));
+        assertFalse(capabilities.supportsCommandSet(0xC9D4));
+        assertEquals(0xFF20, capabilities.getCommandSetLevel(0xD7E3));
+        assertEquals(-1, capabilities.getCommandSetLevel(0xC9D4));
+        assertTrue(capabilities.supportsPropertyPair(0xC4C3, 0x5001));
+        assertTrue(capabilities.supportsPropertyPair(0xC4C3, 0x5002));
+        assertTrue(capabilities.supportsPropertyPair(0xD7E3, 0x4001));
+        assertFalse(capabilities.supportsPropertyPair(0xD7E3, 0x7008));
+        assertFalse(capabilities.supportsPropertyPair(0xC9D4, 0x5001));
+
+        assertTrue(Arrays.equals(new int[] {1, 2}, capabilities.getMediaSourceIds()));
+        assertTrue(capabilities.isMediaSourceAvailable(2));
+        assertFalse(capabilities.isMediaSourceAvailable(3));
+        assertFalse(capabilities.isMediaSourceAvailable(-1));
+        assertEquals(14400, capabilities.getUnitsPerUnitBase(1));
+        assertEquals(11906, capabilities.getMediumPresentationSpaceWidth(1));
+        assertEquals(16838, capabilities.getMediumPresentationSpaceLength(1));
+        assertEquals(11800, capabilities.getPrintableAreaXExtent(1));
+        assertEquals(16700, capabilities.getPrintableAreaYExtent(1));
+        assertEquals(12240, capabilities.getMediumPresentationSpaceWidth(2));
+
+        assertEquals(1, capabilities.getDeviceResolutionCount());
+        assertEquals(12000, capabilities.getPrintHeadYResolution(0));
+        assertTrue(capabilities.supportsRipResolution(6000, 6000));
+        assertFalse(capabilities.supportsRipResolution(3000, 3000));
+
+        assertEquals(1, capabilities.getStoragePoolCount());
+        assertEquals(3, capabilities.getStoragePoolId(0));
+        assertEquals(1048576, capabilities.getStoragePoolEmptySize(0));
+
+        assertEquals(120, capabilities.getPagesPerMinute());
+        assertEquals(330, capabilities.getFeetPerMinute());
+    }
+
+    /**
+     * Checks the {@link PrinterCapabilities} created from an {@link ObtainPrinterCharacteristicsAcknowledgeData}.
+     */
+    public void testCreate() throws Exception {
+        check(PrinterCapabilities.create(
+                createStm(), new ObtainPrinterCharacteristicsAcknowledgeData(createSelfDefiningFields())));
+    }
+
+    /**
+     * Checks the {@link PrinterCapabilities} created from a {@link LazyObtainPrinterCharacteristicsAcknowledgeData}.
+     */
+    public void testCreateLazy() throws Exception {
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        for (final SelfDefiningField selfDefiningField : createSelfDefiningFields()) {
+            selfDefiningField.writeTo(out);
+        }
+
+        final LazyObtainPrinterCharacteristicsAcknowledgeData opc = new LazyObtainPrinterCharacteristicsAcknowledgeData(
+                new IpdsByteArrayInputStream(out.toByteArray()));
+
+        check(PrinterCapabilities.createLazy(createStm(), opc));
+    }
+
+    /**
+     * Checks the {@link PrinterCapabilities} without any replies and that unknown media sources are rejected.
+     */
+    public void testEmpty() throws Exception {
+        final PrinterCapabilities capabilities =
+                PrinterCapabilities.create(null, null);
+
+        assertEquals(0, capabilities.getCommandSetCount());
+        assertFalse(capabilities.supportsPropertyPair(0xC4C3, 0x5001));
+        assertEquals(0, capabilities.getMediaSourceIds().length);
+        assertEquals(0, capabilities.getPagesPerMinute());
+        assertEquals(0, PrinterCapabilities.createLazy(null, null).getMediaSourceIds().length);
+
+        try {
+            capabilities.getMediumPresentationSpaceWidth(1);
+            fail("IllegalArgumentException expected");
+        } catch (final IllegalArgumentException e) {
+            // expected...
+        }
+    }
+}
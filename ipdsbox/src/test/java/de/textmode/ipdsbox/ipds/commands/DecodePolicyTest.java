@@ -0,0 +1,117 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeReply;
+import de.textmode.ipdsbox.ipds.xohorders.DefineGroupBoundaryOrder;
+import de.textmode.ipdsbox.ipds.xohorders.XohOrderCode;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link DecodePolicy} and {@link IpdsCommandFactory#create(byte[], DecodePolicy)}.
+ */
+public final class DecodePolicyTest extends TestCase {
+
+    private static final String STM = "0005D6E480";
+    private static final String WT = "000AD62D401234F1F2F3";
+    private static final String XOH_DGB = "0009D68F0004000001";
+    private static final String XOH_SIMS = "0008D68F00150003";
+
+    private static String encode(final IpdsCommand command) throws Exception {
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        return HexFormat.of().withUpperCase().formatHex(out.toByteArray());
+    }
+
+    private static IpdsCommand create(final String hex, final DecodePolicy policy) throws Exception {
+        return IpdsCommandFactory.create(HexFormat.of().parseHex(hex), policy);
+    }
+
+    /**
+     * Checks that {@link DecodePolicy#ALL} and {@link DecodePolicy#NONE} decode all or no IPDS commands.
+     */
+    public void testAllAndNone() throws Exception {
+        assertTrue(create(STM, DecodePolicy.ALL) instanceof SenseTypeAndModelCommand);
+        assertTrue(create(WT, DecodePolicy.ALL) instanceof WriteTextCommand);
+        assertTrue(create("0007D61100ABCD", DecodePolicy.ALL) instanceof UnknownIpdsCommand);
+
+        for (final String hex : new String[] {STM, WT, XOH_DGB}) {
+            final IpdsCommand command = create(hex, DecodePolicy.NONE);
+
+            assertTrue(command instanceof LazyIpdsCommand);
+            assertFalse(((LazyIpdsCommand) command).isDecoded());
+            assertEquals(hex, encode(command));
+        }
+    }
+
+    /**
+     * Checks that only the selected IPDS commands are decoded and all others are kept raw.
+     */
+    public void testCommands() throws Exception {
+        final DecodePolicy policy = DecodePolicy.commands(EnumSet.of(IpdsCommandId.WT, IpdsCommandId.XOH));
+
+        final IpdsCommand wt = create(WT, policy);
+        assertTrue(wt instanceof WriteTextCommand);
+        assertEquals(0x1234, wt.getCorrelationId());
+        assertEquals(WT, encode(wt));
+
+        final IpdsCommand xoh = create(XOH_DGB, policy);
+        assertTrue(((ExecuteOrderHomeStateCommand) xoh).getOrder() instanceof DefineGroupBoundaryOrder);
+
+        final IpdsCommand stm = create(STM, policy);
+        assertTrue(stm instanceof LazyIpdsCommand);
+        assertEquals(IpdsCommandId.STM, stm.getCommandCode());
+        assertTrue(stm.getCommandFlags().isAcknowledgmentRequired());
+        assertEquals(STM, encode(stm));
+
+        assertTrue(create("0007D61100ABCD", policy) instanceof LazyIpdsCommand);
+    }
+
+    /**
+     * Checks that a {@link java.util.function.Predicate} can select IPDS commands by their raw data, i. e.
+     * only the XOH commands that carry a Define Group Boundary order.
+     */
+    public void testPredicate() throws Exception {
+        final DecodePolicy policy = DecodePolicy.commands(IpdsCommandId.XOH, IpdsCommandId.ACK).and(command -> {
+            if (command.getCommandCode() != IpdsCommandId.XOH) {
+                return true;
+            }
+
+            try {
+                return command.getRawData().readUnsignedInteger16() == XohOrderCode.DefineGroupBoundary.getValue();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertTrue(create(XOH_DGB, policy) instanceof ExecuteOrderHomeStateCommand);
+        assertTrue(create("0006D6FF00FF", policy) instanceof AcknowledgeReply);
+
+        final IpdsCommand sims = create(XOH_SIMS, policy);
+        assertTrue(sims instanceof LazyIpdsCommand);
+        assertEquals(XOH_SIMS, encode(sims));
+
+        // The predicate is not called for IPDS commands that are not selected by their command code...
+        assertTrue(create(WT, policy) instanceof LazyIpdsCommand);
+
+        final DecodePolicy byFlags = DecodePolicy.matching(command -> command.getCommandFlags().hasCorrelationID());
+        assertTrue(create(WT, byFlags) instanceof WriteTextCommand);
+        assertTrue(create(STM, byFlags) instanceof LazyIpdsCommand);
+    }
+
+    /**
+     * Checks that a null {@link java.util.function.Predicate} is rejected.
+     */
+    public void testNullPredicate() {
+        try {
+            DecodePolicy.ALL.and(null);
+            fail("IllegalArgumentException expected");
+        } catch (final IllegalArgumentException e) {
+            // expected...
+        }
+    }
+}
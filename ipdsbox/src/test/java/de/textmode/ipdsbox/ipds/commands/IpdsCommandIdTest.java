@@ -26,4 +26,15 @@ public final class IpdsCommandIdTest extends TestCase {
     public void testUnknownCommandId() {
         assertNull(IpdsCommandId.getIfKnown(0xD611));
     }
+
+    /**
+     * Checks that values outside of the range of the IPDS command codes are unknown.
+     */
+    public void testOutOfRangeCommandId() {
+        assertNull(IpdsCommandId.getIfKnown(-1));
+        assertNull(IpdsCommandId.getIfKnown(0x00));
+        assertNull(IpdsCommandId.getIfKnown(IpdsCommandId.BP.getValue() & 0xFF));
+        assertNull(IpdsCommandId.getIfKnown(0x1D600 | (IpdsCommandId.BP.getValue() & 0xFF)));
+        assertNull(IpdsCommandId.getIfKnown(0xD700 | (IpdsCommandId.BP.getValue() & 0xFF)));
+    }
 }
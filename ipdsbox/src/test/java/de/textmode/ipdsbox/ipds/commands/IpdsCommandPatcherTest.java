@@ -0,0 +1,147 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.ipds.xohorders.SelectInputMediaSourceOrder;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link IpdsCommandPatcher}.
+ */
+public final class IpdsCommandPatcherTest extends TestCase {
+
+    private static final String LCC = "000BD69F00020104020102";
+    private static final String XOH_SIMS = "0008D68F00150003";
+
+    private static String hex(final byte[] data) {
+        return HexFormat.of().withUpperCase().formatHex(data);
+    }
+
+    /**
+     * Checks that the ARQ flag is set and unset.
+     */
+    public void testAcknowledgmentRequired() throws Exception {
+        final byte[] data = HexFormat.of().parseHex("0005D6E400");
+
+        IpdsCommandPatcher.setAcknowledgmentRequired(data, 0, true);
+        assertEquals("0005D6E480", hex(data));
+        assertTrue(IpdsCommandFactory.create(data).getCommandFlags().isAcknowledgmentRequired());
+
+        IpdsCommandPatcher.setAcknowledgmentRequired(data, 0, false);
+        assertEquals("0005D6E400", hex(data));
+    }
+
+    /**
+     * Checks that an existing correlation ID is overwritten in place.
+     */
+    public void testSetCorrelationId() throws Exception {
+        final byte[] data = HexFormat.of().parseHex("000AD603401234F1F2F3");
+
+        assertTrue(IpdsCommandPatcher.setCorrelationId(data, 0, 0xABCD));
+        assertEquals("000AD60340ABCDF1F2F3", hex(data));
+        assertSame(data, IpdsCommandPatcher.patchCorrelationId(data, 0, 0x4711));
+        assertEquals("000AD603404711F1F2F3", hex(data));
+
+        final byte[] without = HexFormat.of().parseHex("0008D60300F1F2F3");
+        assertFalse(IpdsCommandPatcher.setCorrelationId(without, 0, 0xABCD));
+        assertEquals("0008D60300F1F2F3", hex(without));
+    }
+
+    /**
+     * Checks that adding a correlation ID encodes the IPDS command again.
+     */
+    public void testPatchCorrelationId() throws Exception {
+        final byte[] data = HexFormat.of().parseHex("0005D6E4000008D60380F1F2F3");
+
+        final byte[] patched = IpdsCommandPatcher.patchCorrelationId(data, 5, 0x1234);
+        assertNotSame(data, patched);
+        assertEquals("000AD603C01234F1F2F3", hex(patched));
+        assertEquals("0005D6E4000008D60380F1F2F3", hex(data));
+    }
+
+    /**
+     * Checks that the number of copies of all copy subgroups is overwritten.
+     */
+    public void testSetCopies() throws Exception {
+        final byte[] data = HexFormat.of().parseHex(LCC);
+
+        assertEquals(2, IpdsCommandPatcher.setCopies(data, 0, 5));
+        assertEquals("000BD69F00020504050102", hex(data));
+
+        assertEquals(0, IpdsCommandPatcher.setCopies(HexFormat.of().parseHex(XOH_SIMS), 0, 5));
+    }
+
+    /**
+     * Checks that an invalid number of copies and invalid copy subgroups are rejected.
+     */
+    public void testSetCopiesInvalid() throws Exception {
+        final byte[] data = HexFormat.of().parseHex(LCC);
+
+        try {
+            IpdsCommandPatcher.setCopies(data, 0, 0);
+            fail("IllegalArgumentException expected");
+        } catch (final IllegalArgumentException e) {
+            assertEquals(LCC, hex(data));
+        }
+
+        try {
+            IpdsCommandPatcher.setCopies(HexFormat.of().parseHex("000BD69F00020106020102"), 0, 5);
+            fail("InvalidIpdsCommandException expected");
+        } catch (final InvalidIpdsCommandException e) {
+            assertTrue(e.getMessage().contains("copy subgroup"));
+        }
+    }
+
+    /**
+     * Checks that the media source ID of a Select Input Media Source order is overwritten.
+     */
+    public void testSetInputMediaSource() throws Exception {
+        final byte[] data = HexFormat.of().parseHex(XOH_SIMS);
+
+        assertTrue(IpdsCommandPatcher.setInputMediaSource(data, 0, 0x07));
+        assertEquals("0008D68F00150007", hex(data));
+
+        final ExecuteOrderHomeStateCommand xoh = (ExecuteOrderHomeStateCommand) IpdsCommandFactory.create(data);
+        assertEquals(0x07, ((SelectInputMediaSourceOrder) xoh.getOrder()).getSourceId());
+
+        final byte[] other = HexFormat.of().parseHex("0009D68F0004000001");
+        assertFalse(IpdsCommandPatcher.setInputMediaSource(other, 0, 0x07));
+        assertEquals("0009D68F0004000001", hex(other));
+    }
+
+    /**
+     * Checks that IPDS commands within a larger byte array are patched at their offset.
+     */
+    public void testOffset() throws Exception {
+        final byte[] data = HexFormat.of().parseHex("0005D6E400" + XOH_SIMS + LCC);
+
+        assertEquals(IpdsCommandId.XOH.getValue(), IpdsCommandPatcher.getCommandCode(data, 5));
+        assertTrue(IpdsCommandPatcher.setInputMediaSource(data, 5, 0x02));
+        assertEquals(2, IpdsCommandPatcher.setCopies(data, 13, 3));
+        IpdsCommandPatcher.setAcknowledgmentRequired(data, 13, true);
+
+        assertEquals("0005D6E400" + "0008D68F00150002" + "000BD69F80020304030102", hex(data));
+    }
+
+    /**
+     * Checks that invalid lengths are rejected.
+     */
+    public void testInvalidLength() throws Exception {
+        for (final String hex : new String[] {"0004D6E400", "0006D6E400", "00"}) {
+            try {
+                IpdsCommandPatcher.getCommandLength(HexFormat.of().parseHex(hex), 0);
+                fail("InvalidIpdsCommandException expected for " + hex);
+            } catch (final InvalidIpdsCommandException e) {
+                // expected...
+            }
+        }
+
+        try {
+            IpdsCommandPatcher.setCorrelationId(HexFormat.of().parseHex("0005D60340"), 0, 1);
+            fail("InvalidIpdsCommandException expected");
+        } catch (final InvalidIpdsCommandException e) {
+            // expected...
+        }
+    }
+}
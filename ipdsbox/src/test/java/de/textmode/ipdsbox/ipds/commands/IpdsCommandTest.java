@@ -1,10 +1,20 @@
 package de.textmode.ipdsbox.ipds.commands;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HexFormat;
+import java.util.List;
 
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.core.StringUtils;
 import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.ipds.triplets.FinishingOperationTriplet;
+import de.textmode.ipdsbox.ipds.triplets.TonerSaverTriplet;
+import de.textmode.ipdsbox.ipds.xohorders.DefineGroupBoundaryOrder;
+import de.textmode.ipdsbox.ppd.PagePrinterRequest;
 import junit.framework.TestCase;
 
 /**
@@ -123,4 +133,310 @@ public final class IpdsCommandTest extends TestCase {
         assertEquals(0x1234, command.getCorrelationId());
         assertEquals(0, command.getDataBytes().length);
     }
+
+    /**
+     * The encoded length of an IPDS command equals the number of bytes written by
+     * {@link IpdsCommand#writeTo(de.textmode.ipdsbox.io.IpdsByteArrayOutputStream)}.
+     */
+    public void testEncodedLength() throws Exception {
+        final String[] commands = new String[] {
+            "0005D6E480",
+            "000AD603401234F1F2F3",
+            "000FD66D0000000064000000C80000",
+            "000BD68F00040000010200",
+            "000DD608000000060100AB01F4",
+        };
+
+        for (final String hex : commands) {
+            final IpdsCommand command = IpdsCommandFactory.create(streamFromHex(hex));
+            assertTrue(hex, command.isEncodingCached());
+
+            // Check the original encoded data as well as the encoding of the decoded IPDS command...
+            for (int ix = 0; ix < 2; ++ix) {
+                final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+                command.writeTo(out);
+
+                assertEquals(hex, hex.length() / 2, command.getEncodedLength());
+                assertEquals(hex, StringUtils.toHexString(out.toByteArray()));
+
+                command.modified();
+                assertFalse(hex, command.isEncodingCached());
+            }
+        }
+    }
+
+    /**
+     * An unmodified decoded IPDS command is written as-is (including the reserved bytes). A modified IPDS command
+     * is encoded once and the encoded data is cached until the next modification.
+     */
+    public void testEncodingCache() throws Exception {
+        final String hex = "000FD66D00FF000064000000C80000";
+        final LogicalPagePositionCommand command =
+                (LogicalPagePositionCommand) IpdsCommandFactory.create(streamFromHex(hex));
+
+        IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        assertEquals(hex, StringUtils.toHexString(out.toByteArray()));
+
+        command.setXmPageOffset(0x10);
+        assertFalse(command.isEncodingCached());
+
+        out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        assertEquals("000FD66D0000000010000000C80000", StringUtils.toHexString(out.toByteArray()));
+        assertTrue(command.isEncodingCached());
+
+        out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        assertEquals("000FD66D0000000010000000C80000", StringUtils.toHexString(out.toByteArray()));
+    }
+
+    /**
+     * A decoded IPDS command is copied once, so the source may be reused. A decoded {@link LazyIpdsCommand} keeps
+     * a view of its source, its triplets are decoded from the source without copying them.
+     */
+    public void testOriginalEncodingIsCopiedOnce() throws Exception {
+        final byte[] data = HexFormat.of().parseHex("0013D608000000060100AB01F4067400AB1234");
+        final IpdsCommand command = IpdsCommandFactory.create(data);
+
+        Arrays.fill(data, (byte) 0);
+
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        assertEquals("0013D608000000060100AB01F4067400AB1234", StringUtils.toHexString(out.toByteArray()));
+
+        final byte[] lazyData = HexFormat.of().parseHex("0013D608000000060100AB01F4067400AB1234");
+        final LazyIpdsCommand lazy = IpdsCommandFactory.createLazy(lazyData);
+        final IpdsCommand decoded = lazy.getDecoded();
+        assertTrue(decoded.isEncodingCached());
+
+        // The view shares the source...
+        lazyData[lazyData.length - 1] = 0x56;
+
+        out.reset();
+        decoded.writeTo(out);
+        assertEquals("0013D608000000060100AB01F4067400AB1256", StringUtils.toHexString(out.toByteArray()));
+    }
+
+    /**
+     * An IPDS command whose list of triplets has been modified is encoded once (its unmodified triplets are
+     * still written as-is) and the encoded data is cached until the next modification.
+     */
+    public void testEncodingCacheWithModifiedTriplets() throws Exception {
+        final String hex = "0013D608000000060100AB01F4067400AB1234";
+        final SetPresentationEnvironmentCommand command =
+                (SetPresentationEnvironmentCommand) IpdsCommandFactory.create(streamFromHex(hex));
+
+        assertTrue(command.isEncodingCached());
+        command.getTriplets().remove(0);
+        assertFalse(command.isEncodingCached());
+
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+
+        assertEquals("000DD608000000067400AB1234", StringUtils.toHexString(out.toByteArray()));
+        assertTrue(command.isEncodingCached());
+        assertTrue(command.getTriplets().get(0).isEncodingCached());
+
+        command.getTriplets().add(new FinishingOperationTriplet(0x01));
+        assertFalse(command.isEncodingCached());
+    }
+
+    /**
+     * An IPDS command whose triplets have only been inspected is written exactly as it has been decoded (including
+     * the reserved bytes that are not zero).
+     */
+    public void testEncodingCacheWithInspectedTriplets() throws Exception {
+        final String hex = "0013D6080012340601000B01F4067400AB1234";
+        final SetPresentationEnvironmentCommand command =
+                (SetPresentationEnvironmentCommand) IpdsCommandFactory.create(streamFromHex(hex));
+
+        assertEquals(2, command.getTriplets().size());
+        assertTrue(command.isEncodingCached());
+
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        assertEquals(hex, StringUtils.toHexString(out.toByteArray()));
+
+        // A modification of an inspected triplet is noticed nevertheless (even if the triplet has been
+        // written on its own since)...
+        final TonerSaverTriplet triplet = (TonerSaverTriplet) command.getTriplets().get(1);
+        triplet.setControl(0x05);
+        triplet.writeTo(new IpdsByteArrayOutputStream());
+        assertTrue(triplet.isEncodingCached());
+        assertFalse(command.isEncodingCached());
+
+        final IpdsByteArrayOutputStream modified = new IpdsByteArrayOutputStream();
+        command.writeTo(modified);
+        assertEquals("0013D6080000000601000B01F4067400050000", StringUtils.toHexString(modified.toByteArray()));
+    }
+
+    /**
+     * An IPDS command that returned a byte array of its data is encoded by every write, because modifications
+     * of the byte array can not be tracked.
+     */
+    public void testEncodingCacheWithExposedData() throws Exception {
+        final WriteTextCommand command =
+                (WriteTextCommand) IpdsCommandFactory.create(streamFromHex("0008D62D00F1F2F3"));
+        assertTrue(command.isEncodingCached());
+
+        final byte[] ptocaData = command.getPtocaData();
+        assertFalse(command.isEncodingCached());
+
+        IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        assertEquals("0008D62D00F1F2F3", StringUtils.toHexString(out.toByteArray()));
+
+        ptocaData[0] = (byte) 0xF9;
+        out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        assertEquals("0008D62D00F9F2F3", StringUtils.toHexString(out.toByteArray()));
+        assertFalse(command.isEncodingCached());
+    }
+
+    /**
+     * A modification of a triplet contained in an order of an IPDS command is noticed by the IPDS command.
+     */
+    public void testEncodingCacheWithModifiedOrder() throws Exception {
+        final String hex = "000FD68F00" + "0400" + "0000" + "067400AB1234";
+        final ExecuteOrderHomeStateCommand command =
+                (ExecuteOrderHomeStateCommand) IpdsCommandFactory.create(streamFromHex(hex));
+
+        final DefineGroupBoundaryOrder order = (DefineGroupBoundaryOrder) command.getOrder();
+        assertEquals(1, order.getTriplets().size());
+        assertTrue(command.isEncodingCached());
+
+        ((TonerSaverTriplet) order.getTriplets().get(0)).setControl(0x01);
+        assertFalse(command.isEncodingCached());
+
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        assertEquals("000FD68F00" + "0400" + "0000" + "067400010000", StringUtils.toHexString(out.toByteArray()));
+        assertTrue(command.isEncodingCached());
+    }
+
+    /**
+     * An IPDS command that announces a wrong data length can not be written.
+     */
+    public void testWrongDataLength() throws Exception {
+        final IpdsCommand command = new IpdsCommand(IpdsCommandId.NOP) {
+            @Override
+            protected int getDataLength() {
+                return 2;
+            }
+
+            @Override
+            protected void writeDataTo(final IpdsByteArrayOutputStream ipds) throws IOException {
+                ipds.writeUnsignedByte(0xF1);
+            }
+        };
+
+        try {
+            command.writeTo(new IpdsByteArrayOutputStream());
+            fail("Should fail because the IPDS command wrote less bytes than announced.");
+        } catch (final InvalidIpdsCommandException e) {
+            assertTrue(e.getMessage().endsWith("announced 2 data bytes but wrote 1 bytes"));
+        }
+    }
+
+    /**
+     * Checks that an own {@link de.textmode.ipdsbox.core.Decoder} replaces the decoder of an IPDS command
+     * and decodes an IPDS command ipdsbox does not support.
+     */
+    public void testCustomDecoder() throws Exception {
+        final DecoderContext context = DecoderContext.getDefault().withCommands(
+                IpdsCommandFactory.getDefaultDecoders().toRegistry()
+                    .register(IpdsCommandId.NOP.getValue(), (ipds, code, ctx) -> new UnknownIpdsCommand(ipds, code))
+                    .register(0xD611, (ipds, code, ctx) -> new NoOperationCommand(ipds))
+                    .freeze());
+
+        assertTrue(IpdsCommandFactory.create(streamFromHex("0005D60300"), context) instanceof UnknownIpdsCommand);
+        assertTrue(IpdsCommandFactory.create(streamFromHex("0005D61100"), context) instanceof NoOperationCommand);
+        assertTrue(IpdsCommandFactory.create(streamFromHex("0005D60300")) instanceof NoOperationCommand);
+        assertTrue(IpdsCommandFactory.create(streamFromHex("0005D6E400"), context) instanceof SenseTypeAndModelCommand);
+
+        // A LazyIpdsCommand is decoded with the DecoderContext it has been created with...
+        final IpdsCommand lazy = IpdsCommandFactory.create(streamFromHex("0005D60300"), DecodePolicy.NONE, context);
+        assertTrue(((LazyIpdsCommand) lazy).getDecoded() instanceof UnknownIpdsCommand);
+    }
+
+    /**
+     * Checks that all IPDS commands of a {@link PagePrinterRequest} are decoded into the given {@link List} and
+     * that an IPDS command that can not be decoded is reported without aborting the rest of the request.
+     */
+    public void testCreateAll() throws Exception {
+        // STM, an STM with a correlation ID flag but without correlation ID, and a WT...
+        final PagePrinterRequest request = new PagePrinterRequest(0x0E, HexFormat.of().parseHex(
+                "0000000100000014" + "0005D6E480" + "0005D6E440" + "000AD62D401234F1F2F3"));
+
+        final List<IpdsCommand> commands = new ArrayList<>();
+        commands.add(new NoOperationCommand());
+
+        final List<Integer> offsets = new ArrayList<>();
+        assertEquals(1, IpdsCommandFactory.createAll(request, commands, (offset, e) -> offsets.add(offset)));
+
+        assertEquals(2, commands.size());
+        assertTrue(commands.get(0) instanceof SenseTypeAndModelCommand);
+        assertTrue(commands.get(1) instanceof WriteTextCommand);
+        assertEquals(0x1234, commands.get(1).getCorrelationId());
+        assertEquals(Arrays.asList(13), offsets);
+
+        // The IPDS commands are copied once, so the data of the PagePrinterRequest may be reused...
+        Arrays.fill(request.getData(), (byte) 0x00);
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        commands.get(1).writeTo(out);
+        assertEquals("000AD62D401234F1F2F3", StringUtils.toHexString(out.toByteArray()));
+
+        // The same List is reused and no error handler is required...
+        assertEquals(0, IpdsCommandFactory.createAll(
+                streamFromHex("000000010000000A" + "0005D6E480" + "0005D6E480"), commands, null));
+        assertEquals(2, commands.size());
+
+        // The Decoders of the given DecoderContext are used...
+        final DecoderContext context = DecoderContext.getDefault().withCommands(
+                IpdsCommandFactory.getDefaultDecoders().toRegistry()
+                    .register(0xD6E4, (ipds, code, ctx) -> new UnknownIpdsCommand(ipds, code))
+                    .freeze());
+
+        assertEquals(0, IpdsCommandFactory.createAll(
+                new PagePrinterRequest(0x0E, HexFormat.of().parseHex("000000010000000A" + "0005D6E480" + "0005D6E480")),
+                commands,
+                null,
+                context));
+        assertEquals(2, commands.size());
+        assertTrue(commands.get(0) instanceof UnknownIpdsCommand);
+        assertTrue(commands.get(1) instanceof UnknownIpdsCommand);
+    }
+
+    /**
+     * Checks that a broken length field stops decoding and that an invalid header of the IPDS commands is rejected.
+     */
+    public void testCreateAllInvalid() throws Exception {
+        final List<IpdsCommand> commands = new ArrayList<>();
+        final List<Integer> offsets = new ArrayList<>();
+
+        assertEquals(1, IpdsCommandFactory.createAll(
+                streamFromHex("000000010000000B" + "0005D6E480" + "00FFD6E480AB"),
+                commands,
+                (offset, e) -> offsets.add(offset)));
+
+        assertEquals(1, commands.size());
+        assertEquals(Arrays.asList(13), offsets);
+
+        for (final String hex : new String[] {"0000000100", "000000010000000F0005D6E480"}) {
+            try {
+                IpdsCommandFactory.createAll(streamFromHex(hex), commands, null);
+                fail("IOException expected for " + hex);
+            } catch (final IOException e) {
+                // expected...
+            }
+        }
+
+        try {
+            IpdsCommandFactory.createAll(new PagePrinterRequest(0x01), commands, null);
+            fail("IOException expected");
+        } catch (final IOException e) {
+            // expected...
+        }
+    }
 }
@@ -0,0 +1,176 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.ppd.PagePrinterRequest;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link IpdsCommandView}.
+ */
+public final class IpdsCommandViewTest extends TestCase {
+
+    private static final String STM = "0005D6E480";
+    private static final String WT = "000AD62D401234F1F2F3";
+    private static final String ACK = "0007D6FF004100";
+    private static final String COMMANDS = STM + WT + ACK;
+
+    /**
+     * Checks that the {@link IpdsCommandView} steps over all IPDS commands and reads their header fields.
+     */
+    public void testNext() throws Exception {
+        final IpdsCommandView view = new IpdsCommandView();
+        view.wrap(HexFormat.of().parseHex(COMMANDS), 0, COMMANDS.length() / 2);
+
+        assertTrue(view.next());
+        assertEquals(0, view.getOffset());
+        assertEquals(5, view.getLength());
+        assertEquals(IpdsCommandId.STM, view.getCommandId());
+        assertTrue(view.isAcknowledgmentRequired());
+        assertFalse(view.hasCorrelationId());
+        assertEquals(0, view.getCorrelationId());
+        assertEquals(0, view.getDataLength());
+        assertFalse(view.isAcknowledgeReply());
+
+        assertTrue(view.next());
+        assertEquals(5, view.getOffset());
+        assertEquals(10, view.getLength());
+        assertEquals(0xD62D, view.getCommandCode());
+        assertFalse(view.isAcknowledgmentRequired());
+        assertTrue(view.hasCorrelationId());
+        assertEquals(0x1234, view.getCorrelationId());
+        assertEquals(12, view.getDataOffset());
+        assertEquals(3, view.getDataLength());
+
+        assertTrue(view.next());
+        assertEquals(15, view.getOffset());
+        assertTrue(view.isAcknowledgeReply());
+        assertEquals(0x41, view.getAcknowledgeType());
+
+        assertFalse(view.next());
+        assertFalse(view.next());
+    }
+
+    /**
+     * Checks that the {@link IpdsCommandView} reads the IPDS commands of a {@link PagePrinterRequest}.
+     */
+    public void testWrapPagePrinterRequest() throws Exception {
+        final PagePrinterRequest request =
+                new PagePrinterRequest(0x0E, HexFormat.of().parseHex("000000010000000F" + STM + WT));
+
+        final IpdsCommandView view = new IpdsCommandView();
+        view.wrap(request);
+
+        int count = 0;
+        while (view.next()) {
+            ++count;
+        }
+
+        assertEquals(2, count);
+
+        try {
+            view.wrap(new PagePrinterRequest(0x01));
+            fail("IOException expected");
+        } catch (final IOException e) {
+            // expected...
+        }
+    }
+
+    /**
+     * Checks that the IPDS command the {@link IpdsCommandView} points to is decoded.
+     */
+    public void testToCommand() throws Exception {
+        final IpdsCommandView view = new IpdsCommandView();
+        view.wrap(HexFormat.of().parseHex(COMMANDS), 0, COMMANDS.length() / 2);
+
+        view.next();
+        view.next();
+
+        final WriteTextCommand wt = (WriteTextCommand) view.toCommand();
+        assertEquals(0x1234, wt.getCorrelationId());
+        assertEquals("F1F2F3", HexFormat.of().withUpperCase().formatHex(wt.getPtocaData()));
+    }
+
+    /**
+     * Checks that invalid IPDS commands and the use of an unpositioned {@link IpdsCommandView} are rejected.
+     */
+    public void testInvalid() throws Exception {
+        final IpdsCommandView view = new IpdsCommandView();
+
+        try {
+            view.getCommandCode();
+            fail("IllegalStateException expected");
+        } catch (final IllegalStateException e) {
+            // expected...
+        }
+
+        for (final String hex : new String[] {"0004D6E480", "0006D6E480", "0005D6E440", "00"}) {
+            view.wrap(HexFormat.of().parseHex(hex), 0, hex.length() / 2);
+            try {
+                view.next();
+                fail("InvalidIpdsCommandException expected for " + hex);
+            } catch (final InvalidIpdsCommandException e) {
+                // expected...
+            }
+        }
+
+        view.wrap(HexFormat.of().parseHex(STM), 0, 5);
+        view.next();
+        try {
+            view.getAcknowledgeType();
+            fail("IllegalStateException expected");
+        } catch (final IllegalStateException e) {
+            // expected...
+        }
+    }
+
+    /**
+     * Checks that reading the header fields of the IPDS commands does not allocate any memory.
+     */
+    public void testNoAllocation() throws Exception {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+
+        final com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+
+        final byte[] data = HexFormat.of().parseHex(COMMANDS);
+        final IpdsCommandView view = new IpdsCommandView();
+
+        // Run once before measuring, so class loading and so on is not measured...
+        long checksum = this.walk(view, data, 1);
+
+        final int iterations = 100_000;
+        final long before = bean.getCurrentThreadAllocatedBytes();
+        checksum += this.walk(view, data, iterations);
+        final long allocated = bean.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(checksum != 0);
+
+        // Allow a few bytes for the measurement itself, but far less than one byte per IPDS command...
+        assertTrue("Allocated " + allocated + " bytes", allocated < iterations);
+    }
+
+    private long walk(final IpdsCommandView view, final byte[] data, final int iterations) throws Exception {
+        long checksum = 0;
+        for (int ix = 0; ix < iterations; ++ix) {
+            view.wrap(data, 0, data.length);
+            while (view.next()) {
+                checksum += view.getLength() + view.getCommandCode() + view.getFlags() + view.getCorrelationId();
+                if (view.isAcknowledgeReply()) {
+                    checksum += view.getAcknowledgeType();
+                }
+            }
+        }
+
+        return checksum;
+    }
+}
@@ -0,0 +1,92 @@
+package de.textmode.ipdsbox.ipds.commands;
+
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link LazyIpdsCommand}.
+ */
+public final class LazyIpdsCommandTest extends TestCase {
+
+    private static final String WT = "000AD62D00F1F2F3F4F5";
+    private static final String WT_WITH_CORRELATION_ID = "000CD62D401234F1F2F3F4F5";
+
+    private static byte[] encode(final IpdsCommand command) throws Exception {
+        final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        command.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Checks that the header is decoded and the data is not decoded.
+     */
+    public void testHeader() throws Exception {
+        final LazyIpdsCommand command =
+                IpdsCommandFactory.createLazy(HexFormat.of().parseHex(WT_WITH_CORRELATION_ID));
+
+        assertEquals(IpdsCommandId.WT, command.getCommandCode());
+        assertTrue(command.getCommandFlags().hasCorrelationID());
+        assertEquals(0x1234, command.getCorrelationId());
+        assertEquals(12, command.getEncodedLength());
+        assertFalse(command.isDecoded());
+
+        assertEquals("F1F2F3F4F5", HexFormat.of().withUpperCase().formatHex(
+                command.getRawData().readRemainingBytes()));
+        assertFalse(command.isDecoded());
+    }
+
+    /**
+     * Checks that an IPDS command that has not been decoded is written as-is.
+     */
+    public void testWriteUndecoded() throws Exception {
+        for (final String hex : new String[] {WT, WT_WITH_CORRELATION_ID}) {
+            final byte[] data = HexFormat.of().parseHex(hex);
+            final LazyIpdsCommand command = IpdsCommandFactory.createLazy(data);
+
+            assertEquals(hex, HexFormat.of().withUpperCase().formatHex(encode(command)));
+            assertFalse(command.isDecoded());
+        }
+    }
+
+    /**
+     * Checks that the IPDS command is decoded once and the flags and the correlation ID are taken over.
+     */
+    public void testDecode() throws Exception {
+        final LazyIpdsCommand command =
+                IpdsCommandFactory.createLazy(HexFormat.of().parseHex(WT_WITH_CORRELATION_ID));
+
+        final WriteTextCommand decoded = (WriteTextCommand) command.getDecoded();
+        assertTrue(command.isDecoded());
+        assertSame(decoded, command.getDecoded());
+
+        assertEquals("F1F2F3F4F5", HexFormat.of().withUpperCase().formatHex(decoded.getPtocaData()));
+        assertEquals(0x1234, decoded.getCorrelationId());
+        assertEquals(0x40, decoded.getCommandFlags().getFlags());
+
+        assertEquals(WT_WITH_CORRELATION_ID, HexFormat.of().withUpperCase().formatHex(encode(command)));
+    }
+
+    /**
+     * Checks that the data of a decoded IPDS command is encoded from the decoded IPDS command.
+     */
+    public void testWriteModified() throws Exception {
+        final LazyIpdsCommand command = IpdsCommandFactory.createLazy(HexFormat.of().parseHex(WT));
+
+        ((WriteTextCommand) command.getDecoded()).setPtocaData(HexFormat.of().parseHex("C1C2"));
+        command.getCommandFlags().isAcknowledgmentRequired(true);
+
+        assertEquals("0007D62D80C1C2", HexFormat.of().withUpperCase().formatHex(encode(command)));
+    }
+
+    /**
+     * Checks that an unknown IPDS command is decoded to an {@link UnknownIpdsCommand}.
+     */
+    public void testUnknownCommand() throws Exception {
+        final LazyIpdsCommand command = IpdsCommandFactory.createLazy(HexFormat.of().parseHex("0007D61100ABCD"));
+
+        assertTrue(command.getDecoded() instanceof UnknownIpdsCommand);
+        assertEquals("0007D61100ABCD", HexFormat.of().withUpperCase().formatHex(encode(command)));
+    }
+}
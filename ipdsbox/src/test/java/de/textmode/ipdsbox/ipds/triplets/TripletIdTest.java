@@ -19,4 +19,13 @@ public final class TripletIdTest extends TestCase {
             assertEquals(tripletId.getName(), toCheck.getName());
         }
     }
+
+    /**
+     * Checks that values that do not fit into one byte are unknown.
+     */
+    public void testOutOfRangeTripletId() {
+        assertNull(TripletId.getIfKnown(-1));
+        assertNull(TripletId.getIfKnown(0x100 | TripletId.CodedGraphicCharacterSetGlobalIdentifier.getId()));
+        assertNull(TripletId.getIfKnown(0xFF));
+    }
 }
@@ -3,7 +3,13 @@ package de.textmode.ipdsbox.ipds.triplets;
 import java.io.IOException;
 import java.util.HexFormat;
 
+import de.textmode.ipdsbox.core.DecoderContext;
 import de.textmode.ipdsbox.core.StringUtils;
+import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.io.IpdsByteArrayOutputStream;
+import de.textmode.ipdsbox.io.IpdsInputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+import de.textmode.ipdsbox.ipds.commands.SetPresentationEnvironmentCommand;
 import junit.framework.TestCase;
 
 /**
@@ -61,4 +67,110 @@ public final class TripletTest extends TestCase {
         assertEquals("FILE NAME=123", testTriplet.getGroupIdData().toString());
         assertEquals("313233", StringUtils.toHexString(testTriplet.getGroupIdData().toByteArray()));
     }
+
+    /**
+     * The encoded length of a {@link Triplet} equals the number of bytes written by
+     * {@link Triplet#writeTo(IpdsByteArrayOutputStream)}.
+     */
+    public void testEncodedLength() throws Exception {
+        final String[] triplets = new String[] {
+            "0200",
+            "060006313233",
+            "060100AB01F4",
+            "0A9A0000000009600960",
+            "05FE010203",
+        };
+
+        for (final String hex : triplets) {
+            final Triplet triplet = TripletFactory.create(HexFormat.of().parseHex(hex));
+            assertTrue(hex, triplet.isEncodingCached());
+
+            // Check the original encoded form as well as the encoding of the decoded triplet...
+            for (int ix = 0; ix < 2; ++ix) {
+                final IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+                triplet.writeTo(out);
+
+                assertEquals(hex, hex.length() / 2, triplet.getEncodedLength());
+                assertEquals(hex, StringUtils.toHexString(out.toByteArray()));
+
+                triplet.modified();
+            }
+        }
+    }
+
+    /**
+     * An unmodified decoded triplet is written as-is (including the reserved bytes), a modified triplet is
+     * encoded again.
+     */
+    public void testEncodingCache() throws Exception {
+        final TonerSaverTriplet triplet = (TonerSaverTriplet) TripletFactory.create(
+                HexFormat.of().parseHex("0674FF011234"));
+
+        IpdsByteArrayOutputStream out = new IpdsByteArrayOutputStream();
+        triplet.writeTo(out);
+        assertEquals("0674FF011234", StringUtils.toHexString(out.toByteArray()));
+
+        triplet.setControl(0x02);
+        assertFalse(triplet.isEncodingCached());
+
+        out = new IpdsByteArrayOutputStream();
+        triplet.writeTo(out);
+        assertEquals("067400020000", StringUtils.toHexString(out.toByteArray()));
+        assertTrue(triplet.isEncodingCached());
+
+        // A triplet that has not been decoded is not cached...
+        final TonerSaverTriplet copy = (TonerSaverTriplet) TripletFactory.create(out.toByteArray());
+        final FinishingOperationTriplet built = new FinishingOperationTriplet(0x01);
+        built.writeTo(new IpdsByteArrayOutputStream());
+
+        assertTrue(copy.isEncodingCached());
+        assertFalse(built.isEncodingCached());
+    }
+
+    /**
+     * A vendor-specific triplet for {@link #testCustomDecoder()}.
+     */
+    private static final class VendorTriplet extends Triplet {
+
+        private final int value;
+
+        VendorTriplet(final IpdsInputStream ipds, final int tripletId) throws IOException {
+            super(tripletId);
+            this.value = ipds.readUnsignedInteger16();
+        }
+
+        @Override
+        protected void encodeTo(final IpdsByteArrayOutputStream out) throws IOException {
+            out.writeUnsignedByte(4);
+            out.writeUnsignedByte(this.getTripletId());
+            out.writeUnsignedInteger16(this.value);
+        }
+    }
+
+    /**
+     * Checks that a vendor-specific triplet is decoded by an own {@link de.textmode.ipdsbox.core.Decoder} of a
+     * {@link DecoderContext}, for a single triplet and for the triplets carried by an IPDS command.
+     */
+    public void testCustomDecoder() throws Exception {
+        final byte[] data = HexFormat.of().parseHex("04F11234");
+        final DecoderContext context = DecoderContext.getDefault().withTriplets(
+                TripletFactory.getDefaultDecoders().toRegistry()
+                    .register(0xF1, (ipds, code, ctx) -> new VendorTriplet(ipds, code))
+                    .freeze());
+
+        assertTrue(TripletFactory.create(data) instanceof UnknownTriplet);
+
+        final Triplet triplet = TripletFactory.create(new IpdsByteArrayInputStream(data), context);
+        assertEquals(0x1234, ((VendorTriplet) triplet).value);
+        assertTrue(TripletFactory.create(new IpdsByteArrayInputStream(HexFormat.of().parseHex("0674FF011234")),
+                context) instanceof TonerSaverTriplet);
+
+        // The triplets carried by an IPDS command are decoded with the same DecoderContext...
+        final IpdsInputStream spe = new IpdsByteArrayInputStream(HexFormat.of().parseHex("000BD60800000004F11234"));
+        final SetPresentationEnvironmentCommand command =
+                (SetPresentationEnvironmentCommand) IpdsCommandFactory.create(spe, context);
+
+        assertTrue(command.getTriplets().get(0) instanceof VendorTriplet);
+        assertSame(TripletFactory.getDefaultDecoders(), DecoderContext.getDefault().getTriplets());
+    }
 }
@@ -0,0 +1,31 @@
+package de.textmode.ipdsbox.ipds.xoaorders;
+
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link XoaOrderCode}.
+ */
+public final class XoaOrderCodeTest extends TestCase {
+
+    /**
+     * Checks if the reverse mapping of all {@link XoaOrderCode}s works.
+     */
+    public void testAllOrderCodes() {
+        for (final XoaOrderCode code : XoaOrderCode.values()) {
+            assertEquals(code, XoaOrderCode.getIfKnown(code.getValue()));
+        }
+    }
+
+    /**
+     * Checks that unknown and out of range values are unknown.
+     */
+    public void testUnknownOrderCode() {
+        for (final XoaOrderCode code : XoaOrderCode.values()) {
+            assertNull(XoaOrderCode.getIfKnown(code.getValue() | 0x01));
+            assertNull(XoaOrderCode.getIfKnown(code.getValue() | 0x10000));
+        }
+
+        assertNull(XoaOrderCode.getIfKnown(-1));
+        assertNull(XoaOrderCode.getIfKnown(0x0000));
+    }
+}
@@ -0,0 +1,31 @@
+package de.textmode.ipdsbox.ipds.xohorders;
+
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link XohOrderCode}.
+ */
+public final class XohOrderCodeTest extends TestCase {
+
+    /**
+     * Checks if the reverse mapping of all {@link XohOrderCode}s works.
+     */
+    public void testAllOrderCodes() {
+        for (final XohOrderCode code : XohOrderCode.values()) {
+            assertEquals(code, XohOrderCode.getIfKnown(code.getValue()));
+        }
+    }
+
+    /**
+     * Checks that unknown and out of range values are unknown.
+     */
+    public void testUnknownOrderCode() {
+        for (final XohOrderCode code : XohOrderCode.values()) {
+            assertNull(XohOrderCode.getIfKnown(code.getValue() | 0x01));
+            assertNull(XohOrderCode.getIfKnown(code.getValue() | 0x10000));
+        }
+
+        assertNull(XohOrderCode.getIfKnown(-1));
+        assertNull(XohOrderCode.getIfKnown(0x0000));
+    }
+}
@@ -0,0 +1,170 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link BufferedPagePrinterRequestReader}.
+ */
+public final class BufferedPagePrinterRequestReaderTest extends TestCase {
+
+    private static final byte[] SESSION = HexFormat.of().parseHex(
+            "0000000800000001"
+            + "0000000B000000AB010203"
+            + "000000150000000E00000001000000050005D60300");
+
+    /**
+     * An {@link InputStream} that returns at most one byte per read call.
+     */
+    private static final class TricklingInputStream extends ByteArrayInputStream {
+
+        TricklingInputStream(final byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read(final byte[] b, final int off, final int len) {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    /**
+     * Reads all requests with one single read call.
+     */
+    public void testReadWithOneReadCall() throws Exception {
+        final BufferedPagePrinterRequestReader reader =
+                new BufferedPagePrinterRequestReader(new ByteArrayInputStream(SESSION));
+
+        assertTrue(reader.next());
+        assertEquals(0x01, reader.getRequest());
+        assertEquals(0, reader.getDataLength());
+        assertEquals(1, reader.getLastRequestReadCalls());
+        assertEquals(SESSION.length, reader.getLastRequestBytesRead());
+
+        assertTrue(reader.next());
+        assertEquals(0xAB, reader.getRequest());
+        assertTrue(Arrays.equals(new byte[] {0x01, 0x02, 0x03}, reader.getData().readRemainingBytes()));
+        assertEquals(0, reader.getLastRequestReadCalls());
+
+        final PagePrinterRequest req = reader.read();
+        assertEquals(0x0E, req.getRequest());
+        assertEquals(13, req.getData().length);
+
+        assertNull(reader.read());
+        assertEquals(2, reader.getTotalReadCalls());
+        assertEquals(SESSION.length, reader.getTotalBytesRead());
+        assertEquals(3, reader.getRequestCount());
+    }
+
+    /**
+     * Reads all requests byte by byte with a small receive buffer that must be compacted and enlarged.
+     */
+    public void testReadFragmented() throws Exception {
+        final BufferedPagePrinterRequestReader reader =
+                new BufferedPagePrinterRequestReader(new TricklingInputStream(SESSION), 10);
+
+        assertEquals(0x01, reader.read().getRequest());
+        assertEquals(8, reader.getLastRequestReadCalls());
+
+        assertTrue(Arrays.equals(new byte[] {0x01, 0x02, 0x03}, reader.read().getData()));
+
+        assertTrue(reader.next());
+        assertEquals(0x0E, reader.getRequest());
+        assertTrue(Arrays.equals(
+                HexFormat.of().parseHex("00000001000000050005D60300"), reader.getData().readRemainingBytes()));
+
+        assertFalse(reader.next());
+        assertEquals(SESSION.length, reader.getTotalBytesRead());
+    }
+
+    /**
+     * Reads a truncated request.
+     */
+    public void testTruncatedRequest() throws Exception {
+        final BufferedPagePrinterRequestReader reader = new BufferedPagePrinterRequestReader(
+                new ByteArrayInputStream(HexFormat.of().parseHex("0000000B0000")));
+
+        try {
+            reader.next();
+            fail("read a truncated request...");
+        } catch (final IOException e) {
+            assertEquals(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a request with an invalid length.
+     */
+    public void testInvalidLength() throws Exception {
+        final BufferedPagePrinterRequestReader reader = new BufferedPagePrinterRequestReader(
+                new ByteArrayInputStream(HexFormat.of().parseHex("00000007000000AB")));
+
+        try {
+            reader.next();
+            fail("read a request with an invalid length...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains(PagePrinterRequestReader.ERROR_INVALID_LENGTH));
+        }
+    }
+
+    /**
+     * Reads a request that exceeds the maximum request length.
+     */
+    public void testMaxRequestLength() throws Exception {
+        final BufferedPagePrinterRequestReader reader = new BufferedPagePrinterRequestReader(
+                new ByteArrayInputStream(SESSION), 16, null, 12);
+
+        assertTrue(reader.next());
+        assertTrue(reader.next());
+
+        try {
+            reader.next();
+            fail("read a request that exceeds the maximum request length...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains("maximum request length of 12 bytes"));
+        }
+
+        try {
+            new BufferedPagePrinterRequestReader(new ByteArrayInputStream(SESSION), 16, null, 7);
+            fail("constructed a reader with an invalid maximum request length...");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("maximum request length"));
+        }
+    }
+
+    /**
+     * Checks that the receive buffer shrinks back to its initial size after a large request.
+     */
+    public void testShrinkAfterLargeRequest() throws Exception {
+        final BufferedPagePrinterRequestReader reader = new BufferedPagePrinterRequestReader(
+                new ByteArrayInputStream(HexFormat.of().parseHex(
+                        "00000028000000AB" + "00".repeat(32)
+                        + "0000000800000001" + "0000000800000002" + "0000000800000003")),
+                16);
+
+        assertTrue(reader.next());
+        assertEquals(32, reader.getDataLength());
+        assertEquals(2, reader.getLastRequestReadCalls());
+
+        // The receive buffer has been shrunk to 16 bytes, so the 24 remaining bytes need two read calls.
+        assertTrue(reader.next());
+        assertEquals(0x01, reader.getRequest());
+        assertEquals(1, reader.getLastRequestReadCalls());
+        assertEquals(16, reader.getLastRequestBytesRead());
+
+        assertTrue(reader.next());
+        assertEquals(0x02, reader.getRequest());
+        assertEquals(0, reader.getLastRequestReadCalls());
+
+        assertTrue(reader.next());
+        assertEquals(0x03, reader.getRequest());
+        assertEquals(1, reader.getLastRequestReadCalls());
+
+        assertFalse(reader.next());
+    }
+}
@@ -0,0 +1,128 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeReply;
+import de.textmode.ipdsbox.ipds.acknowledge.NoAcknowledgeData;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
+import de.textmode.ipdsbox.ipds.commands.NoOperationCommand;
+import de.textmode.ipdsbox.ipds.commands.SetHomeStateCommand;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link IpdsCommandPackingWriter}.
+ */
+public final class IpdsCommandPackingWriterTest extends TestCase {
+
+    /**
+     * Reads all requests from the given bytes.
+     */
+    private static List<PagePrinterRequest> readRequests(final byte[] bytes) throws Exception {
+        final ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+        final List<PagePrinterRequest> result = new ArrayList<>();
+
+        PagePrinterRequest req;
+        while ((req = PagePrinterRequestReader.read(in)) != null) {
+            result.add(req);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes all IPDS commands of the given request.
+     */
+    private static List<IpdsCommand> decode(final PagePrinterRequest request) throws Exception {
+        final List<IpdsCommand> result = new ArrayList<>();
+        final PagePrinterRequestDecoder decoder = new PagePrinterRequestDecoder(null, result::add);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        request.writeTo(out);
+        decoder.feed(out.toByteArray(), 0, out.size());
+
+        return result;
+    }
+
+    private static NoOperationCommand nopWithArq() {
+        final NoOperationCommand nop = new NoOperationCommand();
+        nop.getCommandFlags().isAcknowledgmentRequired(true);
+        return nop;
+    }
+
+    /**
+     * Packs multiple IPDS commands into one request that is written at the ARQ boundary.
+     */
+    public void testPackUntilArq() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IpdsCommandPackingWriter writer = new IpdsCommandPackingWriter(out);
+
+        writer.write(new SetHomeStateCommand());
+        writer.write(new NoOperationCommand());
+        assertEquals(0, out.size());
+        assertEquals(10, writer.getPendingBytes());
+
+        writer.write(nopWithArq());
+        assertEquals(0, writer.getPendingBytes());
+
+        writer.write(new SetHomeStateCommand());
+        writer.flush();
+
+        final List<PagePrinterRequest> requests = readRequests(out.toByteArray());
+        assertEquals(2, requests.size());
+        assertEquals(2, writer.getRequestCount());
+        assertEquals(4, writer.getCommandCount());
+
+        assertEquals(0x0E, requests.get(0).getRequest());
+        assertEquals("000000010000000F0005D697000005D603000005D60380",
+                HexFormat.of().withUpperCase().formatHex(requests.get(0).getData()));
+
+        final List<IpdsCommand> commands = decode(requests.get(0));
+        assertEquals(3, commands.size());
+        assertTrue(commands.get(2).getCommandFlags().isAcknowledgmentRequired());
+
+        assertEquals(1, decode(requests.get(1)).size());
+    }
+
+    /**
+     * A new request is started if the next IPDS command does not fit into the open request.
+     */
+    public void testSizeLimit() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IpdsCommandPackingWriter writer = new IpdsCommandPackingWriter(out, 16 + 12, false);
+
+        for (int ix = 0; ix < 5; ++ix) {
+            writer.write(new NoOperationCommand());
+        }
+        writer.flush();
+
+        final List<PagePrinterRequest> requests = readRequests(out.toByteArray());
+        assertEquals(3, requests.size());
+        assertEquals(2, decode(requests.get(0)).size());
+        assertEquals(2, decode(requests.get(1)).size());
+        assertEquals(1, decode(requests.get(2)).size());
+    }
+
+    /**
+     * Acknowledge Replies are not mixed with other IPDS commands because the direction is part of the header.
+     */
+    public void testAcknowledgeReply() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IpdsCommandPackingWriter writer = new IpdsCommandPackingWriter(out);
+
+        writer.write(new NoOperationCommand());
+        final AcknowledgeReply ack = new AcknowledgeReply(0x00);
+        ack.setAcknowledgeData(new NoAcknowledgeData());
+        writer.write(ack);
+        writer.flush();
+
+        final List<PagePrinterRequest> requests = readRequests(out.toByteArray());
+        assertEquals(2, requests.size());
+        assertEquals(1, requests.get(0).getData()[3]);
+        assertEquals(0, requests.get(1).getData()[3]);
+        assertEquals(IpdsCommandId.ACK.getValue(), decode(requests.get(1)).get(0).getCommandCodeId());
+    }
+}
@@ -0,0 +1,88 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link IpdsCommandReader}.
+ */
+public final class IpdsCommandReaderTest extends TestCase {
+
+    private static final String SESSION =
+            "0000000800000001"
+            + "0000001A0000000E000000010000000A0005D6E4800005D60380"
+            + "0000000B000000AB010203"
+            + "000000150000000E00000001000000050005D60300";
+
+    /**
+     * Builds an {@link IpdsCommandReader} from the given hex encoded data.
+     */
+    private static IpdsCommandReader buildReader(final String data, final List<PagePrinterRequest> controlRequests) {
+        return new IpdsCommandReader(new ByteArrayInputStream(HexFormat.of().parseHex(data)), controlRequests::add);
+    }
+
+    /**
+     * Reads all commands of a session.
+     */
+    public void testRead() throws Exception {
+        final List<PagePrinterRequest> controlRequests = new ArrayList<>();
+        final IpdsCommandReader reader = buildReader(SESSION, controlRequests);
+
+        assertEquals(IpdsCommandId.STM, reader.read().getCommandCode());
+        assertEquals(1, controlRequests.size());
+        assertEquals(0x01, controlRequests.get(0).getRequest());
+
+        assertEquals(IpdsCommandId.NOP, reader.read().getCommandCode());
+        assertEquals(IpdsCommandId.NOP, reader.read().getCommandCode());
+        assertEquals(2, controlRequests.size());
+        assertEquals(0xAB, controlRequests.get(1).getRequest());
+        assertEquals(3, controlRequests.get(1).getData().length);
+
+        assertNull(reader.read());
+        assertNull(reader.read());
+    }
+
+    /**
+     * Reads all commands of a session using an {@link Iterator} and a stream.
+     */
+    public void testIteratorAndStream() throws Exception {
+        final Iterator<IpdsCommand> iterator = buildReader(SESSION, new ArrayList<>()).iterator();
+        assertTrue(iterator.hasNext());
+        assertEquals(IpdsCommandId.STM, iterator.next().getCommandCode());
+        assertEquals(IpdsCommandId.NOP, iterator.next().getCommandCode());
+        assertEquals(IpdsCommandId.NOP, iterator.next().getCommandCode());
+        assertFalse(iterator.hasNext());
+
+        assertEquals(3, buildReader(SESSION, new ArrayList<>()).stream().count());
+    }
+
+    /**
+     * Reads a truncated session.
+     */
+    public void testTruncatedSession() throws Exception {
+        final IpdsCommandReader reader = buildReader("0000001A0000000E000000010000000A0005D6E480", new ArrayList<>());
+
+        try {
+            reader.read();
+            fail("read a truncated request...");
+        } catch (final IOException e) {
+            assertEquals(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF, e.getMessage());
+        }
+
+        try {
+            buildReader("000000", new ArrayList<>()).stream().count();
+            fail("read a truncated request...");
+        } catch (final UncheckedIOException e) {
+            assertEquals(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF, e.getCause().getMessage());
+        }
+    }
+}
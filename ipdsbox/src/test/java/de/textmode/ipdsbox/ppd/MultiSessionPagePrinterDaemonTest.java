@@ -0,0 +1,261 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+
+import de.textmode.ipdsbox.ppd.PagePrinterDaemon.DaemonState;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link MultiSessionPagePrinterDaemon}.
+ */
+@SuppressFBWarnings("UWF_FIELD_NOT_INITIALIZED_IN_CONSTRUCTOR")
+public final class MultiSessionPagePrinterDaemonTest extends TestCase implements Observer {
+
+    private static final String LOCALHOST = "localhost";
+    private static final int PORT_NUMBER = 7002;
+    private static final int FAILING_REQUEST = 0xAB;
+    private static final int CLOSING_REQUEST = 0xAC;
+    private static final int ASYNC_CLOSING_REQUEST = 0xAD;
+
+    private final List<PagePrinterRequest> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<PagePrinterSession> sessions = Collections.synchronizedList(new ArrayList<>());
+    private final List<PagePrinterSession> closedSessions = Collections.synchronizedList(new ArrayList<>());
+
+    private ServerSocketChannel serverSocketChannel;
+    private volatile DaemonState state;
+
+    @Override
+    protected void setUp() throws Exception {
+        this.serverSocketChannel = ServerSocketChannel.open();
+        this.serverSocketChannel.socket().setReuseAddress(true);
+        this.serverSocketChannel.bind(new InetSocketAddress(PORT_NUMBER));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.serverSocketChannel.close();
+    }
+
+    @Override
+    public void update(final Observable pagePrinterDaemon, final Object daemonState) {
+        this.state = (DaemonState) daemonState;
+    }
+
+    /**
+     * Builds a {@link MultiSessionPagePrinterDaemon} for the JUnit test. Every received
+     * {@link PagePrinterRequest} is sent back to the Page Printer Requester.
+     */
+    private MultiSessionPagePrinterDaemon buildDaemon() throws Exception {
+        final MultiSessionPagePrinterDaemon daemon = new PagePrinterDaemonFactory()
+            .serverSocketChannel(this.serverSocketChannel)
+            .logger(new TestcaseLogger())
+            .observer(this)
+            .ioThreads(2)
+            .pagePrinterSessionHandler(new PagePrinterSessionHandler() {
+                @Override
+                public void handle(final PagePrinterSession session, final PagePrinterRequest request) {
+                    if (request.getRequest() == FAILING_REQUEST) {
+                        throw new IllegalStateException("Failing request received");
+                    }
+
+                    MultiSessionPagePrinterDaemonTest.this.requests.add(request);
+                    try {
+                        if (request.getRequest() == CLOSING_REQUEST) {
+                            session.close();
+                        } else if (request.getRequest() == ASYNC_CLOSING_REQUEST) {
+                            new Thread(() -> {
+                                try {
+                                    session.close();
+                                } catch (final IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            }).start();
+                        } else {
+                            session.send(request);
+                        }
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void sessionOpened(final PagePrinterSession session) {
+                    MultiSessionPagePrinterDaemonTest.this.sessions.add(session);
+                }
+
+                @Override
+                public void sessionClosed(final PagePrinterSession session) {
+                    MultiSessionPagePrinterDaemonTest.this.closedSessions.add(session);
+                }
+            })
+            .createMultiSession();
+
+        this.state = daemon.getDaemonState();
+
+        return daemon;
+    }
+
+    /**
+     * Waits for a specific state.
+     */
+    private void waitForState(final DaemonState s) throws InterruptedException {
+        for (int i = 0; i < 100; ++i) {
+            if (this.state == s) {
+                return;
+            } else {
+                Thread.sleep(50);
+            }
+        }
+        throw new InterruptedException("State not changed to " + s + " witin 5 seconds");
+    }
+
+    /**
+     * Fires up the daemon and shuts it down - no connection is made.
+     */
+    public void testWithNoConnectionFromClient() throws Exception {
+        final MultiSessionPagePrinterDaemon daemon = this.buildDaemon();
+        daemon.startup();
+        this.waitForState(DaemonState.ACCEPTING);
+
+        daemon.shutdown();
+        this.waitForState(DaemonState.SHUTDOWN_DONE);
+    }
+
+    /**
+     * Connects two Page Printer Requesters at the same time and sends some data on both connections.
+     */
+    public void testConcurrentSessions() throws Exception {
+        final MultiSessionPagePrinterDaemon daemon = this.buildDaemon();
+        daemon.startup();
+        this.waitForState(DaemonState.ACCEPTING);
+
+        final byte[] data = HexFormat.of().parseHex("00000010000000010000000100000002");
+
+        try (Socket first = new Socket(LOCALHOST, PORT_NUMBER);
+             Socket second = new Socket(LOCALHOST, PORT_NUMBER)) {
+
+            this.waitForState(DaemonState.RUNNING);
+
+            // Send the request in two chunks on the first connection...
+            first.getOutputStream().write(data, 0, 5);
+            second.getOutputStream().write(data);
+            first.getOutputStream().write(data, 5, data.length - 5);
+
+            assertEquals(0x01, PagePrinterRequestReader.read(first.getInputStream()).getRequest());
+            assertEquals(0x01, PagePrinterRequestReader.read(second.getInputStream()).getRequest());
+
+            assertEquals(2, this.requests.size());
+            assertEquals(2, this.sessions.size());
+            assertEquals(2, daemon.getActiveSessionCount());
+            assertTrue(this.sessions.get(0).getId() != this.sessions.get(1).getId());
+        }
+
+        this.waitForState(DaemonState.ACCEPTING);
+
+        daemon.shutdown();
+        this.waitForState(DaemonState.SHUTDOWN_DONE);
+    }
+
+    /**
+     * Closes a connection within a request.
+     */
+    public void testTruncatedRequest() throws Exception {
+        final MultiSessionPagePrinterDaemon daemon = this.buildDaemon();
+        daemon.startup();
+        this.waitForState(DaemonState.ACCEPTING);
+
+        try (Socket socket = new Socket(LOCALHOST, PORT_NUMBER)) {
+            this.waitForState(DaemonState.RUNNING);
+            socket.getOutputStream().write(HexFormat.of().parseHex("0000001000000001"));
+        }
+
+        this.waitForState(DaemonState.ACCEPTING);
+        assertEquals(0, this.requests.size());
+
+        daemon.shutdown();
+        this.waitForState(DaemonState.SHUTDOWN_DONE);
+    }
+
+    /**
+     * A {@link PagePrinterSessionHandler} that throws a {@link RuntimeException} only closes its own session.
+     */
+    public void testFailingHandler() throws Exception {
+        final MultiSessionPagePrinterDaemon daemon = this.buildDaemon();
+        daemon.startup();
+        this.waitForState(DaemonState.ACCEPTING);
+
+        try (Socket first = new Socket(LOCALHOST, PORT_NUMBER);
+             Socket second = new Socket(LOCALHOST, PORT_NUMBER)) {
+
+            this.waitForState(DaemonState.RUNNING);
+
+            first.getOutputStream().write(HexFormat.of().parseHex("00000008000000AB"));
+            assertEquals(-1, first.getInputStream().read());
+
+            second.getOutputStream().write(HexFormat.of().parseHex("00000010000000010000000100000002"));
+            assertEquals(0x01, PagePrinterRequestReader.read(second.getInputStream()).getRequest());
+
+            // The session is counted down after the connection has been closed...
+            for (int ix = 0; ix < 100 && daemon.getActiveSessionCount() != 1; ++ix) {
+                Thread.sleep(50);
+            }
+            assertEquals(1, daemon.getActiveSessionCount());
+        }
+
+        this.waitForState(DaemonState.ACCEPTING);
+
+        // The I/O threads are still alive and accept new connections...
+        for (int ix = 0; ix < 2; ++ix) {
+            try (Socket socket = new Socket(LOCALHOST, PORT_NUMBER)) {
+                socket.getOutputStream().write(HexFormat.of().parseHex("0000000800000002"));
+                assertEquals(0x02, PagePrinterRequestReader.read(socket.getInputStream()).getRequest());
+            }
+        }
+
+        daemon.shutdown();
+        this.waitForState(DaemonState.SHUTDOWN_DONE);
+    }
+
+    /**
+     * A {@link PagePrinterSession} closed by the {@link PagePrinterSessionHandler} (on the I/O thread as well as
+     * on another thread) is closed by the I/O thread, so the {@link PagePrinterSessionHandler} is notified and the
+     * session is counted down.
+     */
+    public void testSessionClosedByHandler() throws Exception {
+        final MultiSessionPagePrinterDaemon daemon = this.buildDaemon();
+        daemon.startup();
+        this.waitForState(DaemonState.ACCEPTING);
+
+        try (Socket first = new Socket(LOCALHOST, PORT_NUMBER);
+             Socket second = new Socket(LOCALHOST, PORT_NUMBER)) {
+
+            this.waitForState(DaemonState.RUNNING);
+
+            first.getOutputStream().write(HexFormat.of().parseHex("00000008000000AC"));
+            assertEquals(-1, first.getInputStream().read());
+
+            second.getOutputStream().write(HexFormat.of().parseHex("00000008000000AD"));
+            assertEquals(-1, second.getInputStream().read());
+        }
+
+        this.waitForState(DaemonState.ACCEPTING);
+        assertEquals(0, daemon.getActiveSessionCount());
+        assertEquals(2, this.closedSessions.size());
+        assertFalse(this.closedSessions.get(0).isOpen());
+        assertFalse(this.closedSessions.get(1).isOpen());
+
+        daemon.shutdown();
+        this.waitForState(DaemonState.SHUTDOWN_DONE);
+    }
+}
@@ -0,0 +1,108 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import de.textmode.ipdsbox.io.IpdsInputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link PagePrinterCaptureReader}.
+ */
+public final class PagePrinterCaptureReaderTest extends TestCase {
+
+    private static final String CAPTURE =
+            "0000000800000001"
+            + "0000000B000000AB010203"
+            + "0000001A0000000E000000010000000A0005D6E4800005D60380";
+
+    private Path file;
+
+    @Override
+    protected void setUp() throws Exception {
+        this.file = Files.createTempFile("ipdsbox", ".cap");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.delete(this.file);
+    }
+
+    /**
+     * Reads all requests of a capture file with the given window size.
+     */
+    private void readCapture(final int windowSize) throws Exception {
+        Files.write(this.file, HexFormat.of().parseHex(CAPTURE));
+
+        try (PagePrinterCaptureReader reader = new PagePrinterCaptureReader(this.file, windowSize)) {
+            assertTrue(reader.next());
+            assertEquals(0x01, reader.getRequest());
+            assertEquals(0, reader.getRequestOffset());
+            assertEquals(0, reader.getDataLength());
+
+            assertTrue(reader.next());
+            assertEquals(0xAB, reader.getRequest());
+            assertEquals(8, reader.getRequestOffset());
+            assertTrue(Arrays.equals(new byte[] {0x01, 0x02, 0x03}, reader.toPagePrinterRequest().getData()));
+
+            assertTrue(reader.next());
+            assertEquals(0x0E, reader.getRequest());
+
+            final IpdsInputStream ipds = reader.getIpdsData();
+            assertEquals(IpdsCommandId.STM,
+                    IpdsCommandFactory.create(ipds.readIpdsCommandViewIfExists()).getCommandCode());
+            assertEquals(IpdsCommandId.NOP,
+                    IpdsCommandFactory.create(ipds.readIpdsCommandViewIfExists()).getCommandCode());
+            assertNull(ipds.readIpdsCommandViewIfExists());
+
+            assertFalse(reader.next());
+        }
+    }
+
+    /**
+     * Reads a capture file that fits into one window.
+     */
+    public void testReadWithinOneWindow() throws Exception {
+        this.readCapture(PagePrinterCaptureReader.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Reads a capture file with a window size that is smaller than the requests.
+     */
+    public void testReadWithRemapping() throws Exception {
+        this.readCapture(8);
+    }
+
+    /**
+     * Reads a truncated capture file.
+     */
+    public void testTruncatedCaptureFile() throws Exception {
+        Files.write(this.file, HexFormat.of().parseHex("0000000B000000AB0102"));
+
+        try (PagePrinterCaptureReader reader = new PagePrinterCaptureReader(this.file)) {
+            reader.next();
+            fail("read a truncated request...");
+        } catch (final IOException e) {
+            assertEquals(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a request with an invalid length.
+     */
+    public void testInvalidLength() throws Exception {
+        Files.write(this.file, HexFormat.of().parseHex("00000007000000AB"));
+
+        try (PagePrinterCaptureReader reader = new PagePrinterCaptureReader(this.file)) {
+            reader.next();
+            fail("read a request with an invalid length...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains(PagePrinterRequestReader.ERROR_INVALID_LENGTH));
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.HexFormat;
 import java.util.Observable;
 import java.util.Observer;
 
+import de.textmode.ipdsbox.core.ExecutionMode;
 import de.textmode.ipdsbox.core.IpdsConfigurationException;
 import de.textmode.ipdsbox.ppd.PagePrinterDaemon.DaemonState;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -174,4 +175,91 @@ public final class PagePrinterDaemonTest extends TestCase implements Observer {
         daemon.shutdown();
         this.waitForState(DaemonState.SHUTDOWN_DONE);
     }
+
+    /**
+     * Fires up the daemon with platform threads and handles two connections at the same time.
+     */
+    public void testConcurrentConnectionsWithExecutionMode() throws Exception {
+        final PagePrinterDaemon daemon = new PagePrinterDaemonFactory()
+            .serverSocket(this.serverSocket)
+            .logger(this.logger)
+            .observer(this)
+            .pagePrinterRequestHandler(this.handler)
+            .executionMode(ExecutionMode.PLATFORM_THREADS)
+            .create();
+
+        daemon.startup();
+        this.waitForState(DaemonState.ACCEPTING);
+
+        final byte[] data = HexFormat.of().parseHex("00000010000000010000000100000002");
+
+        try (Socket first = new Socket(LOCALHOST, PORT_NUMBER);
+             Socket second = new Socket(LOCALHOST, PORT_NUMBER)) {
+
+            this.waitForState(DaemonState.RUNNING);
+
+            // The second connection is handled while the first one is still established...
+            second.getOutputStream().write(data);
+            this.waitForHandledCommand(1);
+
+            first.getOutputStream().write(data);
+            this.waitForHandledCommand(2);
+        }
+
+        this.waitForState(DaemonState.ACCEPTING);
+
+        daemon.shutdown();
+        this.waitForState(DaemonState.SHUTDOWN_DONE);
+    }
+
+    /**
+     * Shuts down the daemon with platform threads while a connection is established. The shutdown is done after
+     * the connection has been closed.
+     */
+    public void testShutdownWithEstablishedConnection() throws Exception {
+        final PagePrinterDaemon daemon = new PagePrinterDaemonFactory()
+            .serverSocket(this.serverSocket)
+            .logger(this.logger)
+            .observer(this)
+            .pagePrinterRequestHandler(this.handler)
+            .executionMode(ExecutionMode.PLATFORM_THREADS)
+            .create();
+
+        daemon.startup();
+        this.waitForState(DaemonState.ACCEPTING);
+
+        try (Socket socket = new Socket(LOCALHOST, PORT_NUMBER)) {
+            this.waitForState(DaemonState.RUNNING);
+
+            socket.getOutputStream().write(HexFormat.of().parseHex("00000010000000010000000100000002"));
+            this.waitForHandledCommand(1);
+
+            daemon.shutdown();
+            this.waitForState(DaemonState.SHUTDOWN_DONE);
+
+            assertEquals(-1, socket.getInputStream().read());
+        }
+    }
+
+    /**
+     * Virtual threads can only be used if the JVM supports them.
+     */
+    public void testVirtualThreadExecutionMode() throws Exception {
+        final PagePrinterDaemonFactory factory = new PagePrinterDaemonFactory()
+            .serverSocket(this.serverSocket)
+            .logger(this.logger)
+            .pagePrinterRequestHandler(this.handler)
+            .executionMode(ExecutionMode.VIRTUAL_THREADS);
+
+        if (ExecutionMode.VIRTUAL_THREADS.isSupported()) {
+            assertNotNull(factory.create());
+        } else {
+            try {
+                factory.create();
+                fail("virtual threads are not supported...");
+            } catch (final IpdsConfigurationException e) {
+                assertTrue(e.getMessage().contains("Java 21"));
+            }
+        }
+    }
 }
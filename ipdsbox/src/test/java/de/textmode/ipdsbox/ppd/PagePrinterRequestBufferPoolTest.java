@@ -0,0 +1,200 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link PagePrinterRequestBufferPool}.
+ */
+public final class PagePrinterRequestBufferPoolTest extends TestCase {
+
+    private static final byte[] SESSION = HexFormat.of().parseHex(
+            "0000000800000001"
+            + "0000000B000000AB010203"
+            + "000000150000000E00000001000000050005D60300");
+
+    /**
+     * Acquires and releases buffers of different size classes.
+     */
+    public void testAcquireAndRelease() throws Exception {
+        final PagePrinterRequestBufferPool pool = new PagePrinterRequestBufferPool();
+
+        final PagePrinterRequest first = pool.acquire(0x0E, 100);
+        assertTrue(first.isPooled());
+        assertEquals(0x0E, first.getRequest());
+        assertEquals(100, first.getDataLength());
+        assertEquals(PagePrinterRequestBufferPool.MIN_BUFFER_LENGTH, first.getData().length);
+
+        final byte[] buffer = first.getData();
+        assertTrue(first.release());
+
+        // The buffer is taken from the slab...
+        final PagePrinterRequest second = pool.acquire(0x0E, PagePrinterRequestBufferPool.MIN_BUFFER_LENGTH);
+        assertSame(buffer, second.getData());
+        assertTrue(second.release());
+
+        // ...but only if it is of the same size class.
+        final PagePrinterRequest third = pool.acquire(0x0E, PagePrinterRequestBufferPool.MIN_BUFFER_LENGTH + 1);
+        assertEquals(PagePrinterRequestBufferPool.MIN_BUFFER_LENGTH * 2, third.getData().length);
+        assertTrue(third.release());
+
+        assertEquals(2, pool.getAllocatedBuffers());
+        assertEquals(1, pool.getReusedBuffers());
+    }
+
+    /**
+     * Requests larger than the largest size class are not pooled.
+     */
+    public void testUnpooledRequest() throws Exception {
+        final PagePrinterRequestBufferPool pool = new PagePrinterRequestBufferPool(1000, 4, 4);
+        assertEquals(1024, pool.getMaxBufferLength());
+
+        final PagePrinterRequest req = pool.acquire(0x0E, 1025);
+        assertFalse(req.isPooled());
+        assertEquals(1025, req.getData().length);
+        assertFalse(req.release());
+        assertEquals(1, pool.getUnpooledBuffers());
+    }
+
+    /**
+     * Tests the reference counting.
+     */
+    public void testReferenceCounting() throws Exception {
+        final PagePrinterRequestBufferPool pool = new PagePrinterRequestBufferPool();
+
+        final PagePrinterRequest req = pool.acquire(0x0E, 10);
+        assertSame(req, req.retain());
+        assertFalse(req.release());
+        assertEquals(10, req.getDataLength());
+        assertTrue(req.release());
+
+        try {
+            req.getData();
+            fail("data of a released request is accessible");
+        } catch (final IllegalStateException e) {
+            assertEquals("The PagePrinterRequest has already been released", e.getMessage());
+        }
+
+        try {
+            req.release();
+            fail("request released twice");
+        } catch (final IllegalStateException e) {
+            assertEquals("The PagePrinterRequest has already been released", e.getMessage());
+        }
+
+        try {
+            req.retain();
+            fail("released request retained");
+        } catch (final IllegalStateException e) {
+            assertEquals("The PagePrinterRequest has already been released", e.getMessage());
+        }
+    }
+
+    /**
+     * Buffers released by one thread are reused by another thread via the shared slab.
+     */
+    public void testSharedSlab() throws Exception {
+        final PagePrinterRequestBufferPool pool = new PagePrinterRequestBufferPool(1024, 4, 0);
+
+        final PagePrinterRequest req = pool.acquire(0x0E, 10);
+        final byte[] buffer = req.getData();
+
+        final Thread thread = new Thread(() -> req.release());
+        thread.start();
+        thread.join();
+
+        final PagePrinterRequest reused = pool.acquire(0x0E, 20);
+        assertSame(buffer, reused.getData());
+        assertEquals(1, pool.getReusedBuffers());
+    }
+
+    /**
+     * A request that is never released is reported by the leak detection.
+     */
+    public void testLeakDetection() throws Exception {
+        final TestcaseLogger logger = new TestcaseLogger();
+        final PagePrinterRequestBufferPool pool = new PagePrinterRequestBufferPool();
+        pool.enableLeakDetection(logger);
+
+        pool.acquire(0x0E, 10).release();
+        pool.acquire(0x0E, 10);
+
+        for (int ix = 0; ix < 200 && pool.getLeakedRequests() == 0; ++ix) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, pool.getLeakedRequests());
+        for (int ix = 0; ix < 200 && logger.getLoggesMessages().size() < 2; ++ix) {
+            Thread.sleep(10);
+        }
+        assertEquals("ERROR: A pooled PagePrinterRequest has been garbage collected without being released",
+                logger.getLoggesMessages().get(0));
+        assertEquals("ERROR: PagePrinterRequest acquired here", logger.getLoggesMessages().get(1));
+    }
+
+    /**
+     * Reads pooled requests with the {@link PagePrinterRequestReader} and the
+     * {@link BufferedPagePrinterRequestReader} and writes them again.
+     */
+    public void testPooledRequestsFromReaders() throws Exception {
+        final PagePrinterRequestBufferPool pool = new PagePrinterRequestBufferPool();
+
+        final ByteArrayInputStream in = new ByteArrayInputStream(SESSION);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        PagePrinterRequest req;
+        while ((req = PagePrinterRequestReader.read(in, pool)) != null) {
+            req.writeTo(out);
+            req.release();
+        }
+
+        assertTrue(Arrays.equals(SESSION, out.toByteArray()));
+
+        final BufferedPagePrinterRequestReader reader = new BufferedPagePrinterRequestReader(
+                new ByteArrayInputStream(SESSION), BufferedPagePrinterRequestReader.DEFAULT_BUFFER_SIZE, pool);
+        out.reset();
+
+        while ((req = reader.read()) != null) {
+            assertEquals(req.getRequest() != 0x01, req.isPooled());
+            req.writeTo(out);
+            req.release();
+        }
+
+        assertTrue(Arrays.equals(SESSION, out.toByteArray()));
+        assertEquals(1, pool.getAllocatedBuffers());
+        assertEquals(3, pool.getReusedBuffers());
+    }
+
+    /**
+     * Buffers cached by a thread are returned to the shared slab by
+     * {@link PagePrinterRequestBufferPool#releaseThreadCache()}.
+     */
+    public void testReleaseThreadCache() throws Exception {
+        final PagePrinterRequestBufferPool pool = new PagePrinterRequestBufferPool(1024, 4, 4);
+        final byte[][] buffer = new byte[1][];
+
+        final Thread thread = new Thread(() -> {
+            final PagePrinterRequest req = pool.acquire(0x0E, 10);
+            buffer[0] = req.getData();
+            req.release();
+
+            // The buffer is taken from the thread cache...
+            final PagePrinterRequest cached = pool.acquire(0x0E, 10);
+            assertSame(buffer[0], cached.getData());
+            cached.release();
+
+            pool.releaseThreadCache();
+        });
+        thread.start();
+        thread.join();
+
+        final PagePrinterRequest reused = pool.acquire(0x0E, 20);
+        assertSame(buffer[0], reused.getData());
+        assertEquals(2, pool.getReusedBuffers());
+    }
+}
@@ -0,0 +1,172 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommandId;
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link PagePrinterRequestDecoder}.
+ */
+public final class PagePrinterRequestDecoderTest extends TestCase {
+
+    private static final byte[] SESSION = HexFormat.of().parseHex(
+            "0000000800000001"
+            + "0000001A0000000E000000010000000A0005D6E4800005D60380"
+            + "0000000B000000AB010203");
+
+    private final List<PagePrinterRequest> requests = new ArrayList<>();
+    private final List<IpdsCommand> commands = new ArrayList<>();
+    private final PagePrinterRequestDecoder decoder =
+            new PagePrinterRequestDecoder(this.requests::add, this.commands::add);
+
+    /**
+     * Checks the decoded requests and commands.
+     */
+    private void checkDecoded() throws Exception {
+        assertTrue(this.decoder.isIdle());
+        this.decoder.endOfStream();
+
+        assertEquals(3, this.requests.size());
+        assertEquals(0x01, this.requests.get(0).getRequest());
+        assertEquals(0x0E, this.requests.get(1).getRequest());
+        assertEquals(0xAB, this.requests.get(2).getRequest());
+        assertEquals(3, this.requests.get(2).getData().length);
+
+        assertEquals(2, this.commands.size());
+        assertEquals(IpdsCommandId.STM, this.commands.get(0).getCommandCode());
+        assertEquals(IpdsCommandId.NOP, this.commands.get(1).getCommandCode());
+    }
+
+    /**
+     * Feeds the complete session at once.
+     */
+    public void testFeedAtOnce() throws Exception {
+        this.decoder.feed(SESSION, 0, SESSION.length);
+        this.checkDecoded();
+    }
+
+    /**
+     * Feeds the session byte by byte.
+     */
+    public void testFeedByteByByte() throws Exception {
+        for (int ix = 0; ix < SESSION.length; ++ix) {
+            this.decoder.feed(SESSION, ix, 1);
+        }
+        this.checkDecoded();
+    }
+
+    /**
+     * Feeds the session in chunks that cross the request boundaries.
+     */
+    public void testFeedChunks() throws Exception {
+        this.decoder.feed(SESSION, 0, 5);
+        this.decoder.feed(SESSION, 5, 20);
+        assertEquals(1, this.requests.size());
+        assertFalse(this.decoder.isIdle());
+
+        this.decoder.feed(SESSION, 25, SESSION.length - 25);
+        this.checkDecoded();
+    }
+
+    /**
+     * Feeds IPDS commands that can not be decoded. They are reported with their offset and the decoding
+     * continues with the next IPDS command or (if the length of an IPDS command is broken) with the next request.
+     */
+    public void testCommandErrors() throws Exception {
+        final List<Integer> offsets = new ArrayList<>();
+        final PagePrinterRequestDecoder reporting = new PagePrinterRequestDecoder(
+                this.requests::add,
+                this.commands::add,
+                (offset, e) -> offsets.add(offset),
+                PagePrinterRequestDecoder.DEFAULT_MAX_REQUEST_LENGTH);
+
+        // STM, an STM with a correlation ID flag but without correlation ID, and a NOP...
+        final byte[] data = HexFormat.of().parseHex(
+                "0000001F0000000E" + "000000010000000F" + "0005D6E480" + "0005D6E440" + "0005D60380"
+                + "000000160000000E" + "0000000100000006" + "00FFD6E480AB"
+                + "0000000800000001");
+
+        reporting.feed(data, 0, data.length);
+        assertTrue(reporting.isIdle());
+
+        assertEquals(3, this.requests.size());
+        assertEquals(0x01, this.requests.get(2).getRequest());
+
+        assertEquals(2, this.commands.size());
+        assertEquals(IpdsCommandId.STM, this.commands.get(0).getCommandCode());
+        assertEquals(IpdsCommandId.NOP, this.commands.get(1).getCommandCode());
+        assertEquals(Arrays.asList(13, 8), offsets);
+
+        // Without an IpdsCommandErrorHandler the IPDS commands that can not be decoded are skipped...
+        this.decoder.feed(data, 0, data.length);
+        assertEquals(4, this.commands.size());
+    }
+
+    /**
+     * Signals the end of the stream within a request.
+     */
+    public void testTruncatedStream() throws Exception {
+        this.decoder.feed(SESSION, 0, 12);
+
+        try {
+            this.decoder.endOfStream();
+            fail("stream ended within a request...");
+        } catch (final IOException e) {
+            assertEquals(PagePrinterRequestReader.ERROR_UNEXPECTED_EOF, e.getMessage());
+        }
+    }
+
+    /**
+     * Feeds a request with an invalid length.
+     */
+    public void testInvalidLength() throws Exception {
+        try {
+            this.decoder.feed(HexFormat.of().parseHex("00000004000000AB"), 0, 8);
+            fail("decoded a request with an invalid length...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains(PagePrinterRequestReader.ERROR_INVALID_LENGTH));
+        }
+    }
+
+    /**
+     * Feeds a request that exceeds the maximum request length.
+     */
+    public void testMaxRequestLength() throws Exception {
+        final PagePrinterRequestDecoder limited = new PagePrinterRequestDecoder(this.requests::add, null, 16);
+        limited.feed(HexFormat.of().parseHex("00000010000000AB0102030405060708"), 0, 16);
+        assertEquals(1, this.requests.size());
+
+        try {
+            limited.feed(HexFormat.of().parseHex("00000011000000AB"), 0, 8);
+            fail("decoded a request that exceeds the maximum request length...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains("maximum request length"));
+        }
+
+        // A negative length (above 2 GB if unsigned) is rejected as well...
+        try {
+            this.decoder.feed(HexFormat.of().parseHex("FFFFFFF0000000AB"), 0, 8);
+            fail("decoded a request with an invalid length...");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains(PagePrinterRequestReader.ERROR_INVALID_LENGTH));
+        }
+    }
+
+    /**
+     * Constructs a {@link PagePrinterRequestDecoder} with an invalid maximum request length.
+     */
+    public void testInvalidMaxRequestLength() {
+        try {
+            new PagePrinterRequestDecoder(null, null, 7);
+            fail("constructed a decoder with an invalid maximum request length...");
+        } catch (final IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("8"));
+        }
+    }
+}
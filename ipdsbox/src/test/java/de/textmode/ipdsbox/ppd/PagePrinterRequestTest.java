@@ -43,4 +43,18 @@ public final class PagePrinterRequestTest extends TestCase {
         final byte[] expected = new byte[] {0x00, 0x00, 0x00, 0x0C, 0x56, 0x78, 0x12, 0x34, 0x11, 0x22, 0x33, 0x44};
         assertTrue(Arrays.equals(expected, baos.toByteArray()));
     }
+
+    /**
+     * Writes a {@link PagePrinterRequest} to a {@link java.nio.channels.GatheringByteChannel}.
+     */
+    public void testWriteToGatheringByteChannel() throws IOException {
+        final PagePrinterRequest req = new PagePrinterRequest(0x56781234, new byte[] {0x11, 0x22, 0x33, 0x44});
+
+        final TestcaseGatheringByteChannel channel = new TestcaseGatheringByteChannel(3);
+        req.writeTo(channel);
+
+        final byte[] expected = new byte[] {0x00, 0x00, 0x00, 0x0C, 0x56, 0x78, 0x12, 0x34, 0x11, 0x22, 0x33, 0x44};
+        assertTrue(Arrays.equals(expected, channel.getWrittenBytes()));
+        assertEquals(4, channel.getWriteCalls());
+    }
 }
@@ -0,0 +1,168 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import junit.framework.TestCase;
+
+/**
+ * JUnit tests of the {@link PagePrinterRequestWriter}.
+ */
+public final class PagePrinterRequestWriterTest extends TestCase {
+
+    private static final PagePrinterRequest BULK =
+            new PagePrinterRequest(0x0E, HexFormat.of().parseHex("00000001000000050005D62D00"));
+
+    private static final PagePrinterRequest ARQ =
+            new PagePrinterRequest(0x0E, HexFormat.of().parseHex("00000001000000050005D6E480"));
+
+    private static final PagePrinterRequest ARQ_IN_SECOND_COMMAND =
+            new PagePrinterRequest(0x0E, HexFormat.of().parseHex("000000010000000A0005D62D000005D6E480"));
+
+    private static final PagePrinterRequest ACK =
+            new PagePrinterRequest(0x0E, HexFormat.of().parseHex("00000000000000050005D6FF00"));
+
+    private static final PagePrinterRequest CONTROL = new PagePrinterRequest(0x01);
+
+    /**
+     * Returns the bytes of the given requests as written by {@link PagePrinterRequest#writeTo(java.io.OutputStream)}.
+     */
+    private static byte[] bytesOf(final PagePrinterRequest... requests) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (final PagePrinterRequest request : requests) {
+            request.writeTo(out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Detects requests the peer has to respond to.
+     */
+    public void testIsResponseExpected() throws Exception {
+        assertFalse(PagePrinterRequestWriter.isResponseExpected(BULK));
+        assertTrue(PagePrinterRequestWriter.isResponseExpected(ARQ));
+        assertTrue(PagePrinterRequestWriter.isResponseExpected(ARQ_IN_SECOND_COMMAND));
+        assertTrue(PagePrinterRequestWriter.isResponseExpected(ACK));
+        assertTrue(PagePrinterRequestWriter.isResponseExpected(CONTROL));
+    }
+
+    /**
+     * Every request is written immediately.
+     */
+    public void testImmediate() throws Exception {
+        final TestcaseGatheringByteChannel channel = new TestcaseGatheringByteChannel();
+        final PagePrinterRequestWriter writer = new PagePrinterRequestWriter(channel);
+
+        writer.write(BULK);
+        writer.write(BULK);
+
+        assertEquals(2, channel.getWriteCalls());
+        assertEquals(2, writer.getFlushCount());
+        assertTrue(Arrays.equals(bytesOf(BULK, BULK), channel.getWrittenBytes()));
+    }
+
+    /**
+     * Bulk data is coalesced until a request is queued the peer has to respond to.
+     */
+    public void testFlushIfResponseExpected() throws Exception {
+        final TestcaseGatheringByteChannel channel = new TestcaseGatheringByteChannel();
+        final PagePrinterRequestWriter writer =
+                new PagePrinterRequestWriter(channel, FlushPolicy.onResponseExpected(64 * 1024, 0));
+
+        writer.write(BULK);
+        writer.write(BULK);
+        writer.write(BULK);
+
+        assertEquals(0, channel.getWriteCalls());
+        assertEquals(3, writer.getPendingRequests());
+        assertEquals(63, writer.getPendingBytes());
+
+        writer.write(ARQ);
+
+        assertEquals(1, channel.getWriteCalls());
+        assertEquals(0, writer.getPendingRequests());
+        assertTrue(Arrays.equals(bytesOf(BULK, BULK, BULK, ARQ), channel.getWrittenBytes()));
+
+        writer.write(CONTROL);
+        assertEquals(2, channel.getWriteCalls());
+    }
+
+    /**
+     * The queued requests are written when the size threshold is reached.
+     */
+    public void testSizeThreshold() throws Exception {
+        final TestcaseGatheringByteChannel channel = new TestcaseGatheringByteChannel();
+        final PagePrinterRequestWriter writer = new PagePrinterRequestWriter(channel, FlushPolicy.thresholds(50, 0));
+
+        writer.write(ARQ);
+        writer.write(BULK);
+        assertEquals(0, channel.getWriteCalls());
+
+        writer.write(BULK);
+        assertEquals(1, channel.getWriteCalls());
+        assertEquals(63, writer.getBytesWritten());
+
+        writer.write(BULK);
+        writer.close();
+
+        assertFalse(channel.isOpen());
+        assertTrue(Arrays.equals(bytesOf(ARQ, BULK, BULK, BULK), channel.getWrittenBytes()));
+    }
+
+    /**
+     * The queued requests are written when the time threshold is reached.
+     */
+    public void testTimeThreshold() throws Exception {
+        final TestcaseGatheringByteChannel channel = new TestcaseGatheringByteChannel();
+        final PagePrinterRequestWriter writer =
+                new PagePrinterRequestWriter(channel, FlushPolicy.thresholds(64 * 1024, 1));
+
+        writer.write(BULK);
+        Thread.sleep(5);
+
+        assertTrue(writer.flushIfDue());
+        assertFalse(writer.flushIfDue());
+        assertTrue(Arrays.equals(bytesOf(BULK), channel.getWrittenBytes()));
+    }
+
+    /**
+     * The channel writes only a few bytes per write call.
+     */
+    public void testPartialWrites() throws Exception {
+        final TestcaseGatheringByteChannel channel = new TestcaseGatheringByteChannel(5);
+        final PagePrinterRequestWriter writer =
+                new PagePrinterRequestWriter(channel, FlushPolicy.thresholds(64 * 1024, 0));
+
+        writer.write(BULK);
+        writer.write(CONTROL);
+        writer.write(ACK);
+        writer.flush();
+
+        assertEquals(1, writer.getFlushCount());
+        assertEquals(10, writer.getWriteCalls());
+        assertTrue(Arrays.equals(bytesOf(BULK, CONTROL, ACK), channel.getWrittenBytes()));
+    }
+
+    /**
+     * A pooled request is retained while it is queued.
+     */
+    public void testPooledRequest() throws Exception {
+        final PagePrinterRequestBufferPool pool = new PagePrinterRequestBufferPool();
+        final TestcaseGatheringByteChannel channel = new TestcaseGatheringByteChannel();
+        final PagePrinterRequestWriter writer =
+                new PagePrinterRequestWriter(channel, FlushPolicy.thresholds(64 * 1024, 0));
+
+        final PagePrinterRequest req = pool.acquire(0x0E, BULK.getDataLength());
+        System.arraycopy(BULK.getData(), 0, req.getData(), 0, BULK.getDataLength());
+
+        writer.write(req);
+        assertFalse(req.release());
+
+        writer.flush();
+        assertTrue(Arrays.equals(bytesOf(BULK), channel.getWrittenBytes()));
+
+        pool.acquire(0x0E, 1).release();
+        assertEquals(1, pool.getReusedBuffers());
+    }
+}
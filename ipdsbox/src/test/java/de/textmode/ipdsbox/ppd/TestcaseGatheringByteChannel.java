@@ -0,0 +1,80 @@
+package de.textmode.ipdsbox.ppd;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * The {@link TestcaseGatheringByteChannel} collects all written bytes and counts the
+ * write calls for later analysis by the JUnit test. Every write call writes at most
+ * <code>maxBytesPerWrite</code> bytes to simulate partial writes.
+ */
+public final class TestcaseGatheringByteChannel implements GatheringByteChannel {
+
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+    private final int maxBytesPerWrite;
+    private int writeCalls;
+    private boolean open = true;
+
+    /**
+     * Constructs a {@link TestcaseGatheringByteChannel} that writes all bytes with every write call.
+     */
+    public TestcaseGatheringByteChannel() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a {@link TestcaseGatheringByteChannel} that writes at most the given number of bytes per write call.
+     */
+    public TestcaseGatheringByteChannel(final int maxBytesPerWrite) {
+        this.maxBytesPerWrite = maxBytesPerWrite;
+    }
+
+    /**
+     * Returns all bytes written so far.
+     */
+    public byte[] getWrittenBytes() {
+        return this.written.toByteArray();
+    }
+
+    /**
+     * Returns the number of write calls.
+     */
+    public int getWriteCalls() {
+        return this.writeCalls;
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs, final int offset, final int length) {
+        ++this.writeCalls;
+
+        long count = 0;
+        for (int ix = offset; ix < offset + length && count < this.maxBytesPerWrite; ++ix) {
+            while (srcs[ix].hasRemaining() && count < this.maxBytesPerWrite) {
+                this.written.write(srcs[ix].get());
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs) {
+        return this.write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public int write(final ByteBuffer src) {
+        return (int) this.write(new ByteBuffer[] {src}, 0, 1);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    @Override
+    public void close() {
+        this.open = false;
+    }
+}
@@ -7,15 +7,14 @@ import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.HexFormat;
 import java.util.LinkedList;
-import java.util.List;
 
 import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
 import de.textmode.ipdsbox.core.StringUtils;
 import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
 import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeReply;
+import de.textmode.ipdsbox.ipds.acknowledge.AcknowledgeReplyAssembler;
 import de.textmode.ipdsbox.ipds.acknowledge.ObtainPrinterCharacteristicsAcknowledgeData;
 import de.textmode.ipdsbox.ipds.acknowledge.SenseDataAcknowledgeData;
 import de.textmode.ipdsbox.ipds.acknowledge.SenseTypeAndModelAcknowledgeData;
@@ -33,6 +32,7 @@ import de.textmode.ipdsbox.ipds.commands.SenseTypeAndModelCommand;
 import de.textmode.ipdsbox.ipds.commands.SetHomeStateCommand;
 import de.textmode.ipdsbox.ipds.commands.WriteTextCommand;
 import de.textmode.ipdsbox.ipds.xohorders.ObtainPrinterCharacteristicsOrder;
+import de.textmode.ipdsbox.ppd.IpdsCommandPackingWriter;
 import de.textmode.ipdsbox.ppd.PagePrinterRequest;
 import de.textmode.ipdsbox.ppd.PagePrinterRequestReader;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -400,23 +400,25 @@ public final class IpdsClient {
         //   BP
         //   WT
         //   EP + ARQ
-        PagePrinterRequest requestOut = new PagePrinterRequest(new SetHomeStateCommand());
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        //
+        // The commands are packed into as few requests as possible. A request is sent as soon as
+        // a command with ARQ has been packed (so the printer can respond)...
+        final IpdsCommandPackingWriter packer = new IpdsCommandPackingWriter(
+                streamToPrinter, IpdsCommandPackingWriter.DEFAULT_MAX_REQUEST_LENGTH, isDebugMode);
+
+        packer.write(new SetHomeStateCommand());
         System.out.println("Send SHS command");
 
         // Logical Page Descriptor (LPD)
-        requestOut = new PagePrinterRequest(new LogicalPageDescriptorCommand());
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(new LogicalPageDescriptorCommand());
         System.out.println("Send LPD command");
 
         // Logical Page Position (LPP)
-        requestOut = new PagePrinterRequest(new LogicalPagePositionCommand());
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(new LogicalPagePositionCommand());
         System.out.println("Send LPP command");
 
         // Load Copy Control (LCC)
-        requestOut = new PagePrinterRequest(new LoadCopyControlCommand());
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(new LoadCopyControlCommand());
         System.out.println("Send LCC command");
 
         // Load Font Equivalence (LFE)
@@ -428,8 +430,7 @@ public final class IpdsClient {
         // Some IPDS printers require at least one LFE entry. These printers generate exception ID X'0202..02' if
         // an empty LFE command is received.
         // Logical Page Position (LPP)
-        requestOut = new PagePrinterRequest(new LoadFontEquivalenceCommand());
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(new LoadFontEquivalenceCommand());
         System.out.println("Send LFE command");
 
 
@@ -439,8 +440,7 @@ public final class IpdsClient {
         final NoOperationCommand nop = new NoOperationCommand();
         nop.getCommandFlags().isAcknowledgmentRequired(true);
         nop.getCommandFlags().isLongAcknowledgeReplyAccepted(true);
-        requestOut = new PagePrinterRequest(nop);
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(nop);
         System.out.println("Send NOP+ARQ");
 
         System.out.println("Wait for Acknowledge Reply");
@@ -458,8 +458,7 @@ public final class IpdsClient {
         }
 
         // Begin Page (BP)
-        requestOut = new PagePrinterRequest(new BeginPageCommand());
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(new BeginPageCommand());
         System.out.println("Send BP command");
 
         // Write Text (WT) Send
@@ -471,8 +470,7 @@ public final class IpdsClient {
         final String trn = "2BD3" + (lenInHex.length() == 1 ? "0" : "") + lenInHex + "DA" + txtInHex;
         final String ptoca = ami + amb + trn;
 
-        requestOut = new PagePrinterRequest(new WriteTextCommand(HexFormat.of().parseHex(ptoca)));
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(new WriteTextCommand(HexFormat.of().parseHex(ptoca)));
         System.out.println("Send WT command");
         if (isDebugMode) {
             System.out.println("PTOCA: AMI=" + ami + " AMB=" + amb + " TRN=" + trn);
@@ -481,8 +479,7 @@ public final class IpdsClient {
         // End Page (EP) with ARQ
         final EndPageCommand endPageCommand = new EndPageCommand();
         endPageCommand.getCommandFlags().isAcknowledgmentRequired(true);
-        requestOut = new PagePrinterRequest(endPageCommand);
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(endPageCommand);
         System.out.println("Send EP command");
 
         System.out.println("Wait for Acknowledge Reply");
@@ -500,8 +497,8 @@ public final class IpdsClient {
             return;
         }
 
-        requestOut = new PagePrinterRequest(new SetHomeStateCommand());
-        requestOut.writeTo(streamToPrinter, isDebugMode);
+        packer.write(new SetHomeStateCommand());
+        packer.flush();
         System.out.println("Send SHS command");
     }
 
@@ -589,7 +586,7 @@ public final class IpdsClient {
 
         try {
             PagePrinterRequest req;
-            final List<PagePrinterRequest> requests = new ArrayList<PagePrinterRequest>();
+            final AcknowledgeReplyAssembler assembler = new AcknowledgeReplyAssembler();
 
             // We could implement a "low level" PagePrinterRequestReader (like the current implementation)
             // and a "high level" PagePrinterRequestReader, that automatically handles the PPD/PPR low-level
@@ -609,16 +606,16 @@ public final class IpdsClient {
                     final IpdsCommandFlags flags = new IpdsCommandFlags((byte) is.readUnsignedByte());
 
                     if (!flags.isAcknowledgmentContinuationRequested()) {
-                        if (requests.size() == 0) {
+                        if (assembler.getFragmentCount() == 0) {
                             this.addToFiFo(req);
                         } else {
-                            requests.add(req);
-                            this.addToFiFo(new PagePrinterRequest(IpdsCommandFactory.create(requests)));
+                            assembler.add(req);
+                            this.addToFiFo(new PagePrinterRequest(assembler.getAcknowledgeReply()));
                         }
-                        requests.clear();
+                        assembler.reset();
                     } else {
-                        // buffer the printer request...
-                        requests.add(req);
+                        // add the fragment (the self-defining fields of an OPC reply are decoded right now)...
+                        assembler.add(req);
 
                         final NoOperationCommand nop = new NoOperationCommand();
                         nop.getCommandFlags().isAcknowledgmentRequired(true);
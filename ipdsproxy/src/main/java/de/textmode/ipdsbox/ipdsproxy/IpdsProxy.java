@@ -9,12 +9,20 @@ import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
 
-import de.textmode.ipdsbox.core.InvalidIpdsCommandException;
+import de.textmode.ipdsbox.core.ExecutionMode;
+import de.textmode.ipdsbox.core.IpdsConfigurationException;
 import de.textmode.ipdsbox.core.StringUtils;
 import de.textmode.ipdsbox.io.IpdsByteArrayInputStream;
+import de.textmode.ipdsbox.ipds.commands.IpdsCommand;
 import de.textmode.ipdsbox.ipds.commands.IpdsCommandFactory;
+import de.textmode.ipdsbox.ppd.BufferedPagePrinterRequestReader;
 import de.textmode.ipdsbox.ppd.PagePrinterRequest;
+import de.textmode.ipdsbox.ppd.PagePrinterRequestBufferPool;
 import de.textmode.ipdsbox.ppd.PagePrinterRequestReader;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -52,8 +60,19 @@ public final class IpdsProxy {
     private static final String OPTION_PRINTER_LONG = "to";
     private static final String OPTION_PRINTER_TEXT = "printer to forward to (portnumer may be specified if not 5001)";
 
+    private static final String OPTION_VIRTUAL_THREADS_SHORT = "v";
+    private static final String OPTION_VIRTUAL_THREADS_LONG = "virtual-threads";
+    private static final String OPTION_VIRTUAL_THREADS_TEXT =
+        "handle connections concurrently, every connection and direction on a virtual thread (requires Java 21)";
+
     private static final int DEFAULT_PORT_NUMBER = 5001;
 
+    private static final PagePrinterRequestBufferPool BUFFER_POOL = new PagePrinterRequestBufferPool();
+
+    // Guards the output, so the outputs from spooler and printer are not mixed. A ReentrantLock does not
+    // pin a virtual thread to its carrier thread (like synchronized does).
+    private static final ReentrantLock PRINT_LOCK = new ReentrantLock();
+
     private enum Direction {
         FROM_SPOOLER_TO_PRINTER,
         FROM_PRINTER_TO_SPOOLER
@@ -98,9 +117,15 @@ public final class IpdsProxy {
                                 .argName("printer:port")
                                 .build());
 
+        options.addOption(Option.builder(OPTION_VIRTUAL_THREADS_SHORT)
+                                .longOpt(OPTION_VIRTUAL_THREADS_LONG)
+                                .desc(OPTION_VIRTUAL_THREADS_TEXT)
+                                .build());
+
         final int localPortNumber;
         final int remotePortNumber;
         final String remotePrinterHost;
+        final boolean useVirtualThreads;
         try {
             final CommandLineParser parser = new DefaultParser();
             final CommandLine line = parser.parse(options, args);
@@ -117,6 +142,7 @@ public final class IpdsProxy {
 
             remotePrinterHost = parsePrinterHost(line.getOptionValue(OPTION_PRINTER_LONG));
             remotePortNumber = parsePrinterPort(line.getOptionValue(OPTION_PRINTER_LONG));
+            useVirtualThreads = line.hasOption(OPTION_VIRTUAL_THREADS_LONG);
 
         } catch (final ParseException exp) {
             System.err.println("IpdsProxy: " + exp.getMessage());
@@ -135,8 +161,21 @@ public final class IpdsProxy {
         System.out.println();
         System.out.println();
 
+        final ExecutorService executor;
+        try {
+            executor = useVirtualThreads ? ExecutionMode.VIRTUAL_THREADS.createExecutorService(IPDSPROXY) : null;
+        } catch (final IpdsConfigurationException e) {
+            System.err.println("IpdsProxy: " + e.getMessage());
+            return 1;
+        }
+
         try (final ServerSocket passiveSocket = new ServerSocket(localPortNumber)) {
-            this.accecptAndHandleConnections(passiveSocket, remotePrinterHost, remotePortNumber);
+            if (executor == null) {
+                this.accecptAndHandleConnections(passiveSocket, remotePrinterHost, remotePortNumber);
+            } else {
+                this.accecptAndHandleConnectionsConcurrently(
+                        passiveSocket, remotePrinterHost, remotePortNumber, executor);
+            }
             return 0;
         } catch (final IOException e) {
             System.err.println(e.getMessage());
@@ -165,7 +204,7 @@ public final class IpdsProxy {
                 System.out.println("Conecting printer..."); //$NON-NLS-1$
                 try (final Socket toPrinterSocket = new Socket(remotePrinterHost, remotePortNumber)) {
                     System.out.println("Conection to printer established."); //$NON-NLS-1$
-                    handleConnection(toServerSocket, toPrinterSocket);
+                    handleConnection(toServerSocket, toPrinterSocket, null);
                 }
             } catch (final IOException e) {
                 System.err.println(e.getMessage());
@@ -173,6 +212,39 @@ public final class IpdsProxy {
         }
     }
 
+    /**
+     * Waits for incoming connections from print servers and handles every connection by a task
+     * of the given {@link ExecutorService}, so many connections are handled at the same time.
+     * This method does this in an infinitive loop.
+     *
+     * @param passiveSocket the socket used to accept connections from
+     * @param remotePrinterHost host name or IP address of the IPDS printer
+     * @param remotePortNumber port number of the IPDS printer
+     * @param executor the {@link ExecutorService} that handles the connections
+     */
+    private void accecptAndHandleConnectionsConcurrently(
+            final ServerSocket passiveSocket,
+            final String remotePrinterHost,
+            final int remotePortNumber,
+            final ExecutorService executor) throws IOException {
+
+        while (true) {
+            System.out.println("Waiting for connection from print server..."); //$NON-NLS-1$
+            final Socket toServerSocket = passiveSocket.accept();
+            System.out.println("Conection from print server accepted."); //$NON-NLS-1$
+
+            executor.execute(() -> {
+                try (toServerSocket;
+                     final Socket toPrinterSocket = new Socket(remotePrinterHost, remotePortNumber)) {
+                    System.out.println("Conection to printer established."); //$NON-NLS-1$
+                    handleConnection(toServerSocket, toPrinterSocket, executor);
+                } catch (final IOException e) {
+                    System.err.println(e.getMessage());
+                }
+            });
+        }
+    }
+
     /**
      * Determines the host name or IP address of the specified printer.
      *
@@ -246,8 +318,13 @@ public final class IpdsProxy {
      *
      * @param printServer the socket of the connection to the print server
      * @param printer the socket of the connection to the printer
+     * @param executor the {@link ExecutorService} that reads the data from the printer or <code>null</code>
+     *  if a new thread shall be started for this
      */
-    private static void handleConnection(final Socket printServer, final Socket printer) throws IOException {
+    private static void handleConnection(
+            final Socket printServer,
+            final Socket printer,
+            final ExecutorService executor) throws IOException {
 
         System.out.println("Handling connection from " + printServer.getInetAddress());
 
@@ -258,14 +335,18 @@ public final class IpdsProxy {
         final OutputStream streamToPrinter = printer.getOutputStream();
 
         // This thread will read data from the printer and pass it to the print server...
-        final Thread t = new Thread() {
+        final Runnable fromPrinter = new Runnable() {
             @Override
             public void run() {
                 readAndWriteData(streamFromPrinter, streamToPrintServer, System.out, Direction.FROM_PRINTER_TO_SPOOLER);
             }
         };
 
-        t.start();
+        if (executor == null) {
+            new Thread(fromPrinter).start();
+        } else {
+            executor.execute(fromPrinter);
+        }
 
         // Read data from the print server and pass it to the printer...
         readAndWriteData(streamFromPrintServer, streamToPrinter, System.out, Direction.FROM_SPOOLER_TO_PRINTER);
@@ -286,65 +367,23 @@ public final class IpdsProxy {
             final Direction direction) {
 
         try {
+            final BufferedPagePrinterRequestReader reader = new BufferedPagePrinterRequestReader(
+                    in, BufferedPagePrinterRequestReader.DEFAULT_BUFFER_SIZE, BUFFER_POOL);
             PagePrinterRequest req;
 
-            while ((req = PagePrinterRequestReader.read(in)) != null) {
-
-                // synchronized to we don't mix outputs from spooler and printer...
-                synchronized (printStream) {
-
-                    printStream.println("\n\n");
-                    if (direction == Direction.FROM_PRINTER_TO_SPOOLER) {
-                        printStream.println("=== Received from Printer =========================\n");
-                    } else {
-                        printStream.println("=== Received from Spooler =========================\n");
-                    }
-
-                    // TODO: Build IpdsCommand from byte[]
-                    //  --> ATTENTION! A PagePrinterRequest may contain multiple IPDS-Commands!
-                    //  --> see: "0000009D0000000E000000010000008D0007D6974000080009D633400009F2000009D68F40000A05000009D68F40000B07000013D62E40000C000C000000000000000000200017D63F40000D017EFF00000000000000000000000000000AD68F40000EF50001000AD68F40000F1600000010D68F4000101700003840FFFFFFFF000BD68F40001103000125000BD68F400012030001800007D603C00013"
-                    //
-                    //   Overall length: 0000009D
-                    //   IPDS-Commands in request: 0000000E
-                    //   Flag?!?: 00000001
-                    //   Length of all following data (IPDS commands): 0000008D
-                    //
-                    //   Length of first IPDS Command: 0007
-                    //   IPDS command code: D697
-                    //   IPDS command flags and data: 400008
-                    //
-                    //   Length of second IPDS command: 0009
-                    //   IPDS command code: D633
-                    //   IPDS command flags and data: 400009F200
-                    //
-                    //   and so on....
-                    //
-                    // TODO: Print the IpdsCommandFlags
-                    // TODO: Print the decoded IpdsCommand
-                    // TODO: Handle "unknown" IPDS Commands
-                    // TODO: Synchronized output because two threads are reading and writing at the same time...
-
-                    printStream.println(
-                            LocalDateTime.now()
-                                    + " "
-                                    + "Request: 0x"
-                                    + Integer.toHexString(req.getRequest())
-                                    + " : "
-                                    + StringUtils.toHexString(req.getData()));
-
-                    if (req.getRequest() == 0x0E) {
-                        try {
-                            decodeAndPrintCommands(new IpdsByteArrayInputStream(req.getData()), printStream);
-                        } catch (final IOException ex) {
-                            printStream.println("\n\n");
-                            printStream.println("Error parsing IPDS commands: " + ex.getMessage());
-                            ex.printStackTrace(printStream);
-                        }
-
-                        printStream.println("\n\n");
+            while ((req = reader.read()) != null) {
+                try {
+                    PRINT_LOCK.lock();
+                    try {
+                        printRequest(req, printStream, direction);
+                    } finally {
+                        PRINT_LOCK.unlock();
                     }
 
+                    // Written without holding the lock, so a slow counterpart does not block the other direction...
                     req.writeTo(out);
+                } finally {
+                    req.release();
                 }
             }
         } catch (final IOException e) {
@@ -352,6 +391,68 @@ public final class IpdsProxy {
         }
     }
 
+    /**
+     * Prints the given {@link PagePrinterRequest}.
+     */
+    private static void printRequest(
+            final PagePrinterRequest req,
+            final PrintStream printStream,
+            final Direction direction) {
+
+        printStream.println("\n\n");
+        if (direction == Direction.FROM_PRINTER_TO_SPOOLER) {
+            printStream.println("=== Received from Printer =========================\n");
+        } else {
+            printStream.println("=== Received from Spooler =========================\n");
+        }
+
+        // TODO: Build IpdsCommand from byte[]
+        //  --> ATTENTION! A PagePrinterRequest may contain multiple IPDS-Commands!
+        //  --> see: "0000009D0000000E000000010000008D0007D6974000080009D633400009F2000009D68F40000A05000009D68F40000B07000013D62E40000C000C000000000000000000200017D63F40000D017EFF00000000000000000000000000000AD68F40000EF50001000AD68F40000F1600000010D68F4000101700003840FFFFFFFF000BD68F40001103000125000BD68F400012030001800007D603C00013"
+        //
+        //   Overall length: 0000009D
+        //   IPDS-Commands in request: 0000000E
+        //   Flag?!?: 00000001
+        //   Length of all following data (IPDS commands): 0000008D
+        //
+        //   Length of first IPDS Command: 0007
+        //   IPDS command code: D697
+        //   IPDS command flags and data: 400008
+        //
+        //   Length of second IPDS command: 0009
+        //   IPDS command code: D633
+        //   IPDS command flags and data: 400009F200
+        //
+        //   and so on....
+        //
+        // TODO: Print the IpdsCommandFlags
+        // TODO: Print the decoded IpdsCommand
+        // TODO: Handle "unknown" IPDS Commands
+        // TODO: Synchronized output because two threads are reading and writing at the same time...
+
+        printStream.println(
+                LocalDateTime.now()
+                        + " "
+                        + "Request: 0x"
+                        + Integer.toHexString(req.getRequest())
+                        + " : "
+                        + StringUtils.toHexString(req.getData(), 0, req.getDataLength()));
+
+        if (req.getRequest() == 0x0E) {
+            try {
+                final byte[] data = req.getData();
+                decodeAndPrintCommands(
+                        new IpdsByteArrayInputStream(data, 0, data.length - req.getDataLength()), printStream);
+            } catch (final IOException ex) {
+                printStream.println("\n\n");
+                printStream.println("Error parsing IPDS commands: " + ex.getMessage());
+                ex.printStackTrace(printStream);
+            }
+
+            printStream.println("\n\n");
+        }
+    }
+
     /**
      * Decodes and prints all IPDS commands that are readable from the given {@link IpdsByteArrayInputStream}.
      */
@@ -363,38 +464,12 @@ public final class IpdsProxy {
             return;
         }
 
-        // The four "Flag-Bytes" (or whatever they are) should be present..
-        if (is.bytesAvailable() <= 8) {
-            throw new IOException("First 8 bytes are missing only " + is.bytesAvailable() + " bytes available");
-        }
-
-        // We don't know what that first 4 bytes are meaing.... skip them...
-        is.skip(4);
-
-
-        // The next 4 bytes contain the complete length of all following IPDS commands, *excluding* the
-        // length of the length field itself.
-        final long completeLength = is.readUnsignedInteger32();
-
-        if (is.bytesAvailable() != completeLength) {
-            throw new IOException(
-                    "Expecting " + completeLength + " bytes but " + is.bytesAvailable() + " bytes available");
-        }
-
-        while (is.bytesAvailable() > 0) {
-            final int offset = is.tell();
-            final byte[] ipdsCommandData = is.readIpdsCommandIfExists();
+        final List<IpdsCommand> commands = new ArrayList<>();
+        IpdsCommandFactory.createAll(is, commands, (offset, e) -> printStream.println(
+                "Error: Could not parse IPDS command at offset " + offset + ": " + e.getMessage()));
 
-            // This should really not happen...
-            if (ipdsCommandData == null) {
-                throw new IOException("Could not read next IPDS command from stream");
-            }
-
-            try {
-                printStream.println(IpdsCommandFactory.create(ipdsCommandData));
-            } catch (final InvalidIpdsCommandException e) {
-                printStream.println("Error: Could not parse IPDS command at offset " + offset + ": " + e.getMessage());
-            }
+        for (final IpdsCommand command : commands) {
+            printStream.println(command);
         }
     }
 }